@@ -0,0 +1,6 @@
+-- Saga 执行列表游标分页索引
+-- Version: V7
+-- Description: 为 saga_execution 增加 (tenant_id, started_at, id) 联合索引，支持按开始时间倒序的游标分页
+
+ALTER TABLE saga_execution
+    ADD INDEX idx_tenant_started_id (tenant_id, started_at, id);
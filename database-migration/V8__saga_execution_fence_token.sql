@@ -0,0 +1,7 @@
+-- Saga 执行实例 fencing token
+-- Version: V8
+-- Description: 为 saga_execution 增加 fence_token 列，持有所有权租约的节点更新时写入并校验，
+--              租约被接管后原持有者携带较小的 token，更新不生效
+
+ALTER TABLE saga_execution
+    ADD COLUMN fence_token BIGINT NOT NULL DEFAULT 0 COMMENT '最近一次更新的租约 fencing token';
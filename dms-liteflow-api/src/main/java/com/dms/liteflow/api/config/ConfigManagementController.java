@@ -1,6 +1,8 @@
 package com.dms.liteflow.api.config;
 
 import com.dms.liteflow.infrastructure.liteflow.FlowConfigService;
+import com.dms.liteflow.infrastructure.liteflow.reload.ChainReloadResult;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainStats;
 import com.dms.liteflow.infrastructure.liteflow.service.MultiTenantFlowRuleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,12 +46,13 @@ public class ConfigManagementController {
             // 清除缓存
             flowConfigService.clearAllCache();
 
-            // 重新加载规则到 FlowExecutor
-            multiTenantFlowRuleService.refreshAllRules();
+            // 重新加载常驻租户的规则到 FlowExecutor（只重新编译变化的流程链）
+            List<ChainReloadResult> reload = multiTenantFlowRuleService.refreshAllRules();
 
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
             result.put("message", "All configs refreshed successfully");
+            result.put("reload", reload);
             result.put("timestamp", System.currentTimeMillis());
 
             log.info("Manual config refresh completed successfully");
@@ -97,12 +101,13 @@ public class ConfigManagementController {
             flowConfigService.refreshConfig(tenantId);
 
             // 重新加载规则
-            multiTenantFlowRuleService.refreshTenant(tenantId);
+            ChainReloadResult reload = multiTenantFlowRuleService.refreshTenant(tenantId);
 
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
             result.put("message", "Config refreshed for tenant: " + tenantId);
             result.put("tenantId", tenantId);
+            result.put("reload", reload);
             result.put("timestamp", System.currentTimeMillis());
 
             log.info("Manual config refresh completed for tenant: {}", tenantId);
@@ -155,4 +160,23 @@ public class ConfigManagementController {
 
         return ResponseEntity.ok(status);
     }
+
+    /**
+     * 查询各租户流程链命名空间的缓存统计
+     *
+     * @return 本节点的命名空间统计
+     */
+    @GetMapping("/namespaces")
+    @Operation(summary = "查询流程链命名空间", description = "查询本节点各租户流程链的常驻状态、命中、加载、淘汰次数和编译缓存大小")
+    public ResponseEntity<Map<String, Object>> getNamespaceStats() {
+        List<TenantChainStats> tenants = multiTenantFlowRuleService.getNamespaceStats();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("residentTenants", tenants.stream().filter(TenantChainStats::isResident).count());
+        result.put("compiledChains", multiTenantFlowRuleService.getCompiledChainCount());
+        result.put("tenants", tenants);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
 }
@@ -1,13 +1,27 @@
 package com.dms.liteflow.api.execution;
 
 import com.dms.liteflow.application.execution.ExecutionService;
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.execution.queue.ExecutionQueue;
+import com.dms.liteflow.application.execution.queue.ExecutionQueueStats;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
+import com.dms.liteflow.application.execution.scheduler.ExecutionSchedulerStats;
+import com.dms.liteflow.application.execution.store.ExecutionStoreStats;
+import com.dms.liteflow.domain.dto.BatchExecutionRequestDTO;
 import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
 import com.dms.liteflow.domain.vo.ExecutionResponseVO;
 import com.dms.liteflow.domain.vo.ExecutionStatusVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
 
 /**
  * 流程执行 API 控制器
@@ -19,6 +33,10 @@ import org.springframework.web.bind.annotation.*;
 public class ExecutionController {
 
     private final ExecutionService executionService;
+    private final ExecutionScheduler executionScheduler;
+    private final ObjectProvider<ExecutionQueue> executionQueueProvider;
+    private final ExecutionProperties executionProperties;
+    private final ObjectMapper objectMapper;
 
     /**
      * 同步执行流程
@@ -32,14 +50,48 @@ public class ExecutionController {
 
     /**
      * 异步执行流程
+     * <p>
+     * 不等待执行完成，立即返回执行ID；调度器已满时返回 429
+     * </p>
      */
     @PostMapping("/async")
     public ResponseEntity<ExecutionResponseVO> executeAsync(@RequestBody ExecutionRequestDTO request) {
         log.info("Async execution request: chainName={}, tenantId={}", request.getChainName(), request.getTenantId());
-        ExecutionResponseVO response = executionService.executeAsync(request).join();
+        ExecutionResponseVO response = executionService.executeAsync(request);
+        if ("REJECTED".equals(response.getStatus())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
         return ResponseEntity.accepted().body(response);
     }
 
+    /**
+     * 批量执行流程
+     * <p>
+     * 以 NDJSON 流式返回，每条执行完成后立即输出一行结果（顺序与请求顺序无关，按 executionId 关联）
+     * </p>
+     */
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public ResponseBodyEmitter executeBatch(@RequestBody BatchExecutionRequestDTO request) {
+        int size = request.getRequests() != null ? request.getRequests().size() : 0;
+        log.info("Batch execution request: size={}", size);
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(executionProperties.getBatch().getResponseTimeoutMs());
+        executionService.executeBatch(request.getRequests(), result -> {
+            try {
+                emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.TEXT_PLAIN);
+            } catch (IOException e) {
+                log.warn("Failed to stream batch result: executionId={}", result.getExecutionId(), e);
+            }
+        }).whenComplete((results, e) -> {
+            if (e != null) {
+                emitter.completeWithError(e);
+            } else {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
     /**
      * 查询执行状态
      */
@@ -59,4 +111,32 @@ public class ExecutionController {
         ExecutionResponseVO result = executionService.getExecutionResult(executionId);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * 查询执行状态存储统计（命中/未命中/淘汰等）
+     */
+    @GetMapping("/store/stats")
+    public ResponseEntity<ExecutionStoreStats> getStoreStats() {
+        return ResponseEntity.ok(executionService.getStoreStats());
+    }
+
+    /**
+     * 查询执行调度器统计（模式/活跃/排队/拒绝）
+     */
+    @GetMapping("/scheduler/stats")
+    public ResponseEntity<ExecutionSchedulerStats> getSchedulerStats() {
+        return ResponseEntity.ok(executionScheduler.getStats());
+    }
+
+    /**
+     * 查询执行队列统计（积压/待确认），未启用执行队列时返回 404
+     */
+    @GetMapping("/queue/stats")
+    public ResponseEntity<ExecutionQueueStats> getQueueStats() {
+        ExecutionQueue executionQueue = executionQueueProvider.getIfAvailable();
+        if (executionQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(executionQueue.getStats());
+    }
 }
@@ -2,6 +2,7 @@ package com.dms.liteflow.api.monitoring;
 
 import com.dms.liteflow.application.monitoring.MonitoringCollectorService;
 import com.dms.liteflow.application.monitoring.MonitoringQueryService;
+import com.dms.liteflow.application.monitoring.writer.ExecutionRecordWriterStats;
 import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -84,6 +85,10 @@ public class MonitoringController {
     /**
      * 获取执行统计信息
      * GET /api/monitoring/chains/{chainId}/stats
+     * <p>
+     * 内存延迟直方图只在 monitoring.aggregation.single-node=true 时使用；多节点部署（默认）时
+     * 优先读取小时/日汇总表，汇总未覆盖的范围扫描执行记录。
+     * </p>
      */
     @GetMapping("/chains/{chainId}/stats")
     public ResponseEntity<MonitoringQueryService.ExecutionStats> getExecutionStats(
@@ -101,6 +106,54 @@ public class MonitoringController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * 获取组件执行统计信息
+     * GET /api/monitoring/chains/{chainId}/components/{componentId}/stats
+     * <p>
+     * 内存延迟直方图只在 monitoring.aggregation.single-node=true 时使用；多节点部署（默认）时
+     * 优先读取小时/日汇总表，汇总未覆盖的范围扫描执行记录。
+     * </p>
+     */
+    @GetMapping("/chains/{chainId}/components/{componentId}/stats")
+    public ResponseEntity<MonitoringQueryService.ExecutionStats> getComponentExecutionStats(
+            @PathVariable Long chainId,
+            @PathVariable String componentId,
+            @RequestParam Long tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+    ) {
+        log.info("GET /api/monitoring/chains/{}/components/{}/stats - tenantId: {}", chainId, componentId, tenantId);
+
+        MonitoringQueryService.ExecutionStats stats = monitoringQueryService.getComponentExecutionStats(
+                tenantId, chainId, componentId, startTime, endTime
+        );
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 获取租户执行统计信息
+     * GET /api/monitoring/tenant/stats
+     * <p>
+     * 内存延迟直方图只在 monitoring.aggregation.single-node=true 时使用；多节点部署（默认）时
+     * 优先读取小时/日汇总表，汇总未覆盖的范围扫描执行记录。
+     * </p>
+     */
+    @GetMapping("/tenant/stats")
+    public ResponseEntity<MonitoringQueryService.ExecutionStats> getTenantExecutionStats(
+            @RequestParam Long tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime
+    ) {
+        log.info("GET /api/monitoring/tenant/stats - tenantId: {}", tenantId);
+
+        MonitoringQueryService.ExecutionStats stats = monitoringQueryService.getTenantExecutionStats(
+                tenantId, startTime, endTime
+        );
+
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * 计算成功率
      * GET /api/monitoring/chains/{chainId}/success-rate
@@ -155,4 +208,13 @@ public class MonitoringController {
 
         return ResponseEntity.ok(deletedCount);
     }
+
+    /**
+     * 查询执行记录写入统计
+     * GET /api/monitoring/writer/stats
+     */
+    @GetMapping("/writer/stats")
+    public ResponseEntity<ExecutionRecordWriterStats> getWriterStats() {
+        return ResponseEntity.ok(monitoringCollectorService.getWriterStats());
+    }
 }
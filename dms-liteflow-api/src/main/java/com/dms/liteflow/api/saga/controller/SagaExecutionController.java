@@ -6,6 +6,7 @@ import com.dms.liteflow.application.saga.SagaExecutionService;
 import com.dms.liteflow.application.saga.SagaExecutionStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -49,15 +50,18 @@ public class SagaExecutionController {
      * POST /api/saga/execute/async
      *
      * @param request 执行请求
-     * @return 执行响应（包含 executionId）
+     * @return 执行响应（包含 executionId，不等待执行完成；调度器已满时返回 429）
      */
     @PostMapping("/async")
     public ResponseEntity<SagaExecutionResponse> executeSagaAsync(@Valid @RequestBody SagaExecutionRequest request) {
         log.info("Async saga execution requested: chainName={}, tenantId={}",
                 request.getChainName(), request.getTenantId());
 
-        return ResponseEntity.accepted()
-                .body(sagaExecutionService.executeSagaAsync(request).join());
+        SagaExecutionResponse response = sagaExecutionService.executeSagaAsync(request);
+        if ("REJECTED".equals(response.getStatus())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+        return ResponseEntity.accepted().body(response);
     }
 
     /**
@@ -59,10 +59,11 @@ public class SagaManagementController {
     /**
      * 查询执行列表（分页）
      *
-     * GET /api/saga/executions?page=1&size=20&status=FAILED
+     * GET /api/saga/executions?size=20&status=FAILED&cursor={nextCursor}
      *
-     * @param page 页码（从0开始）
+     * @param page 页码（从0开始，未携带游标时使用；深分页请改用游标）
      * @param size 每页大小
+     * @param cursor 上一页返回的 nextCursor（可选）
      * @param status 状态过滤（可选）
      * @param chainName 链名称过滤（可选）
      * @param startTime 开始时间过滤（可选）
@@ -73,6 +74,7 @@ public class SagaManagementController {
     public ResponseEntity<SagaExecutionListVO> listExecutions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String chainName,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
@@ -82,7 +84,7 @@ public class SagaManagementController {
                 page, size, status, chainName);
 
         SagaExecutionListVO result = sagaManagementService.listExecutions(
-                page, size, status, chainName, startTime, endTime
+                page, size, cursor, status, chainName, startTime, endTime
         );
         return ResponseEntity.ok(result);
     }
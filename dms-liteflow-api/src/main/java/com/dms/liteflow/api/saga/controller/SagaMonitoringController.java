@@ -1,11 +1,14 @@
 package com.dms.liteflow.api.saga.controller;
 
+import com.dms.liteflow.application.saga.compensation.CompensationQueueStats;
+import com.dms.liteflow.application.saga.compensation.CompensationQueueWorker;
 import com.dms.liteflow.application.saga.monitoring.SagaAlertService;
 import com.dms.liteflow.application.saga.monitoring.SagaMonitoringService;
 import com.dms.liteflow.application.saga.monitoring.SagaMonitoringService.SagaMetrics;
 import com.dms.liteflow.application.saga.monitoring.SagaAlertService.Alert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +31,7 @@ public class SagaMonitoringController {
 
     private final SagaMonitoringService monitoringService;
     private final SagaAlertService alertService;
+    private final ObjectProvider<CompensationQueueWorker> compensationQueueWorkerProvider;
 
     /**
      * 获取所有监控指标
@@ -105,6 +109,22 @@ public class SagaMonitoringController {
         return ResponseEntity.ok(byChain);
     }
 
+    /**
+     * 获取补偿队列统计（积压、待确认、等待重试、延迟）
+     *
+     * GET /api/saga/monitoring/compensation-queue
+     *
+     * @return 补偿队列统计，未启用补偿队列时返回 404
+     */
+    @GetMapping("/compensation-queue")
+    public ResponseEntity<CompensationQueueStats> getCompensationQueueStats() {
+        CompensationQueueWorker worker = compensationQueueWorkerProvider.getIfAvailable();
+        if (worker == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(worker.getStats());
+    }
+
     /**
      * 手动检查告警
      *
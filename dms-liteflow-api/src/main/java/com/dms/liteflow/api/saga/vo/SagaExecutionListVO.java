@@ -36,6 +36,16 @@ public class SagaExecutionListVO {
      */
     private Long size;
 
+    /**
+     * 下一页游标（没有下一页时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
     /**
      * 执行列表
      */
@@ -8,16 +8,20 @@ import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ComponentId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ComponentStatus;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.liteflow.reload.ConfigChangeBroadcaster;
 import com.yomahub.liteflow.core.FlowExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 配置发布器
  * <p>
- * 处理配置发布和热更新
+ * 处理配置发布和热更新。事务提交后由 {@link ConfigChangeBroadcaster} 在本节点增量重新编译变化的流程链，
+ * 并广播到其他节点；未变化的流程链和正在执行的流程不受影响
  * </p>
  */
 @Slf4j
@@ -28,6 +32,7 @@ public class ConfigPublisher {
     private final FlowChainRepository flowChainRepository;
     private final RuleComponentRepository ruleComponentRepository;
     private final FlowExecutor flowExecutor;
+    private final ConfigChangeBroadcaster configChangeBroadcaster;
 
     /**
      * 发布组件并触发热更新
@@ -52,7 +57,7 @@ public class ConfigPublisher {
         ruleComponentRepository.save(component);
 
         // 触发热更新（重新加载规则）
-        triggerRuleReload();
+        triggerRuleReload(tenantId, component);
 
         log.info("Component published and rules reloaded: {}", componentId);
     }
@@ -80,7 +85,7 @@ public class ConfigPublisher {
         flowChainRepository.save(chain);
 
         // 触发热更新（重新加载流程链）
-        triggerChainReload();
+        triggerChainReload(tenantId, chain);
 
         log.info("Chain published and chains reloaded: {}", chainId);
     }
@@ -88,29 +93,43 @@ public class ConfigPublisher {
     /**
      * 触发规则重载
      * <p>
-     * LiteFlow 会在检测到配置变化时自动重新加载
+     * 组件变更后比对租户全部已发布流程链，只重新编译内容变化的流程链
      * </p>
      */
-    private void triggerRuleReload() {
-        try {
-            // LiteFlow 会在下一次执行时自动检测配置变化
-            // 这里主要是清空缓存，强制下次从数据库重新加载
-            log.debug("Triggering rule reload");
-        } catch (Exception e) {
-            log.error("Failed to trigger rule reload", e);
-        }
+    private void triggerRuleReload(Long tenantId, RuleComponent component) {
+        afterCommit(() -> configChangeBroadcaster.publishComponentChange(
+                tenantId, component.getComponentId().getValue(), component.getContent()));
+    }
+
+    /**
+     * 触发流程链重载（只重新编译该流程链，并广播到其他节点）
+     */
+    private void triggerChainReload(Long tenantId, FlowChain chain) {
+        afterCommit(() -> configChangeBroadcaster.publishChainChange(
+                tenantId, chain.getChainName(), chain.getChainCode()));
     }
 
     /**
-     * 触发流程链重载
+     * 在事务提交后执行，避免回滚的发布进入 FlowExecutor
      */
-    private void triggerChainReload() {
-        try {
-            // LiteFlow 会在下一次执行时自动检测配置变化
-            log.debug("Triggering chain reload");
-        } catch (Exception e) {
-            log.error("Failed to trigger chain reload", e);
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("Failed to hot reload published config", e);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guarded.run();
+            }
+        });
     }
 
     /**
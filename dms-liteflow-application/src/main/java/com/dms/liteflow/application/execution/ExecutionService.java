@@ -1,29 +1,45 @@
 package com.dms.liteflow.application.execution;
 
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.execution.queue.ExecutionQueue;
+import com.dms.liteflow.application.execution.queue.ExecutionQueueWorker;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
+import com.dms.liteflow.application.execution.store.ExecutionState;
+import com.dms.liteflow.application.execution.store.ExecutionStateStore;
+import com.dms.liteflow.application.execution.store.ExecutionStoreStats;
+import com.dms.liteflow.application.monitoring.writer.ExecutionRecordWriter;
 import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
 import com.dms.liteflow.domain.vo.ExecutionResponseVO;
 import com.dms.liteflow.domain.vo.ExecutionStatusVO;
 import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
-import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
 import com.yomahub.liteflow.slot.DefaultContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * 流程执行服务
@@ -34,14 +50,22 @@ import java.util.concurrent.TimeUnit;
 public class ExecutionService {
 
     private final FlowExecutor flowExecutor;
-    private final ExecutionRecordRepository executionRecordRepository;
+    private final ExecutionRecordWriter executionRecordWriter;
     private final ObjectMapper objectMapper;
 
-    // 执行状态缓存
-    private final Map<String, ExecutionState> executionStateCache = new ConcurrentHashMap<>();
+    // 执行状态/结果存储（有界、TTL 过期）
+    private final ExecutionStateStore executionStateStore;
 
-    // 执行结果缓存
-    private final Map<String, ExecutionResponseVO> executionResultCache = new ConcurrentHashMap<>();
+    // 异步执行调度器
+    private final ExecutionScheduler executionScheduler;
+
+    // 执行队列（execution.queue.enabled=true 时存在）
+    private final ObjectProvider<ExecutionQueue> executionQueueProvider;
+
+    private final ExecutionProperties executionProperties;
+
+    // 租户流程链命名空间（首次执行时加载）
+    private final TenantChainRegistry tenantChainRegistry;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -58,33 +82,22 @@ public class ExecutionService {
 
             // 初始化执行状态
             ExecutionState state = new ExecutionState(executionId, "RUNNING", startTime);
-            executionStateCache.put(executionId, state);
+            executionStateStore.saveState(state);
 
             // 创建 LiteFlow 上下文
-            DefaultContext context = new DefaultContext();
-            if (request.getInputData() != null) {
-                try {
-                    Map<String, Object> inputData = objectMapper.readValue(request.getInputData(), Map.class);
-                    for (Map.Entry<String, Object> entry : inputData.entrySet()) {
-                        context.setData(entry.getKey(), entry.getValue());
-                    }
-                } catch (JsonProcessingException e) {
-                    log.warn("Failed to parse inputData as JSON, treating as plain text", e);
-                    context.setData("inputData", request.getInputData());
-                }
-            }
-
-            // 设置执行ID到上下文
-            context.setData("executionId", executionId);
+            DefaultContext context = createContext(executionId, request.getInputData());
 
             // 执行流程
             Integer timeoutMs = request.getTimeoutMs() != null ? request.getTimeoutMs() : 30000;
             long start = System.currentTimeMillis();
 
-            if (timeoutMs > 0) {
-                flowExecutor.execute2Resp(request.getChainName(), timeoutMs, TimeUnit.MILLISECONDS, context);
-            } else {
-                flowExecutor.execute2Resp(request.getChainName(), context);
+            try (TenantChainRegistry.ChainLease chain =
+                         tenantChainRegistry.acquire(request.getTenantId(), request.getChainName())) {
+                if (timeoutMs > 0) {
+                    flowExecutor.execute2Resp(chain.getChainId(), timeoutMs, TimeUnit.MILLISECONDS, context);
+                } else {
+                    flowExecutor.execute2Resp(chain.getChainId(), context);
+                }
             }
 
             long executeTime = System.currentTimeMillis() - start;
@@ -102,6 +115,7 @@ public class ExecutionService {
             state.setStatus("COMPLETED");
             state.setProgress(100);
             state.setEndTime(endTime);
+            executionStateStore.saveState(state);
 
             // 构建响应
             ExecutionResponseVO response = ExecutionResponseVO.builder()
@@ -113,7 +127,7 @@ public class ExecutionService {
                     .endTime(endTime.format(FORMATTER))
                     .build();
 
-            executionResultCache.put(executionId, response);
+            executionStateStore.saveResult(response);
             return response;
 
         } catch (Exception e) {
@@ -129,10 +143,11 @@ public class ExecutionService {
                     "FAILURE", executeTime, e.getMessage());
 
             // 更新执行状态
-            ExecutionState state = executionStateCache.get(executionId);
+            ExecutionState state = executionStateStore.getState(executionId);
             if (state != null) {
                 state.setStatus("FAILED");
                 state.setEndTime(endTime);
+                executionStateStore.saveState(state);
             }
 
             ExecutionResponseVO response = ExecutionResponseVO.builder()
@@ -143,7 +158,7 @@ public class ExecutionService {
                     .endTime(endTime.format(FORMATTER))
                     .build();
 
-            executionResultCache.put(executionId, response);
+            executionStateStore.saveResult(response);
             return response;
 
         } finally {
@@ -153,19 +168,21 @@ public class ExecutionService {
 
     /**
      * 异步执行流程
+     * <p>
+     * 投递到执行队列（启用时）或提交到 {@link ExecutionScheduler} 后立即返回 PENDING 响应，
+     * 调用方通过执行ID查询状态和结果
+     * </p>
      */
-    @Async
-    public CompletableFuture<ExecutionResponseVO> executeAsync(ExecutionRequestDTO request) {
+    public ExecutionResponseVO executeAsync(ExecutionRequestDTO request) {
         String executionId = generateExecutionId();
         LocalDateTime startTime = LocalDateTime.now();
 
         try {
-            // 设置租户上下文
-            TenantContext.setTenantId(TenantId.of(request.getTenantId()));
-
             // 初始化执行状态
+            ExecutionQueue executionQueue = executionQueueProvider.getIfAvailable();
             ExecutionState state = new ExecutionState(executionId, "PENDING", startTime);
-            executionStateCache.put(executionId, state);
+            state.setDispatched(executionQueue != null);
+            executionStateStore.saveState(state);
 
             // 立即返回执行ID
             ExecutionResponseVO initialResponse = ExecutionResponseVO.builder()
@@ -174,102 +191,191 @@ public class ExecutionService {
                     .startTime(startTime.format(FORMATTER))
                     .build();
 
-            executionResultCache.put(executionId, initialResponse);
+            executionStateStore.saveResult(initialResponse);
 
-            // 异步执行
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    state.setStatus("RUNNING");
-
-                    // 创建 LiteFlow 上下文
-                    DefaultContext context = new DefaultContext();
-                    if (request.getInputData() != null) {
-                        try {
-                            Map<String, Object> inputData = objectMapper.readValue(request.getInputData(), Map.class);
-                            for (Map.Entry<String, Object> entry : inputData.entrySet()) {
-                                context.setData(entry.getKey(), entry.getValue());
-                            }
-                        } catch (JsonProcessingException e) {
-                            context.setData("inputData", request.getInputData());
-                        }
-                    }
+            // 异步执行：启用执行队列时投递到 Redis Stream，否则提交到本地调度器
+            if (executionQueue != null) {
+                executionQueue.enqueueFlow(executionId, request);
+            } else {
+                executionScheduler.submit(request.getTenantId(), () -> runAsync(state, request));
+            }
+
+            return initialResponse;
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Async execution rejected by scheduler: executionId={}, tenantId={}",
+                    executionId, request.getTenantId());
+
+            ExecutionResponseVO response = ExecutionResponseVO.builder()
+                    .executionId(executionId)
+                    .status("REJECTED")
+                    .errorMessage("Execution scheduler is saturated, please retry later")
+                    .startTime(startTime.format(FORMATTER))
+                    .build();
+
+            executionStateStore.saveState(new ExecutionState(executionId, "FAILED", startTime));
+            executionStateStore.saveResult(response);
+            return response;
 
-                    context.setData("executionId", executionId);
+        } catch (Exception e) {
+            log.error("Failed to start async execution: executionId={}", executionId, e);
+
+            LocalDateTime endTime = LocalDateTime.now();
+            ExecutionResponseVO response = ExecutionResponseVO.builder()
+                    .executionId(executionId)
+                    .status("FAILED")
+                    .errorMessage(e.getMessage())
+                    .startTime(startTime.format(FORMATTER))
+                    .endTime(endTime.format(FORMATTER))
+                    .build();
 
-                    // 执行流程
-                    long start = System.currentTimeMillis();
-                    flowExecutor.execute2Resp(request.getChainName(), context);
-                    long executeTime = System.currentTimeMillis() - start;
+            // 状态可能已按 PENDING 保存（如投递队列失败），改为 FAILED，避免查询方一直等待
+            ExecutionState failed = new ExecutionState(executionId, "FAILED", startTime);
+            failed.setEndTime(endTime);
+            try {
+                executionStateStore.saveState(failed);
+                executionStateStore.saveResult(response);
+            } catch (Exception storeError) {
+                log.error("Failed to save async execution failure: executionId={}", executionId, storeError);
+            }
+            return response;
+        }
+    }
 
-                    LocalDateTime endTime = LocalDateTime.now();
+    /**
+     * 批量执行流程
+     * <p>
+     * 每个批次最多 parallelism 条同时在 {@link ExecutionScheduler} 上执行，调度器已满时由调用线程执行。
+     * 每条执行完成后立即回调 onResult，全部完成后执行记录分块交给 {@link ExecutionRecordWriter} 写入。
+     * 批量结果只通过回调和返回值提供，不能再按 executionId 查询状态和结果。
+     * </p>
+     *
+     * @param requests 执行请求列表
+     * @param onResult 单条结果回调，可能在调度器线程上调用
+     * @return 按请求顺序排列的执行结果
+     */
+    public CompletableFuture<List<ExecutionResponseVO>> executeBatch(List<ExecutionRequestDTO> requests,
+                                                                     Consumer<ExecutionResponseVO> onResult) {
+        if (requests == null || requests.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        int maxSize = executionProperties.getBatch().getMaxSize();
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds limit " + maxSize);
+        }
 
-                    // 获取执行结果
-                    Object outputData = context.getData("outputData");
+        BatchRun run = new BatchRun(requests, onResult);
+        run.start();
+        return run.future;
+    }
 
-                    // 保存执行记录
-                    saveExecutionRecord(executionId, TenantId.of(request.getTenantId()),
-                            ChainId.of(request.getTenantId()), request.getChainName(),
-                            "SUCCESS", executeTime, null);
+    /**
+     * 消费执行队列中的流程执行请求
+     * <p>
+     * 由 {@link ExecutionQueueWorker} 调用，状态和结果写入共享的执行状态存储
+     * </p>
+     */
+    public ExecutionResponseVO executeQueued(String executionId, ExecutionRequestDTO request) {
+        ExecutionState existing = executionStateStore.getState(executionId);
+        if (existing != null && existing.isFinished()) {
+            // 重复投递（如消息被重新认领）时直接返回已有结果
+            log.warn("Queued execution already finished, skipping: executionId={}", executionId);
+            return getExecutionResult(executionId);
+        }
 
-                    // 更新执行状态
-                    state.setStatus("COMPLETED");
-                    state.setProgress(100);
-                    state.setEndTime(endTime);
+        ExecutionState state = new ExecutionState(executionId, "PENDING", LocalDateTime.now());
+        executionStateStore.saveState(state);
+        return runAsync(state, request);
+    }
 
-                    ExecutionResponseVO response = ExecutionResponseVO.builder()
-                            .executionId(executionId)
-                            .status("COMPLETED")
-                            .outputData(outputData)
-                            .executeTime(executeTime)
-                            .startTime(startTime.format(FORMATTER))
-                            .endTime(endTime.format(FORMATTER))
-                            .build();
+    /**
+     * 将无法继续投递的队列执行标记为失败
+     */
+    public void failQueued(String executionId, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        ExecutionState state = new ExecutionState(executionId, "FAILED", now);
+        state.setEndTime(now);
+        executionStateStore.saveState(state);
+        executionStateStore.saveResult(ExecutionResponseVO.builder()
+                .executionId(executionId)
+                .status("FAILED")
+                .errorMessage(errorMessage)
+                .endTime(now.format(FORMATTER))
+                .build());
+    }
 
-                    executionResultCache.put(executionId, response);
-                    return response;
+    /**
+     * 执行异步流程并更新状态和结果
+     */
+    private ExecutionResponseVO runAsync(ExecutionState state, ExecutionRequestDTO request) {
+        String executionId = state.getExecutionId();
+        try {
+            state.setStatus("RUNNING");
 
-                } catch (Exception e) {
-                    log.error("Async execution failed: executionId={}", executionId, e);
+            // 创建 LiteFlow 上下文
+            DefaultContext context = createContext(executionId, request.getInputData());
 
-                    LocalDateTime endTime = LocalDateTime.now();
+            // 执行流程
+            long start = System.currentTimeMillis();
+            try (TenantChainRegistry.ChainLease chain =
+                         tenantChainRegistry.acquire(request.getTenantId(), request.getChainName())) {
+                flowExecutor.execute2Resp(chain.getChainId(), context);
+            }
+            long executeTime = System.currentTimeMillis() - start;
 
-                    // 保存失败记录
-                    saveExecutionRecord(executionId, TenantId.of(request.getTenantId()),
-                            ChainId.of(request.getTenantId()), request.getChainName(),
-                            "FAILURE", 0L, e.getMessage());
+            LocalDateTime endTime = LocalDateTime.now();
 
-                    // 更新执行状态
-                    state.setStatus("FAILED");
-                    state.setEndTime(endTime);
+            // 获取执行结果
+            Object outputData = context.getData("outputData");
 
-                    ExecutionResponseVO response = ExecutionResponseVO.builder()
-                            .executionId(executionId)
-                            .status("FAILED")
-                            .errorMessage(e.getMessage())
-                            .startTime(startTime.format(FORMATTER))
-                            .endTime(endTime.format(FORMATTER))
-                            .build();
+            // 保存执行记录
+            saveExecutionRecord(executionId, TenantId.of(request.getTenantId()),
+                    ChainId.of(request.getTenantId()), request.getChainName(),
+                    "SUCCESS", executeTime, null);
 
-                    executionResultCache.put(executionId, response);
-                    return response;
+            // 更新执行状态
+            state.setStatus("COMPLETED");
+            state.setProgress(100);
+            state.setEndTime(endTime);
+            executionStateStore.saveState(state);
 
-                } finally {
-                    TenantContext.clear();
-                }
-            });
+            ExecutionResponseVO response = ExecutionResponseVO.builder()
+                    .executionId(executionId)
+                    .status("COMPLETED")
+                    .outputData(outputData)
+                    .executeTime(executeTime)
+                    .startTime(state.getStartTime().format(FORMATTER))
+                    .endTime(endTime.format(FORMATTER))
+                    .build();
+
+            executionStateStore.saveResult(response);
+            return response;
 
         } catch (Exception e) {
-            log.error("Failed to start async execution: executionId={}", executionId, e);
+            log.error("Async execution failed: executionId={}", executionId, e);
+
+            LocalDateTime endTime = LocalDateTime.now();
+
+            // 保存失败记录
+            saveExecutionRecord(executionId, TenantId.of(request.getTenantId()),
+                    ChainId.of(request.getTenantId()), request.getChainName(),
+                    "FAILURE", 0L, e.getMessage());
+
+            // 更新执行状态
+            state.setStatus("FAILED");
+            state.setEndTime(endTime);
+            executionStateStore.saveState(state);
 
             ExecutionResponseVO response = ExecutionResponseVO.builder()
                     .executionId(executionId)
                     .status("FAILED")
                     .errorMessage(e.getMessage())
-                    .startTime(startTime.format(FORMATTER))
+                    .startTime(state.getStartTime().format(FORMATTER))
+                    .endTime(endTime.format(FORMATTER))
                     .build();
 
-            executionResultCache.put(executionId, response);
-            return CompletableFuture.completedFuture(response);
+            executionStateStore.saveResult(response);
+            return response;
         }
     }
 
@@ -277,7 +383,7 @@ public class ExecutionService {
      * 查询执行状态
      */
     public ExecutionStatusVO getExecutionStatus(String executionId) {
-        ExecutionState state = executionStateCache.get(executionId);
+        ExecutionState state = executionStateStore.getState(executionId);
         if (state == null) {
             return ExecutionStatusVO.builder()
                     .executionId(executionId)
@@ -301,7 +407,7 @@ public class ExecutionService {
      * 查询执行结果
      */
     public ExecutionResponseVO getExecutionResult(String executionId) {
-        ExecutionResponseVO result = executionResultCache.get(executionId);
+        ExecutionResponseVO result = executionStateStore.getResult(executionId);
         if (result == null) {
             return ExecutionResponseVO.builder()
                     .executionId(executionId)
@@ -312,6 +418,109 @@ public class ExecutionService {
         return result;
     }
 
+    /**
+     * 查询执行状态存储统计
+     */
+    public ExecutionStoreStats getStoreStats() {
+        return executionStateStore.getStats();
+    }
+
+    /**
+     * 执行批次中的单条请求，执行记录暂存到 records 中等待批量写入
+     * <p>
+     * 结果只保存在所属批次中，不写入共享的执行状态存储，大批次不会挤出异步执行的状态和结果
+     * </p>
+     */
+    private ExecutionResponseVO executeBatchItem(ExecutionRequestDTO request, Queue<ExecutionRecord> records) {
+        String executionId = generateExecutionId();
+        LocalDateTime startTime = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        ExecutionResponseVO response;
+        try {
+            DefaultContext context = createContext(executionId, request.getInputData());
+            int timeoutMs = request.getTimeoutMs() != null ? request.getTimeoutMs() : 30000;
+            LiteflowResponse liteflowResponse;
+            try (TenantChainRegistry.ChainLease chain =
+                         tenantChainRegistry.acquire(request.getTenantId(), request.getChainName())) {
+                liteflowResponse = timeoutMs > 0
+                        ? flowExecutor.execute2Resp(chain.getChainId(), timeoutMs, TimeUnit.MILLISECONDS, context)
+                        : flowExecutor.execute2Resp(chain.getChainId(), context);
+            }
+
+            response = ExecutionResponseVO.builder()
+                    .executionId(executionId)
+                    .status(liteflowResponse.isSuccess() ? "COMPLETED" : "FAILED")
+                    .outputData(liteflowResponse.isSuccess() ? context.getData("outputData") : null)
+                    .errorMessage(liteflowResponse.isSuccess() ? null : liteflowResponse.getMessage())
+                    .build();
+        } catch (Exception e) {
+            log.error("Batch item execution failed: executionId={}, chainName={}",
+                    executionId, request.getChainName(), e);
+            response = ExecutionResponseVO.builder()
+                    .executionId(executionId)
+                    .status("FAILED")
+                    .errorMessage(e.getMessage())
+                    .build();
+        }
+
+        long executeTime = System.currentTimeMillis() - start;
+        LocalDateTime endTime = LocalDateTime.now();
+        response.setExecuteTime(executeTime);
+        response.setStartTime(startTime.format(FORMATTER));
+        response.setEndTime(endTime.format(FORMATTER));
+
+        boolean success = "COMPLETED".equals(response.getStatus());
+        records.add(ExecutionRecord.builder()
+                .tenantId(TenantId.of(request.getTenantId()))
+                .chainId(ChainId.of(request.getTenantId()))
+                .chainExecutionId(executionId)
+                .componentId(request.getChainName())
+                .executeTime(executeTime)
+                .status(success ? "SUCCESS" : "FAILURE")
+                .errorMessage(response.getErrorMessage())
+                .createdAt(endTime)
+                .build());
+        return response;
+    }
+
+    /**
+     * 分块通过 {@link ExecutionRecordWriter} 写入执行记录（同时计入延迟聚合）
+     */
+    private void saveExecutionRecords(List<ExecutionRecord> records) {
+        int chunkSize = executionProperties.getBatch().getRecordChunkSize();
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<ExecutionRecord> chunk = records.subList(from, Math.min(from + chunkSize, records.size()));
+            try {
+                executionRecordWriter.writeAll(chunk);
+            } catch (Exception e) {
+                log.error("Failed to save batch execution records: size={}", chunk.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 创建 LiteFlow 上下文，inputData 按 JSON 对象展开，解析失败时按纯文本放入 inputData
+     */
+    private DefaultContext createContext(String executionId, String inputData) {
+        DefaultContext context = new DefaultContext();
+        if (inputData != null) {
+            try {
+                Map<String, Object> data = objectMapper.readValue(inputData, Map.class);
+                for (Map.Entry<String, Object> entry : data.entrySet()) {
+                    context.setData(entry.getKey(), entry.getValue());
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to parse inputData as JSON, treating as plain text", e);
+                context.setData("inputData", inputData);
+            }
+        }
+
+        // 设置执行ID到上下文
+        context.setData("executionId", executionId);
+        return context;
+    }
+
     /**
      * 生成执行ID
      */
@@ -333,52 +542,129 @@ public class ExecutionService {
                     .executeTime(executeTime)
                     .status(status)
                     .errorMessage(errorMessage)
+                    .createdAt(LocalDateTime.now())
                     .build();
 
-            executionRecordRepository.save(record);
+            executionRecordWriter.write(record);
         } catch (Exception e) {
             log.error("Failed to save execution record: executionId={}", executionId, e);
         }
     }
 
     /**
-     * 执行状态内部类
+     * 单个批次的执行过程
      */
-    private static class ExecutionState {
-        private final String executionId;
-        private String status;
-        private int progress;
-        private String currentStep;
-        private int completedSteps;
-        private int totalSteps;
-        private final LocalDateTime startTime;
-        private LocalDateTime endTime;
-        private long estimatedRemainingTimeMs;
-
-        public ExecutionState(String executionId, String status, LocalDateTime startTime) {
-            this.executionId = executionId;
-            this.status = status;
-            this.startTime = startTime;
-            this.progress = 0;
+    private final class BatchRun {
+
+        private final List<ExecutionRequestDTO> requests;
+        private final Consumer<ExecutionResponseVO> onResult;
+        private final ExecutionResponseVO[] results;
+        private final Queue<ExecutionRecord> records = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger nextIndex = new AtomicInteger(0);
+        private final AtomicInteger remaining;
+
+        /**
+         * 待启动的请求数，非 0 时已有线程在 {@link #launchNext()} 的循环中启动请求
+         */
+        private final AtomicInteger pendingLaunches = new AtomicInteger(0);
+        private final CompletableFuture<List<ExecutionResponseVO>> future = new CompletableFuture<>();
+
+        BatchRun(List<ExecutionRequestDTO> requests, Consumer<ExecutionResponseVO> onResult) {
+            this.requests = requests;
+            this.onResult = onResult;
+            this.results = new ExecutionResponseVO[requests.size()];
+            this.remaining = new AtomicInteger(requests.size());
+        }
+
+        void start() {
+            int parallelism = Math.min(executionProperties.getBatch().getParallelism(), requests.size());
+            for (int i = 0; i < parallelism; i++) {
+                launchNext();
+            }
+        }
+
+        /**
+         * 启动下一条请求
+         * <p>
+         * 任务同步完成时 whenComplete 回调在当前线程上调用，直接递归会随批次大小加深调用栈。
+         * 这里只登记一次启动：已有线程在循环中启动请求时由该线程接着启动，否则当前线程循环启动，直到没有登记。
+         * </p>
+         */
+        private void launchNext() {
+            if (pendingLaunches.getAndIncrement() > 0) {
+                return;
+            }
+            do {
+                launchOne();
+            } while (pendingLaunches.decrementAndGet() > 0);
         }
 
-        public String getExecutionId() { return executionId; }
-        public String getStatus() { return status; }
-        public void setStatus(String status) { this.status = status; }
-        public int getProgress() { return progress; }
-        public void setProgress(int progress) { this.progress = progress; }
-        public String getCurrentStep() { return currentStep; }
-        public void setCurrentStep(String currentStep) { this.currentStep = currentStep; }
-        public int getCompletedSteps() { return completedSteps; }
-        public void setCompletedSteps(int completedSteps) { this.completedSteps = completedSteps; }
-        public int getTotalSteps() { return totalSteps; }
-        public void setTotalSteps(int totalSteps) { this.totalSteps = totalSteps; }
-        public LocalDateTime getStartTime() { return startTime; }
-        public LocalDateTime getEndTime() { return endTime; }
-        public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
-        public long getEstimatedRemainingTimeMs() { return estimatedRemainingTimeMs; }
-        public void setEstimatedRemainingTimeMs(long estimatedRemainingTimeMs) {
-            this.estimatedRemainingTimeMs = estimatedRemainingTimeMs;
+        /**
+         * 启动一条请求；调度器拒绝时在当前线程执行并继续启动下一条
+         */
+        private void launchOne() {
+            while (true) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= requests.size()) {
+                    return;
+                }
+                ExecutionRequestDTO request = requests.get(index);
+                try {
+                    executionScheduler.submit(request.getTenantId(), () -> executeBatchItem(request, records))
+                            .whenComplete((response, e) -> {
+                                if (onItemDone(index, response != null ? response : failedItem(e))) {
+                                    launchNext();
+                                }
+                            });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    if (!onItemDone(index, executeInline(request))) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private ExecutionResponseVO executeInline(ExecutionRequestDTO request) {
+            TenantId previous = TenantContext.getTenantId();
+            try {
+                TenantContext.setTenantId(TenantId.of(request.getTenantId()));
+                return executeBatchItem(request, records);
+            } finally {
+                if (previous != null) {
+                    TenantContext.setTenantId(previous);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        }
+
+        /**
+         * 记录单条结果
+         *
+         * @return 批次是否还有未完成的请求
+         */
+        private boolean onItemDone(int index, ExecutionResponseVO response) {
+            results[index] = response;
+            try {
+                onResult.accept(response);
+            } catch (Exception e) {
+                log.warn("Batch result callback failed: executionId={}", response.getExecutionId(), e);
+            }
+
+            if (remaining.decrementAndGet() > 0) {
+                return true;
+            }
+            saveExecutionRecords(new ArrayList<>(records));
+            future.complete(Arrays.asList(results));
+            return false;
+        }
+
+        private ExecutionResponseVO failedItem(Throwable e) {
+            return ExecutionResponseVO.builder()
+                    .status("FAILED")
+                    .errorMessage(e != null ? e.getMessage() : null)
+                    .build();
         }
     }
 }
@@ -0,0 +1,188 @@
+package com.dms.liteflow.application.execution.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 流程执行配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "execution")
+public class ExecutionProperties {
+
+    /**
+     * 执行状态/结果存储配置
+     */
+    private Store store = new Store();
+
+    /**
+     * 异步执行调度器配置
+     */
+    private Scheduler scheduler = new Scheduler();
+
+    /**
+     * 持久化异步执行队列配置（Redis Stream）
+     */
+    private Queue queue = new Queue();
+
+    /**
+     * 批量执行配置
+     */
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Store {
+        /**
+         * 本地最多保留的执行状态（及结果）条数，超出后淘汰最早写入的条目
+         */
+        private Integer maxEntries = 10000;
+
+        /**
+         * 本地条目存活时间（秒）
+         */
+        private Long ttlSeconds = 600L;
+
+        /**
+         * 是否将已结束的执行状态和结果溢出到 Redis
+         */
+        private Boolean redisSpillEnabled = false;
+
+        /**
+         * Redis 中条目存活时间（秒）
+         */
+        private Long redisTtlSeconds = 86400L;
+    }
+
+    @Data
+    public static class Scheduler {
+        /**
+         * 调度模式：PLATFORM（有界平台线程池）、PER_TENANT（每租户独立线程池）、
+         * VIRTUAL（虚拟线程，需 JDK 21+，否则回退为 PLATFORM）
+         */
+        private SchedulerMode mode = SchedulerMode.PLATFORM;
+
+        /**
+         * 平台线程池核心线程数
+         */
+        private Integer corePoolSize = 8;
+
+        /**
+         * 平台线程池最大线程数
+         */
+        private Integer maxPoolSize = 32;
+
+        /**
+         * 平台线程池队列容量，队列满且线程数达到上限时拒绝新任务
+         */
+        private Integer queueCapacity = 1000;
+
+        /**
+         * 空闲线程存活时间（秒）
+         */
+        private Long keepAliveSeconds = 60L;
+
+        /**
+         * 每租户线程数（PER_TENANT 模式）
+         */
+        private Integer tenantPoolSize = 4;
+
+        /**
+         * 每租户队列容量（PER_TENANT 模式）
+         */
+        private Integer tenantQueueCapacity = 200;
+
+        /**
+         * 最大并发执行数（VIRTUAL 模式）
+         */
+        private Integer virtualMaxConcurrency = 1000;
+
+        /**
+         * 关闭时等待已提交任务完成的时间（秒）
+         */
+        private Long shutdownTimeoutSeconds = 30L;
+    }
+
+    @Data
+    public static class Queue {
+        /**
+         * 是否启用 Redis Stream 执行队列，关闭时异步执行仅在本节点调度
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Stream 键
+         */
+        private String streamKey = "dms:execution:queue";
+
+        /**
+         * 消费者组名称
+         */
+        private String consumerGroup = "dms-execution-workers";
+
+        /**
+         * 消费者名称，为空时使用 主机名-进程号
+         */
+        private String consumerName;
+
+        /**
+         * 单次拉取的最大消息数（预取上限），处理完成后才拉取下一批
+         */
+        private Integer batchSize = 16;
+
+        /**
+         * 拉取阻塞等待时间（毫秒）
+         */
+        private Long pollTimeoutMs = 2000L;
+
+        /**
+         * 待处理消息空闲超过该时间（毫秒）后被其他消费者认领
+         */
+        private Long reclaimIdleMs = 300000L;
+
+        /**
+         * 认领检查间隔（毫秒）
+         */
+        private Long reclaimIntervalMs = 30000L;
+
+        /**
+         * 单条消息最大投递次数，超过后标记为失败并确认
+         */
+        private Integer maxDeliveries = 3;
+
+        /**
+         * 队列最大积压条数，超过后拒绝入队
+         */
+        private Long maxLength = 100000L;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * 单次批量请求的最大条数
+         */
+        private Integer maxSize = 1000;
+
+        /**
+         * 单个批次同时执行的最大条数，调度器已满时由调用线程执行
+         */
+        private Integer parallelism = 8;
+
+        /**
+         * 执行记录单次批量插入的最大条数
+         */
+        private Integer recordChunkSize = 500;
+
+        /**
+         * 流式响应超时时间（毫秒）
+         */
+        private Long responseTimeoutMs = 300000L;
+    }
+
+    public enum SchedulerMode {
+        PLATFORM,
+        PER_TENANT,
+        VIRTUAL
+    }
+}
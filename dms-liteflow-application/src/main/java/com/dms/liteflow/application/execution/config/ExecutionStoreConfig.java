@@ -0,0 +1,45 @@
+package com.dms.liteflow.application.execution.config;
+
+import com.dms.liteflow.application.execution.store.ExecutionStateStore;
+import com.dms.liteflow.application.execution.store.InMemoryExecutionStateStore;
+import com.dms.liteflow.application.execution.store.RedisSpillExecutionStateStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 执行状态存储配置
+ */
+@Slf4j
+@Configuration
+public class ExecutionStoreConfig {
+
+    @Bean
+    public ExecutionStateStore executionStateStore(ExecutionProperties properties,
+                                                   ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                                   ObjectMapper objectMapper) {
+        ExecutionProperties.Store config = properties.getStore();
+        ExecutionStateStore local = new InMemoryExecutionStateStore(
+                config.getMaxEntries(), config.getTtlSeconds() * 1000L);
+
+        if (!Boolean.TRUE.equals(config.getRedisSpillEnabled())) {
+            return local;
+        }
+
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            log.warn("Execution store Redis spill enabled but no StringRedisTemplate available, using local store only");
+            return local;
+        }
+
+        log.info("Execution store initialized: maxEntries={}, ttlSeconds={}, redisTtlSeconds={}",
+                config.getMaxEntries(), config.getTtlSeconds(), config.getRedisTtlSeconds());
+        return new RedisSpillExecutionStateStore(local, redisTemplate, objectMapper,
+                Duration.ofSeconds(config.getRedisTtlSeconds()));
+    }
+}
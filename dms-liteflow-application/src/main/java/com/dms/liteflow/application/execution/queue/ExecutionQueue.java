@@ -0,0 +1,121 @@
+package com.dms.liteflow.application.execution.queue;
+
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.saga.SagaExecutionRequest;
+import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 持久化异步执行队列（Redis Stream）
+ * <p>
+ * /api/execute/async 和 /api/saga/execute/async 的请求写入 Stream，
+ * 由各节点的 {@link ExecutionQueueWorker} 通过消费者组竞争消费。
+ * 消息处理完成后确认并删除，Stream 长度即为积压量，超过 maxLength 时拒绝入队。
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "execution.queue", name = "enabled", havingValue = "true")
+public class ExecutionQueue {
+
+    public static final String FIELD_TYPE = "type";
+    public static final String FIELD_EXECUTION_ID = "executionId";
+    public static final String FIELD_TENANT_ID = "tenantId";
+    public static final String FIELD_PAYLOAD = "payload";
+
+    public static final String TYPE_FLOW = "FLOW";
+    public static final String TYPE_SAGA = "SAGA";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutionProperties.Queue config;
+
+    public ExecutionQueue(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                          ExecutionProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.config = properties.getQueue();
+    }
+
+    /**
+     * 投递流程执行请求
+     *
+     * @throws RejectedExecutionException 队列积压超过上限
+     */
+    public RecordId enqueueFlow(String executionId, ExecutionRequestDTO request) {
+        return enqueue(TYPE_FLOW, executionId, request.getTenantId(), request);
+    }
+
+    /**
+     * 投递 Saga 执行请求
+     *
+     * @throws RejectedExecutionException 队列积压超过上限
+     */
+    public RecordId enqueueSaga(String executionId, SagaExecutionRequest request) {
+        return enqueue(TYPE_SAGA, executionId, request.getTenantId(), request);
+    }
+
+    /**
+     * 确认并删除已处理的消息
+     */
+    public void complete(RecordId recordId) {
+        redisTemplate.opsForStream().acknowledge(config.getStreamKey(), config.getConsumerGroup(), recordId);
+        redisTemplate.opsForStream().delete(config.getStreamKey(), recordId);
+    }
+
+    /**
+     * 获取队列统计
+     */
+    public ExecutionQueueStats getStats() {
+        Long length = redisTemplate.opsForStream().size(config.getStreamKey());
+        long pending = 0;
+        try {
+            PendingMessagesSummary summary = redisTemplate.opsForStream()
+                    .pending(config.getStreamKey(), config.getConsumerGroup());
+            pending = summary != null ? summary.getTotalPendingMessages() : 0;
+        } catch (Exception e) {
+            log.debug("Failed to read pending summary: stream={}", config.getStreamKey(), e);
+        }
+        return ExecutionQueueStats.builder()
+                .streamKey(config.getStreamKey())
+                .consumerGroup(config.getConsumerGroup())
+                .length(length != null ? length : 0)
+                .pending(pending)
+                .maxLength(config.getMaxLength())
+                .build();
+    }
+
+    private RecordId enqueue(String type, String executionId, Long tenantId, Object request) {
+        Long length = redisTemplate.opsForStream().size(config.getStreamKey());
+        if (length != null && length >= config.getMaxLength()) {
+            throw new RejectedExecutionException("Execution queue is full: " + length);
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_TYPE, type);
+        fields.put(FIELD_EXECUTION_ID, executionId);
+        fields.put(FIELD_TENANT_ID, tenantId != null ? String.valueOf(tenantId) : "");
+        try {
+            fields.put(FIELD_PAYLOAD, objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize execution request", e);
+        }
+
+        RecordId recordId = redisTemplate.opsForStream()
+                .add(StreamRecords.newRecord().in(config.getStreamKey()).ofMap(fields));
+        log.debug("Execution enqueued: type={}, executionId={}, recordId={}", type, executionId, recordId);
+        return recordId;
+    }
+}
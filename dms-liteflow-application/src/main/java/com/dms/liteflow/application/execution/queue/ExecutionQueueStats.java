@@ -0,0 +1,41 @@
+package com.dms.liteflow.application.execution.queue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 执行队列统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionQueueStats {
+
+    /**
+     * Stream 键
+     */
+    private String streamKey;
+
+    /**
+     * 消费者组名称
+     */
+    private String consumerGroup;
+
+    /**
+     * 积压条数（未确认的消息，含已投递未完成的）
+     */
+    private Long length;
+
+    /**
+     * 已投递未确认的消息数
+     */
+    private Long pending;
+
+    /**
+     * 积压上限
+     */
+    private Long maxLength;
+}
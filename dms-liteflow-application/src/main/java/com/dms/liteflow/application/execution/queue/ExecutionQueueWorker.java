@@ -0,0 +1,188 @@
+package com.dms.liteflow.application.execution.queue;
+
+import com.dms.liteflow.application.execution.ExecutionService;
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
+import com.dms.liteflow.application.saga.SagaExecutionRequest;
+import com.dms.liteflow.application.saga.SagaExecutionService;
+import com.dms.liteflow.application.stream.AbstractStreamWorker;
+import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行队列消费者
+ * <p>
+ * 每个节点一个拉取线程，按消费者组从 Stream 拉取消息交给 {@link ExecutionScheduler} 执行，
+ * 整批完成后再拉取下一批（有界预取）。单次拉取和认领的条数不超过 batchSize 和调度器剩余容量，
+ * 调度器已满时不拉取，避免消息在无处执行时被投递而累计投递次数。执行完成后确认并删除消息；
+ * 仍被调度器拒绝的消息保持待处理状态，空闲超过 reclaimIdleMs 后由任一节点重新认领，
+ * 超过 maxDeliveries 次的消息将对应的流程执行或 Saga 执行标记为失败。拉取和认领循环见 {@link AbstractStreamWorker}。
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "execution.queue", name = "enabled", havingValue = "true")
+public class ExecutionQueueWorker extends AbstractStreamWorker {
+
+    private final ObjectMapper objectMapper;
+    private final ExecutionQueue executionQueue;
+    private final ExecutionScheduler executionScheduler;
+    private final ExecutionService executionService;
+    private final SagaExecutionService sagaExecutionService;
+    private final ExecutionProperties properties;
+    private final ExecutionProperties.Queue config;
+
+    public ExecutionQueueWorker(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                ExecutionQueue executionQueue, ExecutionScheduler executionScheduler,
+                                ExecutionService executionService, SagaExecutionService sagaExecutionService,
+                                ExecutionProperties properties) {
+        super(redisTemplate, AbstractStreamWorker.Settings.builder()
+                .streamKey(properties.getQueue().getStreamKey())
+                .consumerGroup(properties.getQueue().getConsumerGroup())
+                .consumerName(properties.getQueue().getConsumerName())
+                .pollTimeoutMs(properties.getQueue().getPollTimeoutMs())
+                .reclaimIdleMs(properties.getQueue().getReclaimIdleMs())
+                .reclaimIntervalMs(properties.getQueue().getReclaimIntervalMs())
+                .pendingScanLimit(properties.getQueue().getBatchSize())
+                .build());
+        this.objectMapper = objectMapper;
+        this.executionQueue = executionQueue;
+        this.executionScheduler = executionScheduler;
+        this.executionService = executionService;
+        this.sagaExecutionService = sagaExecutionService;
+        this.properties = properties;
+        this.config = properties.getQueue();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(properties.getStore().getRedisSpillEnabled())) {
+            log.warn("Execution queue enabled without execution.store.redis-spill-enabled, "
+                    + "results of executions consumed by other nodes will not be visible on this node");
+        }
+
+        startPolling("exec-queue-worker");
+        log.info("Execution queue worker started: stream={}, group={}, consumer={}",
+                config.getStreamKey(), config.getConsumerGroup(), consumerName);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 等待当前批次处理完成，未完成的消息保持待处理状态，由其他节点认领
+        stopPolling(config.getPollTimeoutMs() + TimeUnit.SECONDS.toMillis(30));
+        log.info("Execution queue worker stopped: consumer={}", consumerName);
+    }
+
+    /**
+     * 超过最大投递次数的消息不再认领，将对应的执行标记为失败
+     */
+    @Override
+    protected boolean handleExhausted(PendingMessage message) {
+        if (message.getTotalDeliveryCount() < config.getMaxDeliveries()) {
+            return false;
+        }
+        deadLetter(message.getId());
+        return true;
+    }
+
+    @Override
+    protected void process(List<MapRecord<String, Object, Object>> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            String tenantId = field(record, ExecutionQueue.FIELD_TENANT_ID);
+            try {
+                futures.add(executionScheduler.submit(tenantId.isEmpty() ? null : Long.valueOf(tenantId), () -> {
+                    handle(record);
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                // 保持待处理状态，稍后重新认领
+                log.warn("Execution message deferred, scheduler saturated: recordId={}", record.getId());
+            }
+        }
+
+        // 整批完成后再拉取下一批
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null)
+                .join();
+    }
+
+    private void handle(MapRecord<String, Object, Object> record) {
+        String type = field(record, ExecutionQueue.FIELD_TYPE);
+        String executionId = field(record, ExecutionQueue.FIELD_EXECUTION_ID);
+        String payload = field(record, ExecutionQueue.FIELD_PAYLOAD);
+
+        try {
+            if (ExecutionQueue.TYPE_SAGA.equals(type)) {
+                sagaExecutionService.executeQueued(executionId,
+                        objectMapper.readValue(payload, SagaExecutionRequest.class));
+            } else {
+                executionService.executeQueued(executionId,
+                        objectMapper.readValue(payload, ExecutionRequestDTO.class));
+            }
+        } catch (Exception e) {
+            // 执行服务内部已记录失败状态，这里只处理反序列化等异常
+            log.error("Failed to handle execution message: recordId={}, executionId={}",
+                    record.getId(), executionId, e);
+        }
+        executionQueue.complete(record.getId());
+    }
+
+    private void deadLetter(RecordId recordId) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(config.getStreamKey(), Range.closed(recordId.getValue(), recordId.getValue()));
+        if (records != null && !records.isEmpty()) {
+            MapRecord<String, Object, Object> record = records.get(0);
+            String executionId = field(record, ExecutionQueue.FIELD_EXECUTION_ID);
+            String tenantId = field(record, ExecutionQueue.FIELD_TENANT_ID);
+            String reason = "Exceeded max deliveries: " + config.getMaxDeliveries();
+            log.error("Execution message exceeded max deliveries, marking failed: recordId={}, executionId={}",
+                    recordId, executionId);
+            try {
+                if (ExecutionQueue.TYPE_SAGA.equals(field(record, ExecutionQueue.FIELD_TYPE))) {
+                    if (!tenantId.isEmpty()) {
+                        TenantContext.setTenantId(TenantId.of(Long.valueOf(tenantId)));
+                    }
+                    sagaExecutionService.failQueued(executionId, reason);
+                } else {
+                    executionService.failQueued(executionId, reason);
+                }
+            } catch (Exception e) {
+                // 保持待处理状态，下次认领检查时重试
+                log.error("Failed to mark dead-lettered execution failed: recordId={}, executionId={}",
+                        recordId, executionId, e);
+                return;
+            } finally {
+                TenantContext.clear();
+            }
+        }
+        executionQueue.complete(recordId);
+    }
+
+    @Override
+    protected int fetchCapacity() {
+        return Math.min(config.getBatchSize(), executionScheduler.availableCapacity());
+    }
+}
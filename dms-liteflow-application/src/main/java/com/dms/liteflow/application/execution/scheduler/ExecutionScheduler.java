@@ -0,0 +1,267 @@
+package com.dms.liteflow.application.execution.scheduler;
+
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.execution.config.ExecutionProperties.SchedulerMode;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 流程执行调度器
+ * <p>
+ * 异步流程执行和异步 Saga 执行统一提交到这里，不再占用 ForkJoinPool 公共池。
+ * 支持三种模式（execution.scheduler.mode）：
+ * <ul>
+ *     <li>PLATFORM：有界平台线程池，队列满时拒绝</li>
+ *     <li>PER_TENANT：每个租户独立的有界线程池，单个租户的慢组件不影响其他租户</li>
+ *     <li>VIRTUAL：每任务一个虚拟线程，并发数由信号量限制；运行时不支持虚拟线程（JDK 21 以下）时回退为 PLATFORM</li>
+ * </ul>
+ * 任务执行时自动设置并清理 {@link TenantContext}。
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExecutionScheduler {
+
+    private final ExecutionProperties.Scheduler config;
+    private final SchedulerMode mode;
+
+    /**
+     * PLATFORM / VIRTUAL 模式共享执行器
+     */
+    private final ExecutorService sharedExecutor;
+
+    /**
+     * VIRTUAL 模式并发限制
+     */
+    private final Semaphore virtualPermits;
+
+    /**
+     * PER_TENANT 模式租户线程池
+     */
+    private final Map<Long, ThreadPoolExecutor> tenantExecutors = new ConcurrentHashMap<>();
+
+    private final AtomicLong submittedCount = new AtomicLong(0);
+    private final AtomicLong completedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicInteger activeCount = new AtomicInteger(0);
+
+    public ExecutionScheduler(ExecutionProperties properties) {
+        this.config = properties.getScheduler();
+        SchedulerMode configured = config.getMode() != null ? config.getMode() : SchedulerMode.PLATFORM;
+
+        ExecutorService virtualExecutor = configured == SchedulerMode.VIRTUAL ? newVirtualThreadExecutor() : null;
+        if (configured == SchedulerMode.VIRTUAL && virtualExecutor == null) {
+            log.warn("Virtual threads are not supported by the current JVM ({}), falling back to PLATFORM mode",
+                    System.getProperty("java.version"));
+            configured = SchedulerMode.PLATFORM;
+        }
+        this.mode = configured;
+
+        if (mode == SchedulerMode.VIRTUAL) {
+            this.sharedExecutor = virtualExecutor;
+            this.virtualPermits = new Semaphore(config.getVirtualMaxConcurrency());
+        } else if (mode == SchedulerMode.PLATFORM) {
+            this.sharedExecutor = newBoundedPool("exec-", config.getCorePoolSize(),
+                    config.getMaxPoolSize(), config.getQueueCapacity());
+            this.virtualPermits = null;
+        } else {
+            this.sharedExecutor = null;
+            this.virtualPermits = null;
+        }
+
+        log.info("Execution scheduler initialized: mode={}", mode);
+    }
+
+    /**
+     * 提交执行任务
+     *
+     * @param tenantId 租户ID，任务执行期间设置到 TenantContext
+     * @param task     执行任务
+     * @return 任务结果
+     * @throws RejectedExecutionException 调度器已满
+     */
+    public <T> CompletableFuture<T> submit(Long tenantId, Supplier<T> task) {
+        submittedCount.incrementAndGet();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            activeCount.incrementAndGet();
+            try {
+                if (tenantId != null) {
+                    TenantContext.setTenantId(TenantId.of(tenantId));
+                }
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                TenantContext.clear();
+                activeCount.decrementAndGet();
+                completedCount.incrementAndGet();
+            }
+        };
+
+        try {
+            switch (mode) {
+                case VIRTUAL -> submitVirtual(runnable);
+                case PER_TENANT -> tenantExecutor(tenantId).execute(runnable);
+                default -> sharedExecutor.execute(runnable);
+            }
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            log.warn("Execution rejected: mode={}, tenantId={}", mode, tenantId);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * 获取调度器统计
+     */
+    public ExecutionSchedulerStats getStats() {
+        int queued = 0;
+        if (sharedExecutor instanceof ThreadPoolExecutor pool) {
+            queued = pool.getQueue().size();
+        }
+        Map<Long, Integer> tenantActive = new HashMap<>();
+        for (Map.Entry<Long, ThreadPoolExecutor> entry : tenantExecutors.entrySet()) {
+            queued += entry.getValue().getQueue().size();
+            tenantActive.put(entry.getKey(), entry.getValue().getActiveCount());
+        }
+
+        return ExecutionSchedulerStats.builder()
+                .mode(mode.name())
+                .activeCount(activeCount.get())
+                .queuedCount(queued)
+                .submittedCount(submittedCount.get())
+                .completedCount(completedCount.get())
+                .rejectedCount(rejectedCount.get())
+                .tenantActiveCount(tenantActive)
+                .build();
+    }
+
+    /**
+     * 当前还能接收而不被拒绝的任务数
+     * <p>
+     * 队列消费者据此限制单次拉取和认领的消息数。PER_TENANT 模式下拉取前不知道消息所属租户，
+     * 按最满的租户线程池估算（未创建的租户线程池按完整容量计算）。
+     * </p>
+     */
+    public int availableCapacity() {
+        return switch (mode) {
+            case VIRTUAL -> virtualPermits.availablePermits();
+            case PER_TENANT -> {
+                int capacity = config.getTenantPoolSize() + config.getTenantQueueCapacity();
+                for (ThreadPoolExecutor pool : tenantExecutors.values()) {
+                    capacity = Math.min(capacity, availableCapacity(pool));
+                }
+                yield capacity;
+            }
+            default -> availableCapacity((ThreadPoolExecutor) sharedExecutor);
+        };
+    }
+
+    /**
+     * 当前生效的调度模式
+     */
+    public SchedulerMode getMode() {
+        return mode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down execution scheduler: mode={}", mode);
+        if (sharedExecutor != null) {
+            shutdownAndAwait(sharedExecutor);
+        }
+        tenantExecutors.values().forEach(this::shutdownAndAwait);
+    }
+
+    private void submitVirtual(Runnable runnable) {
+        if (!virtualPermits.tryAcquire()) {
+            throw new RejectedExecutionException("Virtual execution concurrency limit reached: "
+                    + config.getVirtualMaxConcurrency());
+        }
+        try {
+            sharedExecutor.execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    virtualPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            virtualPermits.release();
+            throw e;
+        }
+    }
+
+    private ThreadPoolExecutor tenantExecutor(Long tenantId) {
+        long key = tenantId != null ? tenantId : 0L;
+        return tenantExecutors.computeIfAbsent(key, id -> newBoundedPool("exec-t" + id + "-",
+                config.getTenantPoolSize(), config.getTenantPoolSize(), config.getTenantQueueCapacity()));
+    }
+
+    private int availableCapacity(ThreadPoolExecutor pool) {
+        int idleThreads = pool.getMaximumPoolSize() - pool.getActiveCount();
+        return Math.max(0, idleThreads + pool.getQueue().remainingCapacity());
+    }
+
+    private ThreadPoolExecutor newBoundedPool(String prefix, int core, int max, int queueCapacity) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(core, Math.max(core, max),
+                config.getKeepAliveSeconds(), TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory(prefix),
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，兼容 JDK 17 编译
+     */
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private void shutdownAndAwait(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(config.getShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
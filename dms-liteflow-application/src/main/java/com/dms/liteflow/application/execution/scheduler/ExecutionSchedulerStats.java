@@ -0,0 +1,53 @@
+package com.dms.liteflow.application.execution.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 执行调度器统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionSchedulerStats {
+
+    /**
+     * 生效的调度模式
+     */
+    private String mode;
+
+    /**
+     * 正在执行的任务数
+     */
+    private Integer activeCount;
+
+    /**
+     * 排队中的任务数
+     */
+    private Integer queuedCount;
+
+    /**
+     * 累计提交任务数
+     */
+    private Long submittedCount;
+
+    /**
+     * 累计完成任务数
+     */
+    private Long completedCount;
+
+    /**
+     * 累计拒绝任务数
+     */
+    private Long rejectedCount;
+
+    /**
+     * 各租户正在执行的任务数（PER_TENANT 模式）
+     */
+    private Map<Long, Integer> tenantActiveCount;
+}
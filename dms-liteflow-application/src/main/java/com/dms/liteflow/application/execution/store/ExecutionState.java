@@ -0,0 +1,49 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 流程执行状态
+ * <p>
+ * 由 {@link ExecutionStateStore} 保存，供 /status 接口查询
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+public class ExecutionState {
+
+    private String executionId;
+    private String status;
+    private int progress;
+    private String currentStep;
+    private int completedSteps;
+    private int totalSteps;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long estimatedRemainingTimeMs;
+
+    /**
+     * 已投递到执行队列，可能由其他节点执行完成（只在本地存储中使用）
+     */
+    @JsonIgnore
+    private boolean dispatched;
+
+    public ExecutionState(String executionId, String status, LocalDateTime startTime) {
+        this.executionId = executionId;
+        this.status = status;
+        this.startTime = startTime;
+        this.progress = 0;
+    }
+
+    /**
+     * 是否已结束（COMPLETED/FAILED）
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
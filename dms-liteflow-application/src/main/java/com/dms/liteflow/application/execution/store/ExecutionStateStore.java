@@ -0,0 +1,49 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.dms.liteflow.domain.vo.ExecutionResponseVO;
+
+/**
+ * 执行状态与结果存储
+ * <p>
+ * 替代 ExecutionService 中无界的 ConcurrentHashMap，实现需保证容量有界并支持过期淘汰
+ * </p>
+ */
+public interface ExecutionStateStore {
+
+    /**
+     * 保存执行状态
+     *
+     * @param state 执行状态
+     */
+    void saveState(ExecutionState state);
+
+    /**
+     * 获取执行状态
+     *
+     * @param executionId 执行ID
+     * @return 执行状态，不存在或已过期返回 null
+     */
+    ExecutionState getState(String executionId);
+
+    /**
+     * 保存执行结果
+     *
+     * @param result 执行结果
+     */
+    void saveResult(ExecutionResponseVO result);
+
+    /**
+     * 获取执行结果
+     *
+     * @param executionId 执行ID
+     * @return 执行结果，不存在或已过期返回 null
+     */
+    ExecutionResponseVO getResult(String executionId);
+
+    /**
+     * 获取存储统计信息
+     *
+     * @return 统计信息
+     */
+    ExecutionStoreStats getStats();
+}
@@ -0,0 +1,61 @@
+package com.dms.liteflow.application.execution.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 执行状态存储统计信息
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionStoreStats {
+
+    /**
+     * 本地状态条目数
+     */
+    private int stateSize;
+
+    /**
+     * 本地结果条目数
+     */
+    private int resultSize;
+
+    /**
+     * 本地命中次数
+     */
+    private long hitCount;
+
+    /**
+     * 本地未命中次数
+     */
+    private long missCount;
+
+    /**
+     * 因容量超限被淘汰的条目数
+     */
+    private long evictionCount;
+
+    /**
+     * 因 TTL 到期被淘汰的条目数
+     */
+    private long expirationCount;
+
+    /**
+     * Redis 命中次数（本地未命中后回查）
+     */
+    private long redisHitCount;
+
+    /**
+     * Redis 未命中次数
+     */
+    private long redisMissCount;
+
+    /**
+     * 写入 Redis 的已完成条目数
+     */
+    private long spillCount;
+}
@@ -0,0 +1,157 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.dms.liteflow.domain.vo.ExecutionResponseVO;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 本地内存执行状态存储
+ * <p>
+ * 按写入顺序维护条目，容量超限时淘汰最早写入的条目，条目超过 TTL 后在读写时惰性清理。
+ * 由于所有条目 TTL 相同，最早写入的条目总是最先过期，清理只需从队头开始扫描。
+ * </p>
+ */
+public class InMemoryExecutionStateStore implements ExecutionStateStore {
+
+    private final BoundedTtlMap<ExecutionState> states;
+    private final BoundedTtlMap<ExecutionResponseVO> results;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+    private final AtomicLong expirationCount = new AtomicLong(0);
+
+    public InMemoryExecutionStateStore(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    InMemoryExecutionStateStore(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be positive: " + ttlMillis);
+        }
+        this.states = new BoundedTtlMap<>(maxEntries, ttlMillis, clock);
+        this.results = new BoundedTtlMap<>(maxEntries, ttlMillis, clock);
+    }
+
+    @Override
+    public void saveState(ExecutionState state) {
+        states.put(state.getExecutionId(), state);
+    }
+
+    @Override
+    public ExecutionState getState(String executionId) {
+        return record(states.get(executionId));
+    }
+
+    @Override
+    public void saveResult(ExecutionResponseVO result) {
+        results.put(result.getExecutionId(), result);
+    }
+
+    @Override
+    public ExecutionResponseVO getResult(String executionId) {
+        return record(results.get(executionId));
+    }
+
+    @Override
+    public ExecutionStoreStats getStats() {
+        return ExecutionStoreStats.builder()
+                .stateSize(states.size())
+                .resultSize(results.size())
+                .hitCount(hitCount.get())
+                .missCount(missCount.get())
+                .evictionCount(evictionCount.get())
+                .expirationCount(expirationCount.get())
+                .build();
+    }
+
+    private <V> V record(V value) {
+        if (value != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * 容量有界、按写入时间过期的 Map
+     */
+    private final class BoundedTtlMap<V> {
+
+        private final int maxEntries;
+        private final long ttlMillis;
+        private final LongSupplier clock;
+        private final LinkedHashMap<String, TimedValue<V>> entries = new LinkedHashMap<>();
+
+        BoundedTtlMap(int maxEntries, long ttlMillis, LongSupplier clock) {
+            this.maxEntries = maxEntries;
+            this.ttlMillis = ttlMillis;
+            this.clock = clock;
+        }
+
+        synchronized void put(String key, V value) {
+            long now = clock.getAsLong();
+            // 先移除再放入，使重复写入的条目移动到队尾并刷新写入时间
+            entries.remove(key);
+            entries.put(key, new TimedValue<>(value, now));
+            purge(now);
+        }
+
+        synchronized V get(String key) {
+            TimedValue<V> timed = entries.get(key);
+            if (timed == null) {
+                return null;
+            }
+            long now = clock.getAsLong();
+            if (timed.isExpired(now, ttlMillis)) {
+                purge(now);
+                return null;
+            }
+            return timed.value;
+        }
+
+        synchronized int size() {
+            purge(clock.getAsLong());
+            return entries.size();
+        }
+
+        private void purge(long now) {
+            Iterator<Map.Entry<String, TimedValue<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                TimedValue<V> head = it.next().getValue();
+                if (head.isExpired(now, ttlMillis)) {
+                    it.remove();
+                    expirationCount.incrementAndGet();
+                } else if (entries.size() > maxEntries) {
+                    it.remove();
+                    evictionCount.incrementAndGet();
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static final class TimedValue<V> {
+
+        private final V value;
+        private final long writtenAt;
+
+        TimedValue(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - writtenAt >= ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.dms.liteflow.domain.vo.ExecutionResponseVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带 Redis 溢出的执行状态存储
+ * <p>
+ * 本地存储负责全部读写；执行结束（COMPLETED/FAILED）的状态和结果额外写入 Redis。
+ * 本地未命中，或本地条目未结束且已投递到执行队列（{@link ExecutionState#isDispatched()}）时回查 Redis，
+ * 使 /status 和 /result 在其他节点和本地淘汰后仍可查询；由本节点执行的条目只读本地。
+ * Redis 故障不影响本地存储。
+ * </p>
+ */
+@Slf4j
+public class RedisSpillExecutionStateStore implements ExecutionStateStore {
+
+    private static final String STATE_KEY = "dms:execution:state:%s";
+    private static final String RESULT_KEY = "dms:execution:result:%s";
+
+    private final ExecutionStateStore local;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+
+    private final AtomicLong redisHitCount = new AtomicLong(0);
+    private final AtomicLong redisMissCount = new AtomicLong(0);
+    private final AtomicLong spillCount = new AtomicLong(0);
+
+    public RedisSpillExecutionStateStore(ExecutionStateStore local, StringRedisTemplate redisTemplate,
+                                         ObjectMapper objectMapper, Duration redisTtl) {
+        this.local = local;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisTtl = redisTtl;
+    }
+
+    @Override
+    public void saveState(ExecutionState state) {
+        local.saveState(state);
+        if (state.isFinished()) {
+            spill(String.format(STATE_KEY, state.getExecutionId()), state);
+        }
+    }
+
+    @Override
+    public ExecutionState getState(String executionId) {
+        ExecutionState state = local.getState(executionId);
+        if (state != null && !mayRunElsewhere(state)) {
+            return state;
+        }
+        // 已投递的执行可能已由其他节点（执行队列消费者）完成
+        ExecutionState spilled = load(String.format(STATE_KEY, executionId), ExecutionState.class);
+        if (spilled != null) {
+            local.saveState(spilled);
+            return spilled;
+        }
+        return state;
+    }
+
+    @Override
+    public void saveResult(ExecutionResponseVO result) {
+        local.saveResult(result);
+        if (isFinished(result)) {
+            spill(String.format(RESULT_KEY, result.getExecutionId()), result);
+        }
+    }
+
+    @Override
+    public ExecutionResponseVO getResult(String executionId) {
+        ExecutionResponseVO result = local.getResult(executionId);
+        if (result != null && (isFinished(result) || !mayRunElsewhere(local.getState(executionId)))) {
+            return result;
+        }
+        ExecutionResponseVO spilled = load(String.format(RESULT_KEY, executionId), ExecutionResponseVO.class);
+        if (spilled != null) {
+            local.saveResult(spilled);
+            return spilled;
+        }
+        return result;
+    }
+
+    @Override
+    public ExecutionStoreStats getStats() {
+        ExecutionStoreStats stats = local.getStats();
+        stats.setRedisHitCount(redisHitCount.get());
+        stats.setRedisMissCount(redisMissCount.get());
+        stats.setSpillCount(spillCount.get());
+        return stats;
+    }
+
+    private void spill(String key, Object value) {
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(value), redisTtl);
+            spillCount.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Failed to spill execution data to Redis: key={}", key, e);
+        }
+    }
+
+    private <T> T load(String key, Class<T> type) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            if (json == null) {
+                redisMissCount.incrementAndGet();
+                return null;
+            }
+            redisHitCount.incrementAndGet();
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            log.warn("Failed to load execution data from Redis: key={}", key, e);
+            redisMissCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * 本地状态缺失或未结束且已投递到执行队列时，最新状态可能在 Redis 中
+     */
+    private boolean mayRunElsewhere(ExecutionState state) {
+        return state == null || (!state.isFinished() && state.isDispatched());
+    }
+
+    private boolean isFinished(ExecutionResponseVO result) {
+        return "COMPLETED".equals(result.getStatus()) || "FAILED".equals(result.getStatus());
+    }
+}
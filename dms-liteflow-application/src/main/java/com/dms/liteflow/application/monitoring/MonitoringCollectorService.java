@@ -1,5 +1,7 @@
 package com.dms.liteflow.application.monitoring;
 
+import com.dms.liteflow.application.monitoring.writer.ExecutionRecordWriter;
+import com.dms.liteflow.application.monitoring.writer.ExecutionRecordWriterStats;
 import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
 import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,6 +29,7 @@ import java.util.UUID;
 public class MonitoringCollectorService {
 
     private final ExecutionRecordRepository executionRecordRepository;
+    private final ExecutionRecordWriter executionRecordWriter;
 
     /**
      * 记录流程执行开始
@@ -93,7 +97,6 @@ public class MonitoringCollectorService {
      * @param success        是否成功
      * @param errorMessage   错误信息
      */
-    @Transactional
     public void recordComponentExecution(
             Long tenantId,
             Long chainId,
@@ -116,7 +119,8 @@ public class MonitoringCollectorService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        executionRecordRepository.save(record);
+        // 异步批量写入，不阻塞调用线程
+        executionRecordWriter.write(record);
     }
 
     /**
@@ -127,7 +131,6 @@ public class MonitoringCollectorService {
      * @param chainExecutionId 执行ID
      * @param steps          执行步骤
      */
-    @Transactional
     public void recordExecutionSteps(
             Long tenantId,
             Long chainId,
@@ -136,8 +139,9 @@ public class MonitoringCollectorService {
     ) {
         log.debug("Recording execution steps for chain: {}", chainExecutionId);
 
+        List<ExecutionRecord> records = new ArrayList<>(steps.size());
         for (CmpStep step : steps) {
-            ExecutionRecord record = ExecutionRecord.builder()
+            records.add(ExecutionRecord.builder()
                     .tenantId(TenantId.of(tenantId))
                     .chainId(ChainId.of(chainId))
                     .componentId(step.getNodeId())
@@ -146,10 +150,18 @@ public class MonitoringCollectorService {
                     .status(step.isSuccess() ? "SUCCESS" : "FAILURE")
                     .errorMessage(step.getException() != null ? step.getException().getMessage() : null)
                     .createdAt(LocalDateTime.now())
-                    .build();
-
-            executionRecordRepository.save(record);
+                    .build());
         }
+
+        // 异步批量写入，不阻塞调用线程
+        executionRecordWriter.writeAll(records);
+    }
+
+    /**
+     * 获取执行记录写入统计
+     */
+    public ExecutionRecordWriterStats getWriterStats() {
+        return executionRecordWriter.getStats();
     }
 
     /**
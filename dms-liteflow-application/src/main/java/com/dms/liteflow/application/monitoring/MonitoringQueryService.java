@@ -1,5 +1,8 @@
 package com.dms.liteflow.application.monitoring;
 
+import com.dms.liteflow.application.monitoring.aggregation.LatencyAggregator;
+import com.dms.liteflow.application.monitoring.aggregation.LatencySnapshot;
+import com.dms.liteflow.application.monitoring.rollup.ExecutionStatsRollupService;
 import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
 import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
@@ -25,6 +28,8 @@ import java.util.stream.Collectors;
 public class MonitoringQueryService {
 
     private final ExecutionRecordRepository executionRecordRepository;
+    private final LatencyAggregator latencyAggregator;
+    private final ExecutionStatsRollupService executionStatsRollupService;
 
     /**
      * 查询执行记录
@@ -121,22 +126,7 @@ public class MonitoringQueryService {
             LocalDateTime endTime
     ) {
         log.debug("Calculating success rate for tenant: {}, chain: {}", tenantId, chainId);
-
-        List<ExecutionRecord> records = executionRecordRepository.findByChainIdAndTimeRange(
-                ChainId.of(chainId),
-                startTime,
-                endTime
-        );
-
-        if (records.isEmpty()) {
-            return 0.0;
-        }
-
-        long successCount = records.stream()
-                .filter(ExecutionRecord::isSuccess)
-                .count();
-
-        return (double) successCount / records.size() * 100;
+        return getExecutionStats(tenantId, chainId, startTime, endTime).getSuccessRate();
     }
 
     /**
@@ -155,21 +145,7 @@ public class MonitoringQueryService {
             LocalDateTime endTime
     ) {
         log.debug("Calculating average execute time for tenant: {}, chain: {}", tenantId, chainId);
-
-        List<ExecutionRecord> records = executionRecordRepository.findByChainIdAndTimeRange(
-                ChainId.of(chainId),
-                startTime,
-                endTime
-        );
-
-        if (records.isEmpty()) {
-            return 0.0;
-        }
-
-        return records.stream()
-                .mapToLong(ExecutionRecord::getExecuteTime)
-                .average()
-                .orElse(0.0);
+        return getExecutionStats(tenantId, chainId, startTime, endTime).getAverageExecuteTime();
     }
 
     /**
@@ -185,6 +161,10 @@ public class MonitoringQueryService {
 
     /**
      * 获取执行统计信息
+     * <p>
+     * 单节点部署且查询范围在内存聚合覆盖范围内时直接使用 {@link LatencyAggregator}，其次使用小时/日汇总表
+     * （{@link ExecutionStatsRollupService}），都不覆盖时才扫描执行记录。
+     * </p>
      *
      * @param tenantId  租户ID
      * @param chainId   流程链ID
@@ -198,12 +178,84 @@ public class MonitoringQueryService {
             LocalDateTime startTime,
             LocalDateTime endTime
     ) {
-        List<ExecutionRecord> records = executionRecordRepository.findByChainIdAndTimeRange(
-                ChainId.of(chainId),
-                startTime,
-                endTime
-        );
+        return latencyAggregator.chainSnapshot(tenantId, chainId, startTime, endTime)
+                .or(() -> executionStatsRollupService.snapshot(tenantId, chainId, null, startTime, endTime))
+                .map(this::toStats)
+                .orElseGet(() -> toStats(executionRecordRepository.findByChainIdAndTimeRange(
+                        ChainId.of(chainId),
+                        startTime,
+                        endTime
+                )));
+    }
 
+    /**
+     * 获取租户执行统计信息
+     *
+     * @param tenantId  租户ID
+     * @param startTime 开始时间
+     * @param endTime   结束时间
+     * @return 统计信息
+     */
+    public ExecutionStats getTenantExecutionStats(
+            Long tenantId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return latencyAggregator.tenantSnapshot(tenantId, startTime, endTime)
+                .or(() -> executionStatsRollupService.snapshot(tenantId, null, null, startTime, endTime))
+                .map(this::toStats)
+                .orElseGet(() -> toStats(executionRecordRepository.findByTenantIdAndTimeRange(
+                        TenantId.of(tenantId),
+                        startTime,
+                        endTime
+                )));
+    }
+
+    /**
+     * 获取组件执行统计信息
+     *
+     * @param tenantId    租户ID
+     * @param chainId     流程链ID
+     * @param componentId 组件ID
+     * @param startTime   开始时间
+     * @param endTime     结束时间
+     * @return 统计信息
+     */
+    public ExecutionStats getComponentExecutionStats(
+            Long tenantId,
+            Long chainId,
+            String componentId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return latencyAggregator.componentSnapshot(tenantId, chainId, componentId, startTime, endTime)
+                .or(() -> executionStatsRollupService.snapshot(tenantId, chainId, componentId, startTime, endTime))
+                .map(this::toStats)
+                .orElseGet(() -> toStats(executionRecordRepository.findByChainIdAndTimeRange(
+                                ChainId.of(chainId),
+                                startTime,
+                                endTime
+                        ).stream()
+                        .filter(record -> componentId.equals(record.getComponentId()))
+                        .collect(Collectors.toList())));
+    }
+
+    private ExecutionStats toStats(LatencySnapshot snapshot) {
+        ExecutionStats stats = new ExecutionStats();
+        stats.setTotalExecutions((int) snapshot.getCount());
+        stats.setSuccessExecutions((int) snapshot.getSuccessCount());
+        stats.setFailureExecutions((int) snapshot.getFailureCount());
+        stats.setSuccessRate(snapshot.getSuccessRate());
+        stats.setAverageExecuteTime(snapshot.getAverage());
+        stats.setMinExecuteTime(snapshot.getMin());
+        stats.setMaxExecuteTime(snapshot.getMax());
+        stats.setP50ExecuteTime(snapshot.getP50());
+        stats.setP95ExecuteTime(snapshot.getP95());
+        stats.setP99ExecuteTime(snapshot.getP99());
+        return stats;
+    }
+
+    private ExecutionStats toStats(List<ExecutionRecord> records) {
         ExecutionStats stats = new ExecutionStats();
         stats.setTotalExecutions(records.size());
         stats.setSuccessExecutions((int) records.stream().filter(ExecutionRecord::isSuccess).count());
@@ -215,9 +267,25 @@ public class MonitoringQueryService {
                 .average()
                 .orElse(0.0));
 
+        long[] sorted = records.stream()
+                .mapToLong(record -> record.getExecuteTime() != null ? record.getExecuteTime() : 0L)
+                .sorted()
+                .toArray();
+        if (sorted.length > 0) {
+            stats.setMinExecuteTime(sorted[0]);
+            stats.setMaxExecuteTime(sorted[sorted.length - 1]);
+            stats.setP50ExecuteTime(percentile(sorted, 0.50));
+            stats.setP95ExecuteTime(percentile(sorted, 0.95));
+            stats.setP99ExecuteTime(percentile(sorted, 0.99));
+        }
         return stats;
     }
 
+    private long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
     /**
      * 执行统计信息
      */
@@ -228,5 +296,10 @@ public class MonitoringQueryService {
         private int failureExecutions;
         private double successRate;
         private double averageExecuteTime;
+        private long minExecuteTime;
+        private long maxExecuteTime;
+        private long p50ExecuteTime;
+        private long p95ExecuteTime;
+        private long p99ExecuteTime;
     }
 }
@@ -0,0 +1,224 @@
+package com.dms.liteflow.application.monitoring.aggregation;
+
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 执行延迟流式聚合器
+ * <p>
+ * 在执行记录写入时按 租户 / 租户+流程链 / 租户+流程链+组件 三个维度记录延迟，
+ * 每个维度保留最近 slots 个时间片（每片 slotSeconds 秒）的 {@link LatencyHistogram}，
+ * 内存上限为 maxSeries × slots × 桶数。监控查询范围落在保留窗口内时直接合并时间片，
+ * 复杂度 O(时间片 × 桶数)，不再扫描 execution_monitoring。
+ * </p>
+ * <p>
+ * 统计仅包含本节点启动后的执行，时间粒度为时间片。因此只在单节点部署（aggregation.single-node）时记录和提供查询，
+ * 查询范围早于节点启动时间时同样返回空，由调用方回退到汇总表或数据库。
+ * </p>
+ * <p>
+ * 多节点部署（默认）时各节点直方图不做跨节点合并，聚合器不记录任何数据，统计查询的加速只来自小时/日汇总表。
+ * </p>
+ */
+@Slf4j
+@Component
+public class LatencyAggregator {
+
+    private static final String NO_CHAIN = "-";
+
+    private final MonitoringProperties.Aggregation config;
+    private final LongSupplier clock;
+    private final long slotMillis;
+
+    /**
+     * 节点启动时间，之前的执行不在内存中
+     */
+    private final long startedAt;
+    private final Map<String, TimeSeries> series = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedSeriesCount = new AtomicLong(0);
+
+    public LatencyAggregator(MonitoringProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    LatencyAggregator(MonitoringProperties properties, LongSupplier clock) {
+        this.config = properties.getAggregation();
+        this.clock = clock;
+        this.slotMillis = config.getSlotSeconds() * 1000L;
+        this.startedAt = clock.getAsLong();
+    }
+
+    /**
+     * 记录一条执行记录
+     */
+    public void record(ExecutionRecord record) {
+        if (!isServing() || record.getTenantId() == null) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        long latency = record.getExecuteTime() != null ? record.getExecuteTime() : 0L;
+        boolean success = !record.isFailure();
+        Long tenantId = record.getTenantId().getValue();
+        String chain = record.getChainId() != null ? String.valueOf(record.getChainId().getValue()) : NO_CHAIN;
+
+        recordTo(tenantKey(tenantId), now, latency, success);
+        if (!NO_CHAIN.equals(chain)) {
+            recordTo(chainKey(tenantId, chain), now, latency, success);
+        }
+        if (record.getComponentId() != null) {
+            recordTo(componentKey(tenantId, chain, record.getComponentId()), now, latency, success);
+        }
+    }
+
+    /**
+     * 租户维度统计，查询范围超出保留窗口或本节点覆盖范围时返回空
+     */
+    public Optional<LatencySnapshot> tenantSnapshot(Long tenantId, LocalDateTime startTime, LocalDateTime endTime) {
+        return snapshot(tenantKey(tenantId), startTime, endTime);
+    }
+
+    /**
+     * 流程链维度统计，查询范围超出保留窗口或本节点覆盖范围时返回空
+     */
+    public Optional<LatencySnapshot> chainSnapshot(Long tenantId, Long chainId,
+                                                   LocalDateTime startTime, LocalDateTime endTime) {
+        return snapshot(chainKey(tenantId, String.valueOf(chainId)), startTime, endTime);
+    }
+
+    /**
+     * 组件维度统计，查询范围超出保留窗口或本节点覆盖范围时返回空
+     */
+    public Optional<LatencySnapshot> componentSnapshot(Long tenantId, Long chainId, String componentId,
+                                                       LocalDateTime startTime, LocalDateTime endTime) {
+        String chain = chainId != null ? String.valueOf(chainId) : NO_CHAIN;
+        return snapshot(componentKey(tenantId, chain, componentId), startTime, endTime);
+    }
+
+    /**
+     * 当前维度数
+     */
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    /**
+     * 因超过 maxSeries 未记录的维度次数
+     */
+    public long getRejectedSeriesCount() {
+        return rejectedSeriesCount.get();
+    }
+
+    private Optional<LatencySnapshot> snapshot(String key, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!isServing()) {
+            return Optional.empty();
+        }
+        long now = clock.getAsLong();
+        long from = toMillis(startTime);
+        long to = endTime != null ? toMillis(endTime) : now;
+        long currentSlot = now / slotMillis;
+        long oldestSlot = currentSlot - config.getSlots() + 1;
+        if (from < startedAt || from < oldestSlot * slotMillis) {
+            return Optional.empty();
+        }
+
+        LatencySnapshot.Accumulator accumulator = new LatencySnapshot.Accumulator();
+        TimeSeries timeSeries = series.get(key);
+        if (timeSeries != null) {
+            timeSeries.mergeInto(accumulator, Math.max(oldestSlot, from / slotMillis), to / slotMillis);
+        }
+        return Optional.of(accumulator.toSnapshot());
+    }
+
+    /**
+     * 只有单节点部署时内存统计才完整，多节点部署不记录也不提供查询
+     */
+    private boolean isServing() {
+        return Boolean.TRUE.equals(config.getEnabled()) && Boolean.TRUE.equals(config.getSingleNode());
+    }
+
+        private void recordTo(String key, long now, long latency, boolean success) {
+        TimeSeries timeSeries = series.get(key);
+        if (timeSeries == null) {
+            if (series.size() >= config.getMaxSeries()) {
+                rejectedSeriesCount.incrementAndGet();
+                return;
+            }
+            timeSeries = series.computeIfAbsent(key, k -> new TimeSeries(config.getSlots()));
+        }
+        timeSeries.record(now / slotMillis, latency, success);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String tenantKey(Long tenantId) {
+        return "t:" + tenantId;
+    }
+
+    private static String chainKey(Long tenantId, String chain) {
+        return "c:" + tenantId + ":" + chain;
+    }
+
+    private static String componentKey(Long tenantId, String chain, String componentId) {
+        return "m:" + tenantId + ":" + chain + ":" + componentId;
+    }
+
+    /**
+     * 单个维度的时间片环
+     */
+    private static final class TimeSeries {
+
+        private final AtomicReferenceArray<Slot> slots;
+
+        TimeSeries(int slotCount) {
+            this.slots = new AtomicReferenceArray<>(slotCount);
+        }
+
+        void record(long slotNumber, long latency, boolean success) {
+            int index = (int) (slotNumber % slots.length());
+            while (true) {
+                Slot slot = slots.get(index);
+                if (slot != null && slot.number == slotNumber) {
+                    slot.histogram.record(latency, success);
+                    return;
+                }
+                if (slot != null && slot.number > slotNumber) {
+                    // 时钟回拨等情况下的过期写入，直接忽略
+                    return;
+                }
+                slots.compareAndSet(index, slot, new Slot(slotNumber));
+            }
+        }
+
+        void mergeInto(LatencySnapshot.Accumulator accumulator, long fromSlot, long toSlot) {
+            for (int i = 0; i < slots.length(); i++) {
+                Slot slot = slots.get(i);
+                if (slot != null && slot.number >= fromSlot && slot.number <= toSlot) {
+                    slot.histogram.mergeInto(accumulator);
+                }
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        private final long number;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Slot(long number) {
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dms.liteflow.application.monitoring.aggregation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定内存的延迟直方图（毫秒）
+ * <p>
+ * 对数线性分桶：0~7ms 每毫秒一个桶，之后每个 2 的幂区间再均分为 8 个子桶，相对误差不超过 12.5%，
+ * 超过约 70 分钟的值计入最后一个桶。共 {@link #BUCKET_COUNT} 个桶，写入无锁。
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 22;
+
+    public static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong failureCount = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * 记录一次执行
+     */
+    public void record(long latencyMs, boolean success) {
+        long value = Math.max(0, latencyMs);
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        if (!success) {
+            failureCount.incrementAndGet();
+        }
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 合并到快照累加器
+     */
+    public void mergeInto(LatencySnapshot.Accumulator accumulator) {
+        long[] buckets = accumulator.getBuckets();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] += counts.get(i);
+        }
+        accumulator.add(count.get(), failureCount.get(), sum.get(), min.get(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) ((value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶内最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
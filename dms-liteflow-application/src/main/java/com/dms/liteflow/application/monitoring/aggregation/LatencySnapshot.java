@@ -0,0 +1,164 @@
+package com.dms.liteflow.application.monitoring.aggregation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 延迟统计快照
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySnapshot {
+
+    /**
+     * 执行次数
+     */
+    private long count;
+
+    /**
+     * 失败次数
+     */
+    private long failureCount;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long sum;
+
+    /**
+     * 最小耗时（毫秒）
+     */
+    private long min;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private long max;
+
+    /**
+     * 中位数耗时（毫秒）
+     */
+    private long p50;
+
+    /**
+     * P95 耗时（毫秒）
+     */
+    private long p95;
+
+    /**
+     * P99 耗时（毫秒）
+     */
+    private long p99;
+
+    public long getSuccessCount() {
+        return count - failureCount;
+    }
+
+    public double getSuccessRate() {
+        return count > 0 ? (double) getSuccessCount() / count * 100 : 0.0;
+    }
+
+    public double getAverage() {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+
+    /**
+     * 直方图累加器，合并多个时间片后计算分位数
+     */
+    public static class Accumulator {
+
+        private final long[] buckets = new long[LatencyHistogram.BUCKET_COUNT];
+        private long count;
+        private long failureCount;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max;
+
+        public long[] getBuckets() {
+            return buckets;
+        }
+
+        public void add(long count, long failureCount, long sum, long min, long max) {
+            this.count += count;
+            this.failureCount += failureCount;
+            this.sum += sum;
+            if (count > 0) {
+                this.min = Math.min(this.min, min);
+                this.max = Math.max(this.max, max);
+            }
+        }
+
+        /**
+         * 记录单次执行
+         */
+        public void record(long latencyMs, boolean success) {
+            long value = Math.max(0, latencyMs);
+            buckets[LatencyHistogram.bucketIndex(value)]++;
+            add(1, success ? 0 : 1, value, value, value);
+        }
+
+        /**
+         * 合并已汇总的直方图，histogram 长度不足时按已有桶合并
+         */
+        public void merge(long[] histogram, long count, long failureCount, long sum, long min, long max) {
+            if (histogram != null) {
+                for (int i = 0; i < Math.min(histogram.length, buckets.length); i++) {
+                    buckets[i] += histogram[i];
+                }
+            }
+            add(count, failureCount, sum, min, max);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMin() {
+            return count > 0 ? min : 0;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public LatencySnapshot toSnapshot() {
+            return LatencySnapshot.builder()
+                    .count(count)
+                    .failureCount(failureCount)
+                    .sum(sum)
+                    .min(count > 0 ? min : 0)
+                    .max(max)
+                    .p50(percentile(0.50))
+                    .p95(percentile(0.95))
+                    .p99(percentile(0.99))
+                    .build();
+        }
+
+        private long percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i];
+                if (cumulative >= rank) {
+                    return Math.min(LatencyHistogram.bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
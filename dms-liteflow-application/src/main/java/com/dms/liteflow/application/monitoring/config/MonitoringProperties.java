@@ -0,0 +1,145 @@
+package com.dms.liteflow.application.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 监控配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "monitoring")
+public class MonitoringProperties {
+
+    /**
+     * 执行记录异步写入配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 延迟流式聚合配置
+     */
+    private Aggregation aggregation = new Aggregation();
+
+    /**
+     * 小时级/日级统计汇总配置
+     */
+    private Rollup rollup = new Rollup();
+
+    @Data
+    public static class WriteBehind {
+        /**
+         * 是否启用异步批量写入，关闭时同步逐条写入
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 环形缓冲区容量（向上取整为 2 的幂）
+         */
+        private Integer bufferSize = 8192;
+
+        /**
+         * 单批写入的最大条数
+         */
+        private Integer batchSize = 500;
+
+        /**
+         * 最长刷新间隔（毫秒），未攒满一批时按此间隔写入
+         */
+        private Long flushIntervalMs = 1000L;
+
+        /**
+         * 缓冲区满时的处理策略：BLOCK（等待）、DROP（丢弃）、SAMPLE（按水位采样）
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        /**
+         * BLOCK 策略最长等待时间（毫秒），超时后丢弃
+         */
+        private Long blockTimeoutMs = 100L;
+
+        /**
+         * SAMPLE 策略开始采样的缓冲区水位（0~1）
+         */
+        private Double sampleThreshold = 0.8;
+
+        /**
+         * SAMPLE 策略采样率，超过水位后每 N 条成功记录保留 1 条（失败记录始终保留）
+         */
+        private Integer sampleRate = 10;
+    }
+
+    @Data
+    public static class Aggregation {
+        /**
+         * 是否启用内存延迟直方图，关闭时统计查询全部走数据库
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 时间片长度（秒）
+         */
+        private Integer slotSeconds = 60;
+
+        /**
+         * 保留的时间片数量，保留窗口 = slotSeconds × slots
+         */
+        private Integer slots = 60;
+
+        /**
+         * 最大维度数（租户、流程链、组件合计），超过后新维度不再记录
+         */
+        private Integer maxSeries = 5000;
+
+        /**
+         * 是否单节点部署。内存聚合只包含本节点的执行，只有单节点部署时统计查询才直接使用，
+         * 多节点部署时查询走汇总表或数据库
+         */
+        private Boolean singleNode = false;
+    }
+
+    @Data
+    public static class Rollup {
+        /**
+         * 是否启用统计汇总，关闭时超出内存窗口的统计查询全部扫描原始记录
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 小时结束后延迟多久再汇总（分钟），等待异步写入的记录落库
+         */
+        private Integer lagMinutes = 5;
+
+        /**
+         * 单次任务最多汇总的区间数（小时或天），用于追赶积压时限制单次耗时
+         */
+        private Integer maxBucketsPerRun = 48;
+
+        /**
+         * 首次汇总时向前回溯的小时数
+         */
+        private Integer initialLookbackHours = 168;
+
+        /**
+         * 原始执行记录保留天数（只删除已完成小时汇总的部分）
+         */
+        private Integer rawRetentionDays = 3;
+
+        /**
+         * 小时级汇总保留天数（只删除已完成日汇总的部分）
+         */
+        private Integer hourlyRetentionDays = 30;
+
+        /**
+         * 日级汇总保留天数
+         */
+        private Integer dailyRetentionDays = 365;
+    }
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        SAMPLE
+    }
+}
@@ -0,0 +1,321 @@
+package com.dms.liteflow.application.monitoring.rollup;
+
+import com.dms.liteflow.application.monitoring.aggregation.LatencySnapshot;
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionStatsRollup;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionStatsRollupRepository;
+import com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity;
+import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity.DAY;
+import static com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity.HOUR;
+
+/**
+ * 执行统计增量汇总服务
+ * <p>
+ * 小时汇总按水位逐小时流式扫描 execution_monitoring，按 租户 / 租户+流程链 / 租户+流程链+组件
+ * 三个维度写入 execution_stats_hourly；日汇总只合并已完成的小时汇总写入 execution_stats_daily，不再读取原始记录。
+ * 同一区间重复汇总会覆盖旧值，任务失败后重跑是幂等的。
+ * </p>
+ * <p>
+ * 统计查询时优先用日汇总覆盖整天，其余已汇总部分用小时汇总，只有尚未汇总的尾部才扫描原始记录。
+ * 已汇总部分按小时对齐。
+ * </p>
+ */
+@Slf4j
+@Service
+public class ExecutionStatsRollupService {
+
+    private final ExecutionRecordRepository executionRecordRepository;
+    private final ExecutionStatsRollupRepository executionStatsRollupRepository;
+    private final MonitoringProperties.Rollup config;
+    private final Clock clock;
+
+    @Autowired
+    public ExecutionStatsRollupService(ExecutionRecordRepository executionRecordRepository,
+                                       ExecutionStatsRollupRepository executionStatsRollupRepository,
+                                       MonitoringProperties properties) {
+        this(executionRecordRepository, executionStatsRollupRepository, properties, Clock.systemDefaultZone());
+    }
+
+    ExecutionStatsRollupService(ExecutionRecordRepository executionRecordRepository,
+                                ExecutionStatsRollupRepository executionStatsRollupRepository,
+                                MonitoringProperties properties,
+                                Clock clock) {
+        this.executionRecordRepository = executionRecordRepository;
+        this.executionStatsRollupRepository = executionStatsRollupRepository;
+        this.config = properties.getRollup();
+        this.clock = clock;
+    }
+
+    /**
+     * 汇总已结束的小时
+     *
+     * @return 本次汇总的小时数
+     */
+    public int rollupHourly() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime limit = HOUR.truncate(now.minusMinutes(config.getLagMinutes()));
+        LocalDateTime from = executionStatsRollupRepository.findRolledUpTo(HOUR)
+                .orElseGet(() -> HOUR.truncate(now.minusHours(config.getInitialLookbackHours())));
+
+        int hours = 0;
+        while (from.isBefore(limit) && hours < config.getMaxBucketsPerRun()) {
+            LocalDateTime to = HOUR.next(from);
+            Map<Dimension, LatencySnapshot.Accumulator> accumulators = new HashMap<>();
+            executionRecordRepository.forEachCompletedRecord(from, to, record -> accumulate(accumulators, record));
+
+            List<ExecutionStatsRollup> rollups = toRollups(HOUR, from, accumulators);
+            executionStatsRollupRepository.saveAll(HOUR, rollups);
+            executionStatsRollupRepository.saveRolledUpTo(HOUR, to);
+            log.debug("Rolled up hour {}: {} series", from, rollups.size());
+
+            from = to;
+            hours++;
+        }
+        if (hours > 0) {
+            log.info("Hourly stats rollup completed: hours={}, rolledUpTo={}", hours, from);
+        }
+        return hours;
+    }
+
+    /**
+     * 汇总小时汇总已覆盖完整的天
+     *
+     * @return 本次汇总的天数
+     */
+    public int rollupDaily() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return 0;
+        }
+        Optional<LocalDateTime> hourlyTo = executionStatsRollupRepository.findRolledUpTo(HOUR);
+        if (hourlyTo.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime limit = DAY.truncate(hourlyTo.get());
+        LocalDateTime from = executionStatsRollupRepository.findRolledUpTo(DAY)
+                .orElseGet(() -> DAY.truncate(now.minusHours(config.getInitialLookbackHours())));
+
+        int days = 0;
+        while (from.isBefore(limit) && days < config.getMaxBucketsPerRun()) {
+            LocalDateTime to = DAY.next(from);
+            Map<Dimension, LatencySnapshot.Accumulator> accumulators = new HashMap<>();
+            for (ExecutionStatsRollup hourly : executionStatsRollupRepository.findByTimeRange(HOUR, from, to)) {
+                merge(accumulators.computeIfAbsent(
+                        new Dimension(hourly.getTenantId(), hourly.getChainId(), hourly.getComponentId()),
+                        k -> new LatencySnapshot.Accumulator()), hourly);
+            }
+
+            List<ExecutionStatsRollup> rollups = toRollups(DAY, from, accumulators);
+            executionStatsRollupRepository.saveAll(DAY, rollups);
+            executionStatsRollupRepository.saveRolledUpTo(DAY, to);
+            log.debug("Rolled up day {}: {} series", from, rollups.size());
+
+            from = to;
+            days++;
+        }
+        if (days > 0) {
+            log.info("Daily stats rollup completed: days={}, rolledUpTo={}", days, from);
+        }
+        return days;
+    }
+
+    /**
+     * 基于汇总表计算统计，查询起点尚未汇总时返回空
+     *
+     * @param tenantId    租户ID
+     * @param chainId     流程链ID，租户维度传 null
+     * @param componentId 组件ID，租户/流程链维度传 null
+     * @param startTime   开始时间
+     * @param endTime     结束时间
+     * @return 统计快照
+     */
+    public Optional<LatencySnapshot> snapshot(Long tenantId, Long chainId, String componentId,
+                                              LocalDateTime startTime, LocalDateTime endTime) {
+        if (!Boolean.TRUE.equals(config.getEnabled()) || tenantId == null || startTime == null) {
+            return Optional.empty();
+        }
+        Optional<LocalDateTime> hourlyTo = executionStatsRollupRepository.findRolledUpTo(HOUR);
+        if (hourlyTo.isEmpty() || !startTime.isBefore(hourlyTo.get())) {
+            return Optional.empty();
+        }
+
+        Dimension dimension = new Dimension(tenantId,
+                chainId != null ? chainId : ExecutionStatsRollup.ALL_CHAINS,
+                componentId != null ? componentId : ExecutionStatsRollup.NO_COMPONENT);
+        LocalDateTime end = endTime != null ? endTime : LocalDateTime.now(clock);
+        LocalDateTime from = HOUR.truncate(startTime);
+        LocalDateTime rolledEnd = end.isBefore(hourlyTo.get()) ? end : hourlyTo.get();
+        LatencySnapshot.Accumulator accumulator = new LatencySnapshot.Accumulator();
+
+        // 整天部分走日汇总，两端不足一天的部分走小时汇总
+        LocalDateTime dayFrom = DAY.truncate(from).isBefore(from) ? DAY.next(DAY.truncate(from)) : from;
+        LocalDateTime dayTo = DAY.truncate(rolledEnd);
+        Optional<LocalDateTime> dailyTo = executionStatsRollupRepository.findRolledUpTo(DAY);
+        if (dailyTo.isPresent() && dailyTo.get().isBefore(dayTo)) {
+            dayTo = dailyTo.get();
+        }
+        if (dailyTo.isPresent() && dayFrom.isBefore(dayTo)) {
+            mergeRange(accumulator, HOUR, dimension, from, dayFrom);
+            mergeRange(accumulator, DAY, dimension, dayFrom, dayTo);
+            mergeRange(accumulator, HOUR, dimension, dayTo, rolledEnd);
+        } else {
+            mergeRange(accumulator, HOUR, dimension, from, rolledEnd);
+        }
+
+        if (end.isAfter(hourlyTo.get())) {
+            for (ExecutionRecord record : findRawRecords(tenantId, chainId, componentId, hourlyTo.get(), end)) {
+                if (!"RUNNING".equals(record.getStatus())) {
+                    accumulator.record(record.getExecuteTime() != null ? record.getExecuteTime() : 0L,
+                            !record.isFailure());
+                }
+            }
+        }
+        return Optional.of(accumulator.toSnapshot());
+    }
+
+    /**
+     * 清理原始执行记录，尚未完成小时汇总的记录不删除
+     *
+     * @return 删除的记录数
+     */
+    public int cleanupRawRecords() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(config.getRawRetentionDays());
+        if (Boolean.TRUE.equals(config.getEnabled())) {
+            cutoff = earliest(cutoff, executionStatsRollupRepository.findRolledUpTo(HOUR));
+        }
+        int deleted = executionRecordRepository.deleteRecordsBefore(cutoff);
+        log.info("Deleted {} execution records before {}", deleted, cutoff);
+        return deleted;
+    }
+
+    /**
+     * 清理小时级汇总，尚未完成日汇总的小时不删除
+     *
+     * @return 删除的行数
+     */
+    public int cleanupHourlyStats() {
+        LocalDateTime cutoff = earliest(
+                LocalDateTime.now(clock).minusDays(config.getHourlyRetentionDays()),
+                executionStatsRollupRepository.findRolledUpTo(DAY));
+        int deleted = executionStatsRollupRepository.deleteBefore(HOUR, cutoff);
+        log.info("Deleted {} hourly stats before {}", deleted, cutoff);
+        return deleted;
+    }
+
+    /**
+     * 清理日级汇总
+     *
+     * @return 删除的行数
+     */
+    public int cleanupDailyStats() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(config.getDailyRetentionDays());
+        int deleted = executionStatsRollupRepository.deleteBefore(DAY, cutoff);
+        log.info("Deleted {} daily stats before {}", deleted, cutoff);
+        return deleted;
+    }
+
+    private void accumulate(Map<Dimension, LatencySnapshot.Accumulator> accumulators, ExecutionRecord record) {
+        if (record.getTenantId() == null) {
+            return;
+        }
+        long latency = record.getExecuteTime() != null ? record.getExecuteTime() : 0L;
+        boolean success = !record.isFailure();
+        Long tenantId = record.getTenantId().getValue();
+        Long chainId = record.getChainId() != null ? record.getChainId().getValue() : ExecutionStatsRollup.ALL_CHAINS;
+
+        accumulators.computeIfAbsent(
+                        new Dimension(tenantId, ExecutionStatsRollup.ALL_CHAINS, ExecutionStatsRollup.NO_COMPONENT),
+                        k -> new LatencySnapshot.Accumulator())
+                .record(latency, success);
+        if (chainId != ExecutionStatsRollup.ALL_CHAINS) {
+            accumulators.computeIfAbsent(
+                            new Dimension(tenantId, chainId, ExecutionStatsRollup.NO_COMPONENT),
+                            k -> new LatencySnapshot.Accumulator())
+                    .record(latency, success);
+        }
+        if (record.getComponentId() != null && !record.getComponentId().isEmpty()) {
+            accumulators.computeIfAbsent(
+                            new Dimension(tenantId, chainId, record.getComponentId()),
+                            k -> new LatencySnapshot.Accumulator())
+                    .record(latency, success);
+        }
+    }
+
+    private List<ExecutionStatsRollup> toRollups(RollupGranularity granularity, LocalDateTime bucketStart,
+                                                 Map<Dimension, LatencySnapshot.Accumulator> accumulators) {
+        List<ExecutionStatsRollup> rollups = new ArrayList<>(accumulators.size());
+        accumulators.forEach((dimension, accumulator) -> rollups.add(ExecutionStatsRollup.builder()
+                .granularity(granularity)
+                .tenantId(dimension.tenantId())
+                .chainId(dimension.chainId())
+                .componentId(dimension.componentId())
+                .bucketStart(bucketStart)
+                .count(accumulator.getCount())
+                .failureCount(accumulator.getFailureCount())
+                .sum(accumulator.getSum())
+                .min(accumulator.getMin())
+                .max(accumulator.getMax())
+                .histogram(accumulator.getBuckets())
+                .build()));
+        return rollups;
+    }
+
+    private void mergeRange(LatencySnapshot.Accumulator accumulator, RollupGranularity granularity,
+                            Dimension dimension, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        for (ExecutionStatsRollup rollup : executionStatsRollupRepository.findByDimension(
+                granularity, dimension.tenantId(), dimension.chainId(), dimension.componentId(), from, to)) {
+            merge(accumulator, rollup);
+        }
+    }
+
+    private void merge(LatencySnapshot.Accumulator accumulator, ExecutionStatsRollup rollup) {
+        accumulator.merge(rollup.getHistogram(), rollup.getCount(), rollup.getFailureCount(),
+                rollup.getSum(), rollup.getMin(), rollup.getMax());
+    }
+
+    private List<ExecutionRecord> findRawRecords(Long tenantId, Long chainId, String componentId,
+                                                 LocalDateTime from, LocalDateTime to) {
+        if (chainId == null) {
+            return executionRecordRepository.findByTenantIdAndTimeRange(TenantId.of(tenantId), from, to);
+        }
+        List<ExecutionRecord> records = executionRecordRepository.findByChainIdAndTimeRange(ChainId.of(chainId), from, to);
+        if (componentId == null) {
+            return records;
+        }
+        return records.stream()
+                .filter(record -> componentId.equals(record.getComponentId()))
+                .toList();
+    }
+
+    private LocalDateTime earliest(LocalDateTime time, Optional<LocalDateTime> other) {
+        return other.filter(value -> value.isBefore(time)).orElse(time);
+    }
+
+    /**
+     * 汇总维度
+     */
+    private record Dimension(Long tenantId, Long chainId, String componentId) {
+    }
+}
@@ -0,0 +1,229 @@
+package com.dms.liteflow.application.monitoring.writer;
+
+import com.dms.liteflow.application.monitoring.aggregation.LatencyAggregator;
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties.OverflowPolicy;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 执行记录异步批量写入器
+ * <p>
+ * 请求线程只把记录放入 {@link RecordRingBuffer}，由单个后台线程按批量大小或刷新间隔
+ * 通过 {@link ExecutionRecordRepository#saveAll}（insertBatch）写入 execution_monitoring，
+ * MySQL 延迟不再影响执行路径。缓冲区满时按 overflowPolicy 等待、丢弃或采样，关闭时写完剩余记录。
+ * 记录在进入缓冲区前先计入 {@link LatencyAggregator}，被丢弃或采样掉的记录仍参与延迟统计。
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExecutionRecordWriter {
+
+    private final ExecutionRecordRepository executionRecordRepository;
+    private final LatencyAggregator latencyAggregator;
+    private final MonitoringProperties.WriteBehind config;
+    private final RecordRingBuffer<ExecutionRecord> buffer;
+
+    private final AtomicLong acceptedCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong sampledOutCount = new AtomicLong(0);
+    private final AtomicLong flushedCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private final AtomicLong sampleCounter = new AtomicLong(0);
+
+    private volatile boolean running;
+    private Thread flushThread;
+
+    public ExecutionRecordWriter(ExecutionRecordRepository executionRecordRepository,
+                                 LatencyAggregator latencyAggregator,
+                                 MonitoringProperties properties) {
+        this.executionRecordRepository = executionRecordRepository;
+        this.latencyAggregator = latencyAggregator;
+        this.config = properties.getWriteBehind();
+        this.buffer = new RecordRingBuffer<>(config.getBufferSize());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            log.info("Execution record write-behind disabled, records are saved synchronously");
+            return;
+        }
+        running = true;
+        flushThread = new Thread(this::flushLoop, "exec-record-writer");
+        flushThread.setDaemon(true);
+        flushThread.start();
+        log.info("Execution record writer started: bufferSize={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}",
+                buffer.capacity(), config.getBatchSize(), config.getFlushIntervalMs(), config.getOverflowPolicy());
+    }
+
+    /**
+     * 写入执行记录
+     *
+     * @return 是否被接受（DROP/SAMPLE 策略或等待超时时可能被丢弃）
+     */
+    public boolean write(ExecutionRecord record) {
+        stampCreatedAt(record);
+        latencyAggregator.record(record);
+        if (!running) {
+            saveDirectly(List.of(record));
+            return true;
+        }
+
+        if (config.getOverflowPolicy() == OverflowPolicy.SAMPLE && shouldSampleOut(record)) {
+            sampledOutCount.incrementAndGet();
+            return false;
+        }
+
+        if (buffer.offer(record) || (config.getOverflowPolicy() == OverflowPolicy.BLOCK && offerBlocking(record))) {
+            acceptedCount.incrementAndGet();
+            if (buffer.size() >= config.getBatchSize()) {
+                LockSupport.unpark(flushThread);
+            }
+            return true;
+        }
+
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped % 1000 == 1) {
+            log.warn("Execution record buffer full, records dropped: total={}", dropped);
+        }
+        return false;
+    }
+
+    /**
+     * 批量写入执行记录，未启用异步写入时一次批量插入
+     */
+    public void writeAll(List<ExecutionRecord> records) {
+        if (!running) {
+            records.forEach(this::stampCreatedAt);
+            records.forEach(latencyAggregator::record);
+            saveDirectly(records);
+            return;
+        }
+        for (ExecutionRecord record : records) {
+            write(record);
+        }
+    }
+
+    /**
+     * 获取写入统计
+     */
+    public ExecutionRecordWriterStats getStats() {
+        return ExecutionRecordWriterStats.builder()
+                .enabled(running)
+                .overflowPolicy(config.getOverflowPolicy().name())
+                .bufferSize(buffer.size())
+                .bufferCapacity(buffer.capacity())
+                .acceptedCount(acceptedCount.get())
+                .droppedCount(droppedCount.get())
+                .sampledOutCount(sampledOutCount.get())
+                .flushedCount(flushedCount.get())
+                .failedCount(failedCount.get())
+                .batchCount(batchCount.get())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flushThread);
+        try {
+            flushThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 刷新线程退出后写完剩余记录
+        int remaining = flushAll();
+        log.info("Execution record writer stopped: flushedOnShutdown={}, dropped={}", remaining, droppedCount.get());
+    }
+
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        while (running) {
+            if (buffer.size() < config.getBatchSize()) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                flushAll();
+            } catch (Exception e) {
+                log.error("Execution record flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * 按批次写完缓冲区中的记录
+     *
+     * @return 写入的记录数
+     */
+    private int flushAll() {
+        int total = 0;
+        List<ExecutionRecord> batch = new ArrayList<>(config.getBatchSize());
+        while (buffer.drainTo(batch, config.getBatchSize()) > 0) {
+            total += batch.size();
+            saveDirectly(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    private void saveDirectly(List<ExecutionRecord> records) {
+        try {
+            executionRecordRepository.saveAll(records);
+            flushedCount.addAndGet(records.size());
+            batchCount.incrementAndGet();
+        } catch (Exception e) {
+            failedCount.addAndGet(records.size());
+            log.error("Failed to save execution records: size={}", records.size(), e);
+        }
+    }
+
+    /**
+     * 未设置创建时间的记录以进入写入器的时间为准，避免批量落库时取刷新时刻
+     */
+    private void stampCreatedAt(ExecutionRecord record) {
+        if (record.getCreatedAt() == null) {
+            record.setCreatedAt(LocalDateTime.now());
+        }
+    }
+
+        private boolean offerBlocking(ExecutionRecord record) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeoutMs());
+        while (System.nanoTime() < deadline) {
+            LockSupport.unpark(flushThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓冲区超过水位后对成功记录采样，失败记录始终保留
+     */
+    private boolean shouldSampleOut(ExecutionRecord record) {
+        if ("FAILURE".equals(record.getStatus())) {
+            return false;
+        }
+        if (buffer.size() < buffer.capacity() * config.getSampleThreshold()) {
+            return false;
+        }
+        return sampleCounter.incrementAndGet() % config.getSampleRate() != 0;
+    }
+}
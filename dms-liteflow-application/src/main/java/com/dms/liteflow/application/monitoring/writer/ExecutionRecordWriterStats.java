@@ -0,0 +1,66 @@
+package com.dms.liteflow.application.monitoring.writer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 执行记录写入统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionRecordWriterStats {
+
+    /**
+     * 是否启用异步批量写入
+     */
+    private Boolean enabled;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    private String overflowPolicy;
+
+    /**
+     * 缓冲区当前记录数
+     */
+    private Integer bufferSize;
+
+    /**
+     * 缓冲区容量
+     */
+    private Integer bufferCapacity;
+
+    /**
+     * 累计接受记录数
+     */
+    private Long acceptedCount;
+
+    /**
+     * 累计因缓冲区满丢弃的记录数
+     */
+    private Long droppedCount;
+
+    /**
+     * 累计因采样丢弃的记录数
+     */
+    private Long sampledOutCount;
+
+    /**
+     * 累计写入数据库的记录数
+     */
+    private Long flushedCount;
+
+    /**
+     * 累计写入失败的记录数
+     */
+    private Long failedCount;
+
+    /**
+     * 累计写入批次数
+     */
+    private Long batchCount;
+}
@@ -0,0 +1,70 @@
+package com.dms.liteflow.application.saga;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Saga 执行列表总数缓存
+ * <p>
+ * 总数按 (租户, 查询条件) 缓存在 {@link SagaRedisKeys#QUERY_CACHE_KEY} 下，短 TTL 内返回近似值，
+ * 翻页时不再每次执行 COUNT。Redis 不可用时直接查询数据库。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaExecutionCountCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final SagaProperties sagaProperties;
+
+    /**
+     * 获取总数，未命中时通过 loader 查询并写入缓存
+     */
+    public long getOrLoad(Long tenantId, String status, String chainName,
+                          LocalDateTime startTime, LocalDateTime endTime, LongSupplier loader) {
+        String key = String.format(SagaRedisKeys.QUERY_CACHE_KEY, tenantId,
+                queryHash(status, chainName, startTime, endTime));
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read saga count cache: key={}", key, e);
+            return loader.getAsLong();
+        }
+
+        long total = loader.getAsLong();
+        try {
+            redisTemplate.opsForValue().set(key, String.valueOf(total),
+                    sagaProperties.getQuery().getCountCacheTtlSeconds(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to write saga count cache: key={}", key, e);
+        }
+        return total;
+    }
+
+    /**
+     * 查询条件摘要
+     */
+    static String queryHash(String status, String chainName, LocalDateTime startTime, LocalDateTime endTime) {
+        String raw = "count|" + Objects.toString(status, "") + "|" + Objects.toString(chainName, "")
+                + "|" + Objects.toString(startTime, "") + "|" + Objects.toString(endTime, "");
+        return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
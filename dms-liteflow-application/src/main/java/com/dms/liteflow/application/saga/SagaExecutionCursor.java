@@ -0,0 +1,60 @@
+package com.dms.liteflow.application.saga;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Saga 执行列表分页游标
+ * <p>
+ * 记录上一页最后一条的开始时间和主键，编码为 URL 安全的字符串返回给调用方，
+ * 下一页从该位置之后继续按 (started_at, id) 倒序读取。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Data
+@AllArgsConstructor
+public class SagaExecutionCursor {
+
+    private static final String SEPARATOR = "_";
+
+    /**
+     * 上一页最后一条的开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 上一页最后一条的主键
+     */
+    private Long id;
+
+    /**
+     * 编码为游标字符串
+     */
+    public String encode() {
+        String raw = startedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static SagaExecutionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new SagaExecutionCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.dms.liteflow.application.saga;
 
+import com.dms.liteflow.application.execution.queue.ExecutionQueue;
+import com.dms.liteflow.application.execution.queue.ExecutionQueueWorker;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
 import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
 import com.dms.liteflow.domain.saga.entity.StepExecution;
@@ -10,13 +13,15 @@ import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
 import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainRegistry;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
 import com.yomahub.liteflow.core.FlowExecutor;
 import com.yomahub.liteflow.slot.DefaultContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +29,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,6 +49,10 @@ public class SagaExecutionService {
     private final CompensationOrchestrator compensationOrchestrator;
     private final SagaExecutionRepository sagaExecutionRepository;
     private final ObjectMapper objectMapper;
+    private final ExecutionScheduler executionScheduler;
+    private final ObjectProvider<ExecutionQueue> executionQueueProvider;
+    private final SagaOwnershipLease ownershipLease;
+    private final TenantChainRegistry tenantChainRegistry;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -68,6 +77,7 @@ public class SagaExecutionService {
                     request.getChainName(),
                     request.getInputData()
             );
+            sagaExecution.setExecutionId(executionId);
             sagaExecution.start();
 
             // 保存初始状态
@@ -86,14 +96,18 @@ public class SagaExecutionService {
                 }
             }
 
-            // 执行流程
+            // 执行流程（执行期间持有所有权租约，步骤更新无需逐步加分布式锁）
             long start = System.currentTimeMillis();
 
-            if (request.getTimeoutMs() != null && request.getTimeoutMs() > 0) {
-                flowExecutor.execute2Resp(request.getChainName(),
-                        request.getTimeoutMs(), TimeUnit.MILLISECONDS, context);
-            } else {
-                flowExecutor.execute2Resp(request.getChainName(), context);
+            try (TenantChainRegistry.ChainLease chain =
+                         tenantChainRegistry.acquire(request.getTenantId(), request.getChainName());
+                 SagaOwnershipLease.Lease lease = ownershipLease.acquire(executionId.getValue())) {
+                if (request.getTimeoutMs() != null && request.getTimeoutMs() > 0) {
+                    flowExecutor.execute2Resp(chain.getChainId(),
+                            request.getTimeoutMs(), TimeUnit.MILLISECONDS, context);
+                } else {
+                    flowExecutor.execute2Resp(chain.getChainId(), context);
+                }
             }
 
             long executeTime = System.currentTimeMillis() - start;
@@ -152,124 +166,200 @@ public class SagaExecutionService {
 
     /**
      * 执行 Saga 流程（异步）
+     * <p>
+     * 保存初始状态后投递到执行队列（启用时）或提交到 {@link ExecutionScheduler}，立即返回 PENDING 响应，
+     * 调用方通过执行ID查询状态
+     * </p>
      */
-    @Async
-    public CompletableFuture<SagaExecutionResponse> executeSagaAsync(SagaExecutionRequest request) {
+    public SagaExecutionResponse executeSagaAsync(SagaExecutionRequest request) {
         log.info("Executing Saga async: chainName={}, tenantId={}",
                 request.getChainName(), request.getTenantId());
 
-        SagaExecutionId executionId = SagaExecutionId.generate();
         LocalDateTime startTime = LocalDateTime.now();
+        String executionId = null;
 
         try {
-            // 设置租户上下文
+            // 设置租户上下文（用于保存初始状态）
             TenantContext.setTenantId(TenantId.of(request.getTenantId()));
 
-            // 创建 SagaExecution 实例
-            SagaExecution sagaExecution = SagaExecution.create(
+            // 创建 SagaExecution 实例并保存初始状态
+            SagaExecution sagaExecution = sagaStateService.saveExecution(SagaExecution.create(
                     TenantId.of(request.getTenantId()),
                     request.getChainName(),
                     request.getInputData()
-            );
+            ));
+            executionId = sagaExecution.getExecutionId().getValue();
 
-            // 保存初始状态
-            sagaExecution = sagaStateService.saveExecution(sagaExecution);
+            // 异步执行：启用执行队列时投递到 Redis Stream，否则提交到本地调度器
+            ExecutionQueue executionQueue = executionQueueProvider.getIfAvailable();
+            if (executionQueue != null) {
+                executionQueue.enqueueSaga(executionId, request);
+            } else {
+                executionScheduler.submit(request.getTenantId(), () -> {
+                    runSagaAsync(sagaExecution, request);
+                    return null;
+                });
+            }
 
-            // 立即返回初始响应
-            SagaExecutionResponse initialResponse = SagaExecutionResponse.builder()
-                    .executionId(executionId.getValue())
+            return SagaExecutionResponse.builder()
+                    .executionId(executionId)
                     .chainName(request.getChainName())
                     .status("PENDING")
                     .startTime(startTime.format(FORMATTER))
                     .build();
 
-            // 异步执行
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    // 创建 LiteFlow 上下文
-                    DefaultContext context = new DefaultContext();
-                    context.setData("executionId", executionId.getValue());
-                    context.setData("sagaMode", request.getSagaMode());
-
-                    // 设置输入数据
-                    if (request.getInputData() != null) {
-                        for (Map.Entry<String, Object> entry : request.getInputData().entrySet()) {
-                            context.setData(entry.getKey(), entry.getValue());
-                        }
-                    }
-
-                    // 执行流程
-                    long start = System.currentTimeMillis();
-                    flowExecutor.execute2Resp(request.getChainName(), context);
-                    long executeTime = System.currentTimeMillis() - start;
-
-                    LocalDateTime endTime = LocalDateTime.now();
-
-                    // 获取执行结果
-                    Object outputData = context.getData("outputData");
-
-                    // 更新状态
-                    sagaExecution.complete();
-                    sagaExecution.setOutputData(Map.of("result", outputData));
+        } catch (RejectedExecutionException e) {
+            log.warn("Async Saga execution rejected by scheduler: executionId={}, tenantId={}",
+                    executionId, request.getTenantId());
+
+            // 已持久化的初始状态标记为失败，避免停留在 PENDING
+            try {
+                SagaExecution sagaExecution = sagaStateService.getExecution(SagaExecutionId.of(executionId));
+                if (sagaExecution != null) {
+                    sagaExecution.fail("Rejected by execution scheduler");
                     sagaStateService.saveExecution(sagaExecution);
+                }
+            } catch (Exception ex) {
+                log.error("Failed to update rejected status: executionId={}", executionId, ex);
+            }
+
+            return SagaExecutionResponse.builder()
+                    .executionId(executionId)
+                    .chainName(request.getChainName())
+                    .status("REJECTED")
+                    .errorMessage("Execution scheduler is saturated, please retry later")
+                    .startTime(startTime.format(FORMATTER))
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Failed to start async Saga execution: executionId={}", executionId, e);
+
+            return SagaExecutionResponse.builder()
+                    .executionId(executionId)
+                    .chainName(request.getChainName())
+                    .status("FAILED")
+                    .errorMessage(e.getMessage())
+                    .startTime(startTime.format(FORMATTER))
+                    .build();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * 消费执行队列中的 Saga 执行请求
+     * <p>
+     * 由 {@link ExecutionQueueWorker} 调用，初始状态已在入队前持久化
+     * </p>
+     */
+    public void executeQueued(String executionId, SagaExecutionRequest request) {
+        SagaExecution sagaExecution = sagaStateService.getExecution(SagaExecutionId.of(executionId));
+        if (sagaExecution == null) {
+            log.error("Queued SagaExecution not found: {}", executionId);
+            return;
+        }
+        if (sagaExecution.getStatus() != SagaStatus.PENDING) {
+            // 重复投递（如消息被重新认领）时跳过已开始的执行
+            log.warn("Queued SagaExecution already started, skipping: executionId={}, status={}",
+                    executionId, sagaExecution.getStatus());
+            return;
+        }
+        runSagaAsync(sagaExecution, request);
+    }
+
+    /**
+     * 将无法执行的排队 Saga 标记为失败
+     * <p>
+     * 由 {@link ExecutionQueueWorker} 在消息超过最大投递次数时调用。与执行一样先以 PENDING -> RUNNING
+     * 认领，已开始的执行不受影响
+     * </p>
+     */
+    public void failQueued(String executionId, String errorMessage) {
+        SagaExecution sagaExecution = sagaStateService.getExecution(SagaExecutionId.of(executionId));
+        if (sagaExecution == null || sagaExecution.getStatus() != SagaStatus.PENDING) {
+            return;
+        }
+        if (!sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING)) {
+            log.warn("Queued SagaExecution already claimed, not failing: executionId={}", executionId);
+            return;
+        }
+        sagaExecution.start();
+        sagaExecution.fail(errorMessage);
+        sagaStateService.saveExecution(sagaExecution);
+    }
+
+    /**
+     * 执行异步 Saga 流程并更新状态
+     * <p>
+     * 执行前以 PENDING -> RUNNING 的状态比较并交换认领执行，认领失败说明已由其他消费者（重复投递、
+     * 消息被重新认领）开始执行，直接跳过；认领成功后保存开始时间并登记超时截止时间
+     * </p>
+     */
+    private void runSagaAsync(SagaExecution sagaExecution, SagaExecutionRequest request) {
+        String executionId = sagaExecution.getExecutionId().getValue();
+        if (!sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING)) {
+            log.warn("SagaExecution already claimed, skipping: executionId={}", executionId);
+            return;
+        }
+        try {
+            sagaExecution.start();
+            sagaStateService.saveExecution(sagaExecution);
+
+            // 创建 LiteFlow 上下文
+            DefaultContext context = new DefaultContext();
+            context.setData("executionId", executionId);
+            context.setData("sagaMode", request.getSagaMode());
+            context.setData("compensating", false);
+
+            // 设置输入数据
+            if (request.getInputData() != null) {
+                for (Map.Entry<String, Object> entry : request.getInputData().entrySet()) {
+                    context.setData(entry.getKey(), entry.getValue());
+                }
+            }
 
-                    return SagaExecutionResponse.builder()
-                            .executionId(executionId.getValue())
-                            .chainName(request.getChainName())
-                            .status("COMPLETED")
-                            .outputData(outputData)
-                            .executeTime(executeTime)
-                            .startTime(startTime.format(FORMATTER))
-                            .endTime(endTime.format(FORMATTER))
-                            .build();
-
-                } catch (Exception e) {
-                    log.error("Async Saga execution failed: executionId={}", executionId.getValue(), e);
-
-                    LocalDateTime endTime = LocalDateTime.now();
-
-                    try {
-                        sagaExecution.fail(e.getMessage());
-                        sagaStateService.saveExecution(sagaExecution);
-                    } catch (Exception ex) {
-                        log.error("Failed to update failure status: executionId={}", executionId.getValue(), ex);
-                    }
-
-                    return SagaExecutionResponse.builder()
-                            .executionId(executionId.getValue())
-                            .chainName(request.getChainName())
-                            .status("FAILED")
-                            .errorMessage(e.getMessage())
-                            .startTime(startTime.format(FORMATTER))
-                            .endTime(endTime.format(FORMATTER))
-                            .build();
-                } finally {
-                    TenantContext.clear();
+            // 执行流程（执行期间持有所有权租约）
+            try (TenantChainRegistry.ChainLease chain =
+                         tenantChainRegistry.acquire(request.getTenantId(), request.getChainName());
+                 SagaOwnershipLease.Lease lease = ownershipLease.acquire(executionId)) {
+                if (request.getTimeoutMs() != null && request.getTimeoutMs() > 0) {
+                    flowExecutor.execute2Resp(chain.getChainId(),
+                            request.getTimeoutMs(), TimeUnit.MILLISECONDS, context);
+                } else {
+                    flowExecutor.execute2Resp(chain.getChainId(), context);
                 }
-            });
+            }
+
+            // 获取执行结果
+            Object outputData = context.getData("outputData");
+
+            // 更新状态
+            sagaExecution.setOutputData(Map.of("result", outputData != null ? outputData : "completed"));
+            sagaExecution.complete();
+            sagaStateService.saveExecution(sagaExecution);
 
         } catch (Exception e) {
-            log.error("Failed to start async Saga execution: executionId={}", executionId.getValue(), e);
-
-            return CompletableFuture.completedFuture(
-                    SagaExecutionResponse.builder()
-                            .executionId(executionId.getValue())
-                            .chainName(request.getChainName())
-                            .status("FAILED")
-                            .errorMessage(e.getMessage())
-                            .startTime(startTime.format(FORMATTER))
-                            .build()
-            );
+            log.error("Async Saga execution failed: executionId={}", executionId, e);
+
+            try {
+                sagaExecution.fail(e.getMessage());
+                sagaStateService.saveExecution(sagaExecution);
+            } catch (Exception ex) {
+                log.error("Failed to update failure status: executionId={}", executionId, ex);
+            }
         }
     }
 
     /**
      * 手动触发补偿
+     * <p>
+     * 操作前接管所有权租约，正在执行该 Saga 的节点随后的步骤更新会被拒绝
+     * </p>
      */
     public boolean compensate(String executionId, String operator) {
         log.info("Manual compensation triggered: executionId={}, operator={}", executionId, operator);
 
-        try {
+        try (SagaOwnershipLease.Lease lease = ownershipLease.takeover(executionId)) {
             TenantId tenantId = TenantContext.getTenantId();
             TenantContext.setTenantId(tenantId);
 
@@ -295,12 +385,12 @@ public class SagaExecutionService {
     }
 
     /**
-     * 重试失败的步骤
+     * 重试失败的步骤（操作前接管所有权租约）
      */
     public boolean retry(String executionId, String stepId, Map<String, Object> newInputData) {
         log.info("Retrying step: executionId={}, stepId={}", executionId, stepId);
 
-        try {
+        try (SagaOwnershipLease.Lease lease = ownershipLease.takeover(executionId)) {
             TenantId tenantId = TenantContext.getTenantId();
             TenantContext.setTenantId(tenantId);
 
@@ -317,7 +407,7 @@ public class SagaExecutionService {
             }
 
             // 重置步骤状态
-            step.start();
+            step.retry();
             if (newInputData != null) {
                 step.setInputData(newInputData);
             }
@@ -339,6 +429,7 @@ public class SagaExecutionService {
 
             // 更新状态
             step.complete(context.getData("outputData"));
+            sagaStateService.saveStep(sagaExecution.getExecutionId(), step);
             sagaStateService.saveExecution(sagaExecution);
 
             log.info("Step retry completed: stepId={}", stepId);
@@ -353,12 +444,12 @@ public class SagaExecutionService {
     }
 
     /**
-     * 跳过失败步骤继续执行
+     * 跳过失败步骤继续执行（操作前接管所有权租约）
      */
     public boolean skip(String executionId, String stepId, String reason) {
         log.info("Skipping step: executionId={}, stepId={}, reason={}", executionId, stepId, reason);
 
-        try {
+        try (SagaOwnershipLease.Lease lease = ownershipLease.takeover(executionId)) {
             TenantId tenantId = TenantContext.getTenantId();
             TenantContext.setTenantId(tenantId);
 
@@ -376,6 +467,7 @@ public class SagaExecutionService {
 
             // 标记为跳过
             step.skip();
+            sagaStateService.saveStep(sagaExecution.getExecutionId(), step);
             sagaStateService.saveExecution(sagaExecution);
 
             log.info("Step skipped: stepId={}", stepId);
@@ -18,6 +18,7 @@ import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
 import com.dms.liteflow.domain.saga.valueobject.StepId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -42,6 +43,8 @@ public class SagaManagementService {
     private final SagaStateService sagaStateService;
     private final SagaExecutionRepository sagaExecutionRepository;
     private final CompensationLogRepository compensationLogRepository;
+    private final SagaExecutionCountCache executionCountCache;
+    private final SagaProperties sagaProperties;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -64,7 +67,7 @@ public class SagaManagementService {
                     .collect(Collectors.toList());
 
             return SagaExecutionDetailVO.builder()
-                    .executionId(sagaExecution.getId().getValue())
+                    .executionId(sagaExecution.getExecutionId().getValue())
                     .tenantId(sagaExecution.getTenantId().getValue())
                     .chainName(sagaExecution.getChainName())
                     .status(sagaExecution.getStatus().name())
@@ -89,36 +92,53 @@ public class SagaManagementService {
 
     /**
      * 查询执行列表（分页）
+     * <p>
+     * 传入游标或查询首页时按 (started_at, id) 游标分页，耗时与翻页深度无关；
+     * 仅在未携带游标且页码大于 0 时沿用偏移量分页。总数取自短 TTL 缓存，为近似值。
+     * </p>
+     *
+     * @param cursor 上一页返回的 nextCursor（可选）
+     * @throws IllegalArgumentException 游标或状态不合法（接口返回 400）
      */
-    public SagaExecutionListVO listExecutions(int page, int size, String status,
+    public SagaExecutionListVO listExecutions(int page, int size, String cursor, String status,
                                               String chainName, LocalDateTime startTime,
                                               LocalDateTime endTime) {
+        int pageSize = Math.max(1, Math.min(size, sagaProperties.getQuery().getMaxPageSize()));
+        // 参数错误直接抛出，不按查询失败返回空列表
+        SagaStatus sagaStatus = status != null ? SagaStatus.valueOf(status) : null;
+        SagaExecutionCursor position = cursor != null && !cursor.isEmpty()
+                ? SagaExecutionCursor.decode(cursor) : null;
         try {
             TenantId tenantId = TenantContext.getTenantId();
             TenantContext.setTenantId(tenantId);
 
-            // 计算偏移量
-            int offset = page * size;
+            // 多取一条判断是否还有下一页
+            List<SagaExecution> executions;
+            if (position != null) {
+                executions = sagaExecutionRepository.findByTenantIdAfter(tenantId, sagaStatus, chainName,
+                        startTime, endTime, position.getStartedAt(), position.getId(), pageSize + 1);
+            } else if (page <= 0) {
+                executions = sagaExecutionRepository.findByTenantIdAfter(tenantId, sagaStatus, chainName,
+                        startTime, endTime, null, null, pageSize + 1);
+            } else {
+                executions = sagaExecutionRepository.findByTenantId(tenantId, sagaStatus, chainName,
+                        startTime, endTime, page * pageSize, pageSize + 1);
+            }
 
-            // 查询列表
-            List<SagaExecution> executions = sagaExecutionRepository.findByTenantId(
-                    tenantId,
-                    status != null ? SagaStatus.valueOf(status) : null,
-                    chainName,
-                    startTime,
-                    endTime,
-                    offset,
-                    size
-            );
+            boolean hasMore = executions.size() > pageSize;
+            if (hasMore) {
+                executions = executions.subList(0, pageSize);
+            }
+            String nextCursor = null;
+            if (hasMore) {
+                SagaExecution last = executions.get(executions.size() - 1);
+                nextCursor = new SagaExecutionCursor(last.getStartedAt(), last.getId()).encode();
+            }
 
-            // 查询总数
-            int total = sagaExecutionRepository.countByTenantId(
-                    tenantId,
-                    status != null ? SagaStatus.valueOf(status) : null,
-                    chainName,
-                    startTime,
-                    endTime
-            );
+            long total = executionCountCache.getOrLoad(tenantId.getValue(), status, chainName,
+                    startTime, endTime,
+                    () -> sagaExecutionRepository.countByTenantId(tenantId, sagaStatus, chainName,
+                            startTime, endTime));
 
             // 转换为 VO
             List<SagaExecutionListItemVO> items = executions.stream()
@@ -127,18 +147,21 @@ public class SagaManagementService {
 
             return SagaExecutionListVO.builder()
                     .items(items)
-                    .total((long) total)
+                    .total(total)
                     .page((long) page)
-                    .size((long) size)
+                    .size((long) pageSize)
+                    .nextCursor(nextCursor)
+                    .hasMore(hasMore)
                     .build();
 
         } catch (Exception e) {
-            log.error("Failed to list executions: page={}, size={}", page, size, e);
+            log.error("Failed to list executions: page={}, size={}, cursor={}", page, size, cursor, e);
             return SagaExecutionListVO.builder()
                     .items(List.of())
                     .total(0L)
                     .page((long) page)
-                    .size((long) size)
+                    .size((long) pageSize)
+                    .hasMore(false)
                     .build();
         } finally {
             TenantContext.clear();
@@ -161,7 +184,7 @@ public class SagaManagementService {
             // 构建时间线节点
             List<TimelineNodeVO> nodes = sagaExecution.getExecutionStack().stream()
                     .map(step -> TimelineNodeVO.builder()
-                            .stepId(step.getId().getValue())
+                            .stepId(step.getStepId().getValue())
                             .componentName(step.getComponentName())
                             .status(step.getStatus().name())
                             .timestamp(step.getStartedAt() != null ?
@@ -220,7 +243,7 @@ public class SagaManagementService {
      */
     private SagaExecutionListItemVO convertToListItemVO(SagaExecution execution) {
         return SagaExecutionListItemVO.builder()
-                .executionId(execution.getId().getValue())
+                .executionId(execution.getExecutionId().getValue())
                 .chainName(execution.getChainName())
                 .status(execution.getStatus().name())
                 .startTime(execution.getStartedAt() != null ?
@@ -236,7 +259,7 @@ public class SagaManagementService {
      */
     private StepExecutionDetailVO convertToStepVO(StepExecution step) {
         return StepExecutionDetailVO.builder()
-                .stepId(step.getId().getValue())
+                .stepId(step.getStepId().getValue())
                 .componentName(step.getComponentName())
                 .status(step.getStatus().name())
                 .inputData(step.getInputData())
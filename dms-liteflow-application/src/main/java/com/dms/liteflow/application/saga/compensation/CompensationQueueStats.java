@@ -0,0 +1,63 @@
+package com.dms.liteflow.application.saga.compensation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 补偿队列统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompensationQueueStats {
+
+    /**
+     * Stream 键
+     */
+    private String streamKey;
+
+    /**
+     * 消费者组名称
+     */
+    private String consumerGroup;
+
+    /**
+     * 积压条数（未确认的消息，含已投递未完成的）
+     */
+    private Long length;
+
+    /**
+     * 已投递未确认的消息数
+     */
+    private Long pending;
+
+    /**
+     * 等待退避重试的任务数
+     */
+    private Long retryScheduled;
+
+    /**
+     * 最早一条积压消息的等待时间（毫秒）
+     */
+    private Long lagMs;
+
+    /**
+     * 积压上限
+     */
+    private Long maxLength;
+
+    /**
+     * 本节点正在执行的补偿任务数
+     */
+    private Integer inFlight;
+
+    /**
+     * 本节点各租户正在执行的补偿任务数
+     */
+    private Map<Long, Integer> tenantInFlight;
+}
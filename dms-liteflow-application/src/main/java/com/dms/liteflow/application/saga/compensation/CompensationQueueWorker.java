@@ -0,0 +1,261 @@
+package com.dms.liteflow.application.saga.compensation;
+
+import com.dms.liteflow.application.saga.monitoring.SagaMonitoringService;
+import com.dms.liteflow.application.stream.AbstractStreamWorker;
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.service.CompensationOrchestrator;
+import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 补偿队列消费者
+ * <p>
+ * 每个节点一个拉取线程和 workerThreads 个补偿线程，拉取数量不超过空闲线程数（有界预取）。
+ * 同一租户在本节点最多同时执行 perTenantConcurrency 个补偿，超出的任务延后 tenantDeferMs 重新投递，
+ * 避免单个租户的大量失败占满补偿线程。补偿未全部成功时按指数退避重试，超过 maxAttempts 次后转人工介入。
+ * 节点宕机遗留的未确认消息空闲超过 reclaimIdleMs 后由任一节点重新认领，认领条数同样不超过空闲线程数。
+ * 补偿前接管 Saga 的所有权租约，原执行节点此后的写入被 fencing token 拒绝。
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "saga.compensation-queue", name = "enabled", havingValue = "true")
+public class CompensationQueueWorker extends AbstractStreamWorker {
+
+    private final CompensationTaskQueue compensationTaskQueue;
+    private final CompensationOrchestrator compensationOrchestrator;
+    private final SagaStateService sagaStateService;
+    private final SagaMonitoringService monitoringService;
+    private final SagaOwnershipLease ownershipLease;
+    private final SagaProperties.CompensationQueue config;
+
+    private final Map<Long, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private ThreadPoolExecutor workers;
+
+    public CompensationQueueWorker(StringRedisTemplate redisTemplate, CompensationTaskQueue compensationTaskQueue,
+                                   CompensationOrchestrator compensationOrchestrator,
+                                   SagaStateService sagaStateService, SagaMonitoringService monitoringService,
+                                   SagaOwnershipLease ownershipLease, SagaProperties properties) {
+        super(redisTemplate, AbstractStreamWorker.Settings.builder()
+                .streamKey(properties.getCompensationQueue().getStreamKey())
+                .consumerGroup(properties.getCompensationQueue().getConsumerGroup())
+                .consumerName(properties.getCompensationQueue().getConsumerName())
+                .pollTimeoutMs(properties.getCompensationQueue().getPollTimeoutMs())
+                .reclaimIdleMs(properties.getCompensationQueue().getReclaimIdleMs())
+                .reclaimIntervalMs(properties.getCompensationQueue().getReclaimIntervalMs())
+                .pendingScanLimit(properties.getCompensationQueue().getWorkerThreads())
+                .build());
+        this.compensationTaskQueue = compensationTaskQueue;
+        this.compensationOrchestrator = compensationOrchestrator;
+        this.sagaStateService = sagaStateService;
+        this.monitoringService = monitoringService;
+        this.ownershipLease = ownershipLease;
+        this.config = properties.getCompensationQueue();
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 拉取数量受 inFlight 限制，队列长度不会超过线程数
+        workers = new ThreadPoolExecutor(config.getWorkerThreads(), config.getWorkerThreads(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "saga-compensation-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        startPolling("saga-compensation-poller");
+        log.info("Compensation queue worker started: stream={}, group={}, consumer={}, threads={}",
+                config.getStreamKey(), config.getConsumerGroup(), consumerName, config.getWorkerThreads());
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopPolling(config.getPollTimeoutMs() + 1000);
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                // 未完成的消息保持待处理状态，由其他节点认领
+                workers.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Compensation queue worker stopped: consumer={}", consumerName);
+    }
+
+    /**
+     * 获取队列统计（含本节点执行情况）
+     */
+    public CompensationQueueStats getStats() {
+        CompensationQueueStats stats = compensationTaskQueue.getStats();
+        Map<Long, Integer> tenantInFlight = new HashMap<>();
+        tenantPermits.forEach((tenantId, permits) -> {
+            int busy = config.getPerTenantConcurrency() - permits.availablePermits();
+            if (busy > 0) {
+                tenantInFlight.put(tenantId, busy);
+            }
+        });
+        stats.setInFlight(inFlight.get());
+        stats.setTenantInFlight(tenantInFlight);
+        return stats;
+    }
+
+    /**
+     * 拉取和认领数量不超过空闲线程数
+     */
+    @Override
+    protected int fetchCapacity() {
+        return config.getWorkerThreads() - inFlight.get();
+    }
+
+    @Override
+    protected void beforePoll() {
+        compensationTaskQueue.promoteDueRetries(config.getWorkerThreads());
+    }
+
+    @Override
+    protected long idleSleepMs() {
+        return 50;
+    }
+
+    @Override
+    protected void process(List<MapRecord<String, Object, Object>> records) {
+        dispatch(records);
+    }
+
+    private void dispatch(List<MapRecord<String, Object, Object>> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        for (MapRecord<String, Object, Object> record : records) {
+            CompensationTask task;
+            try {
+                task = CompensationTaskQueue.fromRecord(record);
+            } catch (Exception e) {
+                log.error("Dropping malformed compensation message: recordId={}", record.getId(), e);
+                compensationTaskQueue.complete(record.getId());
+                continue;
+            }
+
+            Semaphore permits = tenantPermits.computeIfAbsent(
+                    task.getTenantId() != null ? task.getTenantId() : 0L,
+                    key -> new Semaphore(config.getPerTenantConcurrency()));
+            if (!permits.tryAcquire()) {
+                // 租户并发已满，延后重新投递，不计入尝试次数
+                compensationTaskQueue.scheduleRetry(task, config.getTenantDeferMs());
+                compensationTaskQueue.complete(record.getId());
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    handle(record.getId(), task);
+                } finally {
+                    permits.release();
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void handle(RecordId recordId, CompensationTask task) {
+        String executionId = task.getExecutionId();
+        LocalDateTime enqueuedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(task.getEnqueuedAt()), ZoneId.systemDefault());
+        if (task.getAttempt() == 0) {
+            monitoringService.recordCompensationStart(executionId, task.getChainName());
+        }
+
+        String error = null;
+        TenantId previous = TenantContext.getTenantId();
+        if (task.getTenantId() != null) {
+            TenantContext.setTenantId(TenantId.of(task.getTenantId()));
+        }
+        // 接管所有权租约，原执行节点的后续写入被拒绝
+        try (SagaOwnershipLease.Lease lease = ownershipLease.takeover(executionId)) {
+            if (!compensationOrchestrator.compensate(SagaExecutionId.of(executionId))) {
+                error = "Partial failure";
+            }
+        } catch (Exception e) {
+            log.error("Compensation task failed: executionId={}, attempt={}", executionId, task.getAttempt(), e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+
+        try {
+            if (error == null) {
+                log.info("Compensation completed: executionId={}, attempts={}", executionId, task.getAttempt() + 1);
+                monitoringService.recordCompensationSuccess(executionId, task.getChainName(), enqueuedAt);
+            } else {
+                CompensationTask next = task.nextAttempt(error);
+                if (next.getAttempt() >= config.getMaxAttempts()) {
+                    deadLetter(next);
+                    monitoringService.recordCompensationFailure(executionId, task.getChainName(), enqueuedAt, error);
+                } else {
+                    long delayMs = CompensationTaskQueue.retryDelayMs(next.getAttempt(),
+                            config.getRetryBackoffMs(), config.getMaxRetryBackoffMs());
+                    log.warn("Compensation will be retried: executionId={}, attempt={}, delayMs={}, error={}",
+                            executionId, next.getAttempt(), delayMs, error);
+                    compensationTaskQueue.scheduleRetry(next, delayMs);
+                }
+            }
+            // 重试任务写入后再确认，节点宕机时消息会被重新认领
+            compensationTaskQueue.complete(recordId);
+        } catch (Exception e) {
+            log.error("Failed to settle compensation task, leaving it pending: executionId={}, recordId={}",
+                    executionId, recordId, e);
+        }
+    }
+
+    /**
+     * 重试次数耗尽，转人工介入
+     */
+    private void deadLetter(CompensationTask task) {
+        log.error("Compensation exhausted {} attempts, marking manual intervention: executionId={}, error={}",
+                task.getAttempt(), task.getExecutionId(), task.getLastError());
+        SagaExecution sagaExecution = sagaStateService.getExecution(SagaExecutionId.of(task.getExecutionId()));
+        if (sagaExecution == null || sagaExecution.getStatus() == SagaStatus.COMPENSATED
+                || sagaExecution.getStatus() == SagaStatus.MANUAL_INTERVENTION) {
+            return;
+        }
+        sagaExecution.markManualIntervention("Compensation failed after " + task.getAttempt()
+                + " attempts: " + task.getLastError());
+        sagaStateService.saveExecution(sagaExecution);
+    }
+}
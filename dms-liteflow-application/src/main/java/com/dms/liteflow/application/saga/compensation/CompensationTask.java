@@ -0,0 +1,56 @@
+package com.dms.liteflow.application.saga.compensation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 补偿任务
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompensationTask {
+
+    /**
+     * Saga 执行ID
+     */
+    private String executionId;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 流程链名称
+     */
+    private String chainName;
+
+    /**
+     * 已尝试次数
+     */
+    private Integer attempt;
+
+    /**
+     * 首次入队时间（毫秒时间戳）
+     */
+    private Long enqueuedAt;
+
+    /**
+     * 上次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 下一次尝试
+     */
+    public CompensationTask nextAttempt(String error) {
+        return toBuilder()
+                .attempt(attempt + 1)
+                .lastError(error)
+                .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.dms.liteflow.application.saga.compensation;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 持久化补偿任务队列（Redis Stream）
+ * <p>
+ * Saga 步骤失败时只把补偿任务写入 Stream，由各节点的 {@link CompensationQueueWorker} 通过消费者组竞争消费，
+ * 失败节点的执行线程不再等待补偿完成。需要退避重试的任务写入 ZSet（score 为到期时间），
+ * 到期后由任一节点移回 Stream。
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "saga.compensation-queue", name = "enabled", havingValue = "true")
+public class CompensationTaskQueue {
+
+    public static final String FIELD_EXECUTION_ID = "executionId";
+    public static final String FIELD_TENANT_ID = "tenantId";
+    public static final String FIELD_CHAIN_NAME = "chainName";
+    public static final String FIELD_ATTEMPT = "attempt";
+    public static final String FIELD_ENQUEUED_AT = "enqueuedAt";
+    public static final String FIELD_LAST_ERROR = "lastError";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SagaProperties.CompensationQueue config;
+
+    public CompensationTaskQueue(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                 SagaProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.config = properties.getCompensationQueue();
+    }
+
+    /**
+     * 投递补偿任务
+     *
+     * @throws RejectedExecutionException 队列积压超过上限
+     */
+    public RecordId enqueue(CompensationTask task) {
+        Long length = redisTemplate.opsForStream().size(config.getStreamKey());
+        if (length != null && length >= config.getMaxLength()) {
+            throw new RejectedExecutionException("Compensation queue is full: " + length);
+        }
+
+        RecordId recordId = redisTemplate.opsForStream()
+                .add(StreamRecords.newRecord().in(config.getStreamKey()).ofMap(toFields(task)));
+        log.debug("Compensation enqueued: executionId={}, attempt={}, recordId={}",
+                task.getExecutionId(), task.getAttempt(), recordId);
+        return recordId;
+    }
+
+    /**
+     * 延迟重新投递
+     */
+    public void scheduleRetry(CompensationTask task, long delayMs) {
+        try {
+            redisTemplate.opsForZSet().add(config.getRetryKey(), objectMapper.writeValueAsString(task),
+                    System.currentTimeMillis() + delayMs);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize compensation task", e);
+        }
+    }
+
+    /**
+     * 把到期的重试任务移回 Stream
+     *
+     * @return 移回的任务数
+     */
+    public int promoteDueRetries(int limit) {
+        Set<String> due = redisTemplate.opsForZSet()
+                .rangeByScore(config.getRetryKey(), 0, System.currentTimeMillis(), 0, limit);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        int promoted = 0;
+        for (String member : due) {
+            // 先移除再投递，移除成功的节点负责投递，避免多个节点重复投递
+            Long removed = redisTemplate.opsForZSet().remove(config.getRetryKey(), member);
+            if (removed == null || removed == 0) {
+                continue;
+            }
+            try {
+                CompensationTask task = objectMapper.readValue(member, CompensationTask.class);
+                redisTemplate.opsForStream()
+                        .add(StreamRecords.newRecord().in(config.getStreamKey()).ofMap(toFields(task)));
+                promoted++;
+            } catch (Exception e) {
+                log.error("Failed to promote compensation retry, rescheduling: task={}", member, e);
+                redisTemplate.opsForZSet().add(config.getRetryKey(), member,
+                        System.currentTimeMillis() + config.getRetryBackoffMs());
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * 确认并删除已处理的消息
+     */
+    public void complete(RecordId recordId) {
+        redisTemplate.opsForStream().acknowledge(config.getStreamKey(), config.getConsumerGroup(), recordId);
+        redisTemplate.opsForStream().delete(config.getStreamKey(), recordId);
+    }
+
+    /**
+     * 获取队列统计
+     */
+    public CompensationQueueStats getStats() {
+        Long length = redisTemplate.opsForStream().size(config.getStreamKey());
+        long pending = 0;
+        try {
+            PendingMessagesSummary summary = redisTemplate.opsForStream()
+                    .pending(config.getStreamKey(), config.getConsumerGroup());
+            pending = summary != null ? summary.getTotalPendingMessages() : 0;
+        } catch (Exception e) {
+            log.debug("Failed to read pending summary: stream={}", config.getStreamKey(), e);
+        }
+        Long retryScheduled = redisTemplate.opsForZSet().zCard(config.getRetryKey());
+
+        // 处理完成的消息会被删除，Stream 中最早的消息即为等待最久的任务
+        long lagMs = 0;
+        List<MapRecord<String, Object, Object>> oldest = redisTemplate.opsForStream()
+                .range(config.getStreamKey(), Range.unbounded(), Limit.limit().count(1));
+        if (oldest != null && !oldest.isEmpty()) {
+            lagMs = Math.max(0, System.currentTimeMillis() - oldest.get(0).getId().getTimestamp());
+        }
+
+        return CompensationQueueStats.builder()
+                .streamKey(config.getStreamKey())
+                .consumerGroup(config.getConsumerGroup())
+                .length(length != null ? length : 0)
+                .pending(pending)
+                .retryScheduled(retryScheduled != null ? retryScheduled : 0)
+                .lagMs(lagMs)
+                .maxLength(config.getMaxLength())
+                .build();
+    }
+
+    /**
+     * 第 attempt 次失败后的退避时间：retryBackoffMs * 2^(attempt-1)，不超过 maxRetryBackoffMs
+     */
+    public static long retryDelayMs(int attempt, long baseMs, long maxMs) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long delay = baseMs << shift;
+        return delay < 0 || delay > maxMs ? maxMs : delay;
+    }
+
+    /**
+     * 从 Stream 消息还原补偿任务
+     */
+    public static CompensationTask fromRecord(MapRecord<String, Object, Object> record) {
+        String tenantId = field(record, FIELD_TENANT_ID);
+        String attempt = field(record, FIELD_ATTEMPT);
+        String enqueuedAt = field(record, FIELD_ENQUEUED_AT);
+        String lastError = field(record, FIELD_LAST_ERROR);
+        return CompensationTask.builder()
+                .executionId(field(record, FIELD_EXECUTION_ID))
+                .tenantId(tenantId.isEmpty() ? null : Long.valueOf(tenantId))
+                .chainName(field(record, FIELD_CHAIN_NAME))
+                .attempt(attempt.isEmpty() ? 0 : Integer.parseInt(attempt))
+                .enqueuedAt(enqueuedAt.isEmpty() ? record.getId().getTimestamp() : Long.parseLong(enqueuedAt))
+                .lastError(lastError.isEmpty() ? null : lastError)
+                .build();
+    }
+
+    private Map<String, String> toFields(CompensationTask task) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_EXECUTION_ID, task.getExecutionId());
+        fields.put(FIELD_TENANT_ID, task.getTenantId() != null ? String.valueOf(task.getTenantId()) : "");
+        fields.put(FIELD_CHAIN_NAME, task.getChainName() != null ? task.getChainName() : "");
+        fields.put(FIELD_ATTEMPT, String.valueOf(task.getAttempt() != null ? task.getAttempt() : 0));
+        fields.put(FIELD_ENQUEUED_AT, String.valueOf(task.getEnqueuedAt() != null
+                ? task.getEnqueuedAt() : System.currentTimeMillis()));
+        fields.put(FIELD_LAST_ERROR, task.getLastError() != null ? task.getLastError() : "");
+        return fields;
+    }
+
+    private static String field(MapRecord<String, Object, Object> record, String name) {
+        Object value = record.getValue().get(name);
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,84 @@
+package com.dms.liteflow.application.scheduled.job;
+
+import com.dms.liteflow.application.monitoring.rollup.ExecutionStatsRollupService;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 执行统计汇总与清理任务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecutionStatsJob {
+
+    private final ExecutionStatsRollupService executionStatsRollupService;
+
+    /**
+     * 增量汇总任务
+     * 执行频率：每10分钟执行一次，先汇总已结束的小时，再汇总已完整覆盖的天
+     */
+    @XxlJob("executionStatsRollupJob")
+    public void rollup() {
+        log.info("XXL-JOB: Starting execution stats rollup job");
+        try {
+            int hours = executionStatsRollupService.rollupHourly();
+            int days = executionStatsRollupService.rollupDaily();
+            XxlJobHelper.handleSuccess(String.format("Hours: %d, Days: %d", hours, days));
+        } catch (Exception e) {
+            log.error("XXL-JOB: Execution stats rollup job failed", e);
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+
+    /**
+     * 原始执行记录清理任务
+     * 执行频率：每天凌晨2点执行
+     */
+    @XxlJob("cleanupExecutionJob")
+    public void cleanupExecutionRecords() {
+        log.info("XXL-JOB: Starting cleanup execution records job");
+        try {
+            int deleted = executionStatsRollupService.cleanupRawRecords();
+            XxlJobHelper.handleSuccess(String.format("Deleted: %d", deleted));
+        } catch (Exception e) {
+            log.error("XXL-JOB: Cleanup execution records job failed", e);
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+
+    /**
+     * 小时级统计清理任务
+     * 执行频率：每周日凌晨3点执行
+     */
+    @XxlJob("cleanupHourlyStatsJob")
+    public void cleanupHourlyStats() {
+        log.info("XXL-JOB: Starting cleanup hourly stats job");
+        try {
+            int deleted = executionStatsRollupService.cleanupHourlyStats();
+            XxlJobHelper.handleSuccess(String.format("Deleted: %d", deleted));
+        } catch (Exception e) {
+            log.error("XXL-JOB: Cleanup hourly stats job failed", e);
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+
+    /**
+     * 日级统计清理任务
+     * 执行频率：每月1号凌晨4点执行
+     */
+    @XxlJob("cleanupDailyStatsJob")
+    public void cleanupDailyStats() {
+        log.info("XXL-JOB: Starting cleanup daily stats job");
+        try {
+            int deleted = executionStatsRollupService.cleanupDailyStats();
+            XxlJobHelper.handleSuccess(String.format("Deleted: %d", deleted));
+        } catch (Exception e) {
+            log.error("XXL-JOB: Cleanup daily stats job failed", e);
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+}
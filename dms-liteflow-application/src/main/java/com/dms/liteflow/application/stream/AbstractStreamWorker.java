@@ -0,0 +1,248 @@
+package com.dms.liteflow.application.stream;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis Stream 消费者组拉取线程的公共实现
+ * <p>
+ * 每个节点一个拉取线程：定期认领其他消费者空闲超过 reclaimIdleMs 的待处理消息，
+ * 再按 {@link #fetchCapacity()} 拉取新消息交给 {@link #process}。拉取和认领的条数都不超过剩余容量，
+ * 容量为 0 时不访问 Stream，避免消息在无处执行时被投递而累计投递次数。
+ * </p>
+ */
+@Slf4j
+public abstract class AbstractStreamWorker {
+
+    protected final StringRedisTemplate redisTemplate;
+    private final Settings settings;
+
+    protected volatile boolean running;
+    protected String consumerName;
+    private Thread pollerThread;
+    private long lastReclaimAt;
+
+    protected AbstractStreamWorker(StringRedisTemplate redisTemplate, Settings settings) {
+        this.redisTemplate = redisTemplate;
+        this.settings = settings;
+    }
+
+    /**
+     * 当前可以接收的消息条数
+     */
+    protected abstract int fetchCapacity();
+
+    /**
+     * 处理拉取或认领到的消息
+     */
+    protected abstract void process(List<MapRecord<String, Object, Object>> records);
+
+    /**
+     * 每轮拉取前的处理（如将到期的重试任务放回 Stream）
+     */
+    protected void beforePoll() {
+    }
+
+    /**
+     * 处理超过最大投递次数等不应再认领的消息
+     *
+     * @return 已处理时返回 true，不再认领
+     */
+    protected boolean handleExhausted(PendingMessage message) {
+        return false;
+    }
+
+    /**
+     * 容量已满时的等待时间（毫秒）
+     */
+    protected long idleSleepMs() {
+        return settings.pollTimeoutMs;
+    }
+
+    /**
+     * 创建消费者组并启动拉取线程
+     */
+    protected void startPolling(String threadName) {
+        consumerName = settings.consumerName != null ? settings.consumerName : defaultConsumerName();
+        createGroupIfAbsent();
+
+        running = true;
+        pollerThread = new Thread(this::pollLoop, threadName);
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+    }
+
+    /**
+     * 停止拉取线程，最多等待 joinMs 毫秒
+     */
+    protected void stopPolling(long joinMs) {
+        running = false;
+        if (pollerThread != null) {
+            try {
+                pollerThread.join(joinMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                if (System.currentTimeMillis() - lastReclaimAt >= settings.reclaimIntervalMs) {
+                    lastReclaimAt = System.currentTimeMillis();
+                    reclaimIdle();
+                }
+                beforePoll();
+
+                int capacity = fetchCapacity();
+                if (capacity <= 0) {
+                    sleepQuietly(idleSleepMs());
+                    continue;
+                }
+
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                        Consumer.from(settings.consumerGroup, consumerName),
+                        StreamReadOptions.empty()
+                                .count(capacity)
+                                .block(Duration.ofMillis(settings.pollTimeoutMs)),
+                        StreamOffset.create(settings.streamKey, ReadOffset.lastConsumed()));
+
+                process(records);
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Stream poll failed: stream={}", settings.streamKey, e);
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    /**
+     * 认领其他消费者长时间未确认的消息（消费者宕机或本节点容量不足）
+     */
+    void reclaimIdle() {
+        int capacity = fetchCapacity();
+        PendingMessages pending = redisTemplate.opsForStream().pending(settings.streamKey,
+                settings.consumerGroup, Range.unbounded(), settings.pendingScanLimit);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+
+        List<RecordId> claimIds = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().toMillis() < settings.reclaimIdleMs
+                    || handleExhausted(message)) {
+                continue;
+            }
+            if (claimIds.size() < capacity) {
+                // 认领会累计投递次数，只认领能立即处理的条数
+                claimIds.add(message.getId());
+            }
+        }
+        if (claimIds.isEmpty()) {
+            return;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream().claim(
+                settings.streamKey, settings.consumerGroup, consumerName,
+                Duration.ofMillis(settings.reclaimIdleMs), claimIds.toArray(new RecordId[0]));
+        log.info("Reclaimed idle stream messages: stream={}, count={}", settings.streamKey, claimed.size());
+        process(claimed);
+    }
+
+    private void createGroupIfAbsent() {
+        byte[] key = settings.streamKey.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) (RedisConnection connection) -> connection.streamCommands()
+                    .xGroupCreate(key, settings.consumerGroup, ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            // BUSYGROUP：消费者组已存在
+            log.debug("Consumer group already exists: stream={}, group={}", settings.streamKey, settings.consumerGroup);
+        }
+    }
+
+    protected static String field(MapRecord<String, Object, Object> record, String name) {
+        Object value = record.getValue().get(name);
+        return value != null ? value.toString() : "";
+    }
+
+    private static String defaultConsumerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+
+    protected static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stream 消费配置
+     */
+    @Builder
+    public static final class Settings {
+        /**
+         * Stream 键
+         */
+        private final String streamKey;
+
+        /**
+         * 消费者组
+         */
+        private final String consumerGroup;
+
+        /**
+         * 消费者名称，为空时使用 主机名-进程号
+         */
+        private final String consumerName;
+
+        /**
+         * 拉取阻塞时间（毫秒）
+         */
+        private final long pollTimeoutMs;
+
+        /**
+         * 待处理消息空闲超过该时间后认领（毫秒）
+         */
+        private final long reclaimIdleMs;
+
+        /**
+         * 认领检查间隔（毫秒）
+         */
+        private final long reclaimIntervalMs;
+
+        /**
+         * 每次认领检查扫描的待处理消息数
+         */
+        private final int pendingScanLimit;
+    }
+}
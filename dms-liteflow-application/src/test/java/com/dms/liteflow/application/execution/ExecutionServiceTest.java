@@ -0,0 +1,163 @@
+package com.dms.liteflow.application.execution;
+
+import com.dms.liteflow.application.execution.config.ExecutionProperties;
+import com.dms.liteflow.application.execution.queue.ExecutionQueue;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
+import com.dms.liteflow.application.execution.store.InMemoryExecutionStateStore;
+import com.dms.liteflow.application.monitoring.writer.ExecutionRecordWriter;
+import com.dms.liteflow.domain.dto.ExecutionRequestDTO;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.vo.ExecutionResponseVO;
+import com.dms.liteflow.domain.vo.ExecutionStatusVO;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExecutionService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ExecutionServiceTest {
+
+    private static final int BATCH_SIZE = 5000;
+
+    @Mock
+    private FlowExecutor flowExecutor;
+
+    @Mock
+    private ExecutionRecordWriter executionRecordWriter;
+
+    @Mock
+    private ExecutionScheduler executionScheduler;
+
+    @Mock
+    private ObjectProvider<ExecutionQueue> executionQueueProvider;
+
+    @Mock
+    private TenantChainRegistry tenantChainRegistry;
+
+    @Mock
+    private LiteflowResponse liteflowResponse;
+
+    private ExecutionService executionService;
+
+    @BeforeEach
+    void setUp() {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.getBatch().setMaxSize(BATCH_SIZE);
+        properties.getBatch().setParallelism(1);
+        executionService = new ExecutionService(flowExecutor, executionRecordWriter,
+                new ObjectMapper(), new InMemoryExecutionStateStore(BATCH_SIZE, 60000L), executionScheduler,
+                executionQueueProvider, properties, tenantChainRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchWithSynchronouslyCompletingTasksDoesNotRecurse() {
+        // Given: 调度器在提交线程上同步执行，whenComplete 回调也在提交线程上调用
+        when(executionScheduler.submit(any(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+        when(tenantChainRegistry.acquire(any(), any())).thenReturn(TenantChainRegistry.ChainLease.unpinned("chain1"));
+        when(flowExecutor.execute2Resp(any(), any())).thenReturn(liteflowResponse);
+        when(liteflowResponse.isSuccess()).thenReturn(true);
+
+        List<ExecutionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requests.add(ExecutionRequestDTO.builder().tenantId(1L).chainName("chain1").timeoutMs(0).build());
+        }
+        AtomicInteger callbacks = new AtomicInteger();
+
+        // When
+        List<ExecutionResponseVO> results = executionService.executeBatch(requests, r -> callbacks.incrementAndGet())
+                .join();
+
+        // Then
+        assertThat(results).hasSize(BATCH_SIZE);
+        assertThat(results).allMatch(result -> "COMPLETED".equals(result.getStatus()));
+        assertThat(callbacks.get()).isEqualTo(BATCH_SIZE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchRecordsAreWrittenThroughRecordWriter() {
+        // Given
+        when(executionScheduler.submit(any(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+        when(tenantChainRegistry.acquire(any(), any())).thenReturn(TenantChainRegistry.ChainLease.unpinned("chain1"));
+        when(flowExecutor.execute2Resp(any(), any())).thenReturn(liteflowResponse);
+        when(liteflowResponse.isSuccess()).thenReturn(true);
+        List<ExecutionRecord> written = new ArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(executionRecordWriter).writeAll(any());
+
+        List<ExecutionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(ExecutionRequestDTO.builder().tenantId(1L).chainName("chain1").timeoutMs(0).build());
+        }
+
+        // When
+        executionService.executeBatch(requests, r -> { }).join();
+
+        // Then: 批量执行记录同样经过写入器（计入延迟聚合）
+        assertThat(written).hasSize(3);
+        assertThat(written).allMatch(record -> "SUCCESS".equals(record.getStatus()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchResultsAreNotWrittenToSharedStateStore() {
+        // Given
+        when(executionScheduler.submit(any(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+        when(tenantChainRegistry.acquire(any(), any())).thenReturn(TenantChainRegistry.ChainLease.unpinned("chain1"));
+        when(flowExecutor.execute2Resp(any(), any())).thenReturn(liteflowResponse);
+        when(liteflowResponse.isSuccess()).thenReturn(true);
+        List<ExecutionRequestDTO> requests = List.of(
+                ExecutionRequestDTO.builder().tenantId(1L).chainName("chain1").timeoutMs(0).build());
+
+        // When
+        List<ExecutionResponseVO> results = executionService.executeBatch(requests, r -> { }).join();
+
+        // Then: 结果只通过批次返回，不占用有界的执行状态存储
+        assertThat(results).singleElement().extracting(ExecutionResponseVO::getStatus).isEqualTo("COMPLETED");
+        assertThat(executionService.getStoreStats().getStateSize()).isZero();
+        assertThat(executionService.getStoreStats().getResultSize()).isZero();
+    }
+
+    @Test
+    void testAsyncEnqueueFailureMarksExecutionFailed() {
+        // Given: 执行队列投递失败
+        ExecutionQueue executionQueue = mock(ExecutionQueue.class);
+        when(executionQueueProvider.getIfAvailable()).thenReturn(executionQueue);
+        ExecutionRequestDTO request = ExecutionRequestDTO.builder().tenantId(1L).chainName("chain1").build();
+        doThrow(new IllegalStateException("Redis unavailable")).when(executionQueue).enqueueFlow(any(), eq(request));
+
+        // When
+        ExecutionResponseVO response = executionService.executeAsync(request);
+
+        // Then: 状态不会停留在 PENDING
+        assertThat(response.getStatus()).isEqualTo("FAILED");
+        ExecutionStatusVO status = executionService.getExecutionStatus(response.getExecutionId());
+        assertThat(status.getStatus()).isEqualTo("FAILED");
+        assertThat(executionService.getExecutionResult(response.getExecutionId()).getErrorMessage())
+                .isEqualTo("Redis unavailable");
+    }
+}
@@ -0,0 +1,89 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.dms.liteflow.domain.vo.ExecutionResponseVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * InMemoryExecutionStateStore 单元测试
+ */
+class InMemoryExecutionStateStoreTest {
+
+    private AtomicLong now;
+    private InMemoryExecutionStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        store = new InMemoryExecutionStateStore(2, 1000L, now::get);
+    }
+
+    @Test
+    void testSaveAndGetState() {
+        // Given
+        ExecutionState state = new ExecutionState("exec-1", "RUNNING", LocalDateTime.now());
+
+        // When
+        store.saveState(state);
+
+        // Then
+        assertThat(store.getState("exec-1")).isSameAs(state);
+        assertThat(store.getState("exec-2")).isNull();
+        assertThat(store.getStats().getHitCount()).isEqualTo(1);
+        assertThat(store.getStats().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testEvictOldestWhenCapacityExceeded() {
+        // Given
+        store.saveState(new ExecutionState("exec-1", "RUNNING", LocalDateTime.now()));
+        store.saveState(new ExecutionState("exec-2", "RUNNING", LocalDateTime.now()));
+
+        // When
+        store.saveState(new ExecutionState("exec-3", "RUNNING", LocalDateTime.now()));
+
+        // Then
+        assertThat(store.getState("exec-1")).isNull();
+        assertThat(store.getState("exec-2")).isNotNull();
+        assertThat(store.getState("exec-3")).isNotNull();
+        assertThat(store.getStats().getEvictionCount()).isEqualTo(1);
+        assertThat(store.getStats().getStateSize()).isEqualTo(2);
+    }
+
+    @Test
+    void testRewriteRefreshesEntry() {
+        // Given
+        ExecutionState first = new ExecutionState("exec-1", "RUNNING", LocalDateTime.now());
+        store.saveState(first);
+        store.saveState(new ExecutionState("exec-2", "RUNNING", LocalDateTime.now()));
+
+        // When
+        now.set(500);
+        first.setStatus("COMPLETED");
+        store.saveState(first);
+        store.saveState(new ExecutionState("exec-3", "RUNNING", LocalDateTime.now()));
+
+        // Then
+        assertThat(store.getState("exec-1")).isNotNull();
+        assertThat(store.getState("exec-2")).isNull();
+    }
+
+    @Test
+    void testExpireAfterTtl() {
+        // Given
+        store.saveResult(ExecutionResponseVO.builder().executionId("exec-1").status("COMPLETED").build());
+
+        // When
+        now.set(1000);
+
+        // Then
+        assertThat(store.getResult("exec-1")).isNull();
+        assertThat(store.getStats().getExpirationCount()).isEqualTo(1);
+        assertThat(store.getStats().getResultSize()).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package com.dms.liteflow.application.execution.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * RedisSpillExecutionStateStore 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisSpillExecutionStateStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ObjectMapper objectMapper;
+    private RedisSpillExecutionStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        store = new RedisSpillExecutionStateStore(new InMemoryExecutionStateStore(10, 60000L),
+                redisTemplate, objectMapper, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testLocalRunningStateDoesNotReadRedis() {
+        // Given
+        ExecutionState state = new ExecutionState("exec-1", "RUNNING", LocalDateTime.now());
+        store.saveState(state);
+
+        // When
+        ExecutionState result = store.getState("exec-1");
+
+        // Then
+        assertThat(result).isSameAs(state);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testDispatchedStateReadsSpilledState() throws Exception {
+        // Given
+        ExecutionState pending = new ExecutionState("exec-2", "PENDING", LocalDateTime.now());
+        pending.setDispatched(true);
+        store.saveState(pending);
+
+        ExecutionState completed = new ExecutionState("exec-2", "COMPLETED", LocalDateTime.now());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(objectMapper.writeValueAsString(completed));
+
+        // When
+        ExecutionState result = store.getState("exec-2");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(store.getState("exec-2").getStatus()).isEqualTo("COMPLETED");
+        verify(valueOperations, times(1)).get("dms:execution:state:exec-2");
+    }
+
+    @Test
+    void testMissingStateReadsRedis() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(null);
+
+        // When
+        ExecutionState result = store.getState("exec-3");
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(store.getStats().getRedisMissCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.dms.liteflow.application.monitoring.aggregation;
+
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LatencyAggregator 单元测试
+ */
+class LatencyAggregatorTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.of(2026, 3, 1, 12, 0, 30);
+
+    private AtomicLong now;
+    private MonitoringProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(toMillis(STARTED_AT));
+        properties = new MonitoringProperties();
+        properties.getAggregation().setSingleNode(true);
+    }
+
+    @Test
+    void testSnapshotWithinNodeLifetime() {
+        // Given
+        LatencyAggregator aggregator = new LatencyAggregator(properties, now::get);
+        now.addAndGet(60_000);
+        aggregator.record(record(20L, "SUCCESS"));
+        aggregator.record(record(40L, "FAILURE"));
+
+        // When
+        Optional<LatencySnapshot> snapshot = aggregator.chainSnapshot(1L, 10L, STARTED_AT, null);
+
+        // Then
+        assertThat(snapshot).isPresent();
+        assertThat(snapshot.get().getCount()).isEqualTo(2);
+        assertThat(snapshot.get().getFailureCount()).isEqualTo(1);
+        assertThat(aggregator.tenantSnapshot(1L, STARTED_AT, null).get().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testRangeBeforeNodeStartFallsThrough() {
+        // Given: 节点启动前的执行不在内存中
+        LatencyAggregator aggregator = new LatencyAggregator(properties, now::get);
+        now.addAndGet(60_000);
+        aggregator.record(record(20L, "SUCCESS"));
+
+        // When
+        Optional<LatencySnapshot> snapshot = aggregator.chainSnapshot(1L, 10L, STARTED_AT.minusSeconds(1), null);
+
+        // Then
+        assertThat(snapshot).isEmpty();
+    }
+
+    @Test
+    void testMultiNodeDeploymentFallsThrough() {
+        // Given
+        properties.getAggregation().setSingleNode(false);
+        LatencyAggregator aggregator = new LatencyAggregator(properties, now::get);
+        aggregator.record(record(20L, "SUCCESS"));
+
+        // When / Then: 不做跨节点合并，多节点部署时不记录也不提供查询
+        assertThat(aggregator.tenantSnapshot(1L, STARTED_AT, null)).isEmpty();
+        assertThat(aggregator.getSeriesCount()).isZero();
+    }
+
+    @Test
+    void testRangeOutsideRetentionWindowFallsThrough() {
+        // Given: 保留窗口 = 60 秒 × 60 片
+        LatencyAggregator aggregator = new LatencyAggregator(properties, now::get);
+        now.addAndGet(2 * 3600_000L);
+
+        // When / Then
+        assertThat(aggregator.tenantSnapshot(1L, STARTED_AT.plusMinutes(30), null)).isEmpty();
+        assertThat(aggregator.tenantSnapshot(1L, STARTED_AT.plusMinutes(90), null)).isPresent();
+    }
+
+    private ExecutionRecord record(Long executeTime, String status) {
+        return ExecutionRecord.builder()
+                .tenantId(TenantId.of(1L))
+                .chainId(ChainId.of(10L))
+                .componentId("cmpA")
+                .executeTime(executeTime)
+                .status(status)
+                .build();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
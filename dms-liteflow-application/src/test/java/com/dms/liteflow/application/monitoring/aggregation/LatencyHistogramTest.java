@@ -0,0 +1,88 @@
+package com.dms.liteflow.application.monitoring.aggregation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LatencyHistogram 单元测试
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testSmallValuesHaveOneBucketPerMillisecond() {
+        for (int value = 0; value < 8; value++) {
+            assertThat(LatencyHistogram.bucketIndex(value)).isEqualTo(value);
+            assertThat(LatencyHistogram.bucketUpperBound(value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void testLogLinearBucketBoundaries() {
+        // 8~15 每毫秒一个桶，16~31 每 2 毫秒一个桶
+        assertThat(LatencyHistogram.bucketIndex(8)).isEqualTo(8);
+        assertThat(LatencyHistogram.bucketIndex(15)).isEqualTo(15);
+        assertThat(LatencyHistogram.bucketIndex(16)).isEqualTo(16);
+        assertThat(LatencyHistogram.bucketIndex(17)).isEqualTo(16);
+        assertThat(LatencyHistogram.bucketIndex(18)).isEqualTo(17);
+        assertThat(LatencyHistogram.bucketUpperBound(16)).isEqualTo(17);
+        assertThat(LatencyHistogram.bucketUpperBound(17)).isEqualTo(19);
+    }
+
+    @Test
+    void testUpperBoundsAreContiguousAndInvertible() {
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT - 1; index++) {
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertThat(LatencyHistogram.bucketIndex(upper)).isEqualTo(index);
+            assertThat(LatencyHistogram.bucketIndex(upper + 1)).isEqualTo(index + 1);
+        }
+    }
+
+    @Test
+    void testRelativeErrorWithinOneEighth() {
+        for (long value = 8; value < (1L << 22); value = value * 3 / 2 + 1) {
+            long upper = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            assertThat((upper - value) * 8).isLessThanOrEqualTo(value);
+        }
+    }
+
+    @Test
+    void testOverflowAndNegativeValues() {
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.bucketIndex(1L << 22)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5, true);
+        LatencySnapshot.Accumulator accumulator = new LatencySnapshot.Accumulator();
+        histogram.mergeInto(accumulator);
+        assertThat(accumulator.getBuckets()[0]).isEqualTo(1);
+        assertThat(accumulator.getMin()).isZero();
+    }
+
+    @Test
+    void testMergedPercentiles() {
+        // Given: 两个直方图合计记录 1~100ms，其中 10 次失败
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            (value % 2 == 0 ? first : second).record(value, value % 10 != 0);
+        }
+
+        // When
+        LatencySnapshot.Accumulator accumulator = new LatencySnapshot.Accumulator();
+        first.mergeInto(accumulator);
+        second.mergeInto(accumulator);
+        LatencySnapshot snapshot = accumulator.toSnapshot();
+
+        // Then
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(snapshot.getFailureCount()).isEqualTo(10);
+        assertThat(snapshot.getSum()).isEqualTo(5050);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isEqualTo(100);
+        assertThat(snapshot.getP50()).isBetween(50L, 56L);
+        assertThat(snapshot.getP95()).isBetween(95L, 100L);
+        assertThat(snapshot.getP99()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,275 @@
+package com.dms.liteflow.application.monitoring.rollup;
+
+import com.dms.liteflow.application.monitoring.aggregation.LatencySnapshot;
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionStatsRollup;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionStatsRollupRepository;
+import com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity;
+import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ExecutionStatsRollupService 单元测试
+ */
+class ExecutionStatsRollupServiceTest {
+
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private InMemoryRecordRepository recordRepository;
+    private InMemoryRollupRepository rollupRepository;
+    private MonitoringProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        recordRepository = new InMemoryRecordRepository();
+        rollupRepository = new InMemoryRollupRepository();
+        properties = new MonitoringProperties();
+        properties.getRollup().setInitialLookbackHours(48);
+    }
+
+    @Test
+    void testHourlyRollupBuildsAllDimensions() {
+        // Given
+        recordRepository.add(DAY_START.plusMinutes(10), null, 10, true);
+        recordRepository.add(DAY_START.plusMinutes(20), "cmpA", 30, false);
+        ExecutionStatsRollupService service = serviceAt(DAY_START.plusHours(1).plusMinutes(10));
+
+        // When
+        int hours = service.rollupHourly();
+
+        // Then
+        assertThat(hours).isGreaterThan(0);
+        assertThat(rollupRepository.findRolledUpTo(RollupGranularity.HOUR)).contains(DAY_START.plusHours(1));
+        ExecutionStatsRollup tenant = rollupRepository.single(RollupGranularity.HOUR, 1L, 0L, "");
+        assertThat(tenant.getCount()).isEqualTo(2);
+        assertThat(tenant.getFailureCount()).isEqualTo(1);
+        assertThat(tenant.getSum()).isEqualTo(40);
+        assertThat(tenant.getMin()).isEqualTo(10);
+        assertThat(tenant.getMax()).isEqualTo(30);
+        assertThat(rollupRepository.single(RollupGranularity.HOUR, 1L, 100L, "").getCount()).isEqualTo(2);
+        assertThat(rollupRepository.single(RollupGranularity.HOUR, 1L, 100L, "cmpA").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testHourlyRollupWaitsForLag() {
+        // Given
+        ExecutionStatsRollupService service = serviceAt(DAY_START.plusHours(1).plusMinutes(2));
+        rollupRepository.saveRolledUpTo(RollupGranularity.HOUR, DAY_START);
+
+        // When / Then
+        assertThat(service.rollupHourly()).isZero();
+        assertThat(recordRepository.scanCount.get()).isZero();
+    }
+
+    @Test
+    void testDailyRollupMergesHourlyRowsWithoutRawScan() {
+        // Given
+        for (int hour = 0; hour < 24; hour++) {
+            recordRepository.add(DAY_START.plusHours(hour).plusMinutes(5), null, hour + 1, true);
+        }
+        ExecutionStatsRollupService service = serviceAt(DAY_START.plusDays(1).plusMinutes(10));
+        service.rollupHourly();
+        int scansAfterHourly = recordRepository.scanCount.get();
+
+        // When
+        int days = service.rollupDaily();
+
+        // Then
+        assertThat(days).isGreaterThan(0);
+        assertThat(recordRepository.scanCount.get()).isEqualTo(scansAfterHourly);
+        ExecutionStatsRollup daily = rollupRepository.single(RollupGranularity.DAY, 1L, 100L, "");
+        assertThat(daily.getBucketStart()).isEqualTo(DAY_START);
+        assertThat(daily.getCount()).isEqualTo(24);
+        assertThat(daily.getMin()).isEqualTo(1);
+        assertThat(daily.getMax()).isEqualTo(24);
+    }
+
+    @Test
+    void testSnapshotCombinesDailyHourlyAndRawTail() {
+        // Given
+        recordRepository.add(DAY_START.minusHours(1).plusMinutes(5), null, 5, true);
+        recordRepository.add(DAY_START.plusHours(3), null, 7, true);
+        ExecutionStatsRollupService service = serviceAt(DAY_START.plusDays(1).plusHours(2).plusMinutes(10));
+        service.rollupHourly();
+        service.rollupDaily();
+        recordRepository.add(DAY_START.plusDays(1).plusHours(2).plusMinutes(1), null, 9, false);
+
+        // When
+        Optional<LatencySnapshot> snapshot = service.snapshot(1L, 100L, null,
+                DAY_START.minusHours(1), DAY_START.plusDays(1).plusHours(2).plusMinutes(5));
+
+        // Then
+        assertThat(snapshot).isPresent();
+        assertThat(snapshot.get().getCount()).isEqualTo(3);
+        assertThat(snapshot.get().getFailureCount()).isEqualTo(1);
+        assertThat(snapshot.get().getSum()).isEqualTo(21);
+    }
+
+    @Test
+    void testSnapshotEmptyWhenRangeNotRolledUp() {
+        ExecutionStatsRollupService service = serviceAt(DAY_START.plusHours(5));
+
+        assertThat(service.snapshot(1L, 100L, null, DAY_START, DAY_START.plusHours(1))).isEmpty();
+    }
+
+    private ExecutionStatsRollupService serviceAt(LocalDateTime now) {
+        Clock clock = Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new ExecutionStatsRollupService(recordRepository, rollupRepository, properties, clock);
+    }
+
+    private static final class InMemoryRecordRepository implements ExecutionRecordRepository {
+
+        private final List<ExecutionRecord> records = new ArrayList<>();
+        private final AtomicInteger scanCount = new AtomicInteger(0);
+
+        void add(LocalDateTime createdAt, String componentId, long executeTime, boolean success) {
+            records.add(ExecutionRecord.builder()
+                    .tenantId(TenantId.of(1L))
+                    .chainId(ChainId.of(100L))
+                    .componentId(componentId)
+                    .chainExecutionId("exec-" + records.size())
+                    .executeTime(executeTime)
+                    .status(success ? "SUCCESS" : "FAILURE")
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        @Override
+        public ExecutionRecord save(ExecutionRecord record) {
+            records.add(record);
+            return record;
+        }
+
+        @Override
+        public void saveAll(List<ExecutionRecord> records) {
+            this.records.addAll(records);
+        }
+
+        @Override
+        public List<ExecutionRecord> findByExecutionId(String executionId) {
+            return records.stream()
+                    .filter(record -> executionId.equals(record.getChainExecutionId()))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<ExecutionRecord> findByChainIdAndTimeRange(ChainId chainId, LocalDateTime startTime,
+                                                               LocalDateTime endTime) {
+            return records.stream()
+                    .filter(record -> record.getChainId().equals(chainId))
+                    .filter(record -> !record.getCreatedAt().isBefore(startTime) && !record.getCreatedAt().isAfter(endTime))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<ExecutionRecord> findByTenantIdAndTimeRange(TenantId tenantId, LocalDateTime startTime,
+                                                                LocalDateTime endTime) {
+            return records.stream()
+                    .filter(record -> record.getTenantId().equals(tenantId))
+                    .filter(record -> !record.getCreatedAt().isBefore(startTime) && !record.getCreatedAt().isAfter(endTime))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public long countExecutions(TenantId tenantId, ChainId chainId, LocalDateTime startTime,
+                                    LocalDateTime endTime) {
+            return findByChainIdAndTimeRange(chainId, startTime, endTime).size();
+        }
+
+        @Override
+        public void forEachCompletedRecord(LocalDateTime startTime, LocalDateTime endTime,
+                                           Consumer<ExecutionRecord> consumer) {
+            scanCount.incrementAndGet();
+            records.stream()
+                    .filter(record -> !record.getCreatedAt().isBefore(startTime) && record.getCreatedAt().isBefore(endTime))
+                    .forEach(consumer);
+        }
+
+        @Override
+        public int deleteRecordsBefore(LocalDateTime beforeTime) {
+            int before = records.size();
+            records.removeIf(record -> record.getCreatedAt().isBefore(beforeTime));
+            return before - records.size();
+        }
+    }
+
+    private static final class InMemoryRollupRepository implements ExecutionStatsRollupRepository {
+
+        private final List<ExecutionStatsRollup> rollups = new ArrayList<>();
+        private final Map<RollupGranularity, LocalDateTime> watermarks = new EnumMap<>(RollupGranularity.class);
+
+        ExecutionStatsRollup single(RollupGranularity granularity, Long tenantId, Long chainId, String componentId) {
+            List<ExecutionStatsRollup> matched = rollups.stream()
+                    .filter(rollup -> rollup.getGranularity() == granularity)
+                    .filter(rollup -> rollup.getTenantId().equals(tenantId)
+                            && rollup.getChainId().equals(chainId)
+                            && rollup.getComponentId().equals(componentId))
+                    .filter(rollup -> rollup.getCount() > 0)
+                    .collect(Collectors.toList());
+            assertThat(matched).hasSize(1);
+            return matched.get(0);
+        }
+
+        @Override
+        public void saveAll(RollupGranularity granularity, List<ExecutionStatsRollup> rollups) {
+            this.rollups.addAll(rollups);
+        }
+
+        @Override
+        public List<ExecutionStatsRollup> findByDimension(RollupGranularity granularity, Long tenantId, Long chainId,
+                                                          String componentId, LocalDateTime startTime,
+                                                          LocalDateTime endTime) {
+            return findByTimeRange(granularity, startTime, endTime).stream()
+                    .filter(rollup -> rollup.getTenantId().equals(tenantId)
+                            && rollup.getChainId().equals(chainId)
+                            && rollup.getComponentId().equals(componentId))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<ExecutionStatsRollup> findByTimeRange(RollupGranularity granularity, LocalDateTime startTime,
+                                                          LocalDateTime endTime) {
+            return rollups.stream()
+                    .filter(rollup -> rollup.getGranularity() == granularity)
+                    .filter(rollup -> !rollup.getBucketStart().isBefore(startTime)
+                            && rollup.getBucketStart().isBefore(endTime))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Optional<LocalDateTime> findRolledUpTo(RollupGranularity granularity) {
+            return Optional.ofNullable(watermarks.get(granularity));
+        }
+
+        @Override
+        public void saveRolledUpTo(RollupGranularity granularity, LocalDateTime rolledUpTo) {
+            watermarks.put(granularity, rolledUpTo);
+        }
+
+        @Override
+        public int deleteBefore(RollupGranularity granularity, LocalDateTime beforeTime) {
+            int before = rollups.size();
+            rollups.removeIf(rollup -> rollup.getGranularity() == granularity
+                    && rollup.getBucketStart().isBefore(beforeTime));
+            return before - rollups.size();
+        }
+    }
+}
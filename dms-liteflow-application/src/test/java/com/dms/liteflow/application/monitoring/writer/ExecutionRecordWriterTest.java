@@ -0,0 +1,145 @@
+package com.dms.liteflow.application.monitoring.writer;
+
+import com.dms.liteflow.application.monitoring.aggregation.LatencyAggregator;
+import com.dms.liteflow.application.monitoring.config.MonitoringProperties;
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionRecord;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionRecordRepository;
+import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExecutionRecordWriter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ExecutionRecordWriterTest {
+
+    @Mock
+    private ExecutionRecordRepository executionRecordRepository;
+
+    private MonitoringProperties properties;
+    private ExecutionRecordWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void testFlushesWhenBatchSizeReached() {
+        // Given: 刷新间隔足够长，只能由批量大小触发
+        properties.getWriteBehind().setBatchSize(3);
+        properties.getWriteBehind().setFlushIntervalMs(60_000L);
+        writer = startWriter();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            writer.write(record());
+        }
+
+        // Then
+        ArgumentCaptor<List<ExecutionRecord>> batch = listCaptor();
+        verify(executionRecordRepository, timeout(5_000)).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(3);
+        assertThat(writer.getStats().getFlushedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void testFlushesPartialBatchAfterInterval() {
+        // Given: 批量大小无法攒满，只能由刷新间隔触发
+        properties.getWriteBehind().setBatchSize(500);
+        properties.getWriteBehind().setFlushIntervalMs(50L);
+        writer = startWriter();
+
+        // When
+        writer.write(record());
+
+        // Then
+        ArgumentCaptor<List<ExecutionRecord>> batch = listCaptor();
+        verify(executionRecordRepository, timeout(5_000)).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(1);
+    }
+
+    @Test
+    void testShutdownFlushesRemainingRecords() {
+        // Given
+        properties.getWriteBehind().setBatchSize(500);
+        properties.getWriteBehind().setFlushIntervalMs(60_000L);
+        writer = startWriter();
+        List<Integer> savedSizes = new ArrayList<>();
+        doAnswer(invocation -> savedSizes.add(invocation.<List<ExecutionRecord>>getArgument(0).size()))
+                .when(executionRecordRepository).saveAll(anyList());
+        writer.write(record());
+        writer.write(record());
+
+        // When
+        writer.shutdown();
+        writer = null;
+
+        // Then
+        assertThat(savedSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(2);
+    }
+
+    @Test
+    void testCreatedAtKeepsWriteTimeNotFlushTime() {
+        // Given: 同步写入，创建时间未设置
+        properties.getWriteBehind().setEnabled(false);
+        writer = startWriter();
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+        ExecutionRecord stamped = record();
+        stamped.setCreatedAt(createdAt);
+        ExecutionRecord unstamped = record();
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        writer.writeAll(List.of(stamped, unstamped));
+
+        // Then: 已有的创建时间保持不变，缺失的按写入时刻补齐
+        assertThat(stamped.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(unstamped.getCreatedAt()).isAfterOrEqualTo(before);
+        verify(executionRecordRepository).saveAll(List.of(stamped, unstamped));
+    }
+
+    private ExecutionRecordWriter startWriter() {
+        ExecutionRecordWriter recordWriter = new ExecutionRecordWriter(executionRecordRepository,
+                new LatencyAggregator(properties), properties);
+        recordWriter.start();
+        return recordWriter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ExecutionRecord>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static ExecutionRecord record() {
+        return ExecutionRecord.builder()
+                .tenantId(TenantId.of(1L))
+                .chainId(ChainId.of(10L))
+                .chainExecutionId("exec-1")
+                .executeTime(20L)
+                .status("SUCCESS")
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.dms.liteflow.application.monitoring.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RecordRingBuffer 单元测试
+ */
+class RecordRingBufferTest {
+
+    @Test
+    void testCapacityRoundedToPowerOfTwo() {
+        assertThat(new RecordRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+        assertThat(new RecordRingBuffer<String>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void testOfferFailsWhenFull() {
+        // Given
+        RecordRingBuffer<Integer> buffer = new RecordRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        // When / Then
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void testDrainToPreservesOrder() {
+        // Given
+        RecordRingBuffer<Integer> buffer = new RecordRingBuffer<>(8);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        // When
+        List<Integer> drained = new ArrayList<>();
+        int count = buffer.drainTo(drained, 4);
+
+        // Then
+        assertThat(count).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws Exception {
+        // Given
+        RecordRingBuffer<Integer> buffer = new RecordRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> consumed = new HashSet<>();
+        while (consumed.size() < producers * perProducer) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                consumed.add(value);
+            }
+        }
+
+        // Then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumed).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+        executor.shutdownNow();
+    }
+}
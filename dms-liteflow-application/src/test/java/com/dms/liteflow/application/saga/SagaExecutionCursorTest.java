@@ -0,0 +1,48 @@
+package com.dms.liteflow.application.saga;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SagaExecutionCursor 单元测试
+ */
+class SagaExecutionCursorTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        // Given
+        SagaExecutionCursor cursor = new SagaExecutionCursor(LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123000000), 42L);
+
+        // When
+        SagaExecutionCursor decoded = SagaExecutionCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(cursor.encode()).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void testDecodeInvalidCursor() {
+        assertThatThrownBy(() -> SagaExecutionCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testQueryHashDependsOnFilters() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+        // When
+        String failed = SagaExecutionCountCache.queryHash("FAILED", "orderChain", start, null);
+        String same = SagaExecutionCountCache.queryHash("FAILED", "orderChain", start, null);
+        String completed = SagaExecutionCountCache.queryHash("COMPLETED", "orderChain", start, null);
+
+        // Then
+        assertThat(failed).isEqualTo(same);
+        assertThat(failed).isNotEqualTo(completed);
+    }
+}
@@ -0,0 +1,194 @@
+package com.dms.liteflow.application.saga;
+
+import com.dms.liteflow.application.execution.queue.ExecutionQueue;
+import com.dms.liteflow.application.execution.scheduler.ExecutionScheduler;
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.service.CompensationOrchestrator;
+import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.saga.valueobject.StepStatus;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainRegistry;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yomahub.liteflow.core.FlowExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaExecutionService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaExecutionServiceTest {
+
+    @Mock
+    private FlowExecutor flowExecutor;
+
+    @Mock
+    private SagaStateService sagaStateService;
+
+    @Mock
+    private CompensationOrchestrator compensationOrchestrator;
+
+    @Mock
+    private SagaExecutionRepository sagaExecutionRepository;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private ExecutionScheduler executionScheduler;
+
+    @Mock
+    private ObjectProvider<ExecutionQueue> executionQueueProvider;
+
+    @Mock
+    private SagaOwnershipLease ownershipLease;
+
+    @Mock
+    private TenantChainRegistry tenantChainRegistry;
+
+    @InjectMocks
+    private SagaExecutionService sagaExecutionService;
+
+    private SagaExecution sagaExecution;
+    private SagaExecutionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        sagaExecution = SagaExecution.create(TenantId.of(1L), "orderChain", null);
+        request = SagaExecutionRequest.builder()
+                .tenantId(1L)
+                .chainName("orderChain")
+                .build();
+        when(sagaStateService.getExecution(sagaExecution.getExecutionId())).thenReturn(sagaExecution);
+    }
+
+    @Test
+    void testExecuteQueuedSkipsWhenClaimFails() {
+        // Given: 其他消费者已将状态从 PENDING 改为 RUNNING
+        when(sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING))
+                .thenReturn(false);
+
+        // When
+        sagaExecutionService.executeQueued(sagaExecution.getExecutionId().getValue(), request);
+
+        // Then
+        verifyNoInteractions(flowExecutor);
+        verify(sagaStateService, never()).saveExecution(any());
+        assertThat(sagaExecution.getStatus()).isEqualTo(SagaStatus.PENDING);
+    }
+
+    @Test
+    void testExecuteQueuedPersistsRunningBeforeExecuting() {
+        // Given
+        when(sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING))
+                .thenReturn(true);
+        when(tenantChainRegistry.acquire(1L, "orderChain"))
+                .thenReturn(TenantChainRegistry.ChainLease.unpinned("t1__orderChain"));
+        List<SagaStatus> savedStatuses = new ArrayList<>();
+        when(sagaStateService.saveExecution(any())).thenAnswer(invocation -> {
+            SagaExecution saved = invocation.getArgument(0);
+            savedStatuses.add(saved.getStatus());
+            return saved;
+        });
+
+        // When
+        sagaExecutionService.executeQueued(sagaExecution.getExecutionId().getValue(), request);
+
+        // Then: 执行前保存 RUNNING（带开始时间，登记超时截止时间），执行后保存 COMPLETED
+        assertThat(savedStatuses).containsExactly(SagaStatus.RUNNING, SagaStatus.COMPLETED);
+        assertThat(sagaExecution.getStartedAt()).isNotNull();
+        verify(flowExecutor).execute2Resp(eq("t1__orderChain"), any());
+        verify(ownershipLease).acquire(anyString());
+    }
+
+    @Test
+    void testFailQueuedMovesPendingSagaToFailed() {
+        // Given
+        when(sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING))
+                .thenReturn(true);
+
+        // When: 消息超过最大投递次数
+        sagaExecutionService.failQueued(sagaExecution.getExecutionId().getValue(), "Exceeded max deliveries: 3");
+
+        // Then
+        verify(sagaStateService).saveExecution(sagaExecution);
+        assertThat(sagaExecution.getStatus()).isEqualTo(SagaStatus.FAILED);
+        assertThat(sagaExecution.getFailureReason()).isEqualTo("Exceeded max deliveries: 3");
+        verifyNoInteractions(flowExecutor);
+    }
+
+    @Test
+    void testFailQueuedSkipsClaimedSaga() {
+        // Given: 其他消费者已开始执行
+        when(sagaStateService.updateStatus(sagaExecution.getExecutionId(), SagaStatus.PENDING, SagaStatus.RUNNING))
+                .thenReturn(false);
+
+        // When
+        sagaExecutionService.failQueued(sagaExecution.getExecutionId().getValue(), "Exceeded max deliveries: 3");
+
+        // Then
+        verify(sagaStateService, never()).saveExecution(any());
+        assertThat(sagaExecution.getStatus()).isEqualTo(SagaStatus.PENDING);
+    }
+
+    @Test
+    void testRetryPersistsRetriedStep() {
+        // Given: 失败的步骤
+        StepExecution failed = addFailedStep("step-1");
+
+        // When
+        boolean retried = sagaExecutionService.retry(sagaExecution.getExecutionId().getValue(), "step-1", null);
+
+        // Then: 保存的是步骤本身，而不只是头信息
+        assertThat(retried).isTrue();
+        ArgumentCaptor<StepExecution> saved = ArgumentCaptor.forClass(StepExecution.class);
+        verify(sagaStateService).saveStep(eq(sagaExecution.getExecutionId()), saved.capture());
+        assertThat(saved.getValue()).isSameAs(failed);
+        assertThat(saved.getValue().getStatus()).isEqualTo(StepStatus.COMPLETED);
+        assertThat(saved.getValue().getErrorCode()).isNull();
+        verify(flowExecutor).execute2Resp(eq("payComponent"), any());
+    }
+
+    @Test
+    void testSkipPersistsSkippedStep() {
+        // Given
+        addFailedStep("step-1");
+
+        // When
+        boolean skipped = sagaExecutionService.skip(sagaExecution.getExecutionId().getValue(), "step-1", "manual");
+
+        // Then
+        assertThat(skipped).isTrue();
+        ArgumentCaptor<StepExecution> saved = ArgumentCaptor.forClass(StepExecution.class);
+        verify(sagaStateService).saveStep(eq(sagaExecution.getExecutionId()), saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(StepStatus.SKIPPED);
+    }
+
+    private StepExecution addFailedStep(String stepId) {
+        StepExecution step = StepExecution.create(sagaExecution.getExecutionId().getValue(), StepId.of(stepId),
+                "payComponent", new HashMap<>(), null, false);
+        step.fail("E001", "timeout", null);
+        sagaExecution.addStep(step);
+        return step;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dms.liteflow.application.saga;
+
+import com.dms.liteflow.domain.saga.repository.CompensationLogRepository;
+import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * SagaManagementService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaManagementServiceTest {
+
+    @Mock
+    private SagaStateService sagaStateService;
+
+    @Mock
+    private SagaExecutionRepository sagaExecutionRepository;
+
+    @Mock
+    private CompensationLogRepository compensationLogRepository;
+
+    @Mock
+    private SagaExecutionCountCache executionCountCache;
+
+    private SagaManagementService sagaManagementService;
+
+    @BeforeEach
+    void setUp() {
+        sagaManagementService = new SagaManagementService(sagaStateService, sagaExecutionRepository,
+                compensationLogRepository, executionCountCache, new SagaProperties());
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        // When / Then: 不合法的游标不再被当作查询失败返回空列表
+        assertThatThrownBy(() -> sagaManagementService.listExecutions(0, 20, "not-a-cursor", null,
+                null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        verifyNoInteractions(sagaExecutionRepository, executionCountCache);
+    }
+
+    @Test
+    void testInvalidStatusIsRejected() {
+        // When / Then
+        assertThatThrownBy(() -> sagaManagementService.listExecutions(0, 20, null, "UNKNOWN",
+                null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(sagaExecutionRepository, executionCountCache);
+    }
+}
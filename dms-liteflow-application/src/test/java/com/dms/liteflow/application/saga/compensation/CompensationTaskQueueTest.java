@@ -0,0 +1,72 @@
+package com.dms.liteflow.application.saga.compensation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompensationTaskQueue 单元测试
+ */
+class CompensationTaskQueueTest {
+
+    @Test
+    void testRetryDelayGrowsExponentiallyUpToMax() {
+        assertThat(CompensationTaskQueue.retryDelayMs(1, 1000, 60000)).isEqualTo(1000);
+        assertThat(CompensationTaskQueue.retryDelayMs(2, 1000, 60000)).isEqualTo(2000);
+        assertThat(CompensationTaskQueue.retryDelayMs(4, 1000, 60000)).isEqualTo(8000);
+        assertThat(CompensationTaskQueue.retryDelayMs(7, 1000, 60000)).isEqualTo(60000);
+        assertThat(CompensationTaskQueue.retryDelayMs(100, 1000, 60000)).isEqualTo(60000);
+    }
+
+    @Test
+    void testFromRecordRestoresTask() {
+        // Given
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put(CompensationTaskQueue.FIELD_EXECUTION_ID, "saga-1");
+        fields.put(CompensationTaskQueue.FIELD_TENANT_ID, "7");
+        fields.put(CompensationTaskQueue.FIELD_CHAIN_NAME, "orderChain");
+        fields.put(CompensationTaskQueue.FIELD_ATTEMPT, "2");
+        fields.put(CompensationTaskQueue.FIELD_ENQUEUED_AT, "1700000000000");
+        fields.put(CompensationTaskQueue.FIELD_LAST_ERROR, "Partial failure");
+        MapRecord<String, Object, Object> record = StreamRecords.newRecord()
+                .in("saga:compensation:queue")
+                .withId(RecordId.of("1700000000500-0"))
+                .ofMap(fields);
+
+        // When
+        CompensationTask task = CompensationTaskQueue.fromRecord(record);
+
+        // Then
+        assertThat(task.getExecutionId()).isEqualTo("saga-1");
+        assertThat(task.getTenantId()).isEqualTo(7L);
+        assertThat(task.getAttempt()).isEqualTo(2);
+        assertThat(task.getEnqueuedAt()).isEqualTo(1700000000000L);
+        assertThat(task.nextAttempt("boom").getAttempt()).isEqualTo(3);
+    }
+
+    @Test
+    void testFromRecordDefaultsMissingFields() {
+        // Given
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put(CompensationTaskQueue.FIELD_EXECUTION_ID, "saga-2");
+        MapRecord<String, Object, Object> record = StreamRecords.newRecord()
+                .in("saga:compensation:queue")
+                .withId(RecordId.of("1700000000500-0"))
+                .ofMap(fields);
+
+        // When
+        CompensationTask task = CompensationTaskQueue.fromRecord(record);
+
+        // Then
+        assertThat(task.getTenantId()).isNull();
+        assertThat(task.getAttempt()).isZero();
+        assertThat(task.getEnqueuedAt()).isEqualTo(1700000000500L);
+        assertThat(task.getLastError()).isNull();
+    }
+}
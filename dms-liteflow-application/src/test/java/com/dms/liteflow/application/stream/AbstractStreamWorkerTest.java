@@ -0,0 +1,152 @@
+package com.dms.liteflow.application.stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AbstractStreamWorker 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class AbstractStreamWorkerTest {
+
+    private static final String STREAM = "test:stream";
+    private static final String GROUP = "test-group";
+    private static final long RECLAIM_IDLE_MS = 60_000L;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    private TestWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new TestWorker(redisTemplate);
+        worker.consumerName = "node-1";
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    }
+
+    @Test
+    void testReclaimClaimsAtMostCapacity() {
+        // Given: 3 条空闲消息，本节点只能再处理 1 条
+        worker.capacity = 1;
+        pending(idle("1-0", 1), idle("2-0", 1), idle("3-0", 1));
+        when(streamOperations.claim(eq(STREAM), eq(GROUP), eq("node-1"), any(Duration.class),
+                any(RecordId[].class))).thenReturn(List.of());
+
+        // When
+        worker.reclaimIdle();
+
+        // Then
+        verify(streamOperations).claim(eq(STREAM), eq(GROUP), eq("node-1"), any(Duration.class),
+                eq(RecordId.of("1-0")));
+        assertThat(worker.processed).hasSize(1);
+    }
+
+    @Test
+    void testReclaimSkipsClaimWithoutCapacity() {
+        // Given
+        worker.capacity = 0;
+        pending(idle("1-0", 1));
+
+        // When
+        worker.reclaimIdle();
+
+        // Then: 不认领，避免累计投递次数
+        verify(streamOperations, never()).claim(anyString(), anyString(), anyString(), any(Duration.class),
+                any(RecordId[].class));
+        assertThat(worker.processed).isEmpty();
+    }
+
+    @Test
+    void testExhaustedAndRecentMessagesAreNotClaimed() {
+        // Given: 1-0 超过最大投递次数，3-0 刚投递未空闲
+        worker.capacity = 5;
+        worker.exhausted = Set.of(RecordId.of("1-0"));
+        PendingMessage recent = new PendingMessage(RecordId.of("3-0"), Consumer.from(GROUP, "node-2"),
+                Duration.ofMillis(10), 1);
+        pending(idle("1-0", 3), idle("2-0", 1), recent);
+        when(streamOperations.claim(eq(STREAM), eq(GROUP), eq("node-1"), any(Duration.class),
+                any(RecordId[].class))).thenReturn(List.of());
+
+        // When
+        worker.reclaimIdle();
+
+        // Then
+        verify(streamOperations).claim(eq(STREAM), eq(GROUP), eq("node-1"), any(Duration.class),
+                eq(RecordId.of("2-0")));
+        assertThat(worker.exhaustedHandled).containsExactly(RecordId.of("1-0"));
+    }
+
+    private void pending(PendingMessage... messages) {
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(Range.class), eq(10L)))
+                .thenReturn(new PendingMessages(GROUP, List.of(messages)));
+    }
+
+    private static PendingMessage idle(String id, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from(GROUP, "node-2"),
+                Duration.ofMillis(RECLAIM_IDLE_MS + 1), deliveries);
+    }
+
+    private static final class TestWorker extends AbstractStreamWorker {
+
+        private int capacity;
+        private Set<RecordId> exhausted = Set.of();
+        private final List<RecordId> exhaustedHandled = new ArrayList<>();
+        private final List<List<MapRecord<String, Object, Object>>> processed = new ArrayList<>();
+
+        TestWorker(StringRedisTemplate redisTemplate) {
+            super(redisTemplate, Settings.builder()
+                    .streamKey(STREAM)
+                    .consumerGroup(GROUP)
+                    .pollTimeoutMs(100L)
+                    .reclaimIdleMs(RECLAIM_IDLE_MS)
+                    .reclaimIntervalMs(1_000L)
+                    .pendingScanLimit(10)
+                    .build());
+        }
+
+        @Override
+        protected int fetchCapacity() {
+            return capacity;
+        }
+
+        @Override
+        protected void process(List<MapRecord<String, Object, Object>> records) {
+            processed.add(records);
+        }
+
+        @Override
+        protected boolean handleExhausted(PendingMessage message) {
+            if (!exhausted.contains(message.getId())) {
+                return false;
+            }
+            exhaustedHandled.add(message.getId());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dms.liteflow.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量流程执行请求 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExecutionRequestDTO {
+    /**
+     * 执行请求列表
+     */
+    private List<ExecutionRequestDTO> requests;
+}
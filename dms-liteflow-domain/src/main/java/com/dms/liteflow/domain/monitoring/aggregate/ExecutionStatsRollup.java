@@ -0,0 +1,88 @@
+package com.dms.liteflow.domain.monitoring.aggregate;
+
+import com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 执行统计汇总
+ * <p>
+ * 一行对应一个维度在一个汇总区间内的统计：租户维度 chainId = {@link #ALL_CHAINS}，
+ * 流程链维度 componentId = {@link #NO_COMPONENT}，组件维度两者均有值。
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionStatsRollup {
+
+    /**
+     * 租户维度的流程链ID占位
+     */
+    public static final long ALL_CHAINS = 0L;
+
+    /**
+     * 租户/流程链维度的组件ID占位
+     */
+    public static final String NO_COMPONENT = "";
+
+    /**
+     * 汇总粒度
+     */
+    private RollupGranularity granularity;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 流程链ID
+     */
+    private Long chainId;
+
+    /**
+     * 组件ID
+     */
+    private String componentId;
+
+    /**
+     * 汇总区间起点
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * 执行次数
+     */
+    private long count;
+
+    /**
+     * 失败次数
+     */
+    private long failureCount;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long sum;
+
+    /**
+     * 最小耗时（毫秒）
+     */
+    private long min;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private long max;
+
+    /**
+     * 延迟直方图各桶计数
+     */
+    private long[] histogram;
+}
@@ -6,6 +6,7 @@ import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 执行监控仓储接口
@@ -79,6 +80,19 @@ public interface ExecutionRecordRepository {
             LocalDateTime endTime
     );
 
+    /**
+     * 逐条遍历时间段内已结束（非 RUNNING）的执行记录，不在内存中整体加载
+     *
+     * @param startTime 开始时间（含）
+     * @param endTime   结束时间（不含）
+     * @param consumer  记录处理器
+     */
+    void forEachCompletedRecord(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Consumer<ExecutionRecord> consumer
+    );
+
     /**
      * 删除过期记录
      *
@@ -0,0 +1,81 @@
+package com.dms.liteflow.domain.monitoring.repository;
+
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionStatsRollup;
+import com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 执行统计汇总仓储接口
+ */
+public interface ExecutionStatsRollupRepository {
+
+    /**
+     * 批量写入汇总，同一维度同一区间已存在时覆盖
+     *
+     * @param granularity 汇总粒度
+     * @param rollups     汇总列表
+     */
+    void saveAll(RollupGranularity granularity, List<ExecutionStatsRollup> rollups);
+
+    /**
+     * 查询单个维度在时间段内的汇总
+     *
+     * @param granularity 汇总粒度
+     * @param tenantId    租户ID
+     * @param chainId     流程链ID，租户维度传 {@link ExecutionStatsRollup#ALL_CHAINS}
+     * @param componentId 组件ID，租户/流程链维度传 {@link ExecutionStatsRollup#NO_COMPONENT}
+     * @param startTime   区间起点（含）
+     * @param endTime     区间起点上限（不含）
+     * @return 汇总列表
+     */
+    List<ExecutionStatsRollup> findByDimension(
+            RollupGranularity granularity,
+            Long tenantId,
+            Long chainId,
+            String componentId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * 查询时间段内所有维度的汇总，用于向上一级粒度汇总
+     *
+     * @param granularity 汇总粒度
+     * @param startTime   区间起点（含）
+     * @param endTime     区间起点上限（不含）
+     * @return 汇总列表
+     */
+    List<ExecutionStatsRollup> findByTimeRange(
+            RollupGranularity granularity,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * 已汇总到的时间点（不含），尚未汇总过时返回空
+     *
+     * @param granularity 汇总粒度
+     * @return 汇总水位
+     */
+    Optional<LocalDateTime> findRolledUpTo(RollupGranularity granularity);
+
+    /**
+     * 更新汇总水位
+     *
+     * @param granularity 汇总粒度
+     * @param rolledUpTo  已汇总到的时间点（不含）
+     */
+    void saveRolledUpTo(RollupGranularity granularity, LocalDateTime rolledUpTo);
+
+    /**
+     * 删除过期汇总
+     *
+     * @param granularity 汇总粒度
+     * @param beforeTime  时间阈值
+     * @return 删除的行数
+     */
+    int deleteBefore(RollupGranularity granularity, LocalDateTime beforeTime);
+}
@@ -0,0 +1,40 @@
+package com.dms.liteflow.domain.monitoring.valueobject;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 执行统计汇总粒度
+ */
+public enum RollupGranularity {
+
+    /**
+     * 小时级汇总
+     */
+    HOUR(ChronoUnit.HOURS),
+
+    /**
+     * 日级汇总
+     */
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * 时间所在汇总区间的起点
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * 下一个汇总区间的起点
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+}
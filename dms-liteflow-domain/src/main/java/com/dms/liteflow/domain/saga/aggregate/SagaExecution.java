@@ -148,10 +148,11 @@ public class SagaExecution {
     }
 
     /**
-     * 开始补偿
+     * 开始补偿（补偿中时视为继续上次未完成的补偿）
      */
     public void startCompensating() {
-        if (this.status != SagaStatus.FAILED && this.status != SagaStatus.MANUAL_INTERVENTION) {
+        if (this.status != SagaStatus.FAILED && this.status != SagaStatus.MANUAL_INTERVENTION
+                && this.status != SagaStatus.COMPENSATING) {
             throw new IllegalStateException("Cannot start compensating in status: " + this.status);
         }
         this.status = SagaStatus.COMPENSATING;
@@ -174,7 +175,8 @@ public class SagaExecution {
      * 标记为需要人工介入
      */
     public void markManualIntervention(String reason) {
-        if (this.status != SagaStatus.FAILED && this.status != SagaStatus.RUNNING) {
+        if (this.status != SagaStatus.FAILED && this.status != SagaStatus.RUNNING
+                && this.status != SagaStatus.COMPENSATING) {
             throw new IllegalStateException("Cannot mark manual intervention in status: " + this.status);
         }
         this.status = SagaStatus.MANUAL_INTERVENTION;
@@ -18,7 +18,7 @@ import java.util.Map;
  * @since 2026-02-03
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class StepExecution {
@@ -134,11 +134,25 @@ public class StepExecution {
     }
 
     /**
-     * 跳过步骤
+     * 重试失败的步骤：清除错误信息，重新进入 RUNNING
+     */
+    public void retry() {
+        if (this.status != StepStatus.FAILED) {
+            throw new IllegalStateException("Step is not failed");
+        }
+        this.status = StepStatus.RUNNING;
+        this.errorCode = null;
+        this.errorMessage = null;
+        this.stackTrace = null;
+        this.executedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 跳过步骤（运行中或失败的步骤）
      */
     public void skip() {
-        if (this.status != StepStatus.RUNNING) {
-            throw new IllegalStateException("Step is not running");
+        if (this.status != StepStatus.RUNNING && this.status != StepStatus.FAILED) {
+            throw new IllegalStateException("Step is not running or failed");
         }
         this.status = StepStatus.SKIPPED;
     }
@@ -22,6 +22,11 @@ public interface SagaExecutionRepository {
      */
     SagaExecution save(SagaExecution sagaExecution);
 
+    /**
+     * 写入运行态快照（按执行ID 幂等，不参与乐观锁）
+     */
+    void saveSnapshot(SagaExecution sagaExecution);
+
     /**
      * 根据 ID 查找
      */
@@ -74,6 +79,17 @@ public interface SagaExecutionRepository {
                                        String chainName, LocalDateTime startTime,
                                        LocalDateTime endTime, int offset, int size);
 
+    /**
+     * 根据租户ID和条件游标分页查找（按开始时间、主键倒序）
+     *
+     * @param cursorStartedAt 上一页最后一条的开始时间，首页传 null
+     * @param cursorId        上一页最后一条的主键，首页传 null
+     */
+    List<SagaExecution> findByTenantIdAfter(TenantId tenantId, SagaStatus status,
+                                            String chainName, LocalDateTime startTime,
+                                            LocalDateTime endTime, LocalDateTime cursorStartedAt,
+                                            Long cursorId, int size);
+
     /**
      * 统计租户下的执行数量（带条件）
      */
@@ -25,13 +25,19 @@ public interface StepExecutionRepository {
      */
     List<StepExecution> saveAll(List<StepExecution> stepExecutions);
 
+    /**
+     * 追加步骤状态迁移记录
+     * <p>每次迁移写入一行，读取时按 stepId 合并为最新状态；输入数据只需随首条记录写入</p>
+     */
+    void appendTransitions(List<StepExecution> transitions);
+
     /**
      * 根据 ID 查找
      */
     Optional<StepExecution> findById(Long id);
 
     /**
-     * 根据执行ID 查找所有步骤
+     * 根据执行ID 查找所有步骤（按 stepId 合并迁移记录，按执行顺序返回）
      */
     List<StepExecution> findByExecutionId(String executionId);
 
@@ -47,6 +47,14 @@ public interface SagaStateService {
      */
     void recordStepFailure(SagaExecutionId executionId, StepId stepId, String errorCode, String errorMessage, String stackTrace);
 
+    /**
+     * 记录节点补偿完成
+     *
+     * @param executionId 执行ID
+     * @param stepId 步骤ID
+     */
+    void recordStepCompensated(SagaExecutionId executionId, StepId stepId);
+
     /**
      * 获取执行栈（用于补偿）
      *
@@ -81,6 +89,14 @@ public interface SagaStateService {
      */
     SagaExecution saveExecution(SagaExecution sagaExecution);
 
+    /**
+     * 保存单个步骤的当前状态（人工重试、跳过等不经过步骤迁移接口的变更）
+     *
+     * @param executionId 执行ID
+     * @param stepExecution 步骤执行记录
+     */
+    void saveStep(SagaExecutionId executionId, StepExecution stepExecution);
+
     /**
      * 删除 SagaExecution
      *
@@ -1,5 +1,6 @@
 package com.dms.liteflow.domain.saga.valueobject;
 
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +21,11 @@ import java.util.Map;
 @AllArgsConstructor
 public class SagaComponentMetadata {
 
+    /**
+     * 租户ID
+     */
+    private TenantId tenantId;
+
     /**
      * 组件名称
      */
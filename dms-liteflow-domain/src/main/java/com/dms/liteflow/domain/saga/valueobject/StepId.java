@@ -3,6 +3,8 @@ package com.dms.liteflow.domain.saga.valueobject;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Saga 步骤 ID 值对象
  *
@@ -13,6 +15,8 @@ import lombok.Getter;
 @EqualsAndHashCode
 public class StepId {
 
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final String value;
 
     private StepId(String value) {
@@ -23,10 +27,10 @@ public class StepId {
     }
 
     /**
-     * 生成新的步骤 ID
+     * 生成新的步骤 ID（同一毫秒内以进程内序号区分，步骤在运行态 Hash 中以 stepId 为 field）
      */
     public static StepId generate() {
-        return new StepId("step-" + System.currentTimeMillis());
+        return new StepId("step-" + System.currentTimeMillis() + "-" + SEQUENCE.incrementAndGet());
     }
 
     /**
@@ -3,6 +3,7 @@ package com.dms.liteflow.domain.shared.kernel.valueobject;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
@@ -13,7 +14,9 @@ import java.util.Objects;
  */
 @Getter
 @EqualsAndHashCode
-public final class TenantId {
+public final class TenantId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Long value;
 
@@ -0,0 +1,195 @@
+package com.dms.liteflow.infrastructure.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * 近端缓存
+ * <p>
+ * 在 Redis 缓存之前保存最近访问的条目（容量有界，超限时淘汰最久未访问的条目）。
+ * 条目从 Redis 读取时记录当时的本地失效代数，读取期间有清除发生时结果不写入本地，避免旧值覆盖失效。
+ * 写入和清除同时作用于 Redis，清除由 {@link NearCacheManager} 广播到其他节点。
+ * </p>
+ * <p>
+ * 与 Redis 缓存每次读取得到新对象一致，本地条目保存值的副本，命中时同样返回副本（不可变类型除外），
+ * 调用方修改取到的值不影响缓存。副本通过 Java 序列化生成，不可序列化的值只缓存在 Redis 中。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+public class NearCache implements Cache {
+
+    /**
+     * 命中时无需复制的不可变类型
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class);
+
+    private final Cache delegate;
+    private final NearCacheManager manager;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    NearCache(Cache delegate, NearCacheManager manager, int maxEntries, Duration timeToLive) {
+        this.delegate = delegate;
+        this.manager = manager;
+        this.ttlMillis = timeToLive != null && !timeToLive.isZero() ? timeToLive.toMillis() : 0L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String nearKey = nearKey(key);
+        ValueWrapper local = getLocal(nearKey);
+        if (local != null) {
+            return local;
+        }
+
+        long generation = manager.generation();
+        ValueWrapper remote = delegate.get(key);
+        if (remote != null) {
+            putLocal(nearKey, remote.get(), generation);
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String nearKey = nearKey(key);
+        ValueWrapper local = getLocal(nearKey);
+        if (local != null) {
+            return (T) local.get();
+        }
+
+        long generation = manager.generation();
+        T value = delegate.get(key, valueLoader);
+        if (value != null) {
+            putLocal(nearKey, value, generation);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long generation = manager.generation();
+        delegate.put(key, value);
+        if (value != null) {
+            putLocal(nearKey(key), value, generation);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        // 先递增失效代数再清除本地条目，在途读取要么被拒绝写入，要么写入后被清除
+        String nearKey = nearKey(key);
+        delegate.evict(key);
+        manager.invalidated(getName(), nearKey);
+        evictLocal(nearKey);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        manager.invalidated(getName(), NearCacheManager.ALL_KEYS);
+        evictLocal(NearCacheManager.ALL_KEYS);
+    }
+
+    /**
+     * 只清除本地条目
+     *
+     * @param nearKey 缓存 key，{@link NearCacheManager#ALL_KEYS} 表示全部
+     */
+    synchronized void evictLocal(String nearKey) {
+        if (NearCacheManager.ALL_KEYS.equals(nearKey)) {
+            entries.clear();
+        } else {
+            entries.remove(nearKey);
+        }
+    }
+
+    private ValueWrapper getLocal(String nearKey) {
+        manager.checkVersion();
+        Object value;
+        synchronized (this) {
+            Entry entry = entries.get(nearKey);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt > 0 && System.currentTimeMillis() >= entry.expiresAt) {
+                entries.remove(nearKey);
+                return null;
+            }
+            value = entry.value;
+        }
+        return new SimpleValueWrapper(isImmutable(value) ? value : SerializationUtils.clone((Serializable) value));
+    }
+
+    private void putLocal(String nearKey, Object value, long generation) {
+        if (!isImmutable(value) && !(value instanceof Serializable)) {
+            return;
+        }
+        // 在锁外复制，调用方之后修改传入的值不影响本地条目
+        Object snapshot = isImmutable(value) ? value : SerializationUtils.clone((Serializable) value);
+        synchronized (this) {
+            // 读取期间发生过清除，结果可能是旧值
+            if (manager.generation() != generation) {
+                return;
+            }
+            long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0L;
+            entries.put(nearKey, new Entry(snapshot, expiresAt));
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value == null || IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum<?>;
+    }
+
+    /**
+     * 广播中以字符串传递 key，本地条目同样按字符串存放
+     */
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.dms.liteflow.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 两级缓存管理器
+ * <p>
+ * 指定的缓存在 Redis 缓存之前加一层进程内的 {@link NearCache}，读取命中时不访问 Redis。
+ * 本节点清除缓存（{@code @CacheEvict}）时递增 {@link #VERSION_KEY} 并通过 {@link #CHANNEL} 广播，
+ * 各节点丢弃对应的本地条目，并记录连续收到的版本号水位；按 versionCheckIntervalMs 核对全局版本号，
+ * 高于水位（中间或末尾的广播丢失）时清空本地条目兜底。
+ * 其他缓存直接使用 Redis 缓存。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    public static final String CHANNEL = "dms:cache:near:invalidate";
+    public static final String VERSION_KEY = "dms:cache:near:version";
+
+    /**
+     * 广播中表示清空整个缓存的 key
+     */
+    static final String ALL_KEYS = "*";
+
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final Set<String> nearCacheNames;
+    private final int maxEntries;
+    private final Duration timeToLive;
+    private final long versionCheckIntervalMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    /**
+     * 连续收到的最大全局版本号：此版本及之前的失效均已应用到本节点
+     */
+    private long appliedVersion;
+
+    /**
+     * 已收到、但与水位之间仍有缺口的版本号
+     */
+    private final TreeSet<Long> pendingVersions = new TreeSet<>();
+
+    /**
+     * 本地失效代数：每次本地条目被清除时递增，Redis 读取期间代数变化的结果不写入本地
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong checkAt = new AtomicLong();
+
+    /**
+     * @param delegate               Redis 缓存管理器
+     * @param nearCacheNames         启用近端缓存的缓存名称
+     * @param maxEntries             每个近端缓存的最大条目数
+     * @param timeToLive             近端条目的存活时间，为空时不过期（只受失效广播和容量约束）
+     * @param versionCheckIntervalMs 核对全局版本号的间隔
+     */
+    public NearCacheManager(CacheManager delegate, StringRedisTemplate redisTemplate, Set<String> nearCacheNames,
+                            int maxEntries, Duration timeToLive, long versionCheckIntervalMs) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.nearCacheNames = nearCacheNames;
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.versionCheckIntervalMs = versionCheckIntervalMs;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null || !nearCacheNames.contains(name)) {
+            return cache;
+        }
+        return nearCaches.computeIfAbsent(name, n -> new NearCache(cache, this, maxEntries, timeToLive));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed near cache invalidation: {}", body);
+            return;
+        }
+        long version;
+        try {
+            version = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed near cache invalidation: {}", body);
+            return;
+        }
+
+        NearCache cache = nearCaches.get(parts[2]);
+        if (cache != null && !nodeId.equals(parts[0])) {
+            generation.incrementAndGet();
+            cache.evictLocal(parts[3]);
+            log.debug("Near cache evicted by broadcast: cache={}, key={}", parts[2], parts[3]);
+        }
+        // 本地条目清除后再推进水位
+        acknowledge(version);
+    }
+
+    /**
+     * 当前本地失效代数
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 读取前按间隔核对全局版本号，高于连续水位时说明错过了广播，清空全部近端条目
+     */
+    void checkVersion() {
+        long now = System.currentTimeMillis();
+        long next = checkAt.get();
+        if (now < next || !checkAt.compareAndSet(next, now + versionCheckIntervalMs)) {
+            return;
+        }
+
+        long version;
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            version = value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            // Redis 不可用时二级缓存同样不可用，保留本地条目
+            log.debug("Failed to read near cache version", e);
+            return;
+        }
+
+        long applied;
+        synchronized (this) {
+            applied = appliedVersion;
+        }
+        if (version <= applied) {
+            return;
+        }
+        generation.incrementAndGet();
+        nearCaches.values().forEach(cache -> cache.evictLocal(ALL_KEYS));
+        advanceTo(version);
+        log.warn("Missed near cache invalidations, cleared local entries: applied={}, current={}", applied, version);
+    }
+
+    /**
+     * 连续收到的最大全局版本号
+     */
+    synchronized long appliedVersion() {
+        return appliedVersion;
+    }
+
+    /**
+     * 记录收到的版本号并推进连续水位
+     */
+    private synchronized void acknowledge(long version) {
+        if (version > appliedVersion) {
+            pendingVersions.add(version);
+            advanceTo(appliedVersion);
+        }
+    }
+
+    /**
+     * 水位至少推进到 version，并吸收随后连续的已收版本号
+     */
+    private synchronized void advanceTo(long version) {
+        appliedVersion = Math.max(appliedVersion, version);
+        pendingVersions.headSet(appliedVersion, true).clear();
+        while (!pendingVersions.isEmpty() && pendingVersions.first() == appliedVersion + 1) {
+            appliedVersion = pendingVersions.pollFirst();
+        }
+    }
+
+    /**
+     * 本节点清除了缓存：使本地在途读取失效并广播
+     *
+     * @param key 缓存 key，{@link #ALL_KEYS} 表示整个缓存
+     */
+    void invalidated(String cacheName, String key) {
+        generation.incrementAndGet();
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+            long stamped = version != null ? version : 0L;
+            // 本地条目由调用方清除；即使下面广播失败，本节点也不因此出现缺口
+            acknowledge(stamped);
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + stamped + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (Exception e) {
+            // 其他节点在版本核对或近端条目过期时追上
+            log.warn("Failed to broadcast near cache invalidation: cache={}, key={}", cacheName, key, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.dms.liteflow.infrastructure.config;
+
+import com.dms.liteflow.infrastructure.cache.NearCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * 缓存配置
+ * 二级为 Redis 缓存（spring.cache.redis.*），cache.near.cache-names 中的缓存前面再加一层进程内近端缓存
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Value("${cache.near.enabled:true}")
+    private boolean nearEnabled;
+
+    @Value("${cache.near.cache-names:flowConfig,componentConfig,chainConfig}")
+    private List<String> nearCacheNames;
+
+    @Value("${cache.near.max-entries:1000}")
+    private int nearMaxEntries;
+
+    @Value("${cache.near.version-check-interval-ms:5000}")
+    private long versionCheckIntervalMs;
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheProperties cacheProperties,
+                                     StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer) {
+        CacheProperties.Redis redis = cacheProperties.getRedis();
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
+        if (redis.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(redis.getTimeToLive());
+        }
+        if (redis.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(redis.getKeyPrefix());
+        }
+        if (!redis.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (!redis.isUseKeyPrefix()) {
+            configuration = configuration.disableKeyPrefix();
+        }
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuration)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!nearEnabled) {
+            return redisCacheManager;
+        }
+        // 近端条目不长于 Redis 条目，保持原有的过期上限
+        NearCacheManager nearCacheManager = new NearCacheManager(redisCacheManager, redisTemplate,
+                new HashSet<>(nearCacheNames), nearMaxEntries, redis.getTimeToLive(), versionCheckIntervalMs);
+        listenerContainer.addMessageListener(nearCacheManager, new ChannelTopic(NearCacheManager.CHANNEL));
+        return nearCacheManager;
+    }
+}
@@ -13,6 +13,8 @@ import java.util.List;
  * 流程配置服务
  * <p>
  * 提供配置查询和缓存管理
+ * 查询先读进程内近端缓存，未命中或已失效时再读 Redis；清除缓存时广播到各节点
+ * （参见 {@link com.dms.liteflow.infrastructure.cache.NearCacheManager}）
  * </p>
  */
 @Slf4j
@@ -69,6 +71,17 @@ public class FlowConfigService {
         log.info("Refreshing config cache for tenant: {}", tenantId);
     }
 
+    /**
+     * 刷新指定流程链配置缓存
+     *
+     * @param tenantId  租户ID
+     * @param chainName 流程链名称
+     */
+    @CacheEvict(value = "chainConfig", key = "#tenantId + ':' + #chainName")
+    public void refreshChainConfig(Long tenantId, String chainName) {
+        log.info("Refreshing chain config cache for tenant: {}, chain: {}", tenantId, chainName);
+    }
+
     /**
      * 清空所有配置缓存
      */
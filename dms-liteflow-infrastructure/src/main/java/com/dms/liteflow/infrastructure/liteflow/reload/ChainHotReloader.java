@@ -0,0 +1,491 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.infrastructure.persistence.entity.FlowChainEntity;
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.element.Chain;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 流程链增量热加载器
+ * <p>
+ * 每个流程链按编译键比对：编译键是 EL、其引用的本租户流程链名称和引用组件的版本（组件内容摘要）
+ * 共同的 SHA-256，与租户无关。重新加载时只编译编译键变化的流程链，以及引用了被重新编译流程链的流程链
+ * （LiteFlow 在编译时绑定子流程链对象），编译按引用顺序先子后父进行。
+ * 编译先校验 EL，失败时保留原定义；成功后由 LiteFlow 整体替换流程链的 Condition 列表，
+ * 正在执行的流程已持有旧列表，按旧定义执行完毕。
+ * </p>
+ * <p>
+ * FlowExecutor 是单例，各租户的流程链以 {@link #namespacedId} 的形式注册到 FlowBus，
+ * EL 中对本租户其他流程链的引用同样改写为带租户前缀的 ID，组件仍全局共享。
+ * </p>
+ * <p>
+ * 编译结果按流程链 ID 保存在有界的编译缓存中，租户被淘汰或重新加载后编译键和子流程链均未变化时
+ * 直接放回 FlowBus，不再解析 EL。EL 校验结果按编译键在租户之间共享。
+ * </p>
+ */
+@Slf4j
+@Component
+public class ChainHotReloader {
+
+    private static final String STATUS_PUBLISHED = "PUBLISHED";
+
+    /**
+     * EL 中的字符串字面量（group 1，原样保留）或标识符（group 2）
+     */
+    private static final Pattern EL_TOKEN =
+            Pattern.compile("(\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*')|([A-Za-z_][A-Za-z0-9_]*)");
+
+    /**
+     * FlowBus 中的流程链 ID -> 已加载的定义
+     */
+    private final Map<String, LoadedChain> loadedChains = new ConcurrentHashMap<>();
+
+    /**
+     * 流程链 ID -> 编译结果（卸载后保留，超出容量时淘汰最久未使用的）
+     */
+    private final Map<String, LoadedChain> compiledChains;
+
+    /**
+     * 已通过校验的编译键（租户之间共享）
+     */
+    private final Set<String> validatedKeys;
+
+    private final ChainRuntime runtime;
+
+    @Autowired
+    public ChainHotReloader(@Value("${liteflow.multi-tenant-rule.compiled-cache-size:5000}") int compiledCacheSize) {
+        this(compiledCacheSize, ChainRuntime.FLOW_BUS);
+    }
+
+    ChainHotReloader(int compiledCacheSize, ChainRuntime runtime) {
+        this.compiledChains = lruMap(compiledCacheSize);
+        this.validatedKeys = Collections.newSetFromMap(lruMap(compiledCacheSize));
+        this.runtime = runtime;
+    }
+
+    /**
+     * 按租户已发布的流程链全集增量加载，已不在其中的本租户流程链被移除
+     *
+     * @param tenantId          租户ID
+     * @param publishedChains   该租户当前已发布的流程链
+     * @param componentVersions 该租户已发布组件的版本（componentId -> 内容摘要）
+     */
+    public synchronized ChainReloadResult reloadTenant(Long tenantId, List<FlowChainEntity> publishedChains,
+                                                       Map<String, String> componentVersions) {
+        long start = System.nanoTime();
+        ChainReloadResult result = ChainReloadResult.builder()
+                .tenantId(tenantId)
+                .total(publishedChains.size())
+                .build();
+
+        Set<String> published = new HashSet<>();
+        for (FlowChainEntity chain : publishedChains) {
+            published.add(chain.getChainName());
+        }
+        Map<String, ChainSource> sources = new LinkedHashMap<>();
+        for (FlowChainEntity chain : publishedChains) {
+            sources.put(chain.getChainName(), describe(tenantId, chain, published, componentVersions));
+        }
+        for (ChainSource source : inReferenceOrder(sources)) {
+            count(result, apply(source));
+        }
+
+        for (Map.Entry<String, LoadedChain> entry : loadedChains.entrySet()) {
+            ChainSource source = entry.getValue().source();
+            if (source.tenantId().equals(tenantId) && !published.contains(source.chainName())) {
+                remove(entry.getKey());
+                result.setRemoved(result.getRemoved() + 1);
+            }
+        }
+
+        return finish(result, start);
+    }
+
+    /**
+     * 加载单个流程链：已发布时按编译键比对后编译，否则移除本租户加载过的同名流程链。
+     * 引用了该流程链的本租户流程链随之重新绑定。
+     *
+     * @param tenantId          租户ID
+     * @param chainName         流程链名称
+     * @param chain             数据库中的流程链，不存在时为 null
+     * @param componentVersions 该租户已发布组件的版本（componentId -> 内容摘要）
+     */
+    public synchronized ChainReloadResult reloadChain(Long tenantId, String chainName, FlowChainEntity chain,
+                                                      Map<String, String> componentVersions) {
+        long start = System.nanoTime();
+        ChainReloadResult result = ChainReloadResult.builder().tenantId(tenantId).build();
+
+        if (isPublished(chain)) {
+            Set<String> siblings = new HashSet<>(loadedChainNames(tenantId));
+            siblings.add(chainName);
+            result.setTotal(1);
+            count(result, apply(describe(tenantId, chain, siblings, componentVersions)));
+        } else if (loadedChains.containsKey(namespacedId(tenantId, chainName))) {
+            remove(namespacedId(tenantId, chainName));
+            result.setRemoved(1);
+        }
+
+        // 引用方的编译键不变，但绑定的子流程链对象已变化
+        Map<String, ChainSource> dependents = new LinkedHashMap<>();
+        for (LoadedChain loaded : loadedChains.values()) {
+            ChainSource source = loaded.source();
+            if (source.tenantId().equals(tenantId) && !source.chainName().equals(chainName)) {
+                dependents.put(source.chainName(), source);
+            }
+        }
+        for (ChainSource source : inReferenceOrder(dependents)) {
+            if (apply(source) == Outcome.RECOMPILED) {
+                result.setRecompiled(result.getRecompiled() + 1);
+            }
+        }
+
+        return finish(result, start);
+    }
+
+    /**
+     * 卸载租户的全部流程链（编译结果保留在编译缓存中）
+     *
+     * @return 卸载的流程链数
+     */
+    public synchronized int unloadTenant(Long tenantId) {
+        int removed = 0;
+        for (Map.Entry<String, LoadedChain> entry : loadedChains.entrySet()) {
+            if (entry.getValue().source().tenantId().equals(tenantId)) {
+                remove(entry.getKey());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 本节点已加载的流程链是否就是该内容
+     */
+    public boolean isCurrent(Long tenantId, String chainName, String contentHash) {
+        LoadedChain loaded = loadedChains.get(namespacedId(tenantId, chainName));
+        return loaded != null && loaded.source().contentHash().equals(contentHash);
+    }
+
+    /**
+     * 租户已加载的流程链名称
+     */
+    public Set<String> loadedChainNames(Long tenantId) {
+        Set<String> names = new HashSet<>();
+        for (LoadedChain loaded : loadedChains.values()) {
+            if (loaded.source().tenantId().equals(tenantId)) {
+                names.add(loaded.source().chainName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 已加载的流程链数
+     */
+    public int loadedChainCount() {
+        return loadedChains.size();
+    }
+
+    /**
+     * 编译缓存中的流程链数
+     */
+    public synchronized int compiledChainCount() {
+        return compiledChains.size();
+    }
+
+    private Outcome apply(ChainSource source) {
+        String chainId = namespacedId(source.tenantId(), source.chainName());
+        Map<String, Chain> bound = currentChains(source);
+
+        LoadedChain loaded = loadedChains.get(chainId);
+        if (loaded != null && loaded.matches(source.compileKey(), bound)
+                && runtime.getChain(chainId) == loaded.chain()) {
+            loadedChains.put(chainId, loaded.withSource(source));
+            return Outcome.UNCHANGED;
+        }
+
+        LoadedChain compiled = compiledChains.get(chainId);
+        if (compiled != null && compiled.matches(source.compileKey(), bound)) {
+            runtime.addChain(compiled.chain());
+            loadedChains.put(chainId, compiled.withSource(source));
+            log.info("Chain restored from compiled cache: tenant={}, chain={}", source.tenantId(), source.chainName());
+            return Outcome.REUSED;
+        }
+
+        if (source.compiledEl().isBlank()) {
+            log.error("Empty EL, keeping previous definition: tenant={}, chain={}",
+                    source.tenantId(), source.chainName());
+            return Outcome.FAILED;
+        }
+        try {
+            if (!validatedKeys.contains(source.compileKey())) {
+                if (!runtime.validate(source.compiledEl())) {
+                    log.error("Invalid EL, keeping previous definition: tenant={}, chain={}",
+                            source.tenantId(), source.chainName());
+                    return Outcome.FAILED;
+                }
+                validatedKeys.add(source.compileKey());
+            }
+            LoadedChain built = new LoadedChain(source, runtime.compile(chainId, source.compiledEl()), bound);
+            loadedChains.put(chainId, built);
+            compiledChains.put(chainId, built);
+            log.info("Chain recompiled: tenant={}, chain={}", source.tenantId(), source.chainName());
+            return Outcome.RECOMPILED;
+        } catch (Exception e) {
+            log.error("Failed to compile chain, keeping previous definition: tenant={}, chain={}",
+                    source.tenantId(), source.chainName(), e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private void remove(String chainId) {
+        runtime.removeChain(chainId);
+        loadedChains.remove(chainId);
+        log.info("Chain unloaded: {}", chainId);
+    }
+
+    /**
+     * 解析流程链：改写本租户流程链引用，收集引用的组件，计算编译键
+     *
+     * @param siblings 本租户已发布的流程链名称
+     */
+    private ChainSource describe(Long tenantId, FlowChainEntity chain, Set<String> siblings,
+                                 Map<String, String> componentVersions) {
+        String el = chain.getChainCode() != null ? chain.getChainCode() : "";
+        Set<String> chainRefs = new TreeSet<>();
+        Map<String, String> componentRefs = new TreeMap<>();
+
+        Matcher matcher = EL_TOKEN.matcher(el);
+        StringBuilder compiledEl = new StringBuilder(el.length() + 16);
+        while (matcher.find()) {
+            String identifier = matcher.group(2);
+            // 字符串字面量和 .tag() 等方法名不是引用
+            boolean reference = identifier != null
+                    && (matcher.start() == 0 || el.charAt(matcher.start() - 1) != '.');
+            String replacement = matcher.group();
+            if (reference && siblings.contains(identifier)) {
+                if (!identifier.equals(chain.getChainName())) {
+                    chainRefs.add(identifier);
+                }
+                replacement = namespacedId(tenantId, identifier);
+            } else if (reference && componentVersions.containsKey(identifier)) {
+                componentRefs.put(identifier, componentVersions.get(identifier));
+            }
+            matcher.appendReplacement(compiledEl, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(compiledEl);
+
+        String compileKey = contentHash(el + "\n" + chainRefs + "\n" + componentRefs);
+        return new ChainSource(tenantId, chain.getChainName(), contentHash(chain.getChainCode()),
+                compiledEl.toString(), compileKey, chainRefs);
+    }
+
+    /**
+     * 被引用的流程链排在引用方之前（循环引用按原顺序）
+     */
+    private List<ChainSource> inReferenceOrder(Map<String, ChainSource> sources) {
+        Set<String> ordered = new LinkedHashSet<>();
+        Set<String> visiting = new HashSet<>();
+        for (String chainName : sources.keySet()) {
+            visit(chainName, sources, ordered, visiting);
+        }
+        List<ChainSource> result = new ArrayList<>(ordered.size());
+        for (String chainName : ordered) {
+            result.add(sources.get(chainName));
+        }
+        return result;
+    }
+
+    private void visit(String chainName, Map<String, ChainSource> sources, Set<String> ordered, Set<String> visiting) {
+        if (ordered.contains(chainName) || !visiting.add(chainName)) {
+            return;
+        }
+        for (String ref : sources.get(chainName).chainRefs()) {
+            if (sources.containsKey(ref)) {
+                visit(ref, sources, ordered, visiting);
+            }
+        }
+        ordered.add(chainName);
+    }
+
+    /**
+     * 引用的子流程链当前在 FlowBus 中的对象
+     */
+    private Map<String, Chain> currentChains(ChainSource source) {
+        Map<String, Chain> chains = new HashMap<>();
+        for (String ref : source.chainRefs()) {
+            chains.put(ref, runtime.getChain(namespacedId(source.tenantId(), ref)));
+        }
+        return chains;
+    }
+
+    private boolean isPublished(FlowChainEntity chain) {
+        return chain != null
+                && STATUS_PUBLISHED.equals(chain.getStatus())
+                && (chain.getChainEnable() == null || chain.getChainEnable() == 1)
+                && chain.getDeletedAt() == null;
+    }
+
+    private void count(ChainReloadResult result, Outcome outcome) {
+        switch (outcome) {
+            case RECOMPILED -> result.setRecompiled(result.getRecompiled() + 1);
+            case REUSED -> result.setReused(result.getReused() + 1);
+            case UNCHANGED -> result.setUnchanged(result.getUnchanged() + 1);
+            case FAILED -> result.setFailed(result.getFailed() + 1);
+        }
+    }
+
+    private ChainReloadResult finish(ChainReloadResult result, long startNanos) {
+        result.setElapsedMs((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Chain reload finished: tenant={}, total={}, recompiled={}, reused={}, unchanged={}, removed={}, failed={}, elapsed={}ms",
+                result.getTenantId(), result.getTotal(), result.getRecompiled(), result.getReused(),
+                result.getUnchanged(), result.getRemoved(), result.getFailed(), result.getElapsedMs());
+        return result;
+    }
+
+    private static <V> Map<String, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 租户流程链在 FlowBus 中的 ID
+     */
+    public static String namespacedId(Long tenantId, String chainName) {
+        return "t" + tenantId + "__" + chainName;
+    }
+
+    /**
+     * 内容摘要（SHA-256），用于流程链 EL 和组件版本
+     */
+    public static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = content != null ? content.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 流程链的编译与注册（默认为 LiteFlow 的 FlowBus）
+     */
+    interface ChainRuntime {
+
+        ChainRuntime FLOW_BUS = new ChainRuntime() {
+            @Override
+            public boolean validate(String el) {
+                return LiteFlowChainELBuilder.validate(el);
+            }
+
+            @Override
+            public Chain compile(String chainId, String el) {
+                LiteFlowChainELBuilder.createChain().setChainId(chainId).setEL(el).build();
+                return FlowBus.getChain(chainId);
+            }
+
+            @Override
+            public Chain getChain(String chainId) {
+                return FlowBus.getChain(chainId);
+            }
+
+            @Override
+            public void addChain(Chain chain) {
+                FlowBus.addChain(chain);
+            }
+
+            @Override
+            public void removeChain(String chainId) {
+                FlowBus.removeChain(chainId);
+            }
+        };
+
+        boolean validate(String el);
+
+        /**
+         * 编译并注册流程链
+         *
+         * @return 注册后的流程链对象
+         */
+        Chain compile(String chainId, String el);
+
+        Chain getChain(String chainId);
+
+        void addChain(Chain chain);
+
+        void removeChain(String chainId);
+    }
+
+    private enum Outcome {
+        RECOMPILED,
+        REUSED,
+        UNCHANGED,
+        FAILED
+    }
+
+    /**
+     * 解析后的流程链定义
+     *
+     * @param contentHash 数据库中 EL 的摘要
+     * @param compiledEl  改写引用后实际编译的 EL
+     * @param compileKey  编译键（与租户无关）
+     * @param chainRefs   引用的本租户流程链名称
+     */
+    private record ChainSource(Long tenantId, String chainName, String contentHash,
+                               String compiledEl, String compileKey, Set<String> chainRefs) {
+    }
+
+    /**
+     * 编译结果
+     *
+     * @param chain 编译出的流程链对象
+     * @param bound 编译时绑定的子流程链对象
+     */
+    private record LoadedChain(ChainSource source, Chain chain, Map<String, Chain> bound) {
+
+        boolean matches(String compileKey, Map<String, Chain> currentChains) {
+            if (chain == null || !source.compileKey().equals(compileKey)
+                    || !bound.keySet().equals(currentChains.keySet())) {
+                return false;
+            }
+            for (Map.Entry<String, Chain> entry : bound.entrySet()) {
+                if (currentChains.get(entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        LoadedChain withSource(ChainSource newSource) {
+            return new LoadedChain(newSource, chain, bound);
+        }
+    }
+}
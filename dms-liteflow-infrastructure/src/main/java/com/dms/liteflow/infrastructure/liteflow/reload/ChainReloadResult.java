@@ -0,0 +1,56 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 流程链热加载结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainReloadResult {
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 参与比对的已发布流程链数
+     */
+    private int total;
+
+    /**
+     * 重新编译并替换的流程链数
+     */
+    private int recompiled;
+
+    /**
+     * 从编译缓存恢复、未重新解析 EL 的流程链数
+     */
+    private int reused;
+
+    /**
+     * 内容未变化、保持不动的流程链数
+     */
+    private int unchanged;
+
+    /**
+     * 已取消发布而移除的流程链数
+     */
+    private int removed;
+
+    /**
+     * 编译失败的流程链数（保留原定义）
+     */
+    private int failed;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMs;
+}
@@ -0,0 +1,294 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.infrastructure.liteflow.FlowConfigService;
+import com.dms.liteflow.infrastructure.liteflow.service.MultiTenantFlowRuleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 配置变更广播
+ * <p>
+ * 发布节点在本地应用变更后递增 {@link #VERSION_KEY} 并通过 {@link #CHANNEL} 广播 {@link ConfigChangeEvent}，
+ * 各节点只重新加载事件指向的流程链（内容摘要与本地一致时跳过）或组件所属租户；配置缓存由发布节点清除，
+ * 各节点的近端缓存随之收到失效广播。租户在本节点未常驻时不加载，首次执行时自然取到最新规则。
+ * </p>
+ * <p>
+ * 各节点记录连续收到的版本号水位：收到的版本号与水位之间有缺口时，等待
+ * liteflow.multi-tenant-rule.broadcast-gap-grace-ms（并发发布时广播可能乱序到达），缺口仍在则整体比对一次。
+ * 最后几条广播丢失时没有后续版本暴露缺口，按 liteflow.multi-tenant-rule.refresh-interval-seconds
+ * 核对全局版本号，高于水位时同样整体比对兜底。
+ * </p>
+ * <p>
+ * 整体比对即 {@link MultiTenantFlowRuleService#refreshAllRules()}：按编译键比对各常驻租户的流程链，
+ * 只重新编译变化的部分。规则的跨节点同步只依赖本广播，不再有定时全量刷新任务。
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfigChangeBroadcaster implements MessageListener {
+
+    public static final String CHANNEL = "dms:config:change";
+    public static final String VERSION_KEY = "dms:config:version";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChainHotReloader chainHotReloader;
+    private final FlowConfigService flowConfigService;
+    private final ObjectProvider<MultiTenantFlowRuleService> flowRuleServiceProvider;
+
+    @Value("${liteflow.multi-tenant-rule.refresh-interval-seconds:300}")
+    private long consistencyCheckSeconds;
+
+    @Value("${liteflow.multi-tenant-rule.broadcast-gap-grace-ms:2000}")
+    private long gapGraceMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 连续收到的最大版本号：此版本及之前的变更均已在本节点应用
+     */
+    private long appliedVersion;
+
+    /**
+     * 已收到、但与水位之间仍有缺口的版本号
+     */
+    private final TreeSet<Long> pendingVersions = new TreeSet<>();
+
+    private final AtomicBoolean gapCheckScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService checker;
+
+    @PostConstruct
+    public void start() {
+        try {
+            advanceTo(readVersion());
+        } catch (Exception e) {
+            // 版本号读不到时从 0 开始，首次核对会整体比对一次
+            log.warn("Failed to read config version on startup", e);
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "config-consistency-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkConsistency,
+                consistencyCheckSeconds, consistencyCheckSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * 流程链已发布：本地重新加载后广播
+     */
+    public void publishChainChange(Long tenantId, String chainName, String chainCode) {
+        publish(ConfigChangeEvent.Type.CHAIN, tenantId, chainName, ChainHotReloader.contentHash(chainCode));
+    }
+
+    /**
+     * 组件已发布：本地重新加载后广播
+     */
+    public void publishComponentChange(Long tenantId, String componentId, String content) {
+        publish(ConfigChangeEvent.Type.COMPONENT, tenantId, componentId, ChainHotReloader.contentHash(content));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        ConfigChangeEvent event;
+        try {
+            event = objectMapper.readValue(message.getBody(), ConfigChangeEvent.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed config change event: {}",
+                    new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+
+        if (!nodeId.equals(event.getSource())) {
+            log.debug("Config change received: {}", event);
+            apply(event, false);
+        }
+        if (!acknowledge(event.getVersion())) {
+            scheduleGapCheck();
+        }
+    }
+
+    private void publish(ConfigChangeEvent.Type type, Long tenantId, String targetId, String contentHash) {
+        ConfigChangeEvent event = ConfigChangeEvent.builder()
+                .tenantId(tenantId)
+                .type(type)
+                .targetId(targetId)
+                .contentHash(contentHash)
+                .source(nodeId)
+                .build();
+        apply(event, true);
+
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+            event.setVersion(version != null ? version : 0L);
+            // 本地已应用；即使下面广播失败，本节点也不因此出现缺口
+            acknowledge(event.getVersion());
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+            log.info("Config change broadcast: {}", event);
+        } catch (Exception e) {
+            // 其他节点在版本核对或下次变更时追上
+            log.warn("Failed to broadcast config change: {}", event, e);
+        }
+    }
+
+    /**
+     * @param local 是否为发布节点；配置缓存只由发布节点清除，近端缓存的失效由 NearCacheManager 广播
+     */
+    private void apply(ConfigChangeEvent event, boolean local) {
+        Long tenantId = event.getTenantId();
+        MultiTenantFlowRuleService flowRuleService = flowRuleServiceProvider.getIfAvailable();
+        try {
+            switch (event.getType()) {
+                case CHAIN -> {
+                    if (local) {
+                        flowConfigService.refreshConfig(tenantId);
+                        flowConfigService.refreshChainConfig(tenantId, event.getTargetId());
+                    }
+                    if (flowRuleService != null
+                            && !chainHotReloader.isCurrent(tenantId, event.getTargetId(), event.getContentHash())) {
+                        flowRuleService.reloadChain(tenantId, event.getTargetId());
+                    }
+                }
+                case COMPONENT -> {
+                    if (local) {
+                        flowConfigService.refreshConfig(tenantId);
+                    }
+                    if (flowRuleService != null) {
+                        flowRuleService.reloadResidentTenant(tenantId);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply config change: {}", event, e);
+        }
+    }
+
+    /**
+     * 记录收到的版本号并推进连续水位
+     *
+     * @return 水位之后是否没有缺口
+     */
+    private synchronized boolean acknowledge(long version) {
+        if (version > appliedVersion) {
+            pendingVersions.add(version);
+            advanceTo(appliedVersion);
+        }
+        return pendingVersions.isEmpty();
+    }
+
+    /**
+     * 水位至少推进到 version，并吸收随后连续的已收版本号
+     */
+    private synchronized void advanceTo(long version) {
+        appliedVersion = Math.max(appliedVersion, version);
+        pendingVersions.headSet(appliedVersion, true).clear();
+        while (!pendingVersions.isEmpty() && pendingVersions.first() == appliedVersion + 1) {
+            appliedVersion = pendingVersions.pollFirst();
+        }
+    }
+
+    private synchronized boolean hasGap() {
+        return !pendingVersions.isEmpty();
+    }
+
+    /**
+     * 等待乱序到达的广播填补缺口，仍未填补时整体比对
+     */
+    private void scheduleGapCheck() {
+        if (checker == null || !gapCheckScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        checker.schedule(() -> {
+            gapCheckScheduled.set(false);
+            if (hasGap()) {
+                resynchronize();
+            }
+        }, gapGraceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkConsistency() {
+        long version;
+        try {
+            version = readVersion();
+        } catch (Exception e) {
+            log.debug("Failed to read config version", e);
+            return;
+        }
+        synchronized (this) {
+            if (version <= appliedVersion) {
+                return;
+            }
+        }
+        resynchronize();
+    }
+
+    /**
+     * 丢失了广播：整体比对后水位推进到比对前读到的全局版本号
+     */
+    private void resynchronize() {
+        long version;
+        try {
+            version = readVersion();
+        } catch (Exception e) {
+            log.debug("Failed to read config version", e);
+            return;
+        }
+        synchronized (this) {
+            log.warn("Missed config change broadcasts, resynchronizing: applied={}, pending={}, current={}",
+                    appliedVersion, pendingVersions, version);
+        }
+        try {
+            flowConfigService.clearAllCache();
+            MultiTenantFlowRuleService flowRuleService = flowRuleServiceProvider.getIfAvailable();
+            if (flowRuleService != null) {
+                flowRuleService.refreshAllRules();
+            }
+            advanceTo(version);
+        } catch (Exception e) {
+            log.error("Failed to resynchronize config", e);
+        }
+    }
+
+    /**
+     * 连续收到的最大版本号
+     */
+    synchronized long appliedVersion() {
+        return appliedVersion;
+    }
+
+    private long readVersion() {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+}
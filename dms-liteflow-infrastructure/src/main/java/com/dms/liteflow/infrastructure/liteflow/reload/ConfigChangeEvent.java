@@ -0,0 +1,51 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置变更事件（通过 Redis 发布订阅广播到各节点）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigChangeEvent {
+
+    /**
+     * 全局递增的变更版本号
+     */
+    private long version;
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 变更类型
+     */
+    private Type type;
+
+    /**
+     * 流程链名称或组件ID
+     */
+    private String targetId;
+
+    /**
+     * 变更后内容的 SHA-256
+     */
+    private String contentHash;
+
+    /**
+     * 发布节点，发布节点自身已在本地应用
+     */
+    private String source;
+
+    public enum Type {
+        CHAIN,
+        COMPONENT
+    }
+}
@@ -0,0 +1,387 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.persistence.entity.FlowChainEntity;
+import com.dms.liteflow.infrastructure.persistence.entity.RuleComponentEntity;
+import com.dms.liteflow.infrastructure.persistence.mapper.FlowChainMapper;
+import com.dms.liteflow.infrastructure.persistence.mapper.RuleComponentMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 租户流程链命名空间注册表
+ * <p>
+ * 租户的流程链在该租户第一次执行时才从数据库加载并编译（流程链 ID 见 {@link ChainHotReloader#namespacedId}），
+ * 之后常驻内存。常驻租户数或流程链总数超出预算时，按最近访问时间淘汰最冷的租户，下次执行时重新加载。
+ * 租户下没有同名流程链时回退到全局流程链（classpath 中的定义）。
+ * 淘汰只把流程链移出 FlowBus，编译结果留在 {@link ChainHotReloader} 的编译缓存中，重新加载时无需重新编译。
+ * </p>
+ * <p>
+ * 执行通过 {@link #acquire} 取得流程链 ID，租约关闭前该租户不会被淘汰，
+ * 避免在解析与执行之间流程链被移出 FlowBus；所有常驻租户都在执行中时允许暂时超出预算。
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TenantChainRegistry {
+
+    private static final String APPLICATION_NAME = "dms-liteflow";
+
+    private final FlowChainMapper flowChainMapper;
+    private final RuleComponentMapper ruleComponentMapper;
+    private final ChainHotReloader chainHotReloader;
+
+    @Value("${liteflow.multi-tenant-rule.enabled:true}")
+    private boolean enabled;
+
+    @Value("${liteflow.multi-tenant-rule.max-resident-tenants:200}")
+    private int maxResidentTenants;
+
+    @Value("${liteflow.multi-tenant-rule.max-resident-chains:5000}")
+    private int maxResidentChains;
+
+    /**
+     * tenantId -> 常驻的命名空间
+     */
+    private final Map<Long, Namespace> namespaces = new ConcurrentHashMap<>();
+
+    /**
+     * tenantId -> 统计计数（淘汰后保留）
+     */
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 解析租户流程链在 FlowBus 中的 ID 并钉住租户，租户首次执行时加载其流程链
+     *
+     * @param tenantId  租户ID
+     * @param chainName 流程链名称
+     * @return 流程链租约，执行结束后关闭；未启用多租户规则或租户下无该流程链时为原名称
+     */
+    public ChainLease acquire(Long tenantId, String chainName) {
+        if (!enabled || tenantId == null || chainName == null) {
+            return ChainLease.unpinned(chainName);
+        }
+
+        Namespace namespace = namespaces.get(tenantId);
+        if (namespace != null && pin(tenantId, namespace)) {
+            counters(tenantId).hits.increment();
+        } else {
+            namespace = loadIfAbsent(tenantId);
+            if (namespace == null) {
+                return ChainLease.unpinned(chainName);
+            }
+        }
+
+        namespace.lastAccess = System.currentTimeMillis();
+        if (!namespace.chainNames.contains(chainName)) {
+            // 全局流程链不会被淘汰
+            namespace.pins.decrementAndGet();
+            return ChainLease.unpinned(chainName);
+        }
+        return new ChainLease(ChainHotReloader.namespacedId(tenantId, chainName), namespace);
+    }
+
+    /**
+     * 增量重新加载租户的流程链
+     *
+     * @param tenantId     租户ID
+     * @param loadIfAbsent 租户未常驻时是否加载；为 false 时跳过，等首次执行时再加载
+     * @return 加载结果，跳过时返回 null
+     */
+    public synchronized ChainReloadResult reloadTenant(Long tenantId, boolean loadIfAbsent) {
+        Namespace namespace = namespaces.get(tenantId);
+        if (namespace == null && !loadIfAbsent) {
+            return null;
+        }
+        return load(tenantId, namespace);
+    }
+
+    /**
+     * 重新加载常驻租户的单个流程链，租户未常驻时跳过
+     *
+     * @param chain 数据库中的流程链，不存在时为 null
+     * @return 加载结果，跳过时返回 null
+     */
+    public synchronized ChainReloadResult reloadChain(Long tenantId, String chainName, FlowChainEntity chain) {
+        Namespace namespace = namespaces.get(tenantId);
+        if (namespace == null) {
+            return null;
+        }
+        ChainReloadResult result = chainHotReloader.reloadChain(tenantId, chainName, chain,
+                namespace.componentVersions);
+        namespace.chainNames = chainHotReloader.loadedChainNames(tenantId);
+        evictIfNecessary(tenantId);
+        return result;
+    }
+
+    /**
+     * 增量重新加载全部常驻租户
+     */
+    public List<ChainReloadResult> reloadResident() {
+        List<ChainReloadResult> results = new ArrayList<>();
+        for (Long tenantId : new ArrayList<>(namespaces.keySet())) {
+            ChainReloadResult result = reloadTenant(tenantId, false);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 淘汰租户的命名空间
+     *
+     * @return 是否已淘汰；租户未常驻或有执行持有租约时为 false
+     */
+    public synchronized boolean evict(Long tenantId) {
+        // 先移出再检查租约，与 pin 的先计数再检查配对，二者至少有一方看到对方
+        Namespace namespace = namespaces.remove(tenantId);
+        if (namespace == null) {
+            return false;
+        }
+        if (namespace.pins.get() > 0) {
+            namespaces.put(tenantId, namespace);
+            return false;
+        }
+        int removed = chainHotReloader.unloadTenant(tenantId);
+        counters(tenantId).evictions.increment();
+        log.info("Tenant chain namespace evicted: tenant={}, chains={}", tenantId, removed);
+        return true;
+    }
+
+    /**
+     * 租户是否常驻
+     */
+    public boolean isResident(Long tenantId) {
+        return namespaces.containsKey(tenantId);
+    }
+
+    /**
+     * 编译缓存中的流程链数（包括已淘汰租户的）
+     */
+    public int compiledChainCount() {
+        return chainHotReloader.compiledChainCount();
+    }
+
+    /**
+     * 各租户的缓存统计，按租户ID排序
+     */
+    public List<TenantChainStats> getStats() {
+        List<TenantChainStats> stats = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            Counters counter = entry.getValue();
+            Namespace namespace = namespaces.get(entry.getKey());
+            stats.add(TenantChainStats.builder()
+                    .tenantId(entry.getKey())
+                    .resident(namespace != null)
+                    .chainCount(namespace != null ? namespace.chainNames.size() : 0)
+                    .hits(counter.hits.sum())
+                    .misses(counter.misses.sum())
+                    .evictions(counter.evictions.sum())
+                    .lastLoadMs(counter.lastLoadMs)
+                    .loadedAt(namespace != null ? toDateTime(namespace.loadedAt) : null)
+                    .lastAccessAt(namespace != null ? toDateTime(namespace.lastAccess) : null)
+                    .build());
+        }
+        stats.sort(Comparator.comparing(TenantChainStats::getTenantId));
+        return stats;
+    }
+
+    /**
+     * 加载并钉住租户的命名空间（与淘汰互斥）
+     *
+     * @return 命名空间，加载失败时为 null
+     */
+    private synchronized Namespace loadIfAbsent(Long tenantId) {
+        Namespace namespace = namespaces.get(tenantId);
+        if (namespace != null) {
+            counters(tenantId).hits.increment();
+        } else {
+            counters(tenantId).misses.increment();
+            try {
+                load(tenantId, null);
+            } catch (Exception e) {
+                // 不登记命名空间，下次执行时重试
+                log.error("Failed to load chains for tenant: {}", tenantId, e);
+            }
+            namespace = namespaces.get(tenantId);
+        }
+        if (namespace != null) {
+            namespace.pins.incrementAndGet();
+        }
+        return namespace;
+    }
+
+    /**
+     * 钉住常驻的命名空间；与淘汰并发、命名空间已被移出时撤销并返回 false
+     */
+    private boolean pin(Long tenantId, Namespace namespace) {
+        namespace.pins.incrementAndGet();
+        if (namespaces.get(tenantId) == namespace) {
+            return true;
+        }
+        namespace.pins.decrementAndGet();
+        return false;
+    }
+
+    private ChainReloadResult load(Long tenantId, Namespace namespace) {
+        TenantId previousTenant = TenantContext.getTenantId();
+        List<FlowChainEntity> chains;
+        Map<String, String> componentVersions = new HashMap<>();
+        try {
+            TenantContext.setTenantId(TenantId.of(tenantId));
+            chains = flowChainMapper.selectPublishedChainsForLiteFlow(APPLICATION_NAME, tenantId);
+            // 组件没有版本号，以组件内容摘要作为版本，参与流程链的编译键
+            for (RuleComponentEntity component
+                    : ruleComponentMapper.selectPublishedComponentsForLiteFlow(APPLICATION_NAME, tenantId)) {
+                componentVersions.put(component.getComponentId(), ChainHotReloader.contentHash(component.getContent()));
+            }
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setTenantId(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+
+        ChainReloadResult result = chainHotReloader.reloadTenant(tenantId, chains, componentVersions);
+        Set<String> chainNames = chainHotReloader.loadedChainNames(tenantId);
+        if (namespace == null) {
+            namespace = new Namespace(chainNames, componentVersions);
+            namespaces.put(tenantId, namespace);
+            log.info("Tenant chain namespace loaded: tenant={}, chains={}, elapsed={}ms",
+                    tenantId, chainNames.size(), result.getElapsedMs());
+        } else {
+            namespace.chainNames = chainNames;
+            namespace.componentVersions = componentVersions;
+        }
+        counters(tenantId).lastLoadMs = result.getElapsedMs();
+
+        evictIfNecessary(tenantId);
+        return result;
+    }
+
+    /**
+     * 超出预算时按最近访问时间淘汰，刚加载的租户和有执行持有租约的租户不参与淘汰
+     */
+    private void evictIfNecessary(Long keepTenantId) {
+        while (namespaces.size() > maxResidentTenants || residentChainCount() > maxResidentChains) {
+            Long coldest = null;
+            long coldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<Long, Namespace> entry : namespaces.entrySet()) {
+                if (!entry.getKey().equals(keepTenantId) && entry.getValue().pins.get() == 0
+                        && entry.getValue().lastAccess < coldestAccess) {
+                    coldest = entry.getKey();
+                    coldestAccess = entry.getValue().lastAccess;
+                }
+            }
+            if (coldest == null) {
+                return;
+            }
+            evict(coldest);
+        }
+    }
+
+    private int residentChainCount() {
+        int count = 0;
+        for (Namespace namespace : namespaces.values()) {
+            count += namespace.chainNames.size();
+        }
+        return count;
+    }
+
+    private Counters counters(Long tenantId) {
+        return counters.computeIfAbsent(tenantId, id -> new Counters());
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 常驻的租户命名空间
+     */
+    private static final class Namespace {
+
+        private volatile Set<String> chainNames;
+
+        /**
+         * 最近一次加载时的组件版本，单个流程链重新加载时沿用
+         */
+        private volatile Map<String, String> componentVersions;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = loadedAt;
+
+        /**
+         * 未关闭的流程链租约数
+         */
+        private final AtomicInteger pins = new AtomicInteger();
+
+        private Namespace(Set<String> chainNames, Map<String, String> componentVersions) {
+            this.chainNames = chainNames;
+            this.componentVersions = componentVersions;
+        }
+    }
+
+    /**
+     * 流程链租约：关闭前所属租户不会被淘汰
+     */
+    public static final class ChainLease implements AutoCloseable {
+
+        private final String chainId;
+        private final Namespace namespace;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ChainLease(String chainId, Namespace namespace) {
+            this.chainId = chainId;
+            this.namespace = namespace;
+        }
+
+        /**
+         * 不钉住任何租户的租约（全局流程链或未启用多租户规则）
+         */
+        public static ChainLease unpinned(String chainId) {
+            return new ChainLease(chainId, null);
+        }
+
+        /**
+         * 流程链在 FlowBus 中的 ID
+         */
+        public String getChainId() {
+            return chainId;
+        }
+
+        @Override
+        public void close() {
+            if (namespace != null && closed.compareAndSet(false, true)) {
+                namespace.pins.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private volatile long lastLoadMs;
+    }
+}
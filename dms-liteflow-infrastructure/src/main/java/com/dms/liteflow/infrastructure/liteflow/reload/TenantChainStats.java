@@ -0,0 +1,63 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 租户流程链命名空间缓存统计（本节点）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantChainStats {
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 是否常驻（已编译到 FlowExecutor）
+     */
+    private boolean resident;
+
+    /**
+     * 已编译的流程链数
+     */
+    private int chainCount;
+
+    /**
+     * 命中次数（执行时命名空间已常驻）
+     */
+    private long hits;
+
+    /**
+     * 未命中次数（执行时触发编译加载）
+     */
+    private long misses;
+
+    /**
+     * 被淘汰次数
+     */
+    private long evictions;
+
+    /**
+     * 最近一次加载耗时（毫秒）
+     */
+    private long lastLoadMs;
+
+    /**
+     * 最近一次加载时间
+     */
+    private LocalDateTime loadedAt;
+
+    /**
+     * 最近一次访问时间
+     */
+    private LocalDateTime lastAccessAt;
+}
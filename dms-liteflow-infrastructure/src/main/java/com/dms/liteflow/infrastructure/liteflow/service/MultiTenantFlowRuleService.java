@@ -2,6 +2,10 @@ package com.dms.liteflow.infrastructure.liteflow.service;
 
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.liteflow.reload.ChainReloadResult;
+import com.dms.liteflow.infrastructure.liteflow.reload.ConfigChangeBroadcaster;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainRegistry;
+import com.dms.liteflow.infrastructure.liteflow.reload.TenantChainStats;
 import com.dms.liteflow.infrastructure.persistence.entity.FlowChainEntity;
 import com.dms.liteflow.infrastructure.persistence.mapper.FlowChainMapper;
 import com.yomahub.liteflow.core.FlowExecutor;
@@ -11,14 +15,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
 import java.util.List;
 
 /**
  * 多租户流程规则管理服务
  * <p>
- * 负责从数据库动态加载和管理多租户的流程规则
- * 定时刷新已由 ElasticJob 接管（参见 {@link com.dms.liteflow.infrastructure.schedule.job.RuleRefreshJob}）
+ * 负责从数据库动态加载和管理多租户的流程规则。各租户的流程链由 {@link TenantChainRegistry} 按命名空间
+ * 在首次执行时加载、增量编译到 FlowExecutor，冷租户按预算淘汰。
+ * </p>
+ * <p>
+ * 没有定时全量刷新：发布节点本地重新加载后由 {@link ConfigChangeBroadcaster} 通过 Redis pub/sub 通知其他节点，
+ * 各节点只重新加载事件指向的流程链或租户；发现广播缺失（版本号水位出现缺口或落后于全局版本号）时
+ * 才调用 {@link #refreshAllRules()} 整体比对常驻租户。
  * </p>
  */
 @Slf4j
@@ -29,96 +37,104 @@ public class MultiTenantFlowRuleService {
 
     private final FlowChainMapper flowChainMapper;
     private final FlowExecutor flowExecutor;
+    private final TenantChainRegistry tenantChainRegistry;
 
     private static final String APPLICATION_NAME = "dms-liteflow";
 
     /**
-     * 应用启动时加载规则
-     */
-    @PostConstruct
-    public void initialize() {
-        log.info("Initializing multi-tenant flow rules...");
-        loadAllTenantRules();
-    }
-
-    /**
-     * 刷新所有租户的规则
+     * 刷新所有常驻租户的规则（未常驻的租户在首次执行时加载最新规则）
      * <p>
-     * 注意：定时调度已由 ElasticJob 接管（参见 {@link com.dms.liteflow.infrastructure.schedule.job.RuleRefreshJob}）
-     * 此方法保留用于手动触发刷新
+     * 由 {@link ConfigChangeBroadcaster} 在广播缺失时调用，也用于手动触发刷新；
+     * 只重新编译编译键变化的流程链，未变化时开销很小
      * </p>
      */
-    public void refreshAllRules() {
-        log.debug("Refreshing all tenant rules");
-        loadAllTenantRules();
+    public List<ChainReloadResult> refreshAllRules() {
+        log.debug("Refreshing resident tenant rules");
+        try {
+            return tenantChainRegistry.reloadResident();
+        } catch (Exception e) {
+            log.error("Failed to refresh tenant rules", e);
+            return List.of();
+        }
     }
 
     /**
-     * 加载所有租户的规则
-     * <p>
-     * 注意：由于 LiteFlow 的 FlowExecutor 是单例的，
-     * 这里演示的是加载默认租户的规则
-     * </p>
+     * 加载指定租户的规则（只重新编译内容变化的流程链），租户未常驻时一并加载
+     *
+     * @param tenantId 租户ID
+     * @return 加载结果，失败时返回 null
      */
-    private void loadAllTenantRules() {
+    public ChainReloadResult loadTenantRules(Long tenantId) {
         try {
-            // 使用默认租户加载规则
-            Long defaultTenantId = 1L;
-            loadTenantRules(defaultTenantId);
-
+            log.info("Loading rules for tenant: {}", tenantId);
+            return tenantChainRegistry.reloadTenant(tenantId, true);
         } catch (Exception e) {
-            log.error("Failed to load all tenant rules", e);
+            log.error("Failed to load rules for tenant: {}", tenantId, e);
+            return null;
         }
     }
 
     /**
-     * 加载指定租户的规则
+     * 重新加载常驻租户的规则，未常驻时跳过（首次执行时加载最新规则）
      *
      * @param tenantId 租户ID
+     * @return 加载结果，跳过或失败时返回 null
      */
-    public void loadTenantRules(Long tenantId) {
+    public ChainReloadResult reloadResidentTenant(Long tenantId) {
         try {
-            log.info("Loading rules for tenant: {}", tenantId);
-
-            // 设置租户上下文
-            TenantContext.setTenantId(TenantId.of(tenantId));
-
-            // 查询该租户的已发布流程链
-            List<FlowChainEntity> chains = flowChainMapper.selectPublishedChainsForLiteFlow(
-                    APPLICATION_NAME,
-                    tenantId
-            );
-
-            if (chains.isEmpty()) {
-                log.warn("No published chains found for tenant: {}", tenantId);
-                return;
-            }
-
-            // 构建规则内容并重新加载
-            for (FlowChainEntity chain : chains) {
-                String chainName = chain.getChainName();
-                String chainCode = chain.getChainCode();
+            return tenantChainRegistry.reloadTenant(tenantId, false);
+        } catch (Exception e) {
+            log.error("Failed to reload rules for tenant: {}", tenantId, e);
+            return null;
+        }
+    }
 
-                log.info("Loaded chain '{}' for tenant {}: {}", chainName, tenantId, chainCode);
+    /**
+     * 重新加载单个流程链（发布后调用），其他流程链保持不动；租户未常驻时跳过
+     *
+     * @param tenantId  租户ID
+     * @param chainName 流程链名称
+     * @return 加载结果，跳过或失败时返回 null
+     */
+    public ChainReloadResult reloadChain(Long tenantId, String chainName) {
+        if (!tenantChainRegistry.isResident(tenantId)) {
+            return null;
+        }
+        try {
+            FlowChainEntity chain = flowChainMapper.selectByTenantIdAndName(tenantId, chainName);
+            if (chain != null && !APPLICATION_NAME.equals(chain.getApplicationName())) {
+                chain = null;
             }
-
-            log.info("Successfully loaded {} chains for tenant: {}", chains.size(), tenantId);
-
+            return tenantChainRegistry.reloadChain(tenantId, chainName, chain);
         } catch (Exception e) {
-            log.error("Failed to load rules for tenant: {}", tenantId, e);
-        } finally {
-            TenantContext.clear();
+            log.error("Failed to reload chain: tenant={}, chain={}", tenantId, chainName, e);
+            return null;
         }
     }
 
+    /**
+     * 各租户流程链命名空间的缓存统计（本节点）
+     */
+    public List<TenantChainStats> getNamespaceStats() {
+        return tenantChainRegistry.getStats();
+    }
+
+    /**
+     * 编译缓存中的流程链数（本节点）
+     */
+    public int getCompiledChainCount() {
+        return tenantChainRegistry.compiledChainCount();
+    }
+
     /**
      * 手动刷新指定租户的规则
      *
      * @param tenantId 租户ID
+     * @return 加载结果，失败时返回 null
      */
-    public void refreshTenant(Long tenantId) {
+    public ChainReloadResult refreshTenant(Long tenantId) {
         log.info("Manual refresh triggered for tenant: {}", tenantId);
-        loadTenantRules(tenantId);
+        return loadTenantRules(tenantId);
     }
 
     /**
@@ -173,7 +189,9 @@ public class MultiTenantFlowRuleService {
             context.setData("tenantId", tenantId);
 
             // 执行流程
-            return flowExecutor.execute2Resp(chainName, context);
+            try (TenantChainRegistry.ChainLease chain = tenantChainRegistry.acquire(tenantId, chainName)) {
+                return flowExecutor.execute2Resp(chain.getChainId(), context);
+            }
 
         } finally {
             TenantContext.clear();
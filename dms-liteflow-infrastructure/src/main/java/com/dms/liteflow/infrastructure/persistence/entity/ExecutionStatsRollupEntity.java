@@ -0,0 +1,32 @@
+package com.dms.liteflow.infrastructure.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 执行统计汇总实体（MyBatis），对应 execution_stats_hourly / execution_stats_daily
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionStatsRollupEntity {
+
+    private Long id;
+    private Long tenantId;
+    private Long chainId;
+    private String componentId;
+    private LocalDateTime bucketStart;
+    private Long execCount;
+    private Long failureCount;
+    private Long totalTime;
+    private Long minTime;
+    private Long maxTime;
+    private String histogram;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -2,6 +2,7 @@ package com.dms.liteflow.infrastructure.persistence.mapper;
 
 import com.dms.liteflow.infrastructure.persistence.entity.ExecutionRecordEntity;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -59,6 +60,15 @@ public interface ExecutionRecordMapper {
             @Param("endTime") LocalDateTime endTime
     );
 
+    /**
+     * 流式遍历时间段内已结束的记录
+     */
+    void scanCompletedRecords(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            ResultHandler<ExecutionRecordEntity> handler
+    );
+
     /**
      * 删除过期记录
      */
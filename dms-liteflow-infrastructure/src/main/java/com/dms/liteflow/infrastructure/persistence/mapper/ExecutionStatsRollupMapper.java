@@ -0,0 +1,60 @@
+package com.dms.liteflow.infrastructure.persistence.mapper;
+
+import com.dms.liteflow.infrastructure.persistence.entity.ExecutionStatsRollupEntity;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 执行统计汇总 Mapper 接口
+ * <p>
+ * tableName 只接受 execution_stats_hourly / execution_stats_daily，由仓储实现按粒度传入。
+ * </p>
+ */
+public interface ExecutionStatsRollupMapper {
+
+    /**
+     * 批量写入，同一维度同一区间已存在时覆盖
+     */
+    int upsertBatch(@Param("tableName") String tableName,
+                    @Param("entities") List<ExecutionStatsRollupEntity> entities);
+
+    /**
+     * 查询单个维度在时间段内的汇总
+     */
+    List<ExecutionStatsRollupEntity> selectByDimension(
+            @Param("tableName") String tableName,
+            @Param("tenantId") Long tenantId,
+            @Param("chainId") Long chainId,
+            @Param("componentId") String componentId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    /**
+     * 查询时间段内所有维度的汇总
+     */
+    List<ExecutionStatsRollupEntity> selectByTimeRange(
+            @Param("tableName") String tableName,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    /**
+     * 查询汇总水位
+     */
+    LocalDateTime selectRolledUpTo(@Param("granularity") String granularity);
+
+    /**
+     * 写入汇总水位
+     */
+    int upsertRolledUpTo(@Param("granularity") String granularity,
+                         @Param("rolledUpTo") LocalDateTime rolledUpTo);
+
+    /**
+     * 删除过期汇总
+     */
+    int deleteBefore(@Param("tableName") String tableName,
+                     @Param("beforeTime") LocalDateTime beforeTime);
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -95,6 +96,16 @@ public class ExecutionRecordRepositoryImpl implements ExecutionRecordRepository
         );
     }
 
+    @Override
+    public void forEachCompletedRecord(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Consumer<ExecutionRecord> consumer
+    ) {
+        executionRecordMapper.scanCompletedRecords(startTime, endTime,
+                context -> consumer.accept(toDomain(context.getResultObject())));
+    }
+
     @Override
     public int deleteRecordsBefore(LocalDateTime beforeTime) {
         return executionRecordMapper.deleteRecordsBefore(beforeTime);
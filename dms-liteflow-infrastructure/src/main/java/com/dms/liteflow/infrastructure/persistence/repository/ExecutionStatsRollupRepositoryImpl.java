@@ -0,0 +1,168 @@
+package com.dms.liteflow.infrastructure.persistence.repository;
+
+import com.dms.liteflow.domain.monitoring.aggregate.ExecutionStatsRollup;
+import com.dms.liteflow.domain.monitoring.repository.ExecutionStatsRollupRepository;
+import com.dms.liteflow.domain.monitoring.valueobject.RollupGranularity;
+import com.dms.liteflow.infrastructure.persistence.entity.ExecutionStatsRollupEntity;
+import com.dms.liteflow.infrastructure.persistence.mapper.ExecutionStatsRollupMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 执行统计汇总仓储实现
+ * <p>
+ * 直方图以稀疏文本 "桶序号:计数,桶序号:计数" 存储，只保存非零桶。
+ * </p>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ExecutionStatsRollupRepositoryImpl implements ExecutionStatsRollupRepository {
+
+    private static final String HOURLY_TABLE = "execution_stats_hourly";
+    private static final String DAILY_TABLE = "execution_stats_daily";
+    private static final int BATCH_SIZE = 500;
+
+    private final ExecutionStatsRollupMapper executionStatsRollupMapper;
+
+    @Override
+    public void saveAll(RollupGranularity granularity, List<ExecutionStatsRollup> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return;
+        }
+        List<ExecutionStatsRollupEntity> entities = rollups.stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
+        for (int from = 0; from < entities.size(); from += BATCH_SIZE) {
+            executionStatsRollupMapper.upsertBatch(tableName(granularity),
+                    entities.subList(from, Math.min(from + BATCH_SIZE, entities.size())));
+        }
+    }
+
+    @Override
+    public List<ExecutionStatsRollup> findByDimension(
+            RollupGranularity granularity,
+            Long tenantId,
+            Long chainId,
+            String componentId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return executionStatsRollupMapper.selectByDimension(
+                        tableName(granularity), tenantId, chainId, componentId, startTime, endTime)
+                .stream()
+                .map(entity -> toDomain(granularity, entity))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ExecutionStatsRollup> findByTimeRange(
+            RollupGranularity granularity,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return executionStatsRollupMapper.selectByTimeRange(tableName(granularity), startTime, endTime)
+                .stream()
+                .map(entity -> toDomain(granularity, entity))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findRolledUpTo(RollupGranularity granularity) {
+        return Optional.ofNullable(executionStatsRollupMapper.selectRolledUpTo(granularity.name()));
+    }
+
+    @Override
+    public void saveRolledUpTo(RollupGranularity granularity, LocalDateTime rolledUpTo) {
+        executionStatsRollupMapper.upsertRolledUpTo(granularity.name(), rolledUpTo);
+    }
+
+    @Override
+    public int deleteBefore(RollupGranularity granularity, LocalDateTime beforeTime) {
+        return executionStatsRollupMapper.deleteBefore(tableName(granularity), beforeTime);
+    }
+
+    private String tableName(RollupGranularity granularity) {
+        return granularity == RollupGranularity.DAY ? DAILY_TABLE : HOURLY_TABLE;
+    }
+
+    /**
+     * 领域对象转实体
+     */
+    private ExecutionStatsRollupEntity toEntity(ExecutionStatsRollup domain) {
+        return ExecutionStatsRollupEntity.builder()
+                .tenantId(domain.getTenantId())
+                .chainId(domain.getChainId())
+                .componentId(domain.getComponentId())
+                .bucketStart(domain.getBucketStart())
+                .execCount(domain.getCount())
+                .failureCount(domain.getFailureCount())
+                .totalTime(domain.getSum())
+                .minTime(domain.getMin())
+                .maxTime(domain.getMax())
+                .histogram(encodeHistogram(domain.getHistogram()))
+                .build();
+    }
+
+    /**
+     * 实体转领域对象
+     */
+    private ExecutionStatsRollup toDomain(RollupGranularity granularity, ExecutionStatsRollupEntity entity) {
+        return ExecutionStatsRollup.builder()
+                .granularity(granularity)
+                .tenantId(entity.getTenantId())
+                .chainId(entity.getChainId())
+                .componentId(entity.getComponentId())
+                .bucketStart(entity.getBucketStart())
+                .count(entity.getExecCount())
+                .failureCount(entity.getFailureCount())
+                .sum(entity.getTotalTime())
+                .min(entity.getMinTime())
+                .max(entity.getMaxTime())
+                .histogram(decodeHistogram(entity.getHistogram()))
+                .build();
+    }
+
+    private String encodeHistogram(long[] histogram) {
+        if (histogram == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] > 0) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(i).append(':').append(histogram[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private long[] decodeHistogram(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new long[0];
+        }
+        String[] entries = encoded.split(",");
+        int[] indexes = new int[entries.length];
+        long[] counts = new long[entries.length];
+        int maxIndex = -1;
+        for (int i = 0; i < entries.length; i++) {
+            int separator = entries[i].indexOf(':');
+            indexes[i] = Integer.parseInt(entries[i].substring(0, separator));
+            counts[i] = Long.parseLong(entries[i].substring(separator + 1));
+            maxIndex = Math.max(maxIndex, indexes[i]);
+        }
+        long[] histogram = new long[maxIndex + 1];
+        for (int i = 0; i < entries.length; i++) {
+            histogram[indexes[i]] += counts[i];
+        }
+        return histogram;
+    }
+}
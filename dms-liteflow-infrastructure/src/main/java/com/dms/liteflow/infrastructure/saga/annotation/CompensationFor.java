@@ -20,4 +20,10 @@ public @interface CompensationFor {
      * 原始组件名称
      */
     String value();
+
+    /**
+     * 须先完成补偿的原始组件名称
+     * <p>本补偿组件在这些组件的补偿完成之后才会执行</p>
+     */
+    String[] after() default {};
 }
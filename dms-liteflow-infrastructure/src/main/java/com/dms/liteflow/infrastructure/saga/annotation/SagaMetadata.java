@@ -38,6 +38,12 @@ public @interface SagaMetadata {
      */
     long timeoutMs() default 30000;
 
+    /**
+     * 正向依赖的组件（使用了这些组件的结果）
+     * <p>补偿时本组件须先于这些组件补偿；未声明依赖的步骤之间可以并行补偿</p>
+     */
+    String[] dependsOn() default {};
+
     /**
      * 失败规则列表
      */
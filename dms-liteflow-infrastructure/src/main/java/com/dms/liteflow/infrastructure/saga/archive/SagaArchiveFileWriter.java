@@ -0,0 +1,53 @@
+package com.dms.liteflow.infrastructure.saga.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 归档文件写入器
+ * <p>
+ * 每行一个 JSON 归档记录，每个分块作为一个完整的 gzip member 追加到文件末尾并落盘。
+ * 多个 member 拼接仍是合法的 gzip 文件（zcat 可直接读取），写入中途宕机只会丢失未完成的最后一个 member，
+ * 之前的分块不受影响。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@RequiredArgsConstructor
+class SagaArchiveFileWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 追加一个分块并强制刷盘
+     *
+     * @return 写入后的文件大小
+     */
+    long append(Path file, List<SagaArchiveRecord> records) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileOutputStream fileOut = new FileOutputStream(file.toFile(), true)) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, 64 * 1024);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzipOut, StandardCharsets.UTF_8));
+            for (SagaArchiveRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+            writer.flush();
+            gzipOut.finish();
+            // 落盘后才删除数据库中的数据
+            fileOut.getChannel().force(true);
+            return fileOut.getChannel().size();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.dms.liteflow.infrastructure.saga.archive;
+
+import com.dms.liteflow.infrastructure.saga.persistence.entity.CompensationLogEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.ManualInterventionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.SagaExecutionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.StepExecutionEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Saga 归档记录（一个执行实例及其步骤迁移记录、补偿日志、人工介入记录）
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaArchiveRecord {
+
+    private SagaExecutionEntity execution;
+
+    private List<StepExecutionEntity> steps;
+
+    private List<CompensationLogEntity> compensationLogs;
+
+    private List<ManualInterventionEntity> manualInterventions;
+}
@@ -0,0 +1,49 @@
+package com.dms.liteflow.infrastructure.saga.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Saga 归档结果
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaArchiveResult {
+
+    /**
+     * 扫描的主键区间数
+     */
+    private long chunks;
+
+    /**
+     * 归档并删除的执行数
+     */
+    private long archived;
+
+    /**
+     * 归档的步骤迁移记录数
+     */
+    private long steps;
+
+    /**
+     * 归档的补偿日志数
+     */
+    private long compensationLogs;
+
+    /**
+     * 归档的人工介入记录数
+     */
+    private long manualInterventions;
+
+    /**
+     * 失败的区间数（区间内数据保持不变，下次重试）
+     */
+    private long failedChunks;
+}
@@ -0,0 +1,155 @@
+package com.dms.liteflow.infrastructure.saga.archive;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.CompensationLogEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.ManualInterventionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.SagaExecutionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.StepExecutionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.CompensationLogMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.ManualInterventionMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.SagaExecutionMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.StepExecutionMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Saga 数据归档服务
+ * <p>
+ * 按主键区间 (fromId, fromId + archiveChunkSize] 逐段扫描 saga_execution（覆盖所有租户），
+ * 每段只加载完成时间早于阈值的终态执行及其步骤、补偿日志和人工介入记录，追加写入当天的压缩归档文件并落盘后，
+ * 用一条 DELETE 按主键删除该段（子表由外键级联删除，因此所有子表都须先写入归档）。内存占用只与分块大小有关，与表大小无关。
+ * 扫描上界为开始时的最大主键，归档过程中新写入的数据不会被处理。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Service
+public class SagaArchiveService {
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final SagaExecutionMapper sagaExecutionMapper;
+    private final StepExecutionMapper stepExecutionMapper;
+    private final CompensationLogMapper compensationLogMapper;
+    private final ManualInterventionMapper manualInterventionMapper;
+    private final SagaArchiveFileWriter fileWriter;
+    private final SagaProperties sagaProperties;
+
+    public SagaArchiveService(SagaExecutionMapper sagaExecutionMapper, StepExecutionMapper stepExecutionMapper,
+                              CompensationLogMapper compensationLogMapper,
+                              ManualInterventionMapper manualInterventionMapper, ObjectMapper objectMapper,
+                              SagaProperties sagaProperties) {
+        this.sagaExecutionMapper = sagaExecutionMapper;
+        this.stepExecutionMapper = stepExecutionMapper;
+        this.compensationLogMapper = compensationLogMapper;
+        this.manualInterventionMapper = manualInterventionMapper;
+        this.fileWriter = new SagaArchiveFileWriter(objectMapper);
+        this.sagaProperties = sagaProperties;
+    }
+
+    /**
+     * 归档完成时间早于 beforeTime 的执行
+     */
+    public SagaArchiveResult archive(LocalDateTime beforeTime) {
+        SagaArchiveResult result = new SagaArchiveResult();
+        Long minId = sagaExecutionMapper.selectMinId();
+        Long maxId = sagaExecutionMapper.selectMaxId();
+        if (minId == null || maxId == null) {
+            return result;
+        }
+
+        int chunkSize = sagaProperties.getDataCleanup().getArchiveChunkSize();
+        Path file = archiveFile();
+        for (long fromId = minId - 1; fromId < maxId; fromId += chunkSize) {
+            long toId = Math.min(fromId + chunkSize, maxId);
+            result.setChunks(result.getChunks() + 1);
+            try {
+                archiveChunk(fromId, toId, beforeTime, file, result);
+            } catch (Exception e) {
+                result.setFailedChunks(result.getFailedChunks() + 1);
+                log.error("Failed to archive saga chunk: ids=({}, {}]", fromId, toId, e);
+            }
+        }
+
+        log.info("Saga archive finished: file={}, chunks={}, archived={}, steps={}, compensationLogs={}, "
+                        + "manualInterventions={}, failedChunks={}",
+                file, result.getChunks(), result.getArchived(), result.getSteps(),
+                result.getCompensationLogs(), result.getManualInterventions(), result.getFailedChunks());
+        return result;
+    }
+
+    private void archiveChunk(long fromId, long toId, LocalDateTime beforeTime, Path file,
+                              SagaArchiveResult result) throws Exception {
+        List<SagaExecutionEntity> executions =
+                sagaExecutionMapper.selectArchivableByIdRange(fromId, toId, beforeTime);
+        if (executions.isEmpty()) {
+            return;
+        }
+
+        List<String> executionIds = executions.stream()
+                .map(SagaExecutionEntity::getExecutionId)
+                .collect(Collectors.toList());
+        Map<String, List<StepExecutionEntity>> stepsByExecution = stepExecutionMapper
+                .selectByExecutionIds(executionIds).stream()
+                .collect(Collectors.groupingBy(StepExecutionEntity::getExecutionId));
+        Map<String, List<CompensationLogEntity>> logsByExecution = compensationLogMapper
+                .selectByExecutionIds(executionIds).stream()
+                .collect(Collectors.groupingBy(CompensationLogEntity::getExecutionId));
+        Map<String, List<ManualInterventionEntity>> interventionsByExecution = manualInterventionMapper
+                .selectByExecutionIds(executionIds).stream()
+                .collect(Collectors.groupingBy(ManualInterventionEntity::getExecutionId));
+
+        List<SagaArchiveRecord> records = new ArrayList<>(executions.size());
+        List<Long> ids = new ArrayList<>(executions.size());
+        long steps = 0;
+        long logs = 0;
+        long interventions = 0;
+        for (SagaExecutionEntity execution : executions) {
+            List<StepExecutionEntity> executionSteps =
+                    stepsByExecution.getOrDefault(execution.getExecutionId(), Collections.emptyList());
+            List<CompensationLogEntity> executionLogs =
+                    logsByExecution.getOrDefault(execution.getExecutionId(), Collections.emptyList());
+            List<ManualInterventionEntity> executionInterventions =
+                    interventionsByExecution.getOrDefault(execution.getExecutionId(), Collections.emptyList());
+            records.add(SagaArchiveRecord.builder()
+                    .execution(execution)
+                    .steps(executionSteps)
+                    .compensationLogs(executionLogs)
+                    .manualInterventions(executionInterventions)
+                    .build());
+            ids.add(execution.getId());
+            steps += executionSteps.size();
+            logs += executionLogs.size();
+            interventions += executionInterventions.size();
+        }
+
+        // 先写归档文件并落盘，再删除；删除失败时下次会重复归档，读取方按 execution_id 去重
+        fileWriter.append(file, records);
+        int deleted = sagaExecutionMapper.deleteByIds(ids);
+
+        result.setArchived(result.getArchived() + deleted);
+        result.setSteps(result.getSteps() + steps);
+        result.setCompensationLogs(result.getCompensationLogs() + logs);
+        result.setManualInterventions(result.getManualInterventions() + interventions);
+        log.debug("Archived saga chunk: ids=({}, {}], executions={}", fromId, toId, deleted);
+    }
+
+    private Path archiveFile() {
+        return Paths.get(sagaProperties.getDataCleanup().getArchiveDir(),
+                "saga-archive-" + LocalDate.now().format(FILE_DATE_FORMATTER) + ".jsonl.gz");
+    }
+}
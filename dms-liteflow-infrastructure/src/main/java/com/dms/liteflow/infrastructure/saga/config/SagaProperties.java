@@ -40,11 +40,61 @@ public class SagaProperties {
      */
     private Long compensationRetryIntervalMs = 1000L;
 
+    /**
+     * 单个 Saga 内无依赖步骤的补偿并行度（小于等于 1 时按逆序串行补偿）
+     */
+    private Integer compensationParallelism = 4;
+
+    /**
+     * 补偿线程池队列容量，队列满时由调用线程执行
+     */
+    private Integer compensationQueueCapacity = 256;
+
     /**
      * Redis 故障时是否降级到纯 MySQL 存储
      */
     private Boolean redisFallbackEnabled = true;
 
+    /**
+     * 运行态存储配置
+     */
+    private StateStore stateStore = new StateStore();
+
+    /**
+     * 所有权租约配置
+     */
+    private Lease lease = new Lease();
+
+    /**
+     * 补偿任务队列配置
+     */
+    private CompensationQueue compensationQueue = new CompensationQueue();
+
+    /**
+     * 超时检测配置
+     */
+    private Deadline deadline = new Deadline();
+
+    /**
+     * 补偿日志异步写入配置
+     */
+    private LogWriter logWriter = new LogWriter();
+
+    /**
+     * Redis 运行态编码配置
+     */
+    private RedisCodec redisCodec = new RedisCodec();
+
+    /**
+     * 组件元数据缓存配置
+     */
+    private MetadataCache metadataCache = new MetadataCache();
+
+    /**
+     * 执行列表查询配置
+     */
+    private Query query = new Query();
+
     /**
      * 数据清理配置
      */
@@ -55,6 +105,220 @@ public class SagaProperties {
      */
     private Alert alert = new Alert();
 
+    @Data
+    public static class StateStore {
+        /**
+         * 是否使用 Lua 脚本在 Redis 中原子迁移步骤状态，关闭时每步加分布式锁并同步读写 MySQL
+         */
+        private Boolean luaEnabled = true;
+
+        /**
+         * 运行态异步落库间隔（毫秒）
+         */
+        private Long persistIntervalMs = 200L;
+
+        /**
+         * 单次落库最多处理的执行实例数
+         */
+        private Integer persistBatchSize = 200;
+    }
+
+    @Data
+    public static class Lease {
+        /**
+         * 是否启用：执行节点持有租约期间步骤更新只做本地同步，不再逐步加分布式锁
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 租约时长（秒），到期前由续约线程通过 renewLock 延长
+         */
+        private Long leaseSeconds = 30L;
+
+        /**
+         * 续约间隔（毫秒），应明显小于租约时长
+         */
+        private Long renewIntervalMs = 10000L;
+
+        /**
+         * 人工操作接管租约时等待原持有者释放的时间（毫秒）
+         */
+        private Long takeoverWaitMs = 3000L;
+    }
+
+    @Data
+    public static class CompensationQueue {
+        /**
+         * 是否将补偿投递到 Redis Stream 异步执行，关闭时在失败节点的执行线程内同步补偿
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 补偿任务 Stream 键
+         */
+        private String streamKey = "saga:compensation:queue";
+
+        /**
+         * 延迟重试任务 ZSet 键（score 为到期时间）
+         */
+        private String retryKey = "saga:compensation:retry";
+
+        /**
+         * 消费者组名称
+         */
+        private String consumerGroup = "saga-compensation-workers";
+
+        /**
+         * 消费者名称，为空时使用 主机名-进程号
+         */
+        private String consumerName;
+
+        /**
+         * 每个节点的补偿工作线程数
+         */
+        private Integer workerThreads = 8;
+
+        /**
+         * 单个租户在本节点同时执行的补偿任务上限
+         */
+        private Integer perTenantConcurrency = 2;
+
+        /**
+         * 拉取阻塞超时（毫秒）
+         */
+        private Long pollTimeoutMs = 2000L;
+
+        /**
+         * 最大尝试次数，超过后转人工介入
+         */
+        private Integer maxAttempts = 5;
+
+        /**
+         * 首次重试退避（毫秒），之后按指数增长
+         */
+        private Long retryBackoffMs = 1000L;
+
+        /**
+         * 最大重试退避（毫秒）
+         */
+        private Long maxRetryBackoffMs = 60000L;
+
+        /**
+         * 租户并发已满时任务的延后时间（毫秒）
+         */
+        private Long tenantDeferMs = 200L;
+
+        /**
+         * 已投递未确认的消息空闲超过该时间后由其他节点认领（毫秒）
+         */
+        private Long reclaimIdleMs = 300000L;
+
+        /**
+         * 认领检查间隔（毫秒）
+         */
+        private Long reclaimIntervalMs = 30000L;
+
+        /**
+         * 积压上限，超过后在失败线程内同步补偿
+         */
+        private Long maxLength = 100000L;
+    }
+
+    @Data
+    public static class Deadline {
+        /**
+         * 本节点时间轮的刻度（毫秒），决定超时触发的精度
+         */
+        private Long tickMs = 100L;
+
+        /**
+         * 时间轮槽位数
+         */
+        private Integer wheelSize = 512;
+
+        /**
+         * 扫描超时索引的间隔（毫秒），用于处理其他节点（含已宕机节点）启动的 Saga
+         */
+        private Long sweepIntervalMs = 5000L;
+
+        /**
+         * 单次扫描最多处理的超时执行数
+         */
+        private Integer sweepBatchSize = 200;
+
+        /**
+         * 超时处理失败（如状态存储不可用）后重新登记的延迟（毫秒），到期后由任一节点再次处理
+         */
+        private Long retryBackoffMs = 30000L;
+    }
+
+    @Data
+    public static class LogWriter {
+        /**
+         * 是否异步批量写入补偿日志，关闭时每条日志同步写入
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 缓冲区容量，写满时由补偿线程同步写入（不丢弃日志）
+         */
+        private Integer bufferSize = 10000;
+
+        /**
+         * 单批写入条数
+         */
+        private Integer batchSize = 200;
+
+        /**
+         * 刷新间隔（毫秒）
+         */
+        private Long flushIntervalMs = 200L;
+    }
+
+    @Data
+    public static class RedisCodec {
+        /**
+         * 写入编码：smile（二进制）/ json，读取按数据头部自动识别
+         */
+        private String format = "smile";
+
+        /**
+         * 压缩方式：deflate / none
+         */
+        private String compression = "deflate";
+
+        /**
+         * 超过该字节数才压缩
+         */
+        private Integer compressionThreshold = 1024;
+    }
+
+    @Data
+    public static class MetadataCache {
+        /**
+         * 本地缓存核对 Redis 版本号的间隔（毫秒），失效广播丢失时以此兜底
+         */
+        private Long versionCheckIntervalMs = 5000L;
+
+        /**
+         * Redis 二级缓存的过期时间（秒），旧版本号和已删除组件的条目到期后自动清除
+         */
+        private Long redisTtlSeconds = 86400L;
+    }
+
+    @Data
+    public static class Query {
+        /**
+         * 列表总数缓存时间（秒），总数在该时间内为近似值
+         */
+        private Long countCacheTtlSeconds = 30L;
+
+        /**
+         * 每页最大条数
+         */
+        private Integer maxPageSize = 200;
+    }
+
     @Data
     public static class DataCleanup {
         /**
@@ -66,6 +330,16 @@ public class SagaProperties {
          * MySQL 数据归档天数
          */
         private Integer mysqlArchiveDays = 90;
+
+        /**
+         * 归档文件目录
+         */
+        private String archiveDir = "./data/saga-archive";
+
+        /**
+         * 每个归档分块覆盖的主键区间大小
+         */
+        private Integer archiveChunkSize = 1000;
     }
 
     @Data
@@ -9,19 +9,54 @@ package com.dms.liteflow.infrastructure.saga.config;
 public class SagaRedisKeys {
 
     /**
-     * Saga 执行实例 Key
+     * Saga 执行实例 Hash Key（头信息每个属性一个 field，每个步骤一个 field，补偿栈为 stepId 列表）
      * <p>格式: saga:execution:{tenantId}:{executionId}</p>
      * <p>TTL: 24小时</p>
      */
     public static final String EXECUTION_KEY = "saga:execution:%d:%s";
 
     /**
-     * Saga 执行栈 Key
+     * 执行实例 Hash 中步骤的 field
+     * <p>格式: step:{stepId}</p>
+     */
+    public static final String EXECUTION_STEP_FIELD = "step:%s";
+
+    /**
+     * Saga 执行栈 Key（旧格式，补偿栈已并入执行实例 Hash，仅用于清理）
      * <p>格式: saga:execution:{tenantId}:{executionId}:stack</p>
      * <p>TTL: 24小时</p>
      */
     public static final String EXECUTION_STACK_KEY = "saga:execution:%d:%s:stack";
 
+    /**
+     * Saga 运行态头信息 Hash Key
+     * <p>格式: saga:{executionId}:state，花括号为 Redis Cluster hash tag，同一执行的运行态 Key 落在同一槽位，
+     * 可在一个 Lua 脚本中原子更新</p>
+     * <p>TTL: 24小时</p>
+     */
+    public static final String STATE_KEY = "saga:{%s}:state";
+
+    /**
+     * Saga 运行态步骤 Hash Key（field 为 {stepId}:{属性}，每个步骤属性一个 field）
+     * <p>格式: saga:{executionId}:steps</p>
+     * <p>TTL: 24小时</p>
+     */
+    public static final String STATE_STEPS_KEY = "saga:{%s}:steps";
+
+    /**
+     * Saga 运行态补偿栈 List Key（按完成顺序存放需要补偿的 stepId）
+     * <p>格式: saga:{executionId}:stack</p>
+     * <p>TTL: 24小时</p>
+     */
+    public static final String STATE_STACK_KEY = "saga:{%s}:stack";
+
+    /**
+     * Saga 运行态脏集合 Key（ZSet，member 为 executionId，score 为最近一次迁移的 revision）
+     * <p>格式: saga:state:dirty，不带 hash tag，在迁移脚本之外单独写入</p>
+     * <p>TTL: 永久，落库后移除</p>
+     */
+    public static final String STATE_DIRTY_KEY = "saga:state:dirty";
+
     /**
      * Saga 分布式锁 Key
      * <p>格式: saga:lock:{executionId}</p>
@@ -29,6 +64,13 @@ public class SagaRedisKeys {
      */
     public static final String LOCK_KEY = "saga:lock:%s";
 
+    /**
+     * Saga 所有权租约的 fencing token（每次获取或接管租约时递增）
+     * <p>格式: saga:{executionId}:fence，与运行态 Key 使用同一 hash tag，迁移脚本在同一槽位内校验 token</p>
+     * <p>TTL: 24小时</p>
+     */
+    public static final String LEASE_FENCE_KEY = "saga:{%s}:fence";
+
     /**
      * Saga 查询结果缓存 Key
      * <p>格式: saga:execution:query:{tenantId}:{queryHash}</p>
@@ -50,6 +92,25 @@ public class SagaRedisKeys {
      */
     public static final String METADATA_KEY = "saga:metadata:%d:%s";
 
+    /**
+     * Saga 元数据版本号 Key（每次失效时递增，缓存值携带写入时的版本）
+     * <p>格式: saga:metadata:version:{tenantId}</p>
+     * <p>TTL: 永久</p>
+     */
+    public static final String METADATA_VERSION_KEY = "saga:metadata:version:%d";
+
+    /**
+     * Saga 元数据失效广播频道（消息体为 {tenantId}:{version}）
+     */
+    public static final String METADATA_INVALIDATE_CHANNEL = "saga:metadata:invalidate";
+
+    /**
+     * Saga 超时索引 Key（ZSet，member 为 {tenantId}:{executionId}，score 为截止时间毫秒）
+     * <p>格式: saga:deadline:index</p>
+     * <p>TTL: 永久，执行结束时移除</p>
+     */
+    public static final String DEADLINE_INDEX_KEY = "saga:deadline:index";
+
     // TTL 配置（秒）
 
     /**
@@ -90,6 +151,27 @@ public class SagaRedisKeys {
         return String.format(EXECUTION_STACK_KEY, tenantId, executionId);
     }
 
+    /**
+     * 构建运行态头信息 Key
+     */
+    public static String stateKey(String executionId) {
+        return String.format(STATE_KEY, executionId);
+    }
+
+    /**
+     * 构建运行态步骤 Key
+     */
+    public static String stateStepsKey(String executionId) {
+        return String.format(STATE_STEPS_KEY, executionId);
+    }
+
+    /**
+     * 构建运行态补偿栈 Key
+     */
+    public static String stateStackKey(String executionId) {
+        return String.format(STATE_STACK_KEY, executionId);
+    }
+
     /**
      * 构建锁 Key
      */
@@ -97,6 +179,13 @@ public class SagaRedisKeys {
         return String.format(LOCK_KEY, executionId);
     }
 
+    /**
+     * 构建租约 fencing token Key
+     */
+    public static String leaseFenceKey(String executionId) {
+        return String.format(LEASE_FENCE_KEY, executionId);
+    }
+
     /**
      * 构建步骤执行状态 Key
      */
@@ -110,4 +199,11 @@ public class SagaRedisKeys {
     public static String metadataKey(Long tenantId, String componentName) {
         return String.format(METADATA_KEY, tenantId, componentName);
     }
+
+    /**
+     * 构建元数据版本号 Key
+     */
+    public static String metadataVersionKey(Long tenantId) {
+        return String.format(METADATA_VERSION_KEY, tenantId);
+    }
 }
@@ -1,10 +1,10 @@
 package com.dms.liteflow.infrastructure.saga.job;
 
-import com.dms.liteflow.domain.saga.entity.CompensationLog;
 import com.dms.liteflow.domain.saga.repository.CompensationLogRepository;
 import com.dms.liteflow.domain.saga.service.CompensationOrchestrator;
+import com.dms.liteflow.domain.saga.valueobject.CompensationLog;
 import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
-import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
 import com.xxl.job.core.context.XxlJobHelper;
@@ -14,7 +14,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Saga 补偿重试 Handler
@@ -28,6 +31,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SagaCompensationRetryHandler {
 
+    /**
+     * 单个步骤的最大自动重试次数
+     */
+    private static final int MAX_RETRY_COUNT = 3;
+
     private final CompensationLogRepository compensationLogRepository;
     private final CompensationOrchestrator compensationOrchestrator;
 
@@ -48,45 +56,47 @@ public class SagaCompensationRetryHandler {
             TenantId tenantId = TenantId.of(1L);
             TenantContext.setTenantId(tenantId);
 
-            // 查询所有失败的补偿日志
-            // 这里需要通过 CompensationLogRepository 的方法获取失败记录
-            // 假设我们有按状态查询的方法
+            // 查询最后一次补偿失败的步骤
             List<CompensationLog> failedLogs = findFailedCompensationLogs(tenantId);
 
-            log.info("Found {} failed compensation logs to retry", failedLogs.size());
+            log.info("Found {} failed compensation steps to retry", failedLogs.size());
 
-            for (CompensationLog log : failedLogs) {
+            for (CompensationLog failedLog : failedLogs) {
                 try {
                     // 检查重试次数限制（最多3次）
-                    if (log.getRetryCount() != null && log.getRetryCount() >= 3) {
-                        log.debug("Skipping compensation log (max retries reached): {}", log.getId());
+                    long attempts = compensationLogRepository
+                            .findByExecutionIdAndStepId(failedLog.getExecutionId(), failedLog.getStepId())
+                            .stream()
+                            .filter(CompensationLog::isFailed)
+                            .count();
+                    if (attempts > MAX_RETRY_COUNT) {
+                        log.debug("Skipping compensation step (max retries reached): executionId={}, stepId={}",
+                                failedLog.getExecutionId(), failedLog.getStepId());
                         continue;
                     }
 
                     retryCount++;
 
-                    // 执行重试
-                    SagaExecutionId executionId = log.getExecutionId();
-
                     // 重新执行该步骤的补偿
                     boolean success = compensationOrchestrator.retryCompensation(
-                            executionId,
-                            log.getStepId()
+                            SagaExecutionId.of(failedLog.getExecutionId()),
+                            StepId.of(failedLog.getStepId())
                     );
 
                     if (success) {
                         successCount++;
                         log.info("Successfully retried compensation for execution: {}, step: {}",
-                                executionId.getValue(), log.getStepId());
+                                failedLog.getExecutionId(), failedLog.getStepId());
                     } else {
                         failedCount++;
                         log.warn("Failed to retry compensation for execution: {}, step: {}",
-                                executionId.getValue(), log.getStepId());
+                                failedLog.getExecutionId(), failedLog.getStepId());
                     }
 
                 } catch (Exception e) {
                     failedCount++;
-                    log.error("Error retrying compensation for log: {}", log.getId(), e);
+                    log.error("Error retrying compensation for execution: {}, step: {}",
+                            failedLog.getExecutionId(), failedLog.getStepId(), e);
                 }
             }
 
@@ -104,14 +114,25 @@ public class SagaCompensationRetryHandler {
     }
 
     /**
-     * 查找失败的补偿日志
+     * 查找最近1小时内最后一次补偿失败的步骤（每个步骤取最新一条日志）
      */
     private List<CompensationLog> findFailedCompensationLogs(TenantId tenantId) {
-        // 获取最近1小时内失败的补偿日志
         LocalDateTime since = LocalDateTime.now().minusHours(1);
+        List<CompensationLog> logs = compensationLogRepository.findByCompensatedAtBetween(since, LocalDateTime.now());
 
-        // 这里需要根据实际的 Repository 方法来查询
-        // 暂时返回空列表，需要实现相应的查询方法
-        return List.of();
+        // 日志按补偿时间倒序，每个步骤保留最新一条
+        Map<String, CompensationLog> latestByStep = new LinkedHashMap<>();
+        for (CompensationLog compensationLog : logs) {
+            latestByStep.putIfAbsent(compensationLog.getExecutionId() + ":" + compensationLog.getStepId(),
+                    compensationLog);
+        }
+
+        List<CompensationLog> failed = new ArrayList<>();
+        for (CompensationLog compensationLog : latestByStep.values()) {
+            if (compensationLog.isFailed()) {
+                failed.add(compensationLog);
+            }
+        }
+        return failed;
     }
 }
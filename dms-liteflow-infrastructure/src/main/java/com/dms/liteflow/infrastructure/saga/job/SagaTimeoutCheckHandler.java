@@ -3,24 +3,21 @@ package com.dms.liteflow.infrastructure.saga.job;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
 import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
 import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
-import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
-import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
-import com.dms.liteflow.infrastructure.interceptor.TenantContext;
-import com.dms.liteflow.infrastructure.saga.redis.SagaRedisService;
-import com.dms.liteflow.infrastructure.saga.state.SagaStateServiceImpl;
+import com.dms.liteflow.infrastructure.saga.timeout.SagaTimeoutScheduler;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
  * Saga 超时检查 Handler
- * 检查并标记超时的 Saga 执行
+ * <p>
+ * 超时由 {@link SagaTimeoutScheduler} 的时间轮和超时索引扫描实时处理，本任务只作为兜底：
+ * 处理索引中已到期的执行（代价与超时数量成正比），以及在索引丢失后从数据库重建索引。
+ * </p>
  *
  * @author DMS
  * @since 2026-02-03
@@ -31,8 +28,7 @@ import java.util.List;
 public class SagaTimeoutCheckHandler {
 
     private final SagaExecutionRepository sagaExecutionRepository;
-    private final SagaStateServiceImpl sagaStateService;
-    private final SagaRedisService sagaRedisService;
+    private final SagaTimeoutScheduler timeoutScheduler;
 
     /**
      * 检查并标记超时的 Saga
@@ -42,79 +38,41 @@ public class SagaTimeoutCheckHandler {
     public void checkTimeout() {
         log.info("Starting Saga timeout check job...");
 
-        int timeoutCount = 0;
-        int failedCount = 0;
-
         try {
-            // 使用系统租户ID
-            TenantId tenantId = TenantId.of(1L);
-            TenantContext.setTenantId(tenantId);
-
-            // 查询所有运行中的 Saga 执行
-            List<SagaExecution> runningExecutions = sagaExecutionRepository.findByTenantIdAndStatus(
-                    tenantId,
-                    SagaStatus.RUNNING
-            );
-
-            // 也查询补偿中的执行
-            runningExecutions.addAll(
-                    sagaExecutionRepository.findByTenantIdAndStatus(tenantId, SagaStatus.COMPENSATING)
-            );
-
-            log.info("Found {} running/compensating executions to check", runningExecutions.size());
-
-            // 默认超时时间：30分钟
-            long defaultTimeoutMinutes = 30;
-
-            for (SagaExecution execution : runningExecutions) {
-                try {
-                    if (isExecutionTimeout(execution, defaultTimeoutMinutes)) {
-                        // 标记为超时失败
-                        execution.fail("Execution timeout");
-                        sagaStateService.saveExecution(execution);
-
-                        // 从 Redis 清理
-                        sagaRedisService.deleteExecution(execution.getExecutionId());
-
-                        timeoutCount++;
-
-                        log.warn("Marked execution as timeout: {}, started at: {}",
-                                execution.getExecutionId().getValue(),
-                                execution.getStartedAt());
-                    }
+            int timeoutCount = timeoutScheduler.sweepExpired();
 
-                } catch (Exception e) {
-                    failedCount++;
-                    log.error("Failed to check timeout for execution: {}",
-                            execution.getExecutionId().getValue(), e);
-                }
-            }
-
-            log.info("Saga timeout check job completed. Timeout: {}, Failed: {}", timeoutCount, failedCount);
-            XxlJobHelper.handleSuccess(String.format("Timeout: %d, Failed: %d", timeoutCount, failedCount));
+            log.info("Saga timeout check job completed. Timeout: {}", timeoutCount);
+            XxlJobHelper.handleSuccess(String.format("Timeout: %d", timeoutCount));
 
         } catch (Exception e) {
             log.error("Saga timeout check job failed", e);
             XxlJobHelper.handleFail(e.getMessage());
-        } finally {
-            TenantContext.clear();
         }
     }
 
     /**
-     * 检查执行是否超时
+     * 从数据库重建超时索引（Redis 数据丢失或升级前已在运行的执行）
+     * 手动触发
      */
-    private boolean isExecutionTimeout(SagaExecution execution, long timeoutMinutes) {
-        if (execution.getStartedAt() == null) {
-            // 没有开始时间，认为是异常数据，标记为超时
-            return true;
-        }
+    @XxlJob("sagaDeadlineIndexRebuildHandler")
+    public void rebuildDeadlineIndex() {
+        log.info("Starting Saga deadline index rebuild job...");
+
+        try {
+            List<SagaExecution> runningExecutions = sagaExecutionRepository.findByStatus(SagaStatus.RUNNING);
+            for (SagaExecution execution : runningExecutions) {
+                timeoutScheduler.track(execution);
+            }
+            // 已过截止时间的执行立即处理
+            int timeoutCount = timeoutScheduler.sweepExpired();
 
-        long minutesElapsed = ChronoUnit.MINUTES.between(
-                execution.getStartedAt(),
-                LocalDateTime.now()
-        );
+            log.info("Saga deadline index rebuilt. Registered: {}, Timeout: {}", runningExecutions.size(), timeoutCount);
+            XxlJobHelper.handleSuccess(String.format("Registered: %d, Timeout: %d",
+                    runningExecutions.size(), timeoutCount));
 
-        return minutesElapsed > timeoutMinutes;
+        } catch (Exception e) {
+            log.error("Saga deadline index rebuild job failed", e);
+            XxlJobHelper.handleFail(e.getMessage());
+        }
     }
 }
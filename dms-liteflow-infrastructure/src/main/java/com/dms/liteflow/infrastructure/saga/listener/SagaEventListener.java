@@ -1,5 +1,7 @@
 package com.dms.liteflow.infrastructure.saga.listener;
 
+import com.dms.liteflow.application.saga.compensation.CompensationTask;
+import com.dms.liteflow.application.saga.compensation.CompensationTaskQueue;
 import com.dms.liteflow.application.saga.monitoring.SagaAlertService;
 import com.dms.liteflow.application.saga.monitoring.SagaMonitoringService;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
@@ -18,6 +20,7 @@ import com.yomahub.liteflow.slot.DefaultContext;
 import com.yomahub.liteflow.slot.Slot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -40,6 +43,7 @@ public class SagaEventListener {
     private final CompensationOrchestrator compensationOrchestrator;
     private final SagaMonitoringService monitoringService;
     private final SagaAlertService alertService;
+    private final ObjectProvider<CompensationTaskQueue> compensationTaskQueueProvider;
     private final ObjectMapper objectMapper;
 
     /**
@@ -178,23 +182,11 @@ public class SagaEventListener {
             // 记录执行失败指标
             monitoringService.recordExecutionFailure(executionId, chainName, startTime, errorMessage);
 
-            // 触发补偿流程
-            log.info("Triggering compensation for executionId={}", executionId);
-            LocalDateTime compensationStartTime = LocalDateTime.now();
-
-            // 记录补偿开始指标
-            monitoringService.recordCompensationStart(executionId, chainName);
-
-            boolean success = compensationOrchestrator.compensate(
-                    SagaExecutionId.of(executionId)
-            );
-
-            if (success) {
-                log.info("Compensation completed successfully for executionId={}", executionId);
-                monitoringService.recordCompensationSuccess(executionId, chainName, compensationStartTime);
-            } else {
-                log.warn("Compensation partially failed for executionId={}", executionId);
-                monitoringService.recordCompensationFailure(executionId, chainName, compensationStartTime, "Partial failure");
+            // 触发补偿流程：优先投递到补偿队列，由补偿线程池异步执行
+            TenantId tenantId = sagaExecution != null && sagaExecution.getTenantId() != null
+                    ? sagaExecution.getTenantId() : TenantContext.getTenantId();
+            if (!enqueueCompensation(executionId, tenantId, chainName)) {
+                compensateInline(executionId, chainName);
             }
 
             // 检查并触发告警（异步执行，避免影响主流程）
@@ -218,6 +210,55 @@ public class SagaEventListener {
         }
     }
 
+    /**
+     * 投递补偿任务
+     *
+     * @return 是否投递成功，未启用补偿队列或投递失败时返回 false
+     */
+    private boolean enqueueCompensation(String executionId, TenantId tenantId, String chainName) {
+        CompensationTaskQueue compensationTaskQueue = compensationTaskQueueProvider.getIfAvailable();
+        if (compensationTaskQueue == null) {
+            return false;
+        }
+        try {
+            compensationTaskQueue.enqueue(CompensationTask.builder()
+                    .executionId(executionId)
+                    .tenantId(tenantId != null ? tenantId.getValue() : null)
+                    .chainName(chainName)
+                    .attempt(0)
+                    .enqueuedAt(System.currentTimeMillis())
+                    .build());
+            log.info("Compensation enqueued for executionId={}", executionId);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to enqueue compensation, compensating inline: executionId={}", executionId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 在当前线程内同步补偿
+     */
+    private void compensateInline(String executionId, String chainName) {
+        log.info("Triggering compensation for executionId={}", executionId);
+        LocalDateTime compensationStartTime = LocalDateTime.now();
+
+        // 记录补偿开始指标
+        monitoringService.recordCompensationStart(executionId, chainName);
+
+        boolean success = compensationOrchestrator.compensate(
+                SagaExecutionId.of(executionId)
+        );
+
+        if (success) {
+            log.info("Compensation completed successfully for executionId={}", executionId);
+            monitoringService.recordCompensationSuccess(executionId, chainName, compensationStartTime);
+        } else {
+            log.warn("Compensation partially failed for executionId={}", executionId);
+            monitoringService.recordCompensationFailure(executionId, chainName, compensationStartTime, "Partial failure");
+        }
+    }
+
     /**
      * 从上下文获取执行ID
      */
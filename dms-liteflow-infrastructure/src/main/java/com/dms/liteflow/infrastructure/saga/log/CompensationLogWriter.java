@@ -0,0 +1,151 @@
+package com.dms.liteflow.infrastructure.saga.log;
+
+import com.dms.liteflow.domain.saga.repository.CompensationLogRepository;
+import com.dms.liteflow.domain.saga.valueobject.CompensationLog;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 补偿日志异步批量写入器
+ * <p>
+ * 补偿线程只把日志放入有界缓冲区，由单个后台线程按批量大小或刷新间隔
+ * 通过 {@link CompensationLogRepository#saveAll}（insertBatch）写入 saga_compensation_log，
+ * 回滚过程中每个步骤不再等待一次 MySQL 往返。补偿日志是审计数据，缓冲区满时由调用线程同步写入而不是丢弃。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+public class CompensationLogWriter {
+
+    private final CompensationLogRepository compensationLogRepository;
+    private final SagaProperties.LogWriter config;
+    private final BlockingQueue<CompensationLog> buffer;
+
+    private final AtomicLong flushedCount = new AtomicLong(0);
+    private final AtomicLong overflowCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+
+    private volatile boolean running;
+    private Thread flushThread;
+
+    public CompensationLogWriter(CompensationLogRepository compensationLogRepository, SagaProperties properties) {
+        this.compensationLogRepository = compensationLogRepository;
+        this.config = properties.getLogWriter();
+        this.buffer = new ArrayBlockingQueue<>(config.getBufferSize());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            log.info("Compensation log write-behind disabled, logs are saved synchronously");
+            return;
+        }
+        running = true;
+        flushThread = new Thread(this::flushLoop, "saga-compensation-log-writer");
+        flushThread.setDaemon(true);
+        flushThread.start();
+        log.info("Compensation log writer started: bufferSize={}, batchSize={}, flushIntervalMs={}",
+                config.getBufferSize(), config.getBatchSize(), config.getFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flushThread);
+        try {
+            flushThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 刷新线程退出后写完剩余日志
+        int remaining = flushAll();
+        log.info("Compensation log writer stopped: flushedOnShutdown={}, failed={}", remaining, failedCount.get());
+    }
+
+    /**
+     * 写入补偿日志
+     */
+    public void write(CompensationLog compensationLog) {
+        if (!running) {
+            saveDirectly(List.of(compensationLog));
+            return;
+        }
+        if (!buffer.offer(compensationLog)) {
+            // 缓冲区已满：同步写入，用补偿线程的延迟换取日志不丢失
+            long overflow = overflowCount.incrementAndGet();
+            if (overflow % 1000 == 1) {
+                log.warn("Compensation log buffer full, writing synchronously: total={}", overflow);
+            }
+            saveDirectly(List.of(compensationLog));
+            return;
+        }
+        if (buffer.size() >= config.getBatchSize()) {
+            LockSupport.unpark(flushThread);
+        }
+    }
+
+    /**
+     * 缓冲区中待写入的日志数
+     */
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        while (running) {
+            if (buffer.size() < config.getBatchSize()) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                flushAll();
+            } catch (Exception e) {
+                log.error("Compensation log flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * 按批次写完缓冲区中的日志
+     *
+     * @return 写入的日志数
+     */
+    int flushAll() {
+        int total = 0;
+        List<CompensationLog> batch = new ArrayList<>(config.getBatchSize());
+        while (buffer.drainTo(batch, config.getBatchSize()) > 0) {
+            total += batch.size();
+            saveDirectly(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    private void saveDirectly(List<CompensationLog> logs) {
+        try {
+            compensationLogRepository.saveAll(logs);
+            flushedCount.addAndGet(logs.size());
+        } catch (Exception e) {
+            failedCount.addAndGet(logs.size());
+            log.error("Failed to save compensation logs: size={}, executionIds={}", logs.size(),
+                    logs.stream().map(CompensationLog::getExecutionId).distinct().toList(), e);
+        }
+    }
+}
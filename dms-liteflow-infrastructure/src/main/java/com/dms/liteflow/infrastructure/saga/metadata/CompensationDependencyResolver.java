@@ -0,0 +1,105 @@
+package com.dms.liteflow.infrastructure.saga.metadata;
+
+import com.dms.liteflow.infrastructure.saga.annotation.CompensationFor;
+import com.dms.liteflow.infrastructure.saga.annotation.SagaMetadata;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.element.Node;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 补偿依赖解析器
+ * 从组件上的 {@link SagaMetadata#dependsOn()} 和 {@link CompensationFor#after()} 读取补偿顺序约束，
+ * 组件被 AOP 代理时读取目标类上的注解
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+public class CompensationDependencyResolver {
+
+    private final Map<String, Set<String>> dependsOnCache = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> compensateAfterCache = new ConcurrentHashMap<>();
+
+    /**
+     * 组件名 -> 组件实例
+     */
+    private final Function<String, Object> instanceLookup;
+
+    public CompensationDependencyResolver() {
+        this(componentName -> {
+            Node node = FlowBus.getNode(componentName);
+            return node != null ? node.getInstance() : null;
+        });
+    }
+
+    CompensationDependencyResolver(Function<String, Object> instanceLookup) {
+        this.instanceLookup = instanceLookup;
+    }
+
+    /**
+     * 组件的正向依赖（补偿时本组件须先于这些组件）
+     */
+    public Set<String> dependsOn(String componentName) {
+        return resolve(dependsOnCache, componentName, instanceClass -> {
+            SagaMetadata sagaMetadata = AnnotationUtils.findAnnotation(instanceClass, SagaMetadata.class);
+            return sagaMetadata != null ? toSet(sagaMetadata.dependsOn()) : Collections.emptySet();
+        });
+    }
+
+    /**
+     * 补偿组件声明须先完成补偿的原始组件
+     */
+    public Set<String> compensateAfter(String compensateComponent) {
+        return resolve(compensateAfterCache, compensateComponent, instanceClass -> {
+            CompensationFor compensationFor = AnnotationUtils.findAnnotation(instanceClass, CompensationFor.class);
+            return compensationFor != null ? toSet(compensationFor.after()) : Collections.emptySet();
+        });
+    }
+
+    /**
+     * 组件重新加载后清空缓存
+     */
+    public void evictAll() {
+        dependsOnCache.clear();
+        compensateAfterCache.clear();
+    }
+
+    private Set<String> resolve(Map<String, Set<String>> cache, String componentName,
+                                Function<Class<?>, Set<String>> reader) {
+        if (componentName == null || componentName.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> cached = cache.get(componentName);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object instance = instanceLookup.apply(componentName);
+        if (instance == null) {
+            // 组件尚未加载，不缓存，下次重新解析
+            log.debug("Component not found when resolving compensation dependencies: {}", componentName);
+            return Collections.emptySet();
+        }
+        Set<String> resolved = reader.apply(AopUtils.getTargetClass(instance));
+        cache.put(componentName, resolved);
+        return resolved;
+    }
+
+    private Set<String> toSet(String[] values) {
+        return Arrays.stream(values)
+                .filter(value -> value != null && !value.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
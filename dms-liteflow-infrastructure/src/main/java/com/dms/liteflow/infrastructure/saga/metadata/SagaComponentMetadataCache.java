@@ -0,0 +1,234 @@
+package com.dms.liteflow.infrastructure.saga.metadata;
+
+import com.dms.liteflow.domain.saga.repository.SagaComponentMetadataRepository;
+import com.dms.liteflow.domain.saga.valueobject.ActionType;
+import com.dms.liteflow.domain.saga.valueobject.SagaComponentMetadata;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saga 组件元数据两级缓存
+ * <p>
+ * 一级为进程内按租户划分的 Map（包括“无元数据”的结果），步骤记录时直接命中；二级为 Redis
+ * {@link SagaRedisKeys#METADATA_KEY}，值携带写入时的租户版本号，未命中时才查询 MySQL。
+ * 元数据变更时递增租户版本号并通过 {@link SagaRedisKeys#METADATA_INVALIDATE_CHANNEL} 广播，
+ * 各节点丢弃旧版本的本地缓存；广播丢失时按 versionCheckIntervalMs 核对版本号兜底。Redis 条目按 redisTtlSeconds 过期，
+ * 旧版本号和已删除组件的条目不会常驻。
+ * 租户未声明的组件回退到系统租户（启动时扫描注解写入）的元数据。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaComponentMetadataCache implements MessageListener {
+
+    /**
+     * 系统租户，注解扫描结果写入该租户，作为各租户的默认元数据
+     */
+    public static final long SYSTEM_TENANT_ID = 1L;
+
+    private static final String VERSION_SEPARATOR = "|";
+    private static final String ABSENT = "-";
+
+    private final SagaComponentMetadataRepository metadataRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final SagaProperties sagaProperties;
+
+    private final Map<Long, TenantEntries> tenants = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(SagaRedisKeys.METADATA_INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 查询组件元数据（租户未声明时回退到系统租户）
+     */
+    public Optional<SagaComponentMetadata> get(Long tenantId, String componentName) {
+        if (tenantId == null || componentName == null || componentName.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<SagaComponentMetadata> metadata = lookup(tenantId, componentName);
+        if (metadata.isPresent() || tenantId == SYSTEM_TENANT_ID) {
+            return metadata;
+        }
+        return lookup(SYSTEM_TENANT_ID, componentName);
+    }
+
+    /**
+     * 租户元数据已变更：递增版本号并广播，各节点丢弃本地缓存
+     */
+    public void invalidate(Long tenantId) {
+        tenants.remove(tenantId);
+        try {
+            Long version = redisTemplate.opsForValue().increment(SagaRedisKeys.metadataVersionKey(tenantId));
+            redisTemplate.convertAndSend(SagaRedisKeys.METADATA_INVALIDATE_CHANNEL, tenantId + ":" + version);
+            log.info("Saga metadata invalidated: tenantId={}, version={}", tenantId, version);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast saga metadata invalidation: tenantId={}", tenantId, e);
+        }
+    }
+
+    /**
+     * 本地缓存的租户数
+     */
+    public int cachedTenantCount() {
+        return tenants.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(':');
+        try {
+            Long tenantId = Long.valueOf(body.substring(0, index));
+            long version = Long.parseLong(body.substring(index + 1));
+            TenantEntries entries = tenants.get(tenantId);
+            if (entries != null && entries.version < version) {
+                tenants.remove(tenantId, entries);
+                log.debug("Saga metadata evicted by broadcast: tenantId={}, version={}", tenantId, version);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed saga metadata invalidation: {}", body);
+        }
+    }
+
+    private Optional<SagaComponentMetadata> lookup(Long tenantId, String componentName) {
+        TenantEntries entries = tenantEntries(tenantId);
+        Optional<SagaComponentMetadata> cached = entries.components.get(componentName);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<SagaComponentMetadata> loaded = load(tenantId, componentName, entries.version);
+        entries.components.putIfAbsent(componentName, loaded);
+        return loaded;
+    }
+
+    private TenantEntries tenantEntries(Long tenantId) {
+        long now = System.currentTimeMillis();
+        TenantEntries entries = tenants.get(tenantId);
+        if (entries != null && now < entries.checkAt) {
+            return entries;
+        }
+
+        long checkAt = now + sagaProperties.getMetadataCache().getVersionCheckIntervalMs();
+        long version = readVersion(tenantId, entries != null ? entries.version : 0L);
+        if (entries != null && entries.version == version) {
+            entries.checkAt = checkAt;
+            return entries;
+        }
+        TenantEntries fresh = new TenantEntries(version, checkAt);
+        tenants.put(tenantId, fresh);
+        return fresh;
+    }
+
+    private long readVersion(Long tenantId, long fallback) {
+        try {
+            String version = redisTemplate.opsForValue().get(SagaRedisKeys.metadataVersionKey(tenantId));
+            return version != null ? Long.parseLong(version) : 0L;
+        } catch (Exception e) {
+            log.debug("Failed to read saga metadata version, keeping local cache: tenantId={}", tenantId, e);
+            return fallback;
+        }
+    }
+
+    private Optional<SagaComponentMetadata> load(Long tenantId, String componentName, long version) {
+        String key = SagaRedisKeys.metadataKey(tenantId, componentName);
+        String prefix = version + VERSION_SEPARATOR;
+        boolean redisAvailable = true;
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value != null && value.startsWith(prefix)) {
+                return decode(value.substring(prefix.length()));
+            }
+        } catch (Exception e) {
+            redisAvailable = false;
+            log.debug("Failed to read saga metadata from Redis: key={}", key, e);
+        }
+
+        Optional<SagaComponentMetadata> metadata = metadataRepository.findByTenantIdAndComponentName(
+                TenantId.of(tenantId), componentName);
+        if (redisAvailable) {
+            try {
+                redisTemplate.opsForValue().set(key, prefix + encode(metadata),
+                        Duration.ofSeconds(sagaProperties.getMetadataCache().getRedisTtlSeconds()));
+            } catch (Exception e) {
+                log.debug("Failed to write saga metadata to Redis: key={}", key, e);
+            }
+        }
+        return metadata;
+    }
+
+    private String encode(Optional<SagaComponentMetadata> metadata) throws Exception {
+        if (metadata.isEmpty()) {
+            return ABSENT;
+        }
+        SagaComponentMetadata value = metadata.get();
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("componentName", value.getComponentName());
+        fields.put("compensateComponent", value.getCompensateComponent());
+        fields.put("needsCompensation", value.getNeedsCompensation());
+        fields.put("defaultFailureStrategy",
+                value.getDefaultFailureStrategy() != null ? value.getDefaultFailureStrategy().name() : null);
+        fields.put("timeoutMs", value.getTimeoutMs());
+        fields.put("metadata", value.getMetadata());
+        return objectMapper.writeValueAsString(fields);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<SagaComponentMetadata> decode(String payload) throws Exception {
+        if (ABSENT.equals(payload)) {
+            return Optional.empty();
+        }
+        Map<String, Object> fields = objectMapper.readValue(payload, Map.class);
+        Object strategy = fields.get("defaultFailureStrategy");
+        Object timeoutMs = fields.get("timeoutMs");
+        Object metadata = fields.get("metadata");
+        return Optional.of(SagaComponentMetadata.builder()
+                .componentName((String) fields.get("componentName"))
+                .compensateComponent((String) fields.get("compensateComponent"))
+                .needsCompensation((Boolean) fields.get("needsCompensation"))
+                .defaultFailureStrategy(strategy != null ? ActionType.valueOf((String) strategy) : null)
+                .timeoutMs(timeoutMs != null ? ((Number) timeoutMs).intValue() : null)
+                .metadata(metadata != null ? (Map<String, Object>) metadata : new HashMap<>())
+                .build());
+    }
+
+    /**
+     * 单个租户的本地缓存，版本号变化时整体替换
+     */
+    private static final class TenantEntries {
+
+        private final long version;
+        private final Map<String, Optional<SagaComponentMetadata>> components = new ConcurrentHashMap<>();
+        private volatile long checkAt;
+
+        private TenantEntries(long version, long checkAt) {
+            this.version = version;
+            this.checkAt = checkAt;
+        }
+    }
+}
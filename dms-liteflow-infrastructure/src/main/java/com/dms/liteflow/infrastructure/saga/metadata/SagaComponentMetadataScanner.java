@@ -1,22 +1,22 @@
 package com.dms.liteflow.infrastructure.saga.metadata;
 
-import com.dms.liteflow.domain.saga.entity.SagaComponentMetadata;
 import com.dms.liteflow.domain.saga.repository.SagaComponentMetadataRepository;
-import com.dms.liteflow.domain.saga.valueobject.ActionType;
-import com.dms.liteflow.domain.saga.valueobject.FailureRule;
+import com.dms.liteflow.domain.saga.valueobject.SagaComponentMetadata;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
 import com.dms.liteflow.infrastructure.saga.annotation.CompensationFor;
 import com.dms.liteflow.infrastructure.saga.annotation.SagaMetadata;
-import com.yomahub.liteflow.core.FlowExecutor;
-import com.yomahub.liteflow.flow.LiteflowFlow;
+import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.element.Node;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,7 +24,7 @@ import java.util.stream.Collectors;
 /**
  * Saga 组件元数据扫描器
  * 在应用启动时扫描所有带 @SagaMetadata 和 @CompensationFor 注解的组件
- * 并将元数据加载到数据库
+ * 并将元数据加载到数据库，写入后使 {@link SagaComponentMetadataCache} 中该租户的缓存失效
  *
  * @author DMS
  * @since 2026-02-03
@@ -34,8 +34,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SagaComponentMetadataScanner implements CommandLineRunner {
 
-    private final FlowExecutor flowExecutor;
     private final SagaComponentMetadataRepository metadataRepository;
+    private final SagaComponentMetadataCache metadataCache;
 
     @Override
     public void run(String... args) {
@@ -48,6 +48,7 @@ public class SagaComponentMetadataScanner implements CommandLineRunner {
 
             // 扫描并保存元数据
             int scannedCount = scanAndSaveMetadata(systemTenantId);
+            metadataCache.invalidate(systemTenantId.getValue());
 
             log.info("Saga component metadata scanning completed. Total components scanned: {}", scannedCount);
 
@@ -62,63 +63,45 @@ public class SagaComponentMetadataScanner implements CommandLineRunner {
      * 扫描并保存组件元数据
      */
     private int scanAndSaveMetadata(TenantId tenantId) {
-        int count = 0;
-
-        // 获取所有流程
-        Map<String, LiteflowFlow> flowMap = flowExecutor.getFlowMap();
-        if (flowMap == null || flowMap.isEmpty()) {
-            log.warn("No flows found in FlowExecutor");
+        // 获取所有已加载的组件
+        Map<String, Node> nodeMap = FlowBus.getNodeMap();
+        if (nodeMap == null || nodeMap.isEmpty()) {
+            log.warn("No components found in FlowBus");
             return 0;
         }
 
-        // 遍历所有流程，收集组件
-        for (Map.Entry<String, LiteflowFlow> entry : flowMap.entrySet()) {
-            String chainName = entry.getKey();
-            LiteflowFlow flow = entry.getValue();
+        List<SagaComponentMetadata> metadataList = new ArrayList<>();
+        for (Map.Entry<String, Node> nodeEntry : nodeMap.entrySet()) {
+            String componentName = nodeEntry.getKey();
+            Node node = nodeEntry.getValue();
 
-            // 获取流程中的所有节点
-            Map<String, Node> nodeMap = flow.getNodeMap();
-            if (nodeMap == null || nodeMap.isEmpty()) {
+            // 获取节点实例
+            Object nodeInstance = node.getInstance();
+            if (nodeInstance == null) {
                 continue;
             }
 
-            for (Map.Entry<String, Node> nodeEntry : nodeMap.entrySet()) {
-                String componentName = nodeEntry.getKey();
-                Node node = nodeEntry.getValue();
-
-                // 获取节点实例
-                Object nodeInstance = node.getInstance();
-                if (nodeInstance == null) {
-                    continue;
-                }
-
-                // 检查是否有 @SagaMetadata 注解
-                SagaMetadata sagaMetadata = nodeInstance.getClass()
-                        .getAnnotation(SagaMetadata.class);
-
-                // 检查是否有 @CompensationFor 注解
-                CompensationFor compensationFor = nodeInstance.getClass()
-                        .getAnnotation(CompensationFor.class);
-
-                if (sagaMetadata != null || compensationFor != null) {
-                    // 构建并保存元数据
-                    SagaComponentMetadata metadata = buildMetadata(
-                            tenantId,
-                            componentName,
-                            sagaMetadata,
-                            compensationFor
-                    );
-
-                    metadataRepository.save(metadata);
-                    count++;
-
-                    log.debug("Scanned component: {}, hasSagaMetadata: {}, hasCompensationFor: {}",
-                            componentName, sagaMetadata != null, compensationFor != null);
-                }
+            // 组件可能被 AOP 代理，从目标类读取注解
+            Class<?> componentClass = AopUtils.getTargetClass(nodeInstance);
+
+            // 检查是否有 @SagaMetadata 注解
+            SagaMetadata sagaMetadata = AnnotationUtils.findAnnotation(componentClass, SagaMetadata.class);
+
+            // 检查是否有 @CompensationFor 注解
+            CompensationFor compensationFor = AnnotationUtils.findAnnotation(componentClass, CompensationFor.class);
+
+            if (sagaMetadata != null || compensationFor != null) {
+                metadataList.add(buildMetadata(tenantId, componentName, sagaMetadata, compensationFor));
+
+                log.debug("Scanned component: {}, hasSagaMetadata: {}, hasCompensationFor: {}",
+                        componentName, sagaMetadata != null, compensationFor != null);
             }
         }
 
-        return count;
+        if (!metadataList.isEmpty()) {
+            metadataRepository.saveAll(metadataList);
+        }
+        return metadataList.size();
     }
 
     /**
@@ -133,39 +116,39 @@ public class SagaComponentMetadataScanner implements CommandLineRunner {
         SagaComponentMetadata.SagaComponentMetadataBuilder builder = SagaComponentMetadata.builder()
                 .tenantId(tenantId)
                 .componentName(componentName);
+        Map<String, Object> extension = new HashMap<>();
 
         if (sagaMetadata != null) {
-            builder.compensateComponent(sagaMetadata.compensateComponent())
+            builder.compensateComponent(sagaMetadata.compensateComponent().isEmpty() ?
+                            null : sagaMetadata.compensateComponent())
                     .needsCompensation(sagaMetadata.needsCompensation())
                     .defaultFailureStrategy(sagaMetadata.defaultFailureStrategy())
-                    .timeoutMs(sagaMetadata.timeoutMs())
-                    .failureRules(parseFailureRules(sagaMetadata.failureRules()));
+                    .timeoutMs((int) sagaMetadata.timeoutMs());
+            extension.put("failureRules", parseFailureRules(sagaMetadata.failureRules()));
+        } else {
+            builder.needsCompensation(false);
         }
 
         if (compensationFor != null) {
-            builder.isCompensationComponent(true)
-                    .originalComponentName(compensationFor.value());
-        } else {
-            builder.isCompensationComponent(false);
+            extension.put("compensationFor", compensationFor.value());
         }
 
-        return builder.build();
+        return builder.metadata(extension).build();
     }
 
     /**
      * 解析失败规则
      */
-    private List<FailureRule> parseFailureRules(SagaMetadata.FailureRule[] rules) {
+    private List<Map<String, Object>> parseFailureRules(SagaMetadata.FailureRule[] rules) {
         if (rules == null || rules.length == 0) {
             return new ArrayList<>();
         }
 
         return List.of(rules).stream()
-                .map(rule -> FailureRule.builder()
-                        .condition(rule.condition())
-                        .action(rule.action())
-                        .retryCount(rule.retryCount())
-                        .build())
+                .map(rule -> Map.<String, Object>of(
+                        "condition", rule.condition(),
+                        "action", rule.action().name(),
+                        "retryCount", rule.retryCount()))
                 .collect(Collectors.toList());
     }
 }
@@ -8,17 +8,31 @@ import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
 import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
 import com.dms.liteflow.domain.saga.valueobject.StepId;
 import com.dms.liteflow.domain.saga.valueobject.CompensationLog;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.log.CompensationLogWriter;
+import com.dms.liteflow.infrastructure.saga.metadata.CompensationDependencyResolver;
 import com.yomahub.liteflow.core.FlowExecutor;
 import com.yomahub.liteflow.slot.DefaultContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Saga 补偿编排器实现
- * 负责按相反顺序执行补偿操作
+ * 按执行栈构建反向 DAG（{@link CompensationPlan}），声明了依赖的步骤按顺序补偿，
+ * 相互独立的步骤在有界线程池上并行补偿
  *
  * @author DMS
  * @since 2026-02-03
@@ -30,6 +44,33 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
 
     private final SagaStateService sagaStateService;
     private final FlowExecutor flowExecutor;
+    private final CompensationDependencyResolver dependencyResolver;
+    private final CompensationLogWriter compensationLogWriter;
+    private final SagaProperties sagaProperties;
+
+    private ThreadPoolExecutor compensationExecutor;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, sagaProperties.getCompensationParallelism());
+        AtomicInteger threadIndex = new AtomicInteger();
+        compensationExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sagaProperties.getCompensationQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "saga-compensation-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        compensationExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (compensationExecutor != null) {
+            compensationExecutor.shutdown();
+        }
+    }
 
     @Override
     public boolean compensate(SagaExecutionId executionId) {
@@ -42,6 +83,12 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
                 return false;
             }
 
+            if (sagaExecution.getStatus() == SagaStatus.COMPENSATED) {
+                // 重复投递的补偿任务
+                log.info("Execution already compensated: {}", executionId.getValue());
+                return true;
+            }
+
             // 标记开始补偿
             if (sagaExecution.getStatus() == SagaStatus.FAILED) {
                 sagaExecution.startCompensating();
@@ -58,23 +105,15 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
                 return true;
             }
 
-            boolean allSuccess = true;
+            // 按反向 DAG 补偿，无依赖的步骤并行执行
+            boolean allSuccess = compensateSteps(executionId, stepsToCompensate);
 
-            // 按相反顺序补偿
-            for (StepExecution step : stepsToCompensate) {
-                if (step.needsCompensation()) {
-                    boolean success = compensateStep(executionId, step);
-                    if (!success) {
-                        allSuccess = false;
-                        log.warn("Compensation failed for step: {}, continuing with next step", step.getStepId());
-                    }
-                }
+            // 部分失败时保持补偿中，已补偿的步骤已出栈，重试时只补偿剩余步骤
+            if (allSuccess) {
+                sagaExecution.compensateComplete();
+                sagaStateService.saveExecution(sagaExecution);
             }
 
-            // 标记补偿完成
-            sagaExecution.compensateComplete();
-            sagaStateService.saveExecution(sagaExecution);
-
             log.info("Compensation completed for executionId={}, allSuccess={}", executionId.getValue(), allSuccess);
             return allSuccess;
 
@@ -92,7 +131,7 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
                 stepExecution.getComponentName());
 
         String compensateComponent = stepExecution.getCompensateComponent();
-        if (compensComponent == null || compensateComponent.isEmpty()) {
+        if (compensateComponent == null || compensateComponent.isEmpty()) {
             log.warn("No compensate component defined for step: {}", stepExecution.getStepId());
             return false;
         }
@@ -117,15 +156,14 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
 
             // 记录补偿成功
             stepExecution.compensate();
-            sagaStateService.saveExecution(sagaStateService.getExecution(executionId));
+            sagaStateService.recordStepCompensated(executionId, stepExecution.getStepId());
 
-            // 记录补偿日志
-            CompensationLog logEntry = CompensationLog.success(
+            // 记录补偿日志（异步批量落库）
+            compensationLogWriter.write(CompensationLog.success(
                     executionId.getValue(),
-                    stepExecution.getStepId(),
+                    stepExecution.getStepId().getValue(),
                     compensateComponent
-            );
-            // TODO: 保存补偿日志到数据库
+            ));
 
             log.info("Step compensation successful: stepId={}, compensateComponent={}",
                     stepExecution.getStepId(), compensateComponent);
@@ -136,15 +174,69 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
                     stepExecution.getStepId(), compensateComponent, e);
 
             // 记录补偿失败
-            CompensationLog logEntry = CompensationLog.failure(
+            compensationLogWriter.write(CompensationLog.failure(
                     executionId.getValue(),
-                    stepExecution.getStepId(),
+                    stepExecution.getStepId().getValue(),
                     compensateComponent,
                     e.getMessage()
-            );
-            // TODO: 保存补偿日志到数据库
+            ));
+
+            return false;
+        }
+    }
+
+    /**
+     * 按补偿计划执行：每个步骤在其前驱全部补偿结束后提交，单步失败不阻断其余步骤
+     */
+    @SuppressWarnings("unchecked")
+    private boolean compensateSteps(SagaExecutionId executionId, List<StepExecution> stackTopFirst) {
+        boolean parallel = sagaProperties.getCompensationParallelism() > 1 && stackTopFirst.size() > 1;
+        CompensationPlan plan = parallel
+                ? CompensationPlan.build(stackTopFirst, dependencyResolver::dependsOn, dependencyResolver::compensateAfter)
+                : CompensationPlan.sequential(stackTopFirst);
+        Executor executor = parallel ? compensationExecutor : Runnable::run;
+        TenantId tenantId = TenantContext.getTenantId();
+
+        CompletableFuture<Boolean>[] futures = new CompletableFuture[plan.size()];
+        for (int index : plan.topologicalOrder()) {
+            StepExecution step = plan.step(index);
+            CompletableFuture<?>[] upstream = plan.predecessors(index).stream()
+                    .map(predecessor -> futures[predecessor])
+                    .toArray(CompletableFuture[]::new);
+            futures[index] = CompletableFuture.allOf(upstream)
+                    .thenApplyAsync(ignored -> compensateInTenant(tenantId, executionId, step), executor);
+        }
+
+        boolean allSuccess = true;
+        for (CompletableFuture<Boolean> future : futures) {
+            allSuccess &= future.join();
+        }
+        return allSuccess;
+    }
 
+    private boolean compensateInTenant(TenantId tenantId, SagaExecutionId executionId, StepExecution step) {
+        if (!step.needsCompensation()) {
+            return true;
+        }
+        TenantId previous = TenantContext.getTenantId();
+        if (tenantId != null) {
+            TenantContext.setTenantId(tenantId);
+        }
+        try {
+            boolean success = compensateStep(executionId, step);
+            if (!success) {
+                log.warn("Compensation failed for step: {}, continuing with other steps", step.getStepId());
+            }
+            return success;
+        } catch (Exception e) {
+            log.error("Unexpected error compensating step: {}", step.getStepId(), e);
             return false;
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
         }
     }
 
@@ -199,7 +291,7 @@ public class CompensationOrchestratorImpl implements CompensationOrchestrator {
             // 查找指定的步骤
             StepExecution stepToCompensate = null;
             for (StepExecution step : sagaExecution.getExecutionStack()) {
-                if (step.getStepId().equals(stepId.getValue())) {
+                if (step.getStepId().equals(stepId)) {
                     stepToCompensate = step;
                     break;
                 }
@@ -0,0 +1,158 @@
+package com.dms.liteflow.infrastructure.saga.orchestrator;
+
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 补偿计划（反向 DAG）
+ * <p>
+ * 节点为待补偿步骤，边 A -> B 表示 A 的补偿须在 B 之前完成。约束来源：
+ * <ul>
+ *     <li>后执行的步骤声明依赖先执行的组件（dependsOn）：后执行的步骤先补偿</li>
+ *     <li>补偿组件声明 after：所列组件的补偿先完成</li>
+ * </ul>
+ * 无约束的步骤之间可以并行补偿；约束成环时退化为按执行顺序逆序串行补偿。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+final class CompensationPlan {
+
+    /**
+     * 按执行顺序排列的步骤（栈底在前）
+     */
+    private final List<StepExecution> steps;
+
+    /**
+     * 每个步骤须先完成补偿的步骤下标
+     */
+    private final List<Set<Integer>> predecessors;
+
+    private CompensationPlan(List<StepExecution> steps, List<Set<Integer>> predecessors) {
+        this.steps = steps;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * 构建补偿计划
+     *
+     * @param stackTopFirst   执行栈（栈顶在前）
+     * @param dependsOn       组件 -> 正向依赖的组件
+     * @param compensateAfter 补偿组件 -> 须先完成补偿的原始组件
+     */
+    static CompensationPlan build(List<StepExecution> stackTopFirst,
+                                  Function<String, Set<String>> dependsOn,
+                                  Function<String, Set<String>> compensateAfter) {
+        List<StepExecution> steps = new ArrayList<>(stackTopFirst);
+        Collections.reverse(steps);
+
+        List<Set<Integer>> predecessors = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            predecessors.add(new HashSet<>());
+        }
+
+        for (int i = 0; i < steps.size(); i++) {
+            StepExecution step = steps.get(i);
+            Set<String> upstream = dependsOn.apply(step.getComponentName());
+            Set<String> after = compensateAfter.apply(step.getCompensateComponent());
+            for (int j = 0; j < steps.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                String other = steps.get(j).getComponentName();
+                // 步骤 i 使用了先执行的步骤 j 的结果：i 先补偿
+                if (j < i && upstream.contains(other)) {
+                    predecessors.get(j).add(i);
+                }
+                // 步骤 i 的补偿组件声明在 j 之后执行
+                if (after.contains(other)) {
+                    predecessors.get(i).add(j);
+                }
+            }
+        }
+
+        if (hasCycle(predecessors)) {
+            log.warn("Compensation dependencies contain a cycle, falling back to sequential compensation");
+            return sequential(stackTopFirst);
+        }
+        return new CompensationPlan(steps, predecessors);
+    }
+
+    /**
+     * 按执行顺序逆序串行补偿
+     */
+    static CompensationPlan sequential(List<StepExecution> stackTopFirst) {
+        List<StepExecution> steps = new ArrayList<>(stackTopFirst);
+        Collections.reverse(steps);
+
+        List<Set<Integer>> predecessors = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            predecessors.add(i + 1 < steps.size() ? Set.of(i + 1) : Set.of());
+        }
+        return new CompensationPlan(steps, predecessors);
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    StepExecution step(int index) {
+        return steps.get(index);
+    }
+
+    Set<Integer> predecessors(int index) {
+        return predecessors.get(index);
+    }
+
+    /**
+     * 拓扑序（先补偿的在前），同一层内按执行顺序逆序
+     */
+    List<Integer> topologicalOrder() {
+        int[] remaining = new int[steps.size()];
+        List<List<Integer>> successors = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            successors.add(new ArrayList<>());
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            remaining[i] = predecessors.get(i).size();
+            for (Integer predecessor : predecessors.get(i)) {
+                successors.get(predecessor).add(i);
+            }
+        }
+
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            if (remaining[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        List<Integer> order = new ArrayList<>(steps.size());
+        while (!ready.isEmpty()) {
+            int current = ready.poll();
+            order.add(current);
+            for (Integer successor : successors.get(current)) {
+                if (--remaining[successor] == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        return order;
+    }
+
+    private static boolean hasCycle(List<Set<Integer>> predecessors) {
+        return new CompensationPlan(Collections.nCopies(predecessors.size(), null), predecessors)
+                .topologicalOrder().size() < predecessors.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.dms.liteflow.infrastructure.saga.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saga 人工介入记录实体（MyBatis）
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManualInterventionEntity {
+
+    /**
+     * 主键ID
+     */
+    private Long id;
+
+    /**
+     * 执行ID
+     */
+    private String executionId;
+
+    /**
+     * 介入类型
+     */
+    private String interventionType;
+
+    /**
+     * 决策
+     */
+    private String decision;
+
+    /**
+     * 原因
+     */
+    private String reason;
+
+    /**
+     * 操作人
+     */
+    private String operator;
+
+    /**
+     * 操作时间
+     */
+    private LocalDateTime operatedAt;
+
+    /**
+     * 修改后的输入数据（JSON）
+     */
+    private String inputData;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
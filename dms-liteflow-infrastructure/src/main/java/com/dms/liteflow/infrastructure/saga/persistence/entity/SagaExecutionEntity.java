@@ -93,4 +93,9 @@ public class SagaExecutionEntity {
      * 乐观锁版本号
      */
     private Integer version;
+
+    /**
+     * 写入方持有的租约 fencing token，为空时不做校验
+     */
+    private Long fenceToken;
 }
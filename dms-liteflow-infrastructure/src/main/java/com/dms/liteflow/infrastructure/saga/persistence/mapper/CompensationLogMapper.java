@@ -36,6 +36,11 @@ public interface CompensationLogMapper {
      */
     List<CompensationLogEntity> selectByExecutionId(@Param("executionId") String executionId);
 
+    /**
+     * 根据多个执行ID 查询补偿日志
+     */
+    List<CompensationLogEntity> selectByExecutionIds(@Param("executionIds") List<String> executionIds);
+
     /**
      * 根据执行ID 和步骤ID 查询
      */
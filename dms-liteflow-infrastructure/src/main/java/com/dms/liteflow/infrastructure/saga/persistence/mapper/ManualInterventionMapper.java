@@ -0,0 +1,22 @@
+package com.dms.liteflow.infrastructure.saga.persistence.mapper;
+
+import com.dms.liteflow.infrastructure.saga.persistence.entity.ManualInterventionEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Saga 人工介入记录 Mapper
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Mapper
+public interface ManualInterventionMapper {
+
+    /**
+     * 根据多个执行ID 查询人工介入记录
+     */
+    List<ManualInterventionEntity> selectByExecutionIds(@Param("executionIds") List<String> executionIds);
+}
@@ -21,6 +21,11 @@ public interface SagaExecutionMapper {
      */
     int insert(SagaExecutionEntity entity);
 
+    /**
+     * 按执行ID 写入运行态快照（存在则更新，不递增版本号）
+     */
+    int upsertSnapshot(SagaExecutionEntity entity);
+
     /**
      * 根据 ID 查询
      */
@@ -50,17 +55,18 @@ public interface SagaExecutionMapper {
     List<SagaExecutionEntity> selectByStatus(@Param("status") String status);
 
     /**
-     * 更新状态（乐观锁）
+     * 更新状态（乐观锁，fenceToken 不为空时拒绝落后于已写入 token 的更新）
      */
     int updateStatus(
             @Param("executionId") String executionId,
             @Param("currentStatus") String currentStatus,
             @Param("newStatus") String newStatus,
-            @Param("version") Integer version
+            @Param("version") Integer version,
+            @Param("fenceToken") Long fenceToken
     );
 
     /**
-     * 更新
+     * 更新（乐观锁，fenceToken 不为空时拒绝落后于已写入 token 的更新）
      */
     int update(SagaExecutionEntity entity);
 
@@ -92,6 +98,30 @@ public interface SagaExecutionMapper {
             @Param("beforeTime") LocalDateTime beforeTime
     );
 
+    /**
+     * 查询最小主键
+     */
+    Long selectMinId();
+
+    /**
+     * 查询最大主键
+     */
+    Long selectMaxId();
+
+    /**
+     * 查询主键区间 (fromId, toId] 内完成时间早于 beforeTime 的终态记录
+     */
+    List<SagaExecutionEntity> selectArchivableByIdRange(
+            @Param("fromId") Long fromId,
+            @Param("toId") Long toId,
+            @Param("beforeTime") LocalDateTime beforeTime
+    );
+
+    /**
+     * 按主键批量删除（步骤、补偿日志、人工介入记录由外键级联删除）
+     */
+    int deleteByIds(@Param("ids") List<Long> ids);
+
     /**
      * 分页查询
      */
@@ -118,6 +148,20 @@ public interface SagaExecutionMapper {
             @Param("size") Integer size
     );
 
+    /**
+     * 根据租户ID和条件游标分页查询（按开始时间倒序，游标为上一页最后一条的开始时间和主键）
+     */
+    List<SagaExecutionEntity> selectByTenantIdAfterCursor(
+            @Param("tenantId") Long tenantId,
+            @Param("status") String status,
+            @Param("chainName") String chainName,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+            @Param("cursorId") Long cursorId,
+            @Param("size") Integer size
+    );
+
     /**
      * 统计租户下的执行数量（带条件）
      */
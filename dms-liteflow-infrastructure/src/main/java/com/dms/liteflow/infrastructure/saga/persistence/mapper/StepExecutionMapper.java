@@ -35,6 +35,11 @@ public interface StepExecutionMapper {
      */
     List<StepExecutionEntity> selectByExecutionId(@Param("executionId") String executionId);
 
+    /**
+     * 根据多个执行ID 查询（按迁移顺序）
+     */
+    List<StepExecutionEntity> selectByExecutionIds(@Param("executionIds") List<String> executionIds);
+
     /**
      * 根据执行ID 和状态查询
      */
@@ -1,6 +1,7 @@
 package com.dms.liteflow.infrastructure.saga.persistence.repository;
 
 import com.dms.liteflow.domain.saga.repository.SagaComponentMetadataRepository;
+import com.dms.liteflow.domain.saga.valueobject.ActionType;
 import com.dms.liteflow.domain.saga.valueobject.SagaComponentMetadata;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.saga.persistence.entity.SagaComponentMetadataEntity;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -78,19 +80,24 @@ public class SagaComponentMetadataRepositoryImpl implements SagaComponentMetadat
     }
 
     private SagaComponentMetadataEntity toEntity(SagaComponentMetadata metadata) {
+        LocalDateTime now = LocalDateTime.now();
         return SagaComponentMetadataEntity.builder()
-                .tenantId(metadata.getComponentName() != null ? 0L : 0L) // 简化
+                .tenantId(metadata.getTenantId() != null ? metadata.getTenantId().getValue() : null)
                 .componentName(metadata.getComponentName())
                 .compensateComponent(metadata.getCompensateComponent())
                 .needsCompensation(metadata.getNeedsCompensation())
                 .defaultFailureStrategy(metadata.getDefaultFailureStrategy() != null ? metadata.getDefaultFailureStrategy().name() : null)
                 .timeoutMs(metadata.getTimeoutMs())
                 .metadata(null) // JSON 序列化
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
     }
 
     private SagaComponentMetadata toValueObject(SagaComponentMetadataEntity entity) {
         return SagaComponentMetadata.builder()
+                .tenantId(entity.getTenantId() != null && entity.getTenantId() > 0 ?
+                        TenantId.of(entity.getTenantId()) : null)
                 .componentName(entity.getComponentName())
                 .compensateComponent(entity.getCompensateComponent())
                 .needsCompensation(entity.getNeedsCompensation())
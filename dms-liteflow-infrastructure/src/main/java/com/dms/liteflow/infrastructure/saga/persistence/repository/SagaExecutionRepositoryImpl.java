@@ -3,13 +3,15 @@ package com.dms.liteflow.infrastructure.saga.persistence.repository;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
 import com.dms.liteflow.domain.saga.entity.StepExecution;
 import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.repository.StepExecutionRepository;
 import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
 import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
-import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.saga.valueobject.StepStatus;
 import com.dms.liteflow.domain.shared.kernel.valueobject.ChainId;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.saga.persistence.entity.SagaExecutionEntity;
 import com.dms.liteflow.infrastructure.saga.persistence.mapper.SagaExecutionMapper;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,8 @@ import java.util.stream.Collectors;
 
 /**
  * Saga 执行实例 Repository 实现
+ * <p>saga_execution 只保存头信息，步骤与执行栈由 saga_step_execution 的迁移记录重建</p>
+ * <p>本节点持有 {@link SagaOwnershipLease} 租约时，更新携带其 fencing token，已被接管的旧持有者的更新不生效</p>
  *
  * @author DMS
  * @since 2026-02-03
@@ -35,13 +39,26 @@ import java.util.stream.Collectors;
 public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
 
     private final SagaExecutionMapper sagaExecutionMapper;
+    private final StepExecutionRepository stepExecutionRepository;
     private final ObjectMapper objectMapper;
+    private final SagaOwnershipLease ownershipLease;
 
     @Override
     public SagaExecution save(SagaExecution sagaExecution) {
         try {
             SagaExecutionEntity entity = toEntity(sagaExecution);
 
+            if (entity.getId() == null) {
+                // 运行态（Redis）重建的聚合根没有主键，按执行ID 关联已落库的记录
+                SagaExecutionEntity existing = sagaExecutionMapper.selectByExecutionId(entity.getExecutionId());
+                if (existing != null) {
+                    entity.setId(existing.getId());
+                    if (entity.getVersion() == null) {
+                        entity.setVersion(existing.getVersion());
+                    }
+                }
+            }
+
             if (entity.getId() == null) {
                 // 新增
                 sagaExecutionMapper.insert(entity);
@@ -50,8 +67,9 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
                 // 更新
                 int updated = sagaExecutionMapper.update(entity);
                 if (updated == 0) {
-                    throw new RuntimeException("Failed to update SagaExecution, version mismatch");
+                    throw new RuntimeException("Failed to update SagaExecution, version mismatch or lease taken over");
                 }
+                entity.setVersion(entity.getVersion() + 1);
             }
 
             return toAggregate(entity);
@@ -61,6 +79,15 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
         }
     }
 
+    @Override
+    public void saveSnapshot(SagaExecution sagaExecution) {
+        SagaExecutionEntity entity = toEntity(sagaExecution);
+        if (entity.getCreatedAt() == null) {
+            entity.setCreatedAt(entity.getUpdatedAt());
+        }
+        sagaExecutionMapper.upsertSnapshot(entity);
+    }
+
     @Override
     public Optional<SagaExecution> findById(Long id) {
         SagaExecutionEntity entity = sagaExecutionMapper.selectById(id);
@@ -70,7 +97,9 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
     @Override
     public Optional<SagaExecution> findByExecutionId(SagaExecutionId executionId) {
         SagaExecutionEntity entity = sagaExecutionMapper.selectByExecutionId(executionId.getValue());
-        return Optional.ofNullable(entity).map(this::toAggregate);
+        return Optional.ofNullable(entity)
+                .map(this::toAggregate)
+                .map(this::loadSteps);
     }
 
     @Override
@@ -104,7 +133,8 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
                 executionId.getValue(),
                 currentStatus.name(),
                 newStatus.name(),
-                version
+                version,
+                fenceToken(executionId.getValue())
         );
         return updated > 0;
     }
@@ -146,6 +176,26 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<SagaExecution> findByTenantIdAfter(TenantId tenantId, SagaStatus status,
+                                                   String chainName, LocalDateTime startTime,
+                                                   LocalDateTime endTime, LocalDateTime cursorStartedAt,
+                                                   Long cursorId, int size) {
+        List<SagaExecutionEntity> entities = sagaExecutionMapper.selectByTenantIdAfterCursor(
+                tenantId.getValue(),
+                status != null ? status.name() : null,
+                chainName,
+                startTime,
+                endTime,
+                cursorStartedAt,
+                cursorId,
+                size
+        );
+        return entities.stream()
+                .map(this::toAggregate)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public int countByTenantId(TenantId tenantId, SagaStatus status,
                               String chainName, LocalDateTime startTime,
@@ -170,7 +220,6 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
         try {
             Map<String, Object> inputData = parseJson(entity.getInputData());
             Map<String, Object> outputData = parseJson(entity.getOutputData());
-            List<StepExecution> executionStack = parseExecutionStack(entity.getExecutionStack());
 
             return SagaExecution.builder()
                     .id(entity.getId())
@@ -182,7 +231,7 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
                     .failureReason(entity.getFailureReason())
                     .inputData(inputData)
                     .outputData(outputData)
-                    .executionStack(executionStack)
+                    .executionStack(new ArrayList<>())
                     .startedAt(entity.getStartedAt())
                     .completedAt(entity.getCompletedAt())
                     .createdAt(entity.getCreatedAt())
@@ -214,12 +263,12 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
                     .failureReason(sagaExecution.getFailureReason())
                     .inputData(toJson(sagaExecution.getInputData()))
                     .outputData(toJson(sagaExecution.getOutputData()))
-                    .executionStack(toJson(sagaExecution.getExecutionStack()))
                     .startedAt(sagaExecution.getStartedAt())
                     .completedAt(sagaExecution.getCompletedAt())
                     .createdAt(sagaExecution.getCreatedAt())
                     .updatedAt(LocalDateTime.now())
                     .version(sagaExecution.getVersion())
+                    .fenceToken(fenceToken(sagaExecution.getExecutionId().getValue()))
                     .build();
         } catch (Exception e) {
             log.error("Failed to convert aggregate to entity: {}", sagaExecution.getExecutionId(), e);
@@ -227,6 +276,14 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
         }
     }
 
+    /**
+     * 本节点持有租约时的 fencing token，未持有时为空（更新不做 fencing 校验）
+     */
+    private Long fenceToken(String executionId) {
+        long token = ownershipLease.fenceToken(executionId);
+        return token > 0 ? token : null;
+    }
+
     /**
      * 解析 JSON 字符串为 Map
      */
@@ -258,19 +315,20 @@ public class SagaExecutionRepositoryImpl implements SagaExecutionRepository {
     }
 
     /**
-     * 解析执行栈 JSON
+     * 从步骤迁移记录重建步骤列表与执行栈（栈底在前）
      */
-    private List<StepExecution> parseExecutionStack(String json) {
-        if (json == null || json.isEmpty()) {
-            return new ArrayList<>();
-        }
-        try {
-            // 简化处理：这里需要根据实际 JSON 结构解析
-            // 实际实现中应该使用 proper JSON 反序列化
-            return new ArrayList<>();
-        } catch (Exception e) {
-            log.warn("Failed to parse execution stack JSON: {}", json, e);
-            return new ArrayList<>();
+    private SagaExecution loadSteps(SagaExecution sagaExecution) {
+        List<StepExecution> steps = stepExecutionRepository.findByExecutionId(
+                sagaExecution.getExecutionId().getValue());
+        List<StepExecution> executionStack = steps.stream()
+                .filter(step -> step.getStatus() == StepStatus.COMPLETED && step.needsCompensation())
+                .collect(Collectors.toList());
+
+        sagaExecution.setSteps(steps);
+        sagaExecution.setExecutionStack(executionStack);
+        if (!steps.isEmpty()) {
+            sagaExecution.setCurrentStepIndex(steps.size() - 1);
         }
+        return sagaExecution;
     }
 }
@@ -6,17 +6,28 @@ import com.dms.liteflow.domain.saga.valueobject.StepId;
 import com.dms.liteflow.domain.saga.valueobject.StepStatus;
 import com.dms.liteflow.infrastructure.saga.persistence.entity.StepExecutionEntity;
 import com.dms.liteflow.infrastructure.saga.persistence.mapper.StepExecutionMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Saga 步骤执行 Repository 实现
+ * <p>
+ * saga_step_execution 按迁移追加写入（开始、完成、失败、补偿各一行），每次迁移只写一行小记录；
+ * 读取时按 stepId 合并，后写入的行覆盖状态类字段，输入数据取首条非空记录。
+ * </p>
  *
  * @author DMS
  * @since 2026-02-03
@@ -31,23 +42,25 @@ public class StepExecutionRepositoryImpl implements StepExecutionRepository {
 
     @Override
     public StepExecution save(StepExecution stepExecution) {
-        StepExecutionEntity entity = toEntity(stepExecution);
-        if (entity.getId() == null) {
-            stepExecutionMapper.insert(entity);
-            stepExecution.setId(entity.getId());
-        } else {
-            stepExecutionMapper.update(entity);
-        }
-        return toAggregate(entity);
+        appendTransitions(List.of(stepExecution));
+        return stepExecution;
     }
 
     @Override
     public List<StepExecution> saveAll(List<StepExecution> stepExecutions) {
-        List<StepExecutionEntity> entities = stepExecutions.stream()
+        appendTransitions(stepExecutions);
+        return stepExecutions;
+    }
+
+    @Override
+    public void appendTransitions(List<StepExecution> transitions) {
+        if (transitions == null || transitions.isEmpty()) {
+            return;
+        }
+        List<StepExecutionEntity> entities = transitions.stream()
                 .map(this::toEntity)
                 .collect(Collectors.toList());
         stepExecutionMapper.insertBatch(entities);
-        return stepExecutions;
     }
 
     @Override
@@ -58,14 +71,14 @@ public class StepExecutionRepositoryImpl implements StepExecutionRepository {
 
     @Override
     public List<StepExecution> findByExecutionId(String executionId) {
-        List<StepExecutionEntity> entities = stepExecutionMapper.selectByExecutionId(executionId);
-        return entities.stream().map(this::toAggregate).collect(Collectors.toList());
+        return collapse(stepExecutionMapper.selectByExecutionId(executionId));
     }
 
     @Override
     public List<StepExecution> findByExecutionIdAndStatus(String executionId, StepStatus status) {
-        List<StepExecutionEntity> entities = stepExecutionMapper.selectByExecutionIdAndStatus(executionId, status.name());
-        return entities.stream().map(this::toAggregate).collect(Collectors.toList());
+        return findByExecutionId(executionId).stream()
+                .filter(step -> step.getStatus() == status)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -84,13 +97,91 @@ public class StepExecutionRepositoryImpl implements StepExecutionRepository {
         return stepExecutionMapper.countByExecutionId(executionId);
     }
 
+    /**
+     * 按 stepId 合并迁移记录（记录按主键升序）
+     */
+    private List<StepExecution> collapse(List<StepExecutionEntity> entities) {
+        Map<String, StepExecution> steps = new LinkedHashMap<>();
+        for (StepExecutionEntity entity : entities) {
+            StepExecution latest = toAggregate(entity);
+            steps.merge(entity.getStepId(), latest, (previous, current) -> {
+                if (current.getInputData() == null || current.getInputData().isEmpty()) {
+                    current.setInputData(previous.getInputData());
+                }
+                if (current.getOutputData() == null || current.getOutputData().isEmpty()) {
+                    current.setOutputData(previous.getOutputData());
+                }
+                current.setId(previous.getId());
+                current.setExecutedAt(previous.getExecutedAt());
+                current.setCreatedAt(previous.getCreatedAt());
+                return current;
+            });
+        }
+        return new ArrayList<>(steps.values());
+    }
+
     private StepExecution toAggregate(StepExecutionEntity entity) {
-        // 实现转换逻辑
-        return null; // 简化版本
+        return StepExecution.builder()
+                .id(entity.getId())
+                .executionId(entity.getExecutionId())
+                .stepId(StepId.of(entity.getStepId()))
+                .componentName(entity.getComponentName())
+                .status(StepStatus.valueOf(entity.getStatus()))
+                .inputData(parseJson(entity.getInputData()))
+                .outputData(parseJson(entity.getOutputData()))
+                .compensateComponent(entity.getCompensateComponent())
+                .needsCompensation(entity.getNeedsCompensation())
+                .errorCode(entity.getErrorCode())
+                .errorMessage(entity.getErrorMessage())
+                .stackTrace(entity.getStackTrace())
+                .executedAt(entity.getExecutedAt())
+                .compensatedAt(entity.getCompensatedAt())
+                .createdAt(entity.getCreatedAt())
+                .build();
     }
 
     private StepExecutionEntity toEntity(StepExecution stepExecution) {
-        // 实现转换逻辑
-        return null; // 简化版本
+        return StepExecutionEntity.builder()
+                .id(stepExecution.getId())
+                .executionId(stepExecution.getExecutionId())
+                .stepId(stepExecution.getStepId().getValue())
+                .componentName(stepExecution.getComponentName())
+                .status(stepExecution.getStatus().name())
+                .inputData(toJson(stepExecution.getInputData()))
+                .outputData(toJson(stepExecution.getOutputData()))
+                .compensateComponent(stepExecution.getCompensateComponent())
+                .needsCompensation(Boolean.TRUE.equals(stepExecution.getNeedsCompensation()))
+                .errorCode(stepExecution.getErrorCode())
+                .errorMessage(stepExecution.getErrorMessage())
+                .stackTrace(stepExecution.getStackTrace())
+                .executedAt(stepExecution.getExecutedAt())
+                .compensatedAt(stepExecution.getCompensatedAt())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Map<String, Object> parseJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse step JSON: {}", json, e);
+            return new HashMap<>();
+        }
+    }
+
+    private String toJson(Map<String, Object> map) {
+        if (map == null || map.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize step data, skipped: {}", map.keySet(), e);
+            return null;
+        }
     }
 }
@@ -0,0 +1,707 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.saga.valueobject.StepStatus;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.dms.liteflow.infrastructure.saga.redis.codec.SagaStateCodec;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga 运行态原子存储
+ * <p>
+ * 每次步骤状态迁移由一个 Lua 脚本在 Redis 端完成"读取-校验-写入-续期"，替代
+ * 分布式锁 + 读 MySQL + 写 MySQL + 写 Redis 的多次往返。运行态拆分为同一 hash tag 下的三个 Key：
+ * 头信息 Hash、步骤 Hash 和补偿栈 List。
+ * </p>
+ * <p>
+ * 迁移脚本成功后再把执行实例写入全局脏集合（{@link SagaRedisKeys#STATE_DIRTY_KEY}），由 {@link #clearDirty(String, long)}
+ * 在落库后移除，进程崩溃时未落库的执行仍可从 Redis 找回。脏集合不在执行的 hash tag 下，不能与运行态在同一脚本中写入
+ * （Redis Cluster 下会 CROSSSLOT）；脚本成功到写入脏集合之间进程崩溃时，该次迁移要等同一执行的下一次迁移才会被标记。
+ * </p>
+ * <p>
+ * 步骤 Hash 中每个步骤属性一个 field（{@code {stepId}:{属性}}）。输入输出数据与 {@link SagaRedisService} 一样经
+ * {@link SagaStateCodec} 编码为带版本的二进制信封（smile/json，超过阈值时压缩），以字节串原样传入脚本和存放；
+ * 脚本只读写状态、时间和错误信息等标量属性，不在 Lua 中解析数据（cjson 会丢失长整型精度、把空数组变成空对象）。
+ * 旧版本写入的 JSON 文本没有信封头，读取时按 JSON 解析。属性值为空字符串表示 null。
+ * </p>
+ * <p>
+ * 所有迁移脚本都携带本节点 {@link SagaOwnershipLease} 租约的 fencing token（不持有租约时为 0，不做校验），
+ * 在脚本内与同一 hash tag 下的 {@link SagaRedisKeys#LEASE_FENCE_KEY} 比较，token 落后说明租约已被接管，
+ * 脚本不做任何写入并抛出 {@link FencedException}，不依赖续约线程发现接管的时机。
+ * </p>
+ * 脚本返回值约定：大于 0 为迁移后的 revision，{@link #NOT_FOUND} 表示运行态不存在，{@link #REJECTED} 表示状态不允许迁移。
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaAtomicStateStore {
+
+    public static final long NOT_FOUND = 0L;
+    public static final long REJECTED = -1L;
+
+    /**
+     * 脚本内部返回值：fencing token 落后，转换为 {@link FencedException}
+     */
+    private static final long FENCED = -2L;
+
+    /**
+     * 步骤属性，index 由脚本分配，其余由 {@link #stepFields(StepExecution)} 写入
+     */
+    private static final String[] STEP_FIELDS = {
+            "index", "componentName", "compensateComponent", "needsCompensation", "status", "inputData",
+            "outputData", "errorCode", "errorMessage", "stackTrace", "executedAt", "compensatedAt", "createdAt"
+    };
+
+    /**
+     * 迁移后把执行实例以最新 revision 为 score 写入脏集合（只增不减，并发迁移乱序返回时保留较大的 revision）
+     * KEYS: dirty  ARGV: executionId, revision
+     */
+    private static final String MARK_DIRTY_SCRIPT =
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) "
+                    + "if not score or tonumber(score) < tonumber(ARGV[2]) then "
+                    + "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) "
+                    + "end "
+                    + "return 1";
+
+    /**
+     * 落库完成后移除脏标记：score 不大于落库前读取的 revision 时才移除，期间又有迁移则保留
+     * KEYS: dirty  ARGV: executionId, revision
+     */
+    private static final String CLEAR_DIRTY_SCRIPT =
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) "
+                    + "if score and tonumber(score) <= tonumber(ARGV[2]) then "
+                    + "return redis.call('ZREM', KEYS[1], ARGV[1]) "
+                    + "end "
+                    + "return 0";
+
+    /**
+     * 迁移脚本前缀：弹出 ARGV 末位的 fencing token，落后于当前 token 时不做任何写入
+     * KEYS[4]: fence
+     */
+    private static final String FENCE_CHECK =
+            "local token = tonumber(table.remove(ARGV)) "
+                    + "if token > 0 and token < tonumber(redis.call('GET', KEYS[4]) or '0') then return -2 end ";
+
+    /**
+     * 记录步骤开始：头信息不存在时初始化为 RUNNING，步骤已存在时拒绝
+     * KEYS: state, steps, stack, fence  ARGV: executionId, tenantId, chainName, stepId, now, ttlMs, inputJson, 步骤属性 field/value 对, token
+     */
+    private static final String START_STEP_SCRIPT =
+            FENCE_CHECK
+                    + "if redis.call('HEXISTS', KEYS[2], ARGV[4] .. ':status') == 1 then return -1 end "
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "redis.call('HSET', KEYS[1], 'executionId', ARGV[1], 'tenantId', ARGV[2], 'chainName', ARGV[3], "
+                    + "'status', 'RUNNING', 'inputData', ARGV[7], 'startedAt', ARGV[5], 'createdAt', ARGV[5], "
+                    + "'stepCount', 0, 'revision', 0) "
+                    + "end "
+                    + "local index = redis.call('HINCRBY', KEYS[1], 'stepCount', 1) - 1 "
+                    + "for i = 8, #ARGV - 1, 2 do redis.call('HSET', KEYS[2], ARGV[4] .. ':' .. ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('HSET', KEYS[2], ARGV[4] .. ':index', index) "
+                    + "redis.call('HSET', KEYS[1], 'currentStepIndex', index, 'updatedAt', ARGV[5]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[6]) end "
+                    + "return revision";
+
+    /**
+     * 记录步骤成功：步骤必须处于 RUNNING，需要补偿的步骤压入补偿栈
+     * KEYS: state, steps, stack, fence  ARGV: stepId, outputJson, now, ttlMs, token
+     */
+    private static final String COMPLETE_STEP_SCRIPT =
+            FENCE_CHECK
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "local status = redis.call('HGET', KEYS[2], ARGV[1] .. ':status') "
+                    + "if not status then return 0 end "
+                    + "if status ~= 'RUNNING' then return -1 end "
+                    + "redis.call('HSET', KEYS[2], ARGV[1] .. ':status', 'COMPLETED', ARGV[1] .. ':outputData', ARGV[2]) "
+                    + "if redis.call('HGET', KEYS[2], ARGV[1] .. ':needsCompensation') == '1' then "
+                    + "redis.call('RPUSH', KEYS[3], ARGV[1]) "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], 'updatedAt', ARGV[3]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[4]) end "
+                    + "return revision";
+
+    /**
+     * 记录步骤失败：步骤置为 FAILED，执行实例由 RUNNING 迁移到 FAILED
+     * KEYS: state, steps, stack, fence  ARGV: stepId, errorCode, errorMessage, stackTrace, now, ttlMs, token
+     */
+    private static final String FAIL_STEP_SCRIPT =
+            FENCE_CHECK
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "local status = redis.call('HGET', KEYS[2], ARGV[1] .. ':status') "
+                    + "if not status then return 0 end "
+                    + "if status ~= 'RUNNING' then return -1 end "
+                    + "redis.call('HSET', KEYS[2], ARGV[1] .. ':status', 'FAILED', ARGV[1] .. ':errorCode', ARGV[2], "
+                    + "ARGV[1] .. ':errorMessage', ARGV[3], ARGV[1] .. ':stackTrace', ARGV[4]) "
+                    + "if redis.call('HGET', KEYS[1], 'status') == 'RUNNING' then "
+                    + "redis.call('HSET', KEYS[1], 'status', 'FAILED', 'failureReason', ARGV[3], 'completedAt', ARGV[5]) "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], 'updatedAt', ARGV[5]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[6]) end "
+                    + "return revision";
+
+    /**
+     * 记录步骤补偿完成：写入补偿时间并移出补偿栈
+     * KEYS: state, steps, stack, fence  ARGV: stepId, now, ttlMs, token
+     */
+    private static final String COMPENSATE_STEP_SCRIPT =
+            FENCE_CHECK
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "if redis.call('HEXISTS', KEYS[2], ARGV[1] .. ':status') == 0 then return 0 end "
+                    + "local compensatedAt = redis.call('HGET', KEYS[2], ARGV[1] .. ':compensatedAt') "
+                    + "if compensatedAt and compensatedAt ~= '' then return -1 end "
+                    + "redis.call('HSET', KEYS[2], ARGV[1] .. ':compensatedAt', ARGV[2]) "
+                    + "redis.call('LREM', KEYS[3], 0, ARGV[1]) "
+                    + "redis.call('HSET', KEYS[1], 'updatedAt', ARGV[2]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[3]) end "
+                    + "return revision";
+
+    /**
+     * 状态比较并交换
+     * KEYS: state, steps, stack, fence  ARGV: expectedStatus, newStatus, now, ttlMs, token
+     */
+    private static final String COMPARE_AND_SET_STATUS_SCRIPT =
+            FENCE_CHECK
+                    + "local status = redis.call('HGET', KEYS[1], 'status') "
+                    + "if not status then return 0 end "
+                    + "if status ~= ARGV[1] then return -1 end "
+                    + "redis.call('HSET', KEYS[1], 'status', ARGV[2], 'updatedAt', ARGV[3]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[4]) "
+                    + "return revision";
+
+    /**
+     * 写入头信息（不存在时创建），ARGV 末位为 ttlMs，其余为 field/value 对
+     * KEYS: state, steps, stack, fence  ARGV 末位追加 token，由 FENCE_CHECK 弹出
+     */
+    private static final String WRITE_HEADER_SCRIPT =
+            FENCE_CHECK
+                    + "for i = 1, #ARGV - 1, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('HSETNX', KEYS[1], 'stepCount', 0) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[#ARGV]) "
+                    + "return revision";
+
+    /**
+     * 覆盖写入步骤（人工重试、跳过等不经过迁移脚本的变更），新步骤分配序号，可选压入补偿栈
+     * KEYS: state, steps, stack, fence  ARGV: stepId, now, ttlMs, pushToStack(1/0), 步骤属性 field/value 对, token
+     */
+    private static final String WRITE_STEP_SCRIPT =
+            FENCE_CHECK
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "if redis.call('HEXISTS', KEYS[2], ARGV[1] .. ':index') == 0 then "
+                    + "redis.call('HSET', KEYS[2], ARGV[1] .. ':index', redis.call('HINCRBY', KEYS[1], 'stepCount', 1) - 1) "
+                    + "end "
+                    + "for i = 5, #ARGV - 1, 2 do redis.call('HSET', KEYS[2], ARGV[1] .. ':' .. ARGV[i], ARGV[i + 1]) end "
+                    + "if ARGV[4] == '1' then "
+                    + "redis.call('LREM', KEYS[3], 0, ARGV[1]) "
+                    + "redis.call('RPUSH', KEYS[3], ARGV[1]) "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], 'updatedAt', ARGV[2]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[3]) end "
+                    + "return revision";
+
+    /**
+     * 弹出补偿栈顶步骤并记录补偿时间，返回 stepId、revision 及 ARGV[3..] 指定的步骤属性；token 落后时返回 {-2}
+     * KEYS: state, steps, stack, fence  ARGV: now, ttlMs, 步骤属性名, token
+     */
+    private static final String POP_STACK_SCRIPT =
+            "local token = tonumber(table.remove(ARGV)) "
+                    + "if token > 0 and token < tonumber(redis.call('GET', KEYS[4]) or '0') then return {-2} end "
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return {} end "
+                    + "local stepId = redis.call('RPOP', KEYS[3]) "
+                    + "if not stepId then return {} end "
+                    + "local compensatedAt = redis.call('HGET', KEYS[2], stepId .. ':compensatedAt') "
+                    + "if not compensatedAt or compensatedAt == '' then "
+                    + "redis.call('HSET', KEYS[2], stepId .. ':compensatedAt', ARGV[1]) "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], 'updatedAt', ARGV[1]) "
+                    + "local revision = redis.call('HINCRBY', KEYS[1], 'revision', 1) "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[2]) end "
+                    + "local fields = {} "
+                    + "for i = 3, #ARGV do fields[#fields + 1] = stepId .. ':' .. ARGV[i] end "
+                    + "local values = redis.call('HMGET', KEYS[2], unpack(fields)) "
+                    + "table.insert(values, 1, revision) "
+                    + "table.insert(values, 1, stepId) "
+                    + "return values";
+
+    /**
+     * 一次往返读取完整运行态
+     * KEYS: state, steps, stack
+     */
+    private static final String LOAD_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {} end "
+                    + "return {redis.call('HGETALL', KEYS[1]), redis.call('HGETALL', KEYS[2]), "
+                    + "redis.call('LRANGE', KEYS[3], 0, -1)}";
+
+    private static final long STATE_TTL_MS = TimeUnit.SECONDS.toMillis(SagaRedisKeys.EXECUTION_TTL);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final SagaOwnershipLease ownershipLease;
+    private final SagaStateCodec stateCodec;
+
+    /**
+     * 脚本 SHA 缓存，NOSCRIPT 时重新加载
+     */
+    private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+    /**
+     * 记录步骤开始
+     *
+     * @return revision，重复的 stepId 返回 {@link #REJECTED}
+     */
+    public long startStep(String executionId, Long tenantId, String chainName, StepExecution step) {
+        List<Object> args = new ArrayList<>(List.of(
+                executionId,
+                String.valueOf(tenantId),
+                chainName != null ? chainName : "",
+                step.getStepId().getValue(),
+                now(),
+                String.valueOf(STATE_TTL_MS),
+                encode(step.getInputData())));
+        addStepFields(args, step);
+        return transition(START_STEP_SCRIPT, executionId, args.toArray());
+    }
+
+    /**
+     * 记录步骤成功
+     */
+    public long completeStep(String executionId, String stepId, Map<String, Object> outputData) {
+        return transition(COMPLETE_STEP_SCRIPT, executionId,
+                stepId,
+                encode(outputData != null ? outputData : new HashMap<>()),
+                now(),
+                String.valueOf(STATE_TTL_MS));
+    }
+
+    /**
+     * 记录步骤失败
+     */
+    public long failStep(String executionId, String stepId, String errorCode, String errorMessage, String stackTrace) {
+        return transition(FAIL_STEP_SCRIPT, executionId,
+                stepId,
+                nullToEmpty(errorCode),
+                nullToEmpty(errorMessage),
+                nullToEmpty(stackTrace),
+                now(),
+                String.valueOf(STATE_TTL_MS));
+    }
+
+    /**
+     * 记录步骤补偿完成
+     */
+    public long compensateStep(String executionId, String stepId) {
+        return transition(COMPENSATE_STEP_SCRIPT, executionId,
+                stepId,
+                now(),
+                String.valueOf(STATE_TTL_MS));
+    }
+
+    /**
+     * 状态比较并交换
+     */
+    public long compareAndSetStatus(String executionId, SagaStatus currentStatus, SagaStatus newStatus) {
+        return transition(COMPARE_AND_SET_STATUS_SCRIPT, executionId,
+                currentStatus.name(),
+                newStatus.name(),
+                now(),
+                String.valueOf(STATE_TTL_MS));
+    }
+
+    /**
+     * 用聚合根覆盖运行态头信息，运行态不存在时以聚合根初始化，步骤和补偿栈不受影响
+     */
+    public long writeHeader(SagaExecution sagaExecution) {
+        List<Object> args = new ArrayList<>();
+        addField(args, "executionId", sagaExecution.getExecutionId().getValue());
+        addField(args, "tenantId", String.valueOf(sagaExecution.getTenantId().getValue()));
+        addField(args, "chainName", sagaExecution.getChainName());
+        addField(args, "status", sagaExecution.getStatus() != null ? sagaExecution.getStatus().name() : null);
+        addField(args, "failureReason", sagaExecution.getFailureReason());
+        addPayload(args, "inputData", sagaExecution.getInputData());
+        addPayload(args, "outputData", sagaExecution.getOutputData());
+        addField(args, "startedAt", toText(sagaExecution.getStartedAt()));
+        addField(args, "completedAt", toText(sagaExecution.getCompletedAt()));
+        addField(args, "createdAt", toText(sagaExecution.getCreatedAt() != null
+                ? sagaExecution.getCreatedAt() : LocalDateTime.now()));
+        addField(args, "updatedAt", now());
+        if (sagaExecution.getCurrentStepIndex() != null) {
+            addField(args, "currentStepIndex", String.valueOf(sagaExecution.getCurrentStepIndex()));
+        }
+        args.add(String.valueOf(STATE_TTL_MS));
+        return transition(WRITE_HEADER_SCRIPT, sagaExecution.getExecutionId().getValue(), args.toArray());
+    }
+
+    /**
+     * 覆盖写入步骤的全部属性（人工重试、跳过等）
+     *
+     * @param pushToStack 是否压入补偿栈（已在栈中时移到栈顶）
+     * @return revision，运行态不存在时返回 {@link #NOT_FOUND}
+     */
+    public long writeStep(String executionId, StepExecution step, boolean pushToStack) {
+        List<Object> args = new ArrayList<>(List.of(
+                step.getStepId().getValue(),
+                now(),
+                String.valueOf(STATE_TTL_MS),
+                pushToStack ? "1" : "0"));
+        addStepFields(args, step);
+        return transition(WRITE_STEP_SCRIPT, executionId, args.toArray());
+    }
+
+    /**
+     * 写入步骤并压入补偿栈
+     */
+    public long pushToStack(String executionId, StepExecution step) {
+        return writeStep(executionId, step, true);
+    }
+
+    /**
+     * 弹出补偿栈顶步骤（同时记录补偿时间）
+     */
+    public Optional<StepExecution> popFromStack(String executionId) {
+        List<Object> args = new ArrayList<>(List.of(now(), String.valueOf(STATE_TTL_MS)));
+        args.addAll(Arrays.asList(STEP_FIELDS));
+        args.add(fenceToken(executionId));
+        List<Object> result = execute(POP_STACK_SCRIPT, RScript.ReturnType.MULTI, stateKeys(executionId), args.toArray());
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+        if (result.size() == 1) {
+            throw new FencedException(executionId);
+        }
+
+        String stepId = text(result.get(0));
+        markDirty(executionId, Long.parseLong(String.valueOf(result.get(1))));
+
+        Map<String, byte[]> fields = new HashMap<>();
+        for (int i = 0; i < STEP_FIELDS.length && i + 2 < result.size(); i++) {
+            Object value = result.get(i + 2);
+            if (value != null) {
+                fields.put(STEP_FIELDS[i], (byte[]) value);
+            }
+        }
+        if (!fields.containsKey("status")) {
+            log.warn("Popped saga step has no state: executionId={}, stepId={}", executionId, stepId);
+            return Optional.empty();
+        }
+        return Optional.of(toStep(executionId, stepId, fields));
+    }
+
+    /**
+     * 读取完整运行态并组装聚合根
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<SagaExecution> load(String executionId) {
+        List<Object> result = execute(LOAD_SCRIPT, RScript.ReturnType.MULTI, stateKeys(executionId));
+        if (result == null || result.size() < 3) {
+            return Optional.empty();
+        }
+
+        Map<String, byte[]> header = toMap((List<Object>) result.get(0));
+        Map<String, byte[]> stepHash = toMap((List<Object>) result.get(1));
+        List<Object> stackIds = (List<Object>) result.get(2);
+
+        // {stepId}:{属性} 按 stepId 分组，stepId 中可能含有冒号，以最后一个冒号分隔
+        Map<String, Map<String, byte[]>> stepFields = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : stepHash.entrySet()) {
+            int separator = entry.getKey().lastIndexOf(':');
+            if (separator > 0) {
+                stepFields.computeIfAbsent(entry.getKey().substring(0, separator), key -> new HashMap<>())
+                        .put(entry.getKey().substring(separator + 1), entry.getValue());
+            }
+        }
+
+        Map<String, StepExecution> steps = new LinkedHashMap<>();
+        stepFields.entrySet().stream()
+                .filter(entry -> entry.getValue().containsKey("status"))
+                .sorted(Comparator.comparingInt(entry -> parseIndex(text(entry.getValue().get("index")))))
+                .forEach(entry -> steps.put(entry.getKey(), toStep(executionId, entry.getKey(), entry.getValue())));
+
+        List<StepExecution> executionStack = new ArrayList<>();
+        for (Object stepId : stackIds) {
+            StepExecution step = steps.get(text(stepId));
+            if (step != null) {
+                executionStack.add(step);
+            }
+        }
+
+        return Optional.of(SagaExecution.builder()
+                .executionId(SagaExecutionId.of(executionId))
+                .tenantId(TenantId.of(Long.valueOf(text(header.get("tenantId")))))
+                .chainName(emptyToNull(text(header.get("chainName"))))
+                .status(SagaStatus.valueOf(text(header.get("status"))))
+                .currentStepIndex(parseInteger(text(header.get("currentStepIndex"))))
+                .failureReason(emptyToNull(text(header.get("failureReason"))))
+                .inputData(readMap(header.get("inputData")))
+                .outputData(readMap(header.get("outputData")))
+                .executionStack(executionStack)
+                .steps(new ArrayList<>(steps.values()))
+                .startedAt(parseTime(text(header.get("startedAt"))))
+                .completedAt(parseTime(text(header.get("completedAt"))))
+                .createdAt(parseTime(text(header.get("createdAt"))))
+                .updatedAt(parseTime(text(header.get("updatedAt"))))
+                .build());
+    }
+
+    /**
+     * 删除运行态及其脏标记
+     */
+    public void delete(String executionId) {
+        redissonClient.getKeys().delete(SagaRedisKeys.stateKey(executionId),
+                SagaRedisKeys.stateStepsKey(executionId), SagaRedisKeys.stateStackKey(executionId));
+        dirtySet().remove(executionId);
+    }
+
+    /**
+     * 脏标记中记录的 revision，未标记时返回 null
+     */
+    public Long dirtyRevision(String executionId) {
+        Double score = dirtySet().getScore(executionId);
+        return score != null ? score.longValue() : null;
+    }
+
+    /**
+     * 已落库到 revision，移除脏标记（之后又有迁移时保留）
+     */
+    public void clearDirty(String executionId, long revision) {
+        executeForLong(CLEAR_DIRTY_SCRIPT, List.of(SagaRedisKeys.STATE_DIRTY_KEY), executionId, String.valueOf(revision));
+    }
+
+    /**
+     * 脏集合中的全部执行ID（启动时补写上次进程未落库的运行态）
+     */
+    public Collection<String> dirtyExecutionIds() {
+        return dirtySet().readAll();
+    }
+
+    /**
+     * 执行迁移脚本（末位追加 fencing token），成功后标记脏集合
+     */
+    private long transition(String script, String executionId, Object... args) {
+        Object[] fencedArgs = Arrays.copyOf(args, args.length + 1);
+        fencedArgs[args.length] = fenceToken(executionId);
+        long revision = executeForLong(script, stateKeys(executionId), fencedArgs);
+        if (revision == FENCED) {
+            throw new FencedException(executionId);
+        }
+        if (revision > 0) {
+            markDirty(executionId, revision);
+        }
+        return revision;
+    }
+
+    private String fenceToken(String executionId) {
+        return String.valueOf(ownershipLease.fenceToken(executionId));
+    }
+
+    private void markDirty(String executionId, long revision) {
+        executeForLong(MARK_DIRTY_SCRIPT, List.of(SagaRedisKeys.STATE_DIRTY_KEY), executionId, String.valueOf(revision));
+    }
+
+    private long executeForLong(String script, List<Object> keys, Object... args) {
+        Long result = execute(script, RScript.ReturnType.INTEGER, keys, args);
+        return result != null ? result : NOT_FOUND;
+    }
+
+    /**
+     * 优先 EVALSHA，脚本缓存被清空（NOSCRIPT）时重新加载后重试
+     * <p>参数和返回值按字节串传递：文本参数以 UTF-8 编码，编码后的数据原样传入</p>
+     */
+    private <R> R execute(String script, RScript.ReturnType returnType, List<Object> keys, Object... rawArgs) {
+        Object[] args = new Object[rawArgs.length];
+        for (int i = 0; i < rawArgs.length; i++) {
+            args[i] = rawArgs[i] instanceof byte[] ? rawArgs[i]
+                    : String.valueOf(rawArgs[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        RScript rScript = redissonClient.getScript(ByteArrayCodec.INSTANCE);
+        String sha = scriptShas.computeIfAbsent(script, rScript::scriptLoad);
+        try {
+            return rScript.evalSha(RScript.Mode.READ_WRITE, sha, returnType, keys, args);
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            log.debug("Saga state script evicted from Redis, reloading");
+            scriptShas.put(script, rScript.scriptLoad(script));
+            return rScript.eval(RScript.Mode.READ_WRITE, script, returnType, keys, args);
+        }
+    }
+
+    private List<Object> stateKeys(String executionId) {
+        return Arrays.asList(
+                SagaRedisKeys.stateKey(executionId),
+                SagaRedisKeys.stateStepsKey(executionId),
+                SagaRedisKeys.stateStackKey(executionId),
+                SagaRedisKeys.leaseFenceKey(executionId));
+    }
+
+    private RScoredSortedSet<String> dirtySet() {
+        return redissonClient.getScoredSortedSet(SagaRedisKeys.STATE_DIRTY_KEY, StringCodec.INSTANCE);
+    }
+
+    /**
+     * 步骤属性（index 除外）以 field/value 对追加到脚本参数，输入输出数据经 {@link SagaStateCodec} 编码后原样存放
+     */
+    private void addStepFields(List<Object> args, StepExecution step) {
+        addField(args, "componentName", step.getComponentName());
+        addField(args, "compensateComponent", step.getCompensateComponent());
+        addField(args, "needsCompensation", Boolean.TRUE.equals(step.getNeedsCompensation()) ? "1" : "0");
+        addField(args, "status", step.getStatus() != null ? step.getStatus().name() : StepStatus.RUNNING.name());
+        // 上下文中可能包含不可序列化的对象，序列化失败时不保留
+        addPayload(args, "inputData", step.getInputData());
+        addPayload(args, "outputData", step.getOutputData());
+        addField(args, "errorCode", step.getErrorCode());
+        addField(args, "errorMessage", step.getErrorMessage());
+        addField(args, "stackTrace", step.getStackTrace());
+        addField(args, "executedAt", toText(step.getExecutedAt()));
+        addField(args, "compensatedAt", toText(step.getCompensatedAt()));
+        addField(args, "createdAt", toText(step.getCreatedAt()));
+    }
+
+    private StepExecution toStep(String executionId, String stepId, Map<String, byte[]> fields) {
+        return StepExecution.builder()
+                .executionId(executionId)
+                .stepId(StepId.of(stepId))
+                .componentName(emptyToNull(text(fields.get("componentName"))))
+                .status(StepStatus.valueOf(text(fields.get("status"))))
+                .inputData(readMap(fields.get("inputData")))
+                .outputData(readMap(fields.get("outputData")))
+                .compensateComponent(emptyToNull(text(fields.get("compensateComponent"))))
+                .needsCompensation("1".equals(text(fields.get("needsCompensation"))))
+                .errorCode(emptyToNull(text(fields.get("errorCode"))))
+                .errorMessage(emptyToNull(text(fields.get("errorMessage"))))
+                .stackTrace(emptyToNull(text(fields.get("stackTrace"))))
+                .executedAt(parseTime(text(fields.get("executedAt"))))
+                .compensatedAt(parseTime(text(fields.get("compensatedAt"))))
+                .createdAt(parseTime(text(fields.get("createdAt"))))
+                .build();
+    }
+
+    private Map<String, Object> readMap(byte[] data) {
+        if (data == null || data.length == 0) {
+            return new HashMap<>();
+        }
+        try {
+            return stateCodec.decode(data, mapType());
+        } catch (Exception e) {
+            log.warn("Failed to decode saga state data: length={}", data.length, e);
+            return new HashMap<>();
+        }
+    }
+
+    private byte[] encode(Map<String, Object> map) {
+        if (map == null) {
+            return EMPTY;
+        }
+        try {
+            return stateCodec.encode(map);
+        } catch (Exception e) {
+            log.debug("Saga state data is not serializable, skipped", e);
+            return EMPTY;
+        }
+    }
+
+    private JavaType mapType() {
+        return objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, Object.class);
+    }
+
+    private Map<String, byte[]> toMap(List<Object> flat) {
+        Map<String, byte[]> map = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            map.put(text(flat.get(i)), (byte[]) flat.get(i + 1));
+        }
+        return map;
+    }
+
+    private void addField(List<Object> args, String field, String value) {
+        args.add(field);
+        args.add(nullToEmpty(value));
+    }
+
+    private void addPayload(List<Object> args, String field, Map<String, Object> value) {
+        args.add(field);
+        args.add(encode(value));
+    }
+
+    private String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    private String now() {
+        return LocalDateTime.now().toString();
+    }
+
+    private String toText(LocalDateTime time) {
+        return time != null ? time.toString() : null;
+    }
+
+    private LocalDateTime parseTime(String value) {
+        return value == null || value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    private int parseIndex(String value) {
+        return value == null || value.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(value);
+    }
+
+    private Integer parseInteger(String value) {
+        return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 本节点的租约已被接管，迁移被拒绝（不回退到 MySQL 路径）
+     */
+    public static final class FencedException extends IllegalStateException {
+
+        public FencedException(String executionId) {
+            super("Saga lease has been taken over: " + executionId);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Saga 超时索引（Redis ZSet，score 为截止时间）
+ * <p>
+ * 执行开始时写入，结束时移除，超时检测只读取已到期的成员，代价与超时数量成正比而非运行中的执行数量。
+ * 到期成员通过 {@link #claimExpired(long, int)} 原子地取出并移除，多个节点并发扫描时每个成员只被处理一次。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaDeadlineIndex {
+
+    /**
+     * 取出并移除 score 不大于 ARGV[1] 的最多 ARGV[2] 个成员
+     */
+    private static final RedisScript<List> CLAIM_EXPIRED = new DefaultRedisScript<>(
+            "local members = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) "
+                    + "if #members > 0 then redis.call('ZREM', KEYS[1], unpack(members)) end "
+                    + "return members",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 登记（或更新）执行截止时间
+     */
+    public void register(Long tenantId, String executionId, long deadlineMillis) {
+        redisTemplate.opsForZSet().add(SagaRedisKeys.DEADLINE_INDEX_KEY, member(tenantId, executionId), deadlineMillis);
+    }
+
+    /**
+     * 移除执行
+     */
+    public void remove(Long tenantId, String executionId) {
+        redisTemplate.opsForZSet().remove(SagaRedisKeys.DEADLINE_INDEX_KEY, member(tenantId, executionId));
+    }
+
+    /**
+     * 抢占单个执行的超时处理权
+     *
+     * @return 是否由本次调用移除（其他节点已处理或执行已结束时返回 false）
+     */
+    public boolean claim(Long tenantId, String executionId) {
+        Long removed = redisTemplate.opsForZSet()
+                .remove(SagaRedisKeys.DEADLINE_INDEX_KEY, member(tenantId, executionId));
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * 原子地取出并移除已到期的执行
+     *
+     * @return 成员列表，格式 {tenantId}:{executionId}
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claimExpired(long nowMillis, int limit) {
+        List<String> members = redisTemplate.execute(CLAIM_EXPIRED,
+                List.of(SagaRedisKeys.DEADLINE_INDEX_KEY), String.valueOf(nowMillis), String.valueOf(limit));
+        return members != null ? members : List.of();
+    }
+
+    /**
+     * 索引中的执行数
+     */
+    public long size() {
+        Long size = redisTemplate.opsForZSet().zCard(SagaRedisKeys.DEADLINE_INDEX_KEY);
+        return size != null ? size : 0;
+    }
+
+    public static String member(Long tenantId, String executionId) {
+        return tenantId + ":" + executionId;
+    }
+}
@@ -0,0 +1,289 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Saga 所有权租约
+ * <p>
+ * 执行节点在整个 Saga 执行期间持有一个租约（即 {@link SagaDistributedLock} 的锁），由后台线程通过
+ * {@link SagaDistributedLock#renewLock} 续约。持有租约期间，本节点的步骤更新只使用进程内的锁，
+ * 不再逐步获取和释放分布式锁。
+ * </p>
+ * <p>
+ * 每次获取或接管租约都会递增 {@link SagaRedisKeys#LEASE_FENCE_KEY} 得到 fencing token。人工操作
+ * （重试、跳过、补偿）通过 {@link #takeover} 接管租约；原持有者在续约时发现 token 已落后，
+ * 此后的步骤更新被拒绝。续约因锁过期失败时，退回逐步加分布式锁的方式。
+ * </p>
+ * <p>
+ * 续约线程发现接管之前，原持有者的写入由存储端拒绝：{@link SagaAtomicStateStore} 的迁移脚本和
+ * saga_execution 的更新语句都携带 {@link #fenceToken} 并与当前 token 比较。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaOwnershipLease {
+
+    /**
+     * 未持有租约时逐步加锁的等待时间和持有时间（秒）
+     */
+    private static final long LOCK_WAIT_TIME = 10L;
+    private static final long LOCK_LEASE_TIME = SagaRedisKeys.LOCK_TTL;
+
+    private final SagaDistributedLock distributedLock;
+    private final StringRedisTemplate redisTemplate;
+    private final SagaProperties sagaProperties;
+
+    /**
+     * executionId -> 本节点持有的租约
+     */
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService renewer;
+
+    @PostConstruct
+    public void start() {
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-lease-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sagaProperties.getLease().getRenewIntervalMs();
+        renewer.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+    }
+
+    /**
+     * 执行节点获取租约，须在同一线程关闭
+     *
+     * @return 租约，未启用或已被其他节点持有时返回 null（步骤更新按原方式逐步加锁）
+     */
+    public Lease acquire(String executionId) {
+        if (!Boolean.TRUE.equals(sagaProperties.getLease().getEnabled())) {
+            return null;
+        }
+        long leaseMs = TimeUnit.SECONDS.toMillis(sagaProperties.getLease().getLeaseSeconds());
+        if (!distributedLock.tryLock(executionId, 0L, leaseMs, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        try {
+            return register(executionId, nextToken(executionId));
+        } catch (RuntimeException e) {
+            distributedLock.unlock(executionId);
+            log.warn("Failed to issue saga lease token, using per-step locking: executionId={}", executionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 人工操作接管租约，须在同一线程关闭
+     * <p>
+     * 先递增 fencing token 使原持有者失效，再等待其释放锁；超时后强制释放
+     * </p>
+     *
+     * @return 租约，未启用时返回 null
+     */
+    public Lease takeover(String executionId) {
+        if (!Boolean.TRUE.equals(sagaProperties.getLease().getEnabled())) {
+            return null;
+        }
+        long token = nextToken(executionId);
+        long leaseMs = TimeUnit.SECONDS.toMillis(sagaProperties.getLease().getLeaseSeconds());
+        long waitMs = sagaProperties.getLease().getTakeoverWaitMs();
+        if (!distributedLock.tryLock(executionId, waitMs, leaseMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Saga lease not released in time, forcing takeover: executionId={}", executionId);
+            distributedLock.forceUnlock(executionId);
+            if (!distributedLock.tryLock(executionId, waitMs, leaseMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Failed to take over saga lease: " + executionId);
+            }
+        }
+        log.info("Saga lease taken over: executionId={}, token={}", executionId, token);
+        return register(executionId, token);
+    }
+
+    /**
+     * 锁定执行实例以更新步骤
+     * <p>
+     * 本节点持有有效租约时只获取进程内的锁；否则获取分布式锁（获取失败时与原逻辑一致，不加锁继续）
+     * </p>
+     *
+     * @throws IllegalStateException 租约已被接管
+     */
+    public Guard guard(String executionId) {
+        Lease lease = leases.get(executionId);
+        if (lease != null) {
+            if (lease.state == LeaseState.FENCED) {
+                throw new IllegalStateException("Saga lease has been taken over: " + executionId);
+            }
+            if (lease.state == LeaseState.HELD) {
+                lease.localLock.lock();
+                return lease.localLock::unlock;
+            }
+        }
+
+        boolean locked = distributedLock.tryLock(executionId, LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        return () -> {
+            if (locked) {
+                distributedLock.unlock(executionId);
+            }
+        };
+    }
+
+    /**
+     * 校验本节点的租约未被接管（不持有租约时不做限制）
+     *
+     * @throws IllegalStateException 租约已被接管
+     */
+    public void checkNotFenced(String executionId) {
+        Lease lease = leases.get(executionId);
+        if (lease != null && lease.state == LeaseState.FENCED) {
+            throw new IllegalStateException("Saga lease has been taken over: " + executionId);
+        }
+    }
+
+    /**
+     * 本节点持有的租约的 fencing token，随写入一起提交由存储端校验
+     *
+     * @return token，未持有租约时返回 0（不做校验）
+     */
+    public long fenceToken(String executionId) {
+        Lease lease = leases.get(executionId);
+        return lease != null ? lease.token : 0L;
+    }
+
+    private Lease register(String executionId, long token) {
+        Lease previous = leases.get(executionId);
+        if (previous != null) {
+            // 本节点上的人工操作接管了正在执行的 Saga
+            previous.state = LeaseState.FENCED;
+        }
+        Lease lease = new Lease(executionId, token, previous);
+        leases.put(executionId, lease);
+        log.debug("Saga lease acquired: executionId={}, token={}", executionId, token);
+        return lease;
+    }
+
+    private long nextToken(String executionId) {
+        String key = SagaRedisKeys.leaseFenceKey(executionId);
+        Long token = redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, SagaRedisKeys.EXECUTION_TTL, TimeUnit.SECONDS);
+        return token != null ? token : 0L;
+    }
+
+    private void renewAll() {
+        long leaseSeconds = sagaProperties.getLease().getLeaseSeconds();
+        for (Lease lease : leases.values()) {
+            if (lease.state != LeaseState.HELD) {
+                continue;
+            }
+            String value;
+            try {
+                value = redisTemplate.opsForValue().get(SagaRedisKeys.leaseFenceKey(lease.executionId));
+            } catch (Exception e) {
+                // Redis 不可用时其他节点同样无法接管，保留租约，下个周期再续
+                log.debug("Failed to read saga lease token: executionId={}", lease.executionId, e);
+                continue;
+            }
+
+            if (value != null && Long.parseLong(value) > lease.token) {
+                lease.state = LeaseState.FENCED;
+                log.warn("Saga lease fenced by a newer owner: executionId={}, token={}, current={}",
+                        lease.executionId, lease.token, value);
+            } else if (!distributedLock.renewLock(lease.executionId, leaseSeconds, TimeUnit.SECONDS)) {
+                lease.state = LeaseState.EXPIRED;
+                log.warn("Saga lease expired, falling back to per-step locking: executionId={}", lease.executionId);
+            }
+        }
+    }
+
+    private enum LeaseState {
+        /**
+         * 有效，步骤更新只需进程内同步
+         */
+        HELD,
+        /**
+         * 续约失败，步骤更新退回分布式锁
+         */
+        EXPIRED,
+        /**
+         * 已被接管，步骤更新被拒绝
+         */
+        FENCED
+    }
+
+    /**
+     * 步骤更新的锁定范围
+     */
+    @FunctionalInterface
+    public interface Guard extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * 本节点持有的租约
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String executionId;
+        private final long token;
+        private final ReentrantLock localLock = new ReentrantLock();
+        private volatile LeaseState state = LeaseState.HELD;
+
+        /**
+         * 被本租约接管的本节点租约，释放后恢复登记，使原执行线程仍能感知已被接管
+         */
+        private final Lease displaced;
+
+        private Lease(String executionId, long token, Lease displaced) {
+            this.executionId = executionId;
+            this.token = token;
+            this.displaced = displaced;
+        }
+
+        /**
+         * fencing token
+         */
+        public long getToken() {
+            return token;
+        }
+
+        /**
+         * 释放租约（已被接管时锁属于新持有者，不释放）
+         */
+        @Override
+        public void close() {
+            if (leases.remove(executionId, this) && displaced != null) {
+                leases.putIfAbsent(executionId, displaced);
+            }
+            if (state != LeaseState.FENCED) {
+                distributedLock.unlock(executionId);
+            }
+            log.debug("Saga lease released: executionId={}, token={}, state={}", executionId, token, state);
+        }
+    }
+}
@@ -3,22 +3,51 @@ package com.dms.liteflow.infrastructure.saga.redis;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
 import com.dms.liteflow.domain.saga.entity.StepExecution;
 import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.dms.liteflow.infrastructure.saga.redis.codec.SagaStateCodec;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RBucket;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Saga Redis 服务
  * 提供 Saga 执行数据的 Redis 缓存操作
+ * <p>
+ * 执行实例保存为 Hash：头信息每个属性一个 field，每个步骤一个 field（{@link SagaRedisKeys#EXECUTION_STEP_FIELD}），
+ * 补偿栈只保存 stepId 列表。步骤迁移只写入变化的步骤和头信息 field，不再整体覆盖；
+ * 读取头信息或单个步骤时只取对应 field。各 field 值由 {@link SagaStateCodec} 编码。
+ * </p>
+ * <p>
+ * 写操作通过 {@link #batch()} 汇总为一次 RBatch 流水线提交：一次步骤迁移涉及的所有 field、删除和过期时间
+ * 只产生一次网络往返。
+ * </p>
  *
  * @author DMS
  * @since 2026-02-03
@@ -28,22 +57,44 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class SagaRedisService {
 
+    private static final CompositeCodec HASH_CODEC = new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE);
+
+    private static final String F_ID = "id";
+    private static final String F_EXECUTION_ID = "executionId";
+    private static final String F_TENANT_ID = "tenantId";
+    private static final String F_CHAIN_NAME = "chainName";
+    private static final String F_INPUT_DATA = "inputData";
+    private static final String F_STARTED_AT = "startedAt";
+    private static final String F_CREATED_AT = "createdAt";
+    private static final String F_STATUS = "status";
+    private static final String F_CURRENT_STEP_INDEX = "currentStepIndex";
+    private static final String F_FAILURE_REASON = "failureReason";
+    private static final String F_OUTPUT_DATA = "outputData";
+    private static final String F_COMPLETED_AT = "completedAt";
+    private static final String F_UPDATED_AT = "updatedAt";
+    private static final String F_VERSION = "version";
+    private static final String F_STACK = "stack";
+
+    /**
+     * 头信息 field（不含步骤与补偿栈）
+     */
+    private static final Set<String> HEADER_FIELDS = Set.of(F_ID, F_EXECUTION_ID, F_TENANT_ID, F_CHAIN_NAME,
+            F_INPUT_DATA, F_STARTED_AT, F_CREATED_AT, F_STATUS, F_CURRENT_STEP_INDEX, F_FAILURE_REASON,
+            F_OUTPUT_DATA, F_COMPLETED_AT, F_UPDATED_AT, F_VERSION);
+
+    private static final String STEP_FIELD_PREFIX = String.format(SagaRedisKeys.EXECUTION_STEP_FIELD, "");
+
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
+    private final SagaStateCodec stateCodec;
 
     /**
-     * 保存执行实例到 Redis
+     * 保存完整执行实例到 Redis（头信息、全部步骤和补偿栈）
      */
     public void saveExecution(Long tenantId, String executionId, SagaExecution sagaExecution) {
         try {
-            String key = SagaRedisKeys.executionKey(tenantId, executionId);
-            String json = objectMapper.writeValueAsString(sagaExecution);
-
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            bucket.set(json);
-            bucket.expire(Duration.ofSeconds(SagaRedisKeys.EXECUTION_TTL));
-
-            log.debug("Saved execution to Redis: key={}", key);
+            batch().execution(tenantId, executionId, sagaExecution).flush();
+            log.debug("Saved execution to Redis: executionId={}", executionId);
         } catch (Exception e) {
             log.error("Failed to save execution to Redis: executionId={}", executionId, e);
             throw new RuntimeException("Failed to save execution to Redis", e);
@@ -51,20 +102,45 @@ public class SagaRedisService {
     }
 
     /**
-     * 从 Redis 获取执行实例
+     * 只保存可变的头信息（状态、当前步骤、失败原因、输出、完成时间等）
+     */
+    public void saveHeader(Long tenantId, String executionId, SagaExecution sagaExecution) {
+        try {
+            batch().header(tenantId, executionId, sagaExecution).flush();
+            log.debug("Saved execution header to Redis: executionId={}", executionId);
+        } catch (Exception e) {
+            log.error("Failed to save execution header to Redis: executionId={}", executionId, e);
+            throw new RuntimeException("Failed to save execution header to Redis", e);
+        }
+    }
+
+    /**
+     * 从 Redis 获取执行实例（头信息、全部步骤和补偿栈）
      */
     public SagaExecution getExecution(Long tenantId, String executionId) {
         try {
             String key = SagaRedisKeys.executionKey(tenantId, executionId);
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            String json = bucket.get();
-
-            if (json == null) {
+            Map<String, byte[]> fields = hash(key).readAllMap();
+            SagaExecution sagaExecution = toExecution(fields);
+            if (sagaExecution == null) {
                 log.debug("Execution not found in Redis: key={}", key);
                 return null;
             }
 
-            return objectMapper.readValue(json, SagaExecution.class);
+            Map<String, StepExecution> steps = new LinkedHashMap<>();
+            for (Map.Entry<String, byte[]> entry : fields.entrySet()) {
+                if (entry.getKey().startsWith(STEP_FIELD_PREFIX)) {
+                    StepExecution step = decode(entry.getValue(), StepExecution.class);
+                    steps.put(step.getStepId().getValue(), step);
+                }
+            }
+            List<StepExecution> ordered = steps.values().stream()
+                    .sorted(Comparator.comparing(StepExecution::getStartedAt,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            sagaExecution.setSteps(ordered);
+            sagaExecution.setExecutionStack(stackOf(readStackIds(fields.get(F_STACK)), steps));
+            return sagaExecution;
         } catch (Exception e) {
             log.error("Failed to get execution from Redis: executionId={}", executionId, e);
             return null;
@@ -72,31 +148,37 @@ public class SagaRedisService {
     }
 
     /**
-     * 删除执行实例
+     * 只读取头信息，不加载步骤与补偿栈
      */
-    public void deleteExecution(Long tenantId, String executionId) {
+    public SagaExecution getExecutionHeader(Long tenantId, String executionId) {
         try {
             String key = SagaRedisKeys.executionKey(tenantId, executionId);
-            redissonClient.getBucket(key).delete();
-            log.debug("Deleted execution from Redis: key={}", key);
+            return toExecution(hash(key).getAll(HEADER_FIELDS));
+        } catch (Exception e) {
+            log.error("Failed to get execution header from Redis: executionId={}", executionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 删除执行实例（连同旧格式的独立执行栈 Key，一条 DEL 完成）
+     */
+    public void deleteExecution(Long tenantId, String executionId) {
+        try {
+            batch().delete(tenantId, executionId).flush();
+            log.debug("Deleted execution from Redis: executionId={}", executionId);
         } catch (Exception e) {
             log.error("Failed to delete execution from Redis: executionId={}", executionId, e);
         }
     }
 
     /**
-     * 保存执行栈到 Redis
+     * 保存补偿栈（只写入 stepId 列表，栈中步骤的状态由 {@link #saveStep} 写入）
      */
     public void saveExecutionStack(Long tenantId, String executionId, List<StepExecution> stack) {
         try {
-            String key = SagaRedisKeys.executionStackKey(tenantId, executionId);
-            String json = objectMapper.writeValueAsString(stack);
-
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            bucket.set(json);
-            bucket.expire(Duration.ofSeconds(SagaRedisKeys.EXECUTION_TTL));
-
-            log.debug("Saved execution stack to Redis: key={}, size={}", key, stack.size());
+            batch().stack(tenantId, executionId, stack).flush();
+            log.debug("Saved execution stack to Redis: executionId={}, size={}", executionId, stack.size());
         } catch (Exception e) {
             log.error("Failed to save execution stack to Redis: executionId={}", executionId, e);
             throw new RuntimeException("Failed to save execution stack to Redis", e);
@@ -104,21 +186,26 @@ public class SagaRedisService {
     }
 
     /**
-     * 从 Redis 获取执行栈
+     * 从 Redis 获取补偿栈（只读取栈中的步骤）
      */
     public List<StepExecution> getExecutionStack(Long tenantId, String executionId) {
         try {
-            String key = SagaRedisKeys.executionStackKey(tenantId, executionId);
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            String json = bucket.get();
-
-            if (json == null) {
+            String key = SagaRedisKeys.executionKey(tenantId, executionId);
+            RMap<String, byte[]> hash = hash(key);
+            byte[] stackField = hash.get(F_STACK);
+            if (stackField == null) {
                 log.debug("Execution stack not found in Redis: key={}", key);
                 return null;
             }
 
-            return objectMapper.readValue(json,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, StepExecution.class));
+            List<String> stepIds = readStackIds(stackField);
+            Set<String> stepFields = stepIds.stream().map(this::stepField).collect(Collectors.toSet());
+            Map<String, StepExecution> steps = new HashMap<>();
+            for (byte[] value : hash.getAll(stepFields).values()) {
+                StepExecution step = decode(value, StepExecution.class);
+                steps.put(step.getStepId().getValue(), step);
+            }
+            return stackOf(stepIds, steps);
         } catch (Exception e) {
             log.error("Failed to get execution stack from Redis: executionId={}", executionId, e);
             return null;
@@ -126,12 +213,12 @@ public class SagaRedisService {
     }
 
     /**
-     * 删除执行栈
+     * 删除旧格式的独立执行栈 Key
      */
     public void deleteExecutionStack(Long tenantId, String executionId) {
         try {
             String key = SagaRedisKeys.executionStackKey(tenantId, executionId);
-            redissonClient.getBucket(key).delete();
+            redissonClient.getKeys().delete(key);
             log.debug("Deleted execution stack from Redis: key={}", key);
         } catch (Exception e) {
             log.error("Failed to delete execution stack from Redis: executionId={}", executionId, e);
@@ -139,18 +226,12 @@ public class SagaRedisService {
     }
 
     /**
-     * 保存步骤执行状态
+     * 保存步骤执行状态（只写入该步骤的 field）
      */
     public void saveStep(Long tenantId, String executionId, String stepId, StepExecution stepExecution) {
         try {
-            String key = SagaRedisKeys.stepKey(tenantId, executionId, stepId);
-            String json = objectMapper.writeValueAsString(stepExecution);
-
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            bucket.set(json);
-            bucket.expire(Duration.ofSeconds(SagaRedisKeys.EXECUTION_TTL));
-
-            log.debug("Saved step to Redis: key={}", key);
+            batch().step(tenantId, executionId, stepExecution).flush();
+            log.debug("Saved step to Redis: executionId={}, stepId={}", executionId, stepId);
         } catch (Exception e) {
             log.error("Failed to save step to Redis: stepId={}", stepId, e);
             throw new RuntimeException("Failed to save step to Redis", e);
@@ -158,19 +239,13 @@ public class SagaRedisService {
     }
 
     /**
-     * 从 Redis 获取步骤执行状态
+     * 从 Redis 获取步骤执行状态（只读取该步骤的 field）
      */
     public StepExecution getStep(Long tenantId, String executionId, String stepId) {
         try {
-            String key = SagaRedisKeys.stepKey(tenantId, executionId, stepId);
-            RBucket<String> bucket = redissonClient.getBucket(key);
-            String json = bucket.get();
-
-            if (json == null) {
-                return null;
-            }
-
-            return objectMapper.readValue(json, StepExecution.class);
+            String key = SagaRedisKeys.executionKey(tenantId, executionId);
+            byte[] value = hash(key).get(stepField(stepId));
+            return value != null ? decode(value, StepExecution.class) : null;
         } catch (Exception e) {
             log.error("Failed to get step from Redis: stepId={}", stepId, e);
             return null;
@@ -183,7 +258,7 @@ public class SagaRedisService {
     public boolean existsExecution(Long tenantId, String executionId) {
         try {
             String key = SagaRedisKeys.executionKey(tenantId, executionId);
-            return redissonClient.getBucket(key).isExists();
+            return redissonClient.getKeys().countExists(key) > 0;
         } catch (Exception e) {
             log.error("Failed to check execution existence in Redis: executionId={}", executionId, e);
             return false;
@@ -196,7 +271,7 @@ public class SagaRedisService {
     public void expireExecution(Long tenantId, String executionId, long ttl, TimeUnit timeUnit) {
         try {
             String key = SagaRedisKeys.executionKey(tenantId, executionId);
-            redissonClient.getBucket(key).expire(Duration.ofMillis(timeUnit.toMillis(ttl)));
+            hash(key).expire(Duration.ofMillis(timeUnit.toMillis(ttl)));
             log.debug("Set expiration for execution: key={}, ttl={} {}", key, ttl, timeUnit);
         } catch (Exception e) {
             log.error("Failed to set expiration for execution: executionId={}", executionId, e);
@@ -216,6 +291,229 @@ public class SagaRedisService {
         }
     }
 
+    private RMap<String, byte[]> hash(String key) {
+        return redissonClient.getMap(key, HASH_CODEC);
+    }
+
+    /**
+     * 创建写批次，调用 {@link WriteBatch#flush()} 时一次提交
+     */
+    public WriteBatch batch() {
+        return new WriteBatch();
+    }
+
+    /**
+     * 创建后不再变化的头信息
+     */
+    private Map<String, byte[]> immutableHeaderFields(SagaExecution sagaExecution) throws IOException {
+        Map<String, byte[]> fields = new HashMap<>();
+        putIfPresent(fields, F_ID, sagaExecution.getId());
+        putIfPresent(fields, F_EXECUTION_ID, sagaExecution.getExecutionId().getValue());
+        putIfPresent(fields, F_TENANT_ID, sagaExecution.getTenantId().getValue());
+        putIfPresent(fields, F_CHAIN_NAME, sagaExecution.getChainName());
+        putIfPresent(fields, F_INPUT_DATA, sagaExecution.getInputData());
+        putIfPresent(fields, F_STARTED_AT, sagaExecution.getStartedAt());
+        putIfPresent(fields, F_CREATED_AT, sagaExecution.getCreatedAt());
+        return fields;
+    }
+
+    /**
+     * 随状态迁移变化的头信息
+     */
+    private Map<String, byte[]> mutableHeaderFields(SagaExecution sagaExecution) throws IOException {
+        Map<String, byte[]> fields = new HashMap<>();
+        putIfPresent(fields, F_STATUS, sagaExecution.getStatus() != null ? sagaExecution.getStatus().name() : null);
+        putIfPresent(fields, F_CURRENT_STEP_INDEX, sagaExecution.getCurrentStepIndex());
+        putIfPresent(fields, F_FAILURE_REASON, sagaExecution.getFailureReason());
+        putIfPresent(fields, F_OUTPUT_DATA, sagaExecution.getOutputData());
+        putIfPresent(fields, F_COMPLETED_AT, sagaExecution.getCompletedAt());
+        putIfPresent(fields, F_UPDATED_AT, sagaExecution.getUpdatedAt());
+        putIfPresent(fields, F_VERSION, sagaExecution.getVersion());
+        return fields;
+    }
+
+    private void putIfPresent(Map<String, byte[]> fields, String name, Object value) throws IOException {
+        if (value != null) {
+            fields.put(name, stateCodec.encode(value));
+        }
+    }
+
+    /**
+     * 由头信息 field 构建执行实例，缺少执行ID（不存在或只写入了部分 field）时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private SagaExecution toExecution(Map<String, byte[]> fields) throws IOException {
+        if (fields == null || !fields.containsKey(F_EXECUTION_ID) || !fields.containsKey(F_TENANT_ID)) {
+            return null;
+        }
+        String status = decode(fields.get(F_STATUS), String.class);
+        return SagaExecution.builder()
+                .id(decode(fields.get(F_ID), Long.class))
+                .executionId(SagaExecutionId.of(decode(fields.get(F_EXECUTION_ID), String.class)))
+                .tenantId(TenantId.of(decode(fields.get(F_TENANT_ID), Long.class)))
+                .chainName(decode(fields.get(F_CHAIN_NAME), String.class))
+                .status(status != null ? SagaStatus.valueOf(status) : null)
+                .currentStepIndex(decode(fields.get(F_CURRENT_STEP_INDEX), Integer.class))
+                .failureReason(decode(fields.get(F_FAILURE_REASON), String.class))
+                .inputData(decode(fields.get(F_INPUT_DATA), Map.class))
+                .outputData(decode(fields.get(F_OUTPUT_DATA), Map.class))
+                .startedAt(decode(fields.get(F_STARTED_AT), LocalDateTime.class))
+                .completedAt(decode(fields.get(F_COMPLETED_AT), LocalDateTime.class))
+                .createdAt(decode(fields.get(F_CREATED_AT), LocalDateTime.class))
+                .updatedAt(decode(fields.get(F_UPDATED_AT), LocalDateTime.class))
+                .version(decode(fields.get(F_VERSION), Integer.class))
+                .executionStack(new ArrayList<>())
+                .build();
+    }
+
+    private List<String> stackIds(List<StepExecution> stack) {
+        if (stack == null) {
+            return new ArrayList<>();
+        }
+        return stack.stream()
+                .map(step -> step.getStepId().getValue())
+                .collect(Collectors.toList());
+    }
+
+    private List<String> readStackIds(byte[] value) throws IOException {
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, String.class);
+        return stateCodec.decode(value, type);
+    }
+
+    private List<StepExecution> stackOf(List<String> stepIds, Map<String, StepExecution> steps) {
+        List<StepExecution> stack = new ArrayList<>(stepIds.size());
+        for (String stepId : stepIds) {
+            StepExecution step = steps.get(stepId);
+            if (step != null) {
+                stack.add(step);
+            }
+        }
+        return stack;
+    }
+
+    private <T> T decode(byte[] value, Class<T> type) throws IOException {
+        return value != null ? stateCodec.decode(value, objectMapper.constructType(type)) : null;
+    }
+
+    private String stepField(String stepId) {
+        return String.format(SagaRedisKeys.EXECUTION_STEP_FIELD, stepId);
+    }
+
+    /**
+     * Saga Redis 写批次（工作单元）
+     * <p>
+     * 汇总多个执行实例 Hash 的 field 写入与删除，flush 时通过 RBatch 流水线一次提交，
+     * 每个被写入的 Hash 同时刷新过期时间。同一 field 多次写入时以最后一次为准。
+     * </p>
+     */
+    public final class WriteBatch {
+
+        private final Map<String, Map<String, byte[]>> writes = new LinkedHashMap<>();
+        private final Set<String> deletes = new LinkedHashSet<>();
+
+        private WriteBatch() {
+        }
+
+        /**
+         * 完整执行实例（头信息、全部步骤和补偿栈）
+         */
+        public WriteBatch execution(Long tenantId, String executionId, SagaExecution sagaExecution) throws IOException {
+            Map<String, byte[]> fields = fields(tenantId, executionId);
+            fields.putAll(immutableHeaderFields(sagaExecution));
+            fields.putAll(mutableHeaderFields(sagaExecution));
+            if (sagaExecution.getSteps() != null) {
+                for (StepExecution step : sagaExecution.getSteps()) {
+                    fields.put(stepField(step.getStepId().getValue()), stateCodec.encode(step));
+                }
+            }
+            fields.put(F_STACK, stateCodec.encode(stackIds(sagaExecution.getExecutionStack())));
+            return this;
+        }
+
+        /**
+         * 可变的头信息
+         */
+        public WriteBatch header(Long tenantId, String executionId, SagaExecution sagaExecution) throws IOException {
+            fields(tenantId, executionId).putAll(mutableHeaderFields(sagaExecution));
+            return this;
+        }
+
+        /**
+         * 单个步骤
+         */
+        public WriteBatch step(Long tenantId, String executionId, StepExecution stepExecution) throws IOException {
+            fields(tenantId, executionId).put(stepField(stepExecution.getStepId().getValue()),
+                    stateCodec.encode(stepExecution));
+            return this;
+        }
+
+        /**
+         * 补偿栈（stepId 列表）
+         */
+        public WriteBatch stack(Long tenantId, String executionId, List<StepExecution> stack) throws IOException {
+            fields(tenantId, executionId).put(F_STACK, stateCodec.encode(stackIds(stack)));
+            return this;
+        }
+
+        /**
+         * 删除执行实例及旧格式的执行栈 Key
+         */
+        public WriteBatch delete(Long tenantId, String executionId) {
+            String key = SagaRedisKeys.executionKey(tenantId, executionId);
+            writes.remove(key);
+            deletes.add(key);
+            deletes.add(SagaRedisKeys.executionStackKey(tenantId, executionId));
+            return this;
+        }
+
+        /**
+         * 一次流水线提交；旧版本写入的字符串值导致类型错误时删除这些 Key 后重试一次
+         */
+        public void flush() {
+            if (writes.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+            try {
+                execute();
+            } catch (RedisException e) {
+                if (e.getMessage() == null || !e.getMessage().contains("WRONGTYPE")) {
+                    throw e;
+                }
+                log.info("Replacing legacy saga execution values with hashes: keys={}", writes.keySet());
+                redissonClient.getKeys().delete(writes.keySet().toArray(new String[0]));
+                execute();
+            }
+        }
+
+        private void execute() {
+            RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+            if (!deletes.isEmpty()) {
+                batch.getKeys().deleteAsync(deletes.toArray(new String[0]));
+            }
+            Duration ttl = Duration.ofSeconds(SagaRedisKeys.EXECUTION_TTL);
+            for (Map.Entry<String, Map<String, byte[]>> entry : writes.entrySet()) {
+                RMapAsync<String, byte[]> hash = batch.getMap(entry.getKey(), HASH_CODEC);
+                Map<String, byte[]> fields = entry.getValue();
+                if (fields.size() == 1) {
+                    Map.Entry<String, byte[]> field = fields.entrySet().iterator().next();
+                    hash.fastPutAsync(field.getKey(), field.getValue());
+                } else {
+                    hash.putAllAsync(fields);
+                }
+                hash.expireAsync(ttl);
+            }
+            batch.execute();
+        }
+
+        private Map<String, byte[]> fields(Long tenantId, String executionId) {
+            return writes.computeIfAbsent(SagaRedisKeys.executionKey(tenantId, executionId),
+                    key -> new HashMap<>());
+        }
+    }
+
     // ====== Overloaded methods using value objects ======
 
     /**
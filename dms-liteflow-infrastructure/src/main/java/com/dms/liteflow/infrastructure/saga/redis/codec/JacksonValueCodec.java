@@ -0,0 +1,48 @@
+package com.dms.liteflow.infrastructure.saga.redis.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 基于 Jackson 的编码器，JSON 与 Smile（二进制 JSON，字段名回引）共用
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+class JacksonValueCodec implements SagaValueCodec {
+
+    static final byte JSON_ID = 1;
+    static final byte SMILE_ID = 2;
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper mapper;
+
+    JacksonValueCodec(byte id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] write(Object value) throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T read(byte[] data, int offset, int length, JavaType type) throws IOException {
+        return mapper.readValue(data, offset, length, type);
+    }
+}
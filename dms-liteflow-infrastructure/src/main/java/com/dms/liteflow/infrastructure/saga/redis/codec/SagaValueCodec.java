@@ -0,0 +1,31 @@
+package com.dms.liteflow.infrastructure.saga.redis.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+
+/**
+ * Saga 运行态值编码器
+ * <p>
+ * 每种编码有固定的 {@link #id()}，写入信封头部；读取时按头部选择编码器，与当前写入配置无关。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+public interface SagaValueCodec {
+
+    /**
+     * 编码标识，写入后不可修改
+     */
+    byte id();
+
+    /**
+     * 配置名称
+     */
+    String name();
+
+    byte[] write(Object value) throws IOException;
+
+    <T> T read(byte[] data, int offset, int length, JavaType type) throws IOException;
+}
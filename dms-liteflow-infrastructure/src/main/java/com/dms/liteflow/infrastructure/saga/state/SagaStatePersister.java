@@ -0,0 +1,237 @@
+package com.dms.liteflow.infrastructure.saga.state;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.repository.StepExecutionRepository;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.redis.SagaAtomicStateStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga 运行态异步落库
+ * <p>
+ * 步骤迁移只标记执行实例（及发生变化的步骤）为脏，由后台线程定期从 Redis 读取最新运行态：
+ * 头信息按 execution_id 幂等写入 saga_execution，变化的步骤作为迁移记录批量追加到 saga_step_execution。
+ * 同一执行实例在一个周期内的多次迁移合并为一次写入；失败数据通过 {@link #persistNow(String)} 同步落库。
+ * </p>
+ * <p>
+ * 内存中的脏标记随进程退出丢失，迁移脚本成功后同时在 Redis 脏集合中标记执行实例，落库后移除。
+ * 启动时把脏集合中的执行实例重新标记为待落库，此时不知道哪些步骤变化，全部步骤连同输入数据重写一次。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaStatePersister {
+
+    /**
+     * 表示全部步骤待落库的标记（启动时从 Redis 脏集合恢复）
+     */
+    private static final String ALL_STEPS = "*";
+
+    private final SagaAtomicStateStore stateStore;
+    private final SagaExecutionRepository sagaExecutionRepository;
+    private final StepExecutionRepository stepExecutionRepository;
+    private final SagaProperties sagaProperties;
+
+    /**
+     * executionId -> (stepId -> 本周期内是否新开始的步骤)，新步骤的迁移记录需要携带输入数据
+     */
+    private final Map<String, Map<String, Boolean>> dirtyExecutions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-state-persister");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sagaProperties.getStateStore().getPersistIntervalMs();
+        flusher.execute(this::recoverSafely);
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        // 停机前尽量写完剩余的脏数据
+        while (!dirtyExecutions.isEmpty()) {
+            if (flush() == 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 标记执行实例头信息待落库
+     */
+    public void markDirty(String executionId) {
+        dirtyExecutions.compute(executionId, (key, steps) -> steps != null ? steps : new HashMap<>());
+    }
+
+    /**
+     * 标记步骤发生迁移待落库
+     *
+     * @param started 是否为步骤开始（首条迁移记录携带输入数据）
+     */
+    public void markStepDirty(String executionId, String stepId, boolean started) {
+        dirtyExecutions.compute(executionId, (key, steps) -> {
+            Map<String, Boolean> dirtySteps = steps != null ? steps : new HashMap<>();
+            dirtySteps.merge(stepId, started, Boolean::logicalOr);
+            return dirtySteps;
+        });
+    }
+
+    /**
+     * 立即落库（失败等必须持久化的迁移）
+     */
+    public void persistNow(String executionId) {
+        Map<String, Boolean> dirtySteps = dirtyExecutions.remove(executionId);
+        Map<String, Boolean> steps = dirtySteps != null ? dirtySteps : new HashMap<>();
+        if (!persist(executionId, steps)) {
+            requeue(executionId, steps);
+        }
+    }
+
+    /**
+     * 取消待落库标记（执行实例已删除）
+     */
+    public void discard(String executionId) {
+        dirtyExecutions.remove(executionId);
+    }
+
+    /**
+     * 待落库的执行实例数
+     */
+    public int pendingCount() {
+        return dirtyExecutions.size();
+    }
+
+    /**
+     * 把 Redis 脏集合中的执行实例标记为全部步骤待落库
+     *
+     * @return 恢复的执行实例数
+     */
+    int recover() {
+        int recovered = 0;
+        for (String executionId : stateStore.dirtyExecutionIds()) {
+            markStepDirty(executionId, ALL_STEPS, true);
+            recovered++;
+        }
+        return recovered;
+    }
+
+    /**
+     * 写入一批脏数据
+     *
+     * @return 成功写入的数量
+     */
+    int flush() {
+        int batchSize = sagaProperties.getStateStore().getPersistBatchSize();
+        Map<String, Map<String, Boolean>> batch = new HashMap<>();
+        Iterator<String> iterator = dirtyExecutions.keySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            String executionId = iterator.next();
+            Map<String, Boolean> steps = dirtyExecutions.remove(executionId);
+            if (steps != null) {
+                batch.put(executionId, steps);
+            }
+        }
+
+        int persisted = 0;
+        for (Map.Entry<String, Map<String, Boolean>> entry : batch.entrySet()) {
+            if (persist(entry.getKey(), entry.getValue())) {
+                persisted++;
+            } else {
+                requeue(entry.getKey(), entry.getValue());
+            }
+        }
+        return persisted;
+    }
+
+    private void recoverSafely() {
+        try {
+            int recovered = recover();
+            if (recovered > 0) {
+                log.info("Recovered unpersisted saga states from Redis: count={}", recovered);
+            }
+        } catch (Exception e) {
+            log.error("Failed to recover unpersisted saga states from Redis", e);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            if (!dirtyExecutions.isEmpty()) {
+                flush();
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush saga state to MySQL", e);
+        }
+    }
+
+    private boolean persist(String executionId, Map<String, Boolean> dirtySteps) {
+        try {
+            // 先读取脏标记的 revision，快照不会比它旧
+            Long dirtyRevision = stateStore.dirtyRevision(executionId);
+            Optional<SagaExecution> snapshot = stateStore.load(executionId);
+            if (snapshot.isPresent()) {
+                SagaExecution sagaExecution = snapshot.get();
+                // 先写头信息，步骤记录依赖 saga_execution 外键
+                sagaExecutionRepository.saveSnapshot(sagaExecution);
+
+                boolean allSteps = dirtySteps.containsKey(ALL_STEPS);
+                List<StepExecution> transitions = new ArrayList<>();
+                for (StepExecution step : sagaExecution.getSteps()) {
+                    Boolean started = allSteps ? Boolean.TRUE : dirtySteps.get(step.getStepId().getValue());
+                    if (started == null) {
+                        continue;
+                    }
+                    if (!started) {
+                        step.setInputData(null);
+                    }
+                    transitions.add(step);
+                }
+                stepExecutionRepository.appendTransitions(transitions);
+            }
+            // 运行态已过期或被删除时无需落库，同样移除脏标记
+            if (dirtyRevision != null) {
+                stateStore.clearDirty(executionId, dirtyRevision);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to persist saga state, will retry: executionId={}", executionId, e);
+            return false;
+        }
+    }
+
+    private void requeue(String executionId, Map<String, Boolean> dirtySteps) {
+        dirtyExecutions.merge(executionId, dirtySteps, (current, failed) -> {
+            failed.forEach((stepId, started) -> current.merge(stepId, started, Boolean::logicalOr));
+            return current;
+        });
+    }
+}
@@ -3,14 +3,21 @@ package com.dms.liteflow.infrastructure.saga.state;
 import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
 import com.dms.liteflow.domain.saga.entity.StepExecution;
 import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.repository.StepExecutionRepository;
 import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.domain.saga.valueobject.SagaComponentMetadata;
 import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
 import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
 import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.saga.valueobject.StepStatus;
 import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
 import com.dms.liteflow.infrastructure.interceptor.TenantContext;
-import com.dms.liteflow.infrastructure.saga.redis.SagaDistributedLock;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.metadata.SagaComponentMetadataCache;
+import com.dms.liteflow.infrastructure.saga.redis.SagaAtomicStateStore;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
 import com.dms.liteflow.infrastructure.saga.redis.SagaRedisService;
+import com.dms.liteflow.infrastructure.saga.timeout.SagaTimeoutScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -18,13 +25,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 
 /**
  * Saga 状态管理服务实现
  * 提供 Redis + MySQL 混合存储的状态管理
+ * <p>
+ * 步骤迁移默认走 {@link SagaAtomicStateStore} 的 Lua 脚本（一次往返、无分布式锁），MySQL 由
+ * {@link SagaStatePersister} 异步落库；Redis 不可用或运行态缺失时回退到加锁读写 MySQL 的方式。
+ * 回退路径中，本节点持有 {@link SagaOwnershipLease} 租约时只做进程内同步，不再逐步加分布式锁。
+ * </p>
  *
  * @author DMS
  * @since 2026-02-03
@@ -35,47 +48,78 @@ import java.util.concurrent.TimeUnit;
 public class SagaStateServiceImpl implements SagaStateService {
 
     private final SagaExecutionRepository sagaExecutionRepository;
+    private final StepExecutionRepository stepExecutionRepository;
     private final SagaRedisService sagaRedisService;
-    private final SagaDistributedLock distributedLock;
-
-    private static final long LOCK_WAIT_TIME = 10L;
-    private static final long LOCK_LEASE_TIME = 30L;
+    private final SagaOwnershipLease ownershipLease;
+    private final SagaAtomicStateStore atomicStateStore;
+    private final SagaStatePersister statePersister;
+    private final SagaTimeoutScheduler timeoutScheduler;
+    private final SagaComponentMetadataCache metadataCache;
+    private final SagaProperties sagaProperties;
 
     @Override
     public void recordStepStart(SagaExecutionId executionId, StepId stepId, String componentName, Map<String, Object> inputData) {
-        String lockKey = executionId.getValue();
-        boolean locked = distributedLock.tryLock(lockKey, LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                TenantId tenantId = TenantContext.getTenantId();
+                if (tenantId == null) {
+                    throw new IllegalStateException("TenantId not found in context");
+                }
 
-        try {
+                StepExecution stepExecution = newStep(tenantId, executionId, stepId, componentName, inputData);
+                stepExecution.start();
+
+                long revision = atomicStateStore.startStep(
+                        executionId.getValue(), tenantId.getValue(), componentName, stepExecution);
+                if (revision == SagaAtomicStateStore.REJECTED) {
+                    log.warn("Step already recorded: executionId={}, stepId={}", executionId.getValue(), stepId.getValue());
+                    return;
+                }
+                statePersister.markStepDirty(executionId.getValue(), stepId.getValue(), true);
+
+                log.debug("Recorded step start: executionId={}, stepId={}, component={}, revision={}",
+                        executionId.getValue(), stepId.getValue(), componentName, revision);
+                return;
+            } catch (IllegalStateException e) {
+                throw new RuntimeException("Failed to record step start", e);
+            } catch (Exception e) {
+                fallbackOrThrow("record step start", executionId, e);
+            }
+        }
+        recordStepStartLocked(executionId, stepId, componentName, inputData);
+    }
+
+    private void recordStepStartLocked(SagaExecutionId executionId, StepId stepId, String componentName, Map<String, Object> inputData) {
+        try (SagaOwnershipLease.Guard guard = ownershipLease.guard(executionId.getValue())) {
             TenantId tenantId = TenantContext.getTenantId();
             if (tenantId == null) {
                 throw new IllegalStateException("TenantId not found in context");
             }
 
             // 获取或创建 SagaExecution
-            SagaExecution sagaExecution = sagaExecutionRepository.findByExecutionId(executionId)
+            Optional<SagaExecution> existing = sagaExecutionRepository.findByExecutionId(executionId);
+            SagaExecution sagaExecution = existing
                     .orElseGet(() -> {
                         SagaExecution newExecution = SagaExecution.create(tenantId, componentName, inputData);
+                        newExecution.setExecutionId(executionId);
                         return sagaExecutionRepository.save(newExecution);
                     });
 
             // 创建步骤执行记录
-            StepExecution stepExecution = StepExecution.create(
-                    executionId.getValue(),
-                    stepId,
-                    componentName,
-                    inputData,
-                    null, // compensateComponent 稍后设置
-                    false  // needsCompensation 稍后设置
-            );
+            StepExecution stepExecution = newStep(tenantId, executionId, stepId, componentName, inputData);
             stepExecution.start();
 
-            // 保存到数据库（同步，确保不丢失）
+            // 追加步骤迁移记录（同步，确保不丢失）
             sagaExecution.addStep(stepExecution);
-            sagaExecutionRepository.save(sagaExecution);
+            stepExecutionRepository.appendTransitions(List.of(stepExecution.toBuilder().build()));
 
-            // 异步保存到 Redis
-            saveToRedisAsync(tenantId.getValue(), executionId.getValue(), sagaExecution);
+            // 异步保存到 Redis：新建的执行实例整体写入，否则只写入新步骤和头信息
+            if (existing.isPresent()) {
+                saveStepToRedisAsync(tenantId.getValue(), executionId.getValue(), sagaExecution, stepExecution, false);
+            } else {
+                saveToRedisAsync(tenantId.getValue(), executionId.getValue(), sagaExecution);
+            }
 
             log.debug("Recorded step start: executionId={}, stepId={}, component={}",
                     executionId.getValue(), stepId.getValue(), componentName);
@@ -83,19 +127,35 @@ public class SagaStateServiceImpl implements SagaStateService {
         } catch (Exception e) {
             log.error("Failed to record step start: executionId={}, stepId={}", executionId.getValue(), stepId.getValue(), e);
             throw new RuntimeException("Failed to record step start", e);
-        } finally {
-            if (locked) {
-                distributedLock.unlock(lockKey);
-            }
         }
     }
 
     @Override
     public void recordStepSuccess(SagaExecutionId executionId, StepId stepId, Map<String, Object> outputData) {
-        String lockKey = executionId.getValue();
-        boolean locked = distributedLock.tryLock(lockKey, LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                long revision = atomicStateStore.completeStep(executionId.getValue(), stepId.getValue(), outputData);
+                if (revision == SagaAtomicStateStore.REJECTED) {
+                    log.warn("Step is not running: executionId={}, stepId={}", executionId.getValue(), stepId.getValue());
+                    return;
+                }
+                if (revision != SagaAtomicStateStore.NOT_FOUND) {
+                    statePersister.markStepDirty(executionId.getValue(), stepId.getValue(), false);
+                    log.debug("Recorded step success: executionId={}, stepId={}, revision={}",
+                            executionId.getValue(), stepId.getValue(), revision);
+                    return;
+                }
+                // 运行态不存在（已过期或由回退路径创建），按 MySQL 处理
+            } catch (Exception e) {
+                fallbackOrThrow("record step success", executionId, e);
+            }
+        }
+        recordStepSuccessLocked(executionId, stepId, outputData);
+    }
 
-        try {
+    private void recordStepSuccessLocked(SagaExecutionId executionId, StepId stepId, Map<String, Object> outputData) {
+        try (SagaOwnershipLease.Guard guard = ownershipLease.guard(executionId.getValue())) {
             TenantId tenantId = TenantContext.getTenantId();
 
             // 获取 SagaExecution
@@ -110,35 +170,53 @@ public class SagaStateServiceImpl implements SagaStateService {
             }
 
             step.complete(outputData);
-            sagaExecutionRepository.save(sagaExecution);
+            stepExecutionRepository.appendTransitions(List.of(transitionOf(step)));
 
-            // 如果需要补偿，加入执行栈
+            // 如果需要补偿，加入执行栈（MySQL 中执行栈由步骤记录推导，无需单独写入）
             if (step.needsCompensation()) {
                 sagaExecution.pushToStack(step);
-                sagaExecutionRepository.save(sagaExecution);
             }
 
-            // 异步更新 Redis
-            saveToRedisAsync(tenantId.getValue(), executionId.getValue(), sagaExecution);
+            // 异步更新 Redis（只写入该步骤、头信息和补偿栈）
+            saveStepToRedisAsync(tenantId.getValue(), executionId.getValue(), sagaExecution, step,
+                    step.needsCompensation());
 
             log.debug("Recorded step success: executionId={}, stepId={}", executionId.getValue(), stepId.getValue());
 
         } catch (Exception e) {
             log.error("Failed to record step success: executionId={}, stepId={}", executionId.getValue(), stepId.getValue(), e);
             throw new RuntimeException("Failed to record step success", e);
-        } finally {
-            if (locked) {
-                distributedLock.unlock(lockKey);
-            }
         }
     }
 
     @Override
     public void recordStepFailure(SagaExecutionId executionId, StepId stepId, String errorCode, String errorMessage, String stackTrace) {
-        String lockKey = executionId.getValue();
-        boolean locked = distributedLock.tryLock(lockKey, LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                long revision = atomicStateStore.failStep(
+                        executionId.getValue(), stepId.getValue(), errorCode, errorMessage, stackTrace);
+                if (revision == SagaAtomicStateStore.REJECTED) {
+                    log.warn("Step is not running: executionId={}, stepId={}", executionId.getValue(), stepId.getValue());
+                    return;
+                }
+                if (revision != SagaAtomicStateStore.NOT_FOUND) {
+                    // 失败数据必须持久化，同步落库
+                    statePersister.markStepDirty(executionId.getValue(), stepId.getValue(), false);
+                    statePersister.persistNow(executionId.getValue());
+                    log.error("Recorded step failure: executionId={}, stepId={}, errorCode={}",
+                            executionId.getValue(), stepId.getValue(), errorCode);
+                    return;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("record step failure", executionId, e);
+            }
+        }
+        recordStepFailureLocked(executionId, stepId, errorCode, errorMessage, stackTrace);
+    }
 
-        try {
+    private void recordStepFailureLocked(SagaExecutionId executionId, StepId stepId, String errorCode, String errorMessage, String stackTrace) {
+        try (SagaOwnershipLease.Guard guard = ownershipLease.guard(executionId.getValue())) {
             TenantId tenantId = TenantContext.getTenantId();
 
             // 获取 SagaExecution
@@ -156,10 +234,14 @@ public class SagaStateServiceImpl implements SagaStateService {
             sagaExecution.fail(errorMessage);
 
             // 同步保存到数据库（失败数据必须持久化）
+            stepExecutionRepository.appendTransitions(List.of(transitionOf(step)));
             sagaExecutionRepository.save(sagaExecution);
 
-            // 同步更新 Redis（失败信息需要实时）
-            sagaRedisService.saveExecution(tenantId.getValue(), executionId.getValue(), sagaExecution);
+            // 同步更新 Redis（失败信息需要实时），步骤与头信息一次提交
+            sagaRedisService.batch()
+                    .step(tenantId.getValue(), executionId.getValue(), step)
+                    .header(tenantId.getValue(), executionId.getValue(), sagaExecution)
+                    .flush();
 
             log.error("Recorded step failure: executionId={}, stepId={}, errorCode={}",
                     executionId.getValue(), stepId.getValue(), errorCode);
@@ -167,35 +249,63 @@ public class SagaStateServiceImpl implements SagaStateService {
         } catch (Exception e) {
             log.error("Failed to record step failure: executionId={}, stepId={}", executionId.getValue(), stepId.getValue(), e);
             throw new RuntimeException("Failed to record step failure", e);
-        } finally {
-            if (locked) {
-                distributedLock.unlock(lockKey);
+        }
+    }
+
+    @Override
+    public void recordStepCompensated(SagaExecutionId executionId, StepId stepId) {
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                long revision = atomicStateStore.compensateStep(executionId.getValue(), stepId.getValue());
+                if (revision == SagaAtomicStateStore.REJECTED) {
+                    log.warn("Step already compensated: executionId={}, stepId={}", executionId.getValue(), stepId.getValue());
+                    return;
+                }
+                if (revision != SagaAtomicStateStore.NOT_FOUND) {
+                    statePersister.markStepDirty(executionId.getValue(), stepId.getValue(), false);
+                    return;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("record step compensated", executionId, e);
+            }
+        }
+
+        try {
+            StepExecution step = stepExecutionRepository.findByExecutionId(executionId.getValue()).stream()
+                    .filter(candidate -> candidate.getStepId().equals(stepId))
+                    .findFirst()
+                    .orElse(null);
+            if (step == null) {
+                log.warn("Step not found: stepId={}", stepId.getValue());
+                return;
             }
+            if (step.isCompensated()) {
+                return;
+            }
+            step.compensate();
+            stepExecutionRepository.appendTransitions(List.of(transitionOf(step)));
+        } catch (Exception e) {
+            log.error("Failed to record step compensated: executionId={}, stepId={}", executionId.getValue(), stepId.getValue(), e);
+            throw new RuntimeException("Failed to record step compensated", e);
         }
     }
 
     @Override
     public List<StepExecution> getExecutionStack(SagaExecutionId executionId) {
         try {
-            TenantId tenantId = TenantContext.getTenantId();
-
-            // 先从 Redis 读取
-            List<StepExecution> stack = sagaRedisService.getExecutionStack(tenantId.getValue(), executionId.getValue());
-
-            if (stack == null || stack.isEmpty()) {
-                // Redis 未命中，从数据库加载
-                SagaExecution sagaExecution = sagaExecutionRepository.findByExecutionId(executionId)
-                        .orElse(null);
-                if (sagaExecution != null) {
-                    stack = sagaExecution.getExecutionStack();
-                    // 回写 Redis
-                    if (stack != null && !stack.isEmpty()) {
-                        sagaRedisService.saveExecutionStack(tenantId.getValue(), executionId.getValue(), stack);
-                    }
-                }
+            // 运行态优先，未命中时由步骤记录重建
+            SagaExecution sagaExecution = loadState(executionId)
+                    .or(() -> sagaExecutionRepository.findByExecutionId(executionId))
+                    .orElse(null);
+            if (sagaExecution == null || sagaExecution.getExecutionStack() == null) {
+                return new ArrayList<>();
             }
 
-            return stack != null ? stack : new ArrayList<>();
+            // 聚合根中栈底在前，补偿按相反顺序
+            List<StepExecution> stack = new ArrayList<>(sagaExecution.getExecutionStack());
+            Collections.reverse(stack);
+            return stack;
         } catch (Exception e) {
             log.error("Failed to get execution stack: executionId={}", executionId.getValue(), e);
             return new ArrayList<>();
@@ -204,10 +314,37 @@ public class SagaStateServiceImpl implements SagaStateService {
 
     @Override
     public boolean updateStatus(SagaExecutionId executionId, SagaStatus currentStatus, SagaStatus newStatus) {
-        String lockKey = executionId.getValue();
-        boolean locked = distributedLock.tryLock(lockKey, LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        if (atomicEnabled()) {
+            try {
+                long revision = atomicStateStore.compareAndSetStatus(executionId.getValue(), currentStatus, newStatus);
+                if (revision == SagaAtomicStateStore.REJECTED) {
+                    return false;
+                }
+                if (revision != SagaAtomicStateStore.NOT_FOUND) {
+                    statePersister.persistNow(executionId.getValue());
+                    untrackIfFinished(executionId, newStatus);
+                    return true;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("update status", executionId, e);
+            }
+        }
+        boolean updated = updateStatusLocked(executionId, currentStatus, newStatus);
+        if (updated) {
+            untrackIfFinished(executionId, newStatus);
+        }
+        return updated;
+    }
 
-        try {
+    private void untrackIfFinished(SagaExecutionId executionId, SagaStatus newStatus) {
+        TenantId tenantId = TenantContext.getTenantId();
+        if (newStatus != SagaStatus.RUNNING && tenantId != null) {
+            timeoutScheduler.untrack(tenantId.getValue(), executionId.getValue());
+        }
+    }
+
+    private boolean updateStatusLocked(SagaExecutionId executionId, SagaStatus currentStatus, SagaStatus newStatus) {
+        try (SagaOwnershipLease.Guard guard = ownershipLease.guard(executionId.getValue())) {
             boolean updated = sagaExecutionRepository.updateStatus(executionId, currentStatus, newStatus, null);
 
             if (updated) {
@@ -215,20 +352,21 @@ public class SagaStateServiceImpl implements SagaStateService {
                 TenantId tenantId = TenantContext.getTenantId();
                 SagaExecution sagaExecution = sagaExecutionRepository.findByExecutionId(executionId).orElse(null);
                 if (sagaExecution != null) {
-                    sagaRedisService.saveExecution(tenantId.getValue(), executionId.getValue(), sagaExecution);
+                    sagaRedisService.saveHeader(tenantId.getValue(), executionId.getValue(), sagaExecution);
                 }
             }
 
             return updated;
-        } finally {
-            if (locked) {
-                distributedLock.unlock(lockKey);
-            }
         }
     }
 
     @Override
     public SagaExecution getExecution(SagaExecutionId executionId) {
+        Optional<SagaExecution> state = loadState(executionId);
+        if (state.isPresent()) {
+            return state.get();
+        }
+
         try {
             TenantId tenantId = TenantContext.getTenantId();
 
@@ -257,9 +395,22 @@ public class SagaStateServiceImpl implements SagaStateService {
             // 先保存到数据库
             SagaExecution saved = sagaExecutionRepository.save(sagaExecution);
 
-            // 异步更新 Redis
-            TenantId tenantId = sagaExecution.getTenantId();
-            saveToRedisAsync(tenantId.getValue(), sagaExecution.getExecutionId().getValue(), saved);
+            // 开始运行时登记超时截止时间，结束时移除
+            timeoutScheduler.onStatusChanged(saved);
+
+            if (atomicEnabled()) {
+                // 同步运行态头信息，步骤与补偿栈保持不变
+                try {
+                    atomicStateStore.writeHeader(saved);
+                } catch (Exception e) {
+                    log.warn("Failed to write saga state header: executionId={}",
+                            sagaExecution.getExecutionId().getValue(), e);
+                }
+            } else {
+                // 异步更新 Redis
+                TenantId tenantId = sagaExecution.getTenantId();
+                saveToRedisAsync(tenantId.getValue(), sagaExecution.getExecutionId().getValue(), saved);
+            }
 
             return saved;
         } catch (Exception e) {
@@ -268,6 +419,38 @@ public class SagaStateServiceImpl implements SagaStateService {
         }
     }
 
+    @Override
+    public void saveStep(SagaExecutionId executionId, StepExecution stepExecution) {
+        ownershipLease.checkNotFenced(executionId.getValue());
+        String stepId = stepExecution.getStepId().getValue();
+        boolean pushToStack = stepExecution.getStatus() == StepStatus.COMPLETED && stepExecution.needsCompensation();
+        if (atomicEnabled()) {
+            try {
+                long revision = atomicStateStore.writeStep(executionId.getValue(), stepExecution, pushToStack);
+                if (revision != SagaAtomicStateStore.NOT_FOUND) {
+                    // 人工操作的结果同步落库，迁移记录携带（可能被替换的）输入数据
+                    statePersister.markStepDirty(executionId.getValue(), stepId, true);
+                    statePersister.persistNow(executionId.getValue());
+                    log.debug("Saved step: executionId={}, stepId={}, status={}, revision={}",
+                            executionId.getValue(), stepId, stepExecution.getStatus(), revision);
+                    return;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("save step", executionId, e);
+            }
+        }
+
+        try (SagaOwnershipLease.Guard guard = ownershipLease.guard(executionId.getValue())) {
+            // MySQL 中执行栈由步骤记录推导，追加迁移记录即可；Redis 缓存随后由 saveExecution 整体刷新
+            stepExecutionRepository.appendTransitions(List.of(stepExecution.toBuilder().build()));
+            log.debug("Saved step: executionId={}, stepId={}, status={}",
+                    executionId.getValue(), stepId, stepExecution.getStatus());
+        } catch (Exception e) {
+            log.error("Failed to save step: executionId={}, stepId={}", executionId.getValue(), stepId, e);
+            throw new RuntimeException("Failed to save step", e);
+        }
+    }
+
     @Override
     public void deleteExecution(SagaExecutionId executionId) {
         try {
@@ -279,8 +462,10 @@ public class SagaStateServiceImpl implements SagaStateService {
 
             // 从 Redis 删除
             TenantId tenantId = TenantContext.getTenantId();
+            statePersister.discard(executionId.getValue());
+            timeoutScheduler.untrack(tenantId.getValue(), executionId.getValue());
+            atomicStateStore.delete(executionId.getValue());
             sagaRedisService.deleteExecution(tenantId.getValue(), executionId.getValue());
-            sagaRedisService.deleteExecutionStack(tenantId.getValue(), executionId.getValue());
 
         } catch (Exception e) {
             log.error("Failed to delete execution: executionId={}", executionId.getValue(), e);
@@ -290,17 +475,34 @@ public class SagaStateServiceImpl implements SagaStateService {
 
     @Override
     public void pushToStack(SagaExecutionId executionId, StepExecution stepExecution) {
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                if (atomicStateStore.pushToStack(executionId.getValue(), stepExecution) != SagaAtomicStateStore.NOT_FOUND) {
+                    statePersister.markStepDirty(executionId.getValue(), stepExecution.getStepId().getValue(), false);
+                    return;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("push to stack", executionId, e);
+            }
+        }
+
         try {
             TenantId tenantId = TenantContext.getTenantId();
             SagaExecution sagaExecution = sagaExecutionRepository.findByExecutionId(executionId)
                     .orElseThrow(() -> new RuntimeException("SagaExecution not found: " + executionId.getValue()));
 
+            // MySQL 中执行栈由步骤记录推导：追加一条需要补偿的迁移记录
             sagaExecution.pushToStack(stepExecution);
-            sagaExecutionRepository.save(sagaExecution);
+            stepExecutionRepository.appendTransitions(List.of(
+                    transitionOf(stepExecution).toBuilder().needsCompensation(true).build()));
 
             // 更新 Redis
-            sagaRedisService.saveExecutionStack(tenantId.getValue(), executionId.getValue(),
-                    sagaExecution.getExecutionStack());
+            StepExecution pushed = stepExecution.toBuilder().needsCompensation(true).build();
+            sagaRedisService.batch()
+                    .step(tenantId.getValue(), executionId.getValue(), pushed)
+                    .stack(tenantId.getValue(), executionId.getValue(), sagaExecution.getExecutionStack())
+                    .flush();
 
         } catch (Exception e) {
             log.error("Failed to push to stack: executionId={}, stepId={}",
@@ -311,17 +513,39 @@ public class SagaStateServiceImpl implements SagaStateService {
 
     @Override
     public StepExecution popFromStack(SagaExecutionId executionId) {
+        ownershipLease.checkNotFenced(executionId.getValue());
+        if (atomicEnabled()) {
+            try {
+                Optional<StepExecution> step = atomicStateStore.popFromStack(executionId.getValue());
+                if (step.isPresent()) {
+                    statePersister.markStepDirty(executionId.getValue(), step.get().getStepId().getValue(), false);
+                    return step.get();
+                }
+                if (loadState(executionId).isPresent()) {
+                    return null;
+                }
+            } catch (Exception e) {
+                fallbackOrThrow("pop from stack", executionId, e);
+            }
+        }
+
         try {
             TenantId tenantId = TenantContext.getTenantId();
             SagaExecution sagaExecution = sagaExecutionRepository.findByExecutionId(executionId)
                     .orElseThrow(() -> new RuntimeException("SagaExecution not found: " + executionId.getValue()));
 
+            // 弹出即记录补偿时间，推导出的执行栈不再包含该步骤
             StepExecution step = sagaExecution.popFromStack();
             if (step != null) {
-                sagaExecutionRepository.save(sagaExecution);
+                if (!step.isCompensated()) {
+                    step.compensate();
+                }
+                stepExecutionRepository.appendTransitions(List.of(transitionOf(step)));
                 // 更新 Redis
-                sagaRedisService.saveExecutionStack(tenantId.getValue(), executionId.getValue(),
-                        sagaExecution.getExecutionStack());
+                sagaRedisService.batch()
+                        .step(tenantId.getValue(), executionId.getValue(), step)
+                        .stack(tenantId.getValue(), executionId.getValue(), sagaExecution.getExecutionStack())
+                        .flush();
             }
 
             return step;
@@ -331,6 +555,83 @@ public class SagaStateServiceImpl implements SagaStateService {
         }
     }
 
+    /**
+     * 按组件元数据创建步骤（补偿组件、是否需要补偿）
+     */
+    private StepExecution newStep(TenantId tenantId, SagaExecutionId executionId, StepId stepId,
+                                  String componentName, Map<String, Object> inputData) {
+        Optional<SagaComponentMetadata> metadata = metadataCache.get(tenantId.getValue(), componentName);
+        return StepExecution.create(
+                executionId.getValue(),
+                stepId,
+                componentName,
+                inputData,
+                metadata.map(SagaComponentMetadata::getCompensateComponent).orElse(null),
+                metadata.map(SagaComponentMetadata::needsCompensation).orElse(false)
+        );
+    }
+
+    /**
+     * 步骤迁移记录：输入数据只随步骤开始的首条记录写入
+     */
+    private StepExecution transitionOf(StepExecution step) {
+        return step.toBuilder().inputData(null).build();
+    }
+
+    /**
+     * 读取 Redis 运行态，未启用或读取失败时返回空
+     */
+    private Optional<SagaExecution> loadState(SagaExecutionId executionId) {
+        if (!atomicEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            return atomicStateStore.load(executionId.getValue());
+        } catch (Exception e) {
+            log.warn("Failed to load saga state from Redis: executionId={}", executionId.getValue(), e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean atomicEnabled() {
+        return Boolean.TRUE.equals(sagaProperties.getStateStore().getLuaEnabled());
+    }
+
+    /**
+     * Redis 脚本执行失败：允许降级时回退到加锁读写 MySQL，否则抛出；租约已被接管时直接抛出
+     */
+    private void fallbackOrThrow(String operation, SagaExecutionId executionId, Exception e) {
+        if (e instanceof SagaAtomicStateStore.FencedException fenced) {
+            log.warn("Saga state update fenced: operation={}, executionId={}", operation, executionId.getValue());
+            throw fenced;
+        }
+        if (!Boolean.TRUE.equals(sagaProperties.getRedisFallbackEnabled())) {
+            log.error("Failed to {}: executionId={}", operation, executionId.getValue(), e);
+            throw new RuntimeException("Failed to " + operation, e);
+        }
+        log.warn("Saga state script failed, falling back to MySQL: operation={}, executionId={}",
+                operation, executionId.getValue(), e);
+    }
+
+    /**
+     * 异步保存单个步骤的迁移到 Redis（步骤 field、头信息，以及可选的补偿栈），一次流水线提交
+     */
+    @Async
+    protected void saveStepToRedisAsync(Long tenantId, String executionId, SagaExecution sagaExecution,
+                                        StepExecution step, boolean stackChanged) {
+        try {
+            SagaRedisService.WriteBatch batch = sagaRedisService.batch()
+                    .step(tenantId, executionId, step)
+                    .header(tenantId, executionId, sagaExecution);
+            if (stackChanged) {
+                batch.stack(tenantId, executionId, sagaExecution.getExecutionStack());
+            }
+            batch.flush();
+        } catch (Exception e) {
+            log.warn("Failed to save step to Redis asynchronously: executionId={}", executionId, e);
+        }
+    }
+
     /**
      * 异步保存到 Redis
      */
@@ -0,0 +1,245 @@
+package com.dms.liteflow.infrastructure.saga.timeout;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.domain.saga.valueobject.SagaExecutionId;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.interceptor.TenantContext;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.redis.SagaDeadlineIndex;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga 超时调度器
+ * <p>
+ * 执行进入 RUNNING 时登记到 {@link SagaDeadlineIndex}，同时在本节点的时间轮上挂一个定时器，
+ * 到期后抢占索引成员并把执行标记为超时失败，超时在截止时间后一个刻度内触发；执行结束时取消定时器并移除索引。
+ * 其他节点（包括已宕机节点）启动的执行由周期扫描 {@link #sweepExpired()} 兜底，只读取已到期的索引成员。
+ * 抢占会移除索引成员，处理失败时以 retryBackoffMs 后的截止时间重新登记，避免超时因一次失败而丢失。
+ * </p>
+ *
+ * @author DMS
+ * @since 2026-02-03
+ */
+@Slf4j
+@Component
+public class SagaTimeoutScheduler {
+
+    private static final String TIMEOUT_REASON = "Execution timeout";
+
+    private final SagaDeadlineIndex deadlineIndex;
+    private final ObjectProvider<SagaStateService> sagaStateServiceProvider;
+    private final SagaProperties sagaProperties;
+
+    /**
+     * 本节点登记的定时器，executionId -> 定时器
+     */
+    private final Map<String, Timeout> localTimers = new ConcurrentHashMap<>();
+
+    private HashedWheelTimer wheelTimer;
+    private ScheduledExecutorService sweeper;
+
+    public SagaTimeoutScheduler(SagaDeadlineIndex deadlineIndex,
+                                ObjectProvider<SagaStateService> sagaStateServiceProvider,
+                                SagaProperties sagaProperties) {
+        this.deadlineIndex = deadlineIndex;
+        this.sagaStateServiceProvider = sagaStateServiceProvider;
+        this.sagaProperties = sagaProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        SagaProperties.Deadline config = sagaProperties.getDeadline();
+        wheelTimer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "saga-timeout-wheel");
+            thread.setDaemon(true);
+            return thread;
+        }, config.getTickMs(), TimeUnit.MILLISECONDS, config.getWheelSize());
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-timeout-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepSafely, config.getSweepIntervalMs(),
+                config.getSweepIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("Saga timeout scheduler started: tickMs={}, wheelSize={}, sweepIntervalMs={}",
+                config.getTickMs(), config.getWheelSize(), config.getSweepIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        if (wheelTimer != null) {
+            // 未触发的定时器随节点退出丢弃，截止时间仍在索引中，由其他节点扫描处理
+            wheelTimer.stop();
+        }
+        localTimers.clear();
+    }
+
+    /**
+     * 执行状态变化后更新超时登记：RUNNING 时登记，其他状态移除
+     */
+    public void onStatusChanged(SagaExecution sagaExecution) {
+        if (sagaExecution == null || sagaExecution.getExecutionId() == null || sagaExecution.getTenantId() == null) {
+            return;
+        }
+        if (sagaExecution.getStatus() == SagaStatus.RUNNING) {
+            track(sagaExecution);
+        } else {
+            untrack(sagaExecution.getTenantId().getValue(), sagaExecution.getExecutionId().getValue());
+        }
+    }
+
+    /**
+     * 登记执行截止时间：startedAt + defaultTimeoutMs
+     */
+    public void track(SagaExecution sagaExecution) {
+        Long tenantId = sagaExecution.getTenantId().getValue();
+        String executionId = sagaExecution.getExecutionId().getValue();
+        if (localTimers.containsKey(executionId)) {
+            return;
+        }
+
+        long deadline = deadlineOf(sagaExecution);
+        try {
+            deadlineIndex.register(tenantId, executionId, deadline);
+        } catch (Exception e) {
+            log.warn("Failed to register saga deadline: executionId={}", executionId, e);
+        }
+
+        long delay = Math.max(0, deadline - System.currentTimeMillis());
+        Timeout timeout = wheelTimer.newTimeout(ignored -> {
+            localTimers.remove(executionId);
+            // 时间轮线程只负责触发，读写状态交给扫描线程，避免阻塞后续刻度
+            sweeper.execute(() -> {
+                // 抢占成功才处理，执行已结束或其他节点已处理时索引中已无该成员
+                if (deadlineIndex.claim(tenantId, executionId)) {
+                    handleTimeout(tenantId, executionId);
+                }
+            });
+        }, delay, TimeUnit.MILLISECONDS);
+        localTimers.put(executionId, timeout);
+    }
+
+    /**
+     * 移除执行的超时登记
+     */
+    public void untrack(Long tenantId, String executionId) {
+        Timeout timeout = localTimers.remove(executionId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        try {
+            deadlineIndex.remove(tenantId, executionId);
+        } catch (Exception e) {
+            log.warn("Failed to remove saga deadline: executionId={}", executionId, e);
+        }
+    }
+
+    /**
+     * 处理索引中所有已到期的执行
+     *
+     * @return 标记为超时的执行数
+     */
+    public int sweepExpired() {
+        int batchSize = sagaProperties.getDeadline().getSweepBatchSize();
+        int timedOut = 0;
+        List<String> members;
+        do {
+            members = deadlineIndex.claimExpired(System.currentTimeMillis(), batchSize);
+            for (String member : members) {
+                int separator = member.indexOf(':');
+                if (separator <= 0) {
+                    log.warn("Malformed saga deadline member: {}", member);
+                    continue;
+                }
+                Long tenantId = Long.valueOf(member.substring(0, separator));
+                String executionId = member.substring(separator + 1);
+                Timeout timeout = localTimers.remove(executionId);
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                if (handleTimeout(tenantId, executionId)) {
+                    timedOut++;
+                }
+            }
+        } while (members.size() >= batchSize);
+        return timedOut;
+    }
+
+    /**
+     * 本节点登记的定时器数
+     */
+    public int localTimerCount() {
+        return localTimers.size();
+    }
+
+    private void sweepSafely() {
+        try {
+            int timedOut = sweepExpired();
+            if (timedOut > 0) {
+                log.info("Saga timeout sweep marked {} executions as timed out", timedOut);
+            }
+        } catch (Exception e) {
+            log.error("Saga timeout sweep failed", e);
+        }
+    }
+
+    private boolean handleTimeout(Long tenantId, String executionId) {
+        TenantContext.setTenantId(TenantId.of(tenantId));
+        try {
+            SagaStateService sagaStateService = sagaStateServiceProvider.getObject();
+            SagaExecution sagaExecution = sagaStateService.getExecution(SagaExecutionId.of(executionId));
+            if (sagaExecution == null || sagaExecution.getStatus() != SagaStatus.RUNNING) {
+                return false;
+            }
+            sagaExecution.fail(TIMEOUT_REASON);
+            sagaStateService.saveExecution(sagaExecution);
+            log.warn("Marked execution as timeout: {}, started at: {}", executionId, sagaExecution.getStartedAt());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to handle saga timeout, retrying later: executionId={}", executionId, e);
+            retryLater(tenantId, executionId);
+            return false;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * 抢占后处理失败，重新登记到索引，退避后由任一节点的扫描再次处理
+     */
+    private void retryLater(Long tenantId, String executionId) {
+        long retryAt = System.currentTimeMillis() + sagaProperties.getDeadline().getRetryBackoffMs();
+        try {
+            deadlineIndex.register(tenantId, executionId, retryAt);
+        } catch (Exception e) {
+            log.error("Failed to re-register saga deadline: executionId={}", executionId, e);
+        }
+    }
+
+    private long deadlineOf(SagaExecution sagaExecution) {
+        LocalDateTime startedAt = sagaExecution.getStartedAt() != null ? sagaExecution.getStartedAt() : LocalDateTime.now();
+        return startedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + sagaProperties.getDefaultTimeoutMs();
+    }
+}
@@ -0,0 +1,103 @@
+package com.dms.liteflow.infrastructure.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * NearCacheManager 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class NearCacheManagerTest {
+
+    private static final String CACHE_NAME = "chainConfig";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ConcurrentMapCacheManager redisCacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+    private NearCacheManager nearCacheManager;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        nearCacheManager = new NearCacheManager(redisCacheManager, redisTemplate, Set.of(CACHE_NAME),
+                100, null, 0L);
+        cache = nearCacheManager.getCache(CACHE_NAME);
+    }
+
+    @Test
+    void testMissedBroadcastBeforeLaterOneClearsLocalEntries() {
+        // Given: 本地已缓存 k，另一节点修改了 k 但广播（版本 2）丢失
+        when(valueOperations.get(NearCacheManager.VERSION_KEY)).thenReturn("3");
+        cache.put("k", "v1");
+        redisCacheManager.getCache(CACHE_NAME).put("k", "v2");
+
+        // When: 之后的广播照常到达
+        nearCacheManager.onMessage(message(1, "other"), null);
+        nearCacheManager.onMessage(message(3, "other"), null);
+
+        // Then: 最大版本号已是 3，但水位停在 1，核对版本号时清空本地条目
+        assertThat(nearCacheManager.appliedVersion()).isEqualTo(1);
+        assertThat(cache.get("k").get()).isEqualTo("v2");
+        assertThat(nearCacheManager.appliedVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void testOutOfOrderBroadcastsKeepLocalEntries() {
+        // Given
+        when(valueOperations.get(NearCacheManager.VERSION_KEY)).thenReturn("2");
+        cache.put("k", "v1");
+        redisCacheManager.getCache(CACHE_NAME).put("k", "v2");
+
+        // When: 两个节点并发清除，2 先于 1 到达
+        nearCacheManager.onMessage(message(2, "other"), null);
+        nearCacheManager.onMessage(message(1, "other"), null);
+
+        // Then: 没有缺口，本地条目保留
+        assertThat(nearCacheManager.appliedVersion()).isEqualTo(2);
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+    }
+
+    @Test
+    void testLocalHitReturnsCopy() {
+        // Given
+        when(valueOperations.get(NearCacheManager.VERSION_KEY)).thenReturn("0");
+        List<String> value = new ArrayList<>(List.of("a"));
+        cache.put("k", value);
+        value.add("changed-after-put");
+
+        // When: 调用方修改命中的值
+        @SuppressWarnings("unchecked")
+        List<String> hit = (List<String>) cache.get("k").get();
+        hit.add("changed-after-get");
+
+        // Then
+        assertThat(cache.get("k").get()).isEqualTo(List.of("a"));
+    }
+
+    private DefaultMessage message(long version, String nodeId) {
+        String body = nodeId + "|" + version + "|" + CACHE_NAME + "|other-key";
+        return new DefaultMessage(NearCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
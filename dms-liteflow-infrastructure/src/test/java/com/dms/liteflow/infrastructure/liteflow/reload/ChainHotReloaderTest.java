@@ -0,0 +1,288 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.infrastructure.persistence.entity.FlowChainEntity;
+import com.yomahub.liteflow.flow.element.Chain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ChainHotReloader 单元测试
+ */
+class ChainHotReloaderTest {
+
+    private RecordingRuntime runtime;
+    private ChainHotReloader reloader;
+
+    @BeforeEach
+    void setUp() {
+        runtime = new RecordingRuntime();
+        reloader = new ChainHotReloader(100, runtime);
+    }
+
+    @Test
+    void testUnchangedChainIsNotRecompiled() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("orderChain", "THEN(a, b)"));
+        Map<String, String> versions = Map.of("a", "v1", "b", "v1");
+        reloader.reloadTenant(1L, chains, versions);
+
+        // When
+        ChainReloadResult result = reloader.reloadTenant(1L, chains, versions);
+
+        // Then
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getRecompiled()).isZero();
+        assertThat(runtime.compiled).containsExactly("t1__orderChain");
+    }
+
+    @Test
+    void testComponentVersionChangeRecompiles() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("orderChain", "THEN(a, b)"), chain("otherChain", "THEN(c)"));
+        reloader.reloadTenant(1L, chains, Map.of("a", "v1", "b", "v1", "c", "v1"));
+        runtime.compiled.clear();
+
+        // When: 只有 orderChain 引用的组件 a 发布了新版本
+        ChainReloadResult result = reloader.reloadTenant(1L, chains, Map.of("a", "v2", "b", "v1", "c", "v1"));
+
+        // Then
+        assertThat(result.getRecompiled()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(runtime.compiled).containsExactly("t1__orderChain");
+    }
+
+    @Test
+    void testValidationIsSharedAcrossTenants() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("orderChain", "THEN(a, b)"));
+        Map<String, String> versions = Map.of("a", "v1", "b", "v1");
+
+        // When: 两个租户的 EL 和组件版本相同
+        reloader.reloadTenant(1L, chains, versions);
+        reloader.reloadTenant(2L, chains, versions);
+
+        // Then: 编译键相同只校验一次，但各租户各自注册
+        assertThat(runtime.validated).hasSize(1);
+        assertThat(runtime.compiled).containsExactly("t1__orderChain", "t2__orderChain");
+    }
+
+    @Test
+    void testSubChainReloadRebindsDependentChain() {
+        // Given: mainChain 引用子流程链 subChain，引用方排在前面
+        reloader.reloadTenant(1L, List.of(chain("mainChain", "THEN(a, subChain)"), chain("subChain", "THEN(b)")),
+                Map.of("a", "v1", "b", "v1"));
+        assertThat(runtime.compiled).containsExactly("t1__subChain", "t1__mainChain");
+        assertThat(runtime.els.get("t1__mainChain")).isEqualTo("THEN(a, t1__subChain)");
+        runtime.compiled.clear();
+
+        // When: 只修改子流程链
+        ChainReloadResult result = reloader.reloadChain(1L, "subChain", chain("subChain", "THEN(b, a)"),
+                Map.of("a", "v1", "b", "v1"));
+
+        // Then: 引用方的编译键未变，但须重新绑定新的子流程链对象，且先子后父
+        assertThat(result.getRecompiled()).isEqualTo(2);
+        assertThat(runtime.compiled).containsExactly("t1__subChain", "t1__mainChain");
+    }
+
+    @Test
+    void testUnloadedTenantIsRestoredFromCompiledCache() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("mainChain", "THEN(a, subChain)"), chain("subChain", "THEN(b)"));
+        Map<String, String> versions = Map.of("a", "v1", "b", "v1");
+        reloader.reloadTenant(1L, chains, versions);
+        Chain mainChain = runtime.getChain("t1__mainChain");
+
+        // When
+        int unloaded = reloader.unloadTenant(1L);
+        ChainReloadResult result = reloader.reloadTenant(1L, chains, versions);
+
+        // Then: 编译键和子流程链均未变化，直接放回而不重新编译
+        assertThat(unloaded).isEqualTo(2);
+        assertThat(result.getReused()).isEqualTo(2);
+        assertThat(result.getRecompiled()).isZero();
+        assertThat(runtime.compiled).hasSize(2);
+        assertThat(runtime.getChain("t1__mainChain")).isSameAs(mainChain);
+        assertThat(reloader.loadedChainNames(1L)).containsExactlyInAnyOrder("mainChain", "subChain");
+    }
+
+    @Test
+    void testInvalidElKeepsPreviousDefinition() {
+        // Given
+        reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a)")), Map.of("a", "v1"));
+        Chain previous = runtime.getChain("t1__orderChain");
+
+        // When
+        ChainReloadResult result = reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a, INVALID")),
+                Map.of("a", "v1"));
+
+        // Then
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(runtime.getChain("t1__orderChain")).isSameAs(previous);
+        assertThat(reloader.isCurrent(1L, "orderChain", ChainHotReloader.contentHash("THEN(a)"))).isTrue();
+    }
+
+    @Test
+    void testElChangeRecompilesOnlyThatChain() {
+        // Given
+        Map<String, String> versions = Map.of("a", "v1", "b", "v1");
+        reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a)"), chain("otherChain", "THEN(b)")), versions);
+        Chain other = runtime.getChain("t1__otherChain");
+        runtime.compiled.clear();
+
+        // When
+        ChainReloadResult result = reloader.reloadTenant(1L,
+                List.of(chain("orderChain", "THEN(a, b)"), chain("otherChain", "THEN(b)")), versions);
+
+        // Then
+        assertThat(result.getRecompiled()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(runtime.compiled).containsExactly("t1__orderChain");
+        assertThat(runtime.getChain("t1__otherChain")).isSameAs(other);
+        assertThat(reloader.isCurrent(1L, "orderChain", ChainHotReloader.contentHash("THEN(a, b)"))).isTrue();
+    }
+
+    @Test
+    void testUnpublishedChainIsRemovedOnTenantReload() {
+        // Given
+        Map<String, String> versions = Map.of("a", "v1", "b", "v1");
+        reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a)"), chain("otherChain", "THEN(b)")), versions);
+        reloader.reloadTenant(2L, List.of(chain("otherChain", "THEN(b)")), versions);
+
+        // When: 租户 1 下线 otherChain
+        ChainReloadResult result = reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a)")), versions);
+
+        // Then: 只移除租户 1 的流程链
+        assertThat(result.getRemoved()).isEqualTo(1);
+        assertThat(runtime.getChain("t1__otherChain")).isNull();
+        assertThat(runtime.getChain("t2__otherChain")).isNotNull();
+        assertThat(reloader.loadedChainNames(1L)).containsExactly("orderChain");
+    }
+
+    @Test
+    void testDisabledChainIsRemovedOnSingleChainReload() {
+        // Given
+        reloader.reloadTenant(1L, List.of(chain("orderChain", "THEN(a)")), Map.of("a", "v1"));
+        FlowChainEntity disabled = chain("orderChain", "THEN(a)");
+        disabled.setChainEnable(0);
+
+        // When
+        ChainReloadResult result = reloader.reloadChain(1L, "orderChain", disabled, Map.of("a", "v1"));
+
+        // Then
+        assertThat(result.getRemoved()).isEqualTo(1);
+        assertThat(runtime.getChain("t1__orderChain")).isNull();
+        assertThat(reloader.loadedChainCount()).isZero();
+    }
+
+    @Test
+    void testNewlyPublishedSiblingChangesCompileKey() {
+        // Given: sub 尚未发布，mainChain 中的 sub 按组件处理
+        Map<String, String> versions = Map.of("a", "v1", "sub", "v1");
+        reloader.reloadTenant(1L, List.of(chain("mainChain", "THEN(a, sub)")), versions);
+        assertThat(runtime.els.get("t1__mainChain")).isEqualTo("THEN(a, sub)");
+        runtime.compiled.clear();
+
+        // When: 同名流程链 sub 发布
+        ChainReloadResult result = reloader.reloadTenant(1L,
+                List.of(chain("mainChain", "THEN(a, sub)"), chain("sub", "THEN(a)")), versions);
+
+        // Then: EL 未变但引用从组件变为子流程链，编译键变化，改写为带租户前缀的引用
+        assertThat(result.getRecompiled()).isEqualTo(2);
+        assertThat(runtime.compiled).containsExactly("t1__sub", "t1__mainChain");
+        assertThat(runtime.els.get("t1__mainChain")).isEqualTo("THEN(a, t1__sub)");
+    }
+
+    @Test
+    void testCompiledCacheIsBypassedWhenComponentVersionChanges() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("orderChain", "THEN(a)"));
+        reloader.reloadTenant(1L, chains, Map.of("a", "v1"));
+        Chain cached = runtime.getChain("t1__orderChain");
+        reloader.unloadTenant(1L);
+
+        // When: 租户卸载期间组件 a 发布了新版本
+        ChainReloadResult result = reloader.reloadTenant(1L, chains, Map.of("a", "v2"));
+
+        // Then: 编译键变化，不复用编译缓存
+        assertThat(result.getReused()).isZero();
+        assertThat(result.getRecompiled()).isEqualTo(1);
+        assertThat(runtime.getChain("t1__orderChain")).isNotSameAs(cached);
+    }
+
+    @Test
+    void testChainReplacedOutsideReloaderIsRecompiled() {
+        // Given
+        List<FlowChainEntity> chains = List.of(chain("orderChain", "THEN(a)"));
+        Map<String, String> versions = Map.of("a", "v1");
+        reloader.reloadTenant(1L, chains, versions);
+
+        // When: FlowBus 中的流程链被移除（如 LiteFlow 全量刷新）
+        runtime.removeChain("t1__orderChain");
+        ChainReloadResult result = reloader.reloadTenant(1L, chains, versions);
+
+        // Then: 编译键未变但已不在 FlowBus 中，从编译缓存放回
+        assertThat(result.getUnchanged()).isZero();
+        assertThat(result.getReused()).isEqualTo(1);
+        assertThat(runtime.getChain("t1__orderChain")).isNotNull();
+    }
+
+    private static FlowChainEntity chain(String chainName, String chainCode) {
+        return FlowChainEntity.builder()
+                .chainName(chainName)
+                .chainCode(chainCode)
+                .status("PUBLISHED")
+                .build();
+    }
+
+    /**
+     * 记录编译和校验调用的 FlowBus 替身，包含 INVALID 的 EL 校验不通过
+     */
+    private static class RecordingRuntime implements ChainHotReloader.ChainRuntime {
+
+        private final Map<String, Chain> chains = new HashMap<>();
+        private final Map<String, String> els = new HashMap<>();
+        private final List<String> compiled = new ArrayList<>();
+        private final List<String> validated = new ArrayList<>();
+        private final Map<Chain, String> chainIds = new IdentityHashMap<>();
+
+        @Override
+        public boolean validate(String el) {
+            validated.add(el);
+            return !el.contains("INVALID");
+        }
+
+        @Override
+        public Chain compile(String chainId, String el) {
+            compiled.add(chainId);
+            els.put(chainId, el);
+            Chain chain = mock(Chain.class);
+            chains.put(chainId, chain);
+            chainIds.put(chain, chainId);
+            return chain;
+        }
+
+        @Override
+        public Chain getChain(String chainId) {
+            return chains.get(chainId);
+        }
+
+        @Override
+        public void addChain(Chain chain) {
+            chains.put(chainIds.get(chain), chain);
+        }
+
+        @Override
+        public void removeChain(String chainId) {
+            chains.remove(chainId);
+        }
+    }
+}
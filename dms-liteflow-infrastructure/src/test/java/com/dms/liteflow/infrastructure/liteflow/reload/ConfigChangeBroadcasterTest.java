@@ -0,0 +1,138 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.infrastructure.liteflow.FlowConfigService;
+import com.dms.liteflow.infrastructure.liteflow.service.MultiTenantFlowRuleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConfigChangeBroadcaster 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ConfigChangeBroadcasterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ChainHotReloader chainHotReloader;
+
+    @Mock
+    private FlowConfigService flowConfigService;
+
+    @Mock
+    private ObjectProvider<MultiTenantFlowRuleService> flowRuleServiceProvider;
+
+    @Mock
+    private MultiTenantFlowRuleService flowRuleService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(flowRuleServiceProvider.getIfAvailable()).thenReturn(flowRuleService);
+        lenient().when(chainHotReloader.isCurrent(anyLong(), anyString(), anyString())).thenReturn(true);
+        broadcaster = new ConfigChangeBroadcaster(redisTemplate, listenerContainer, objectMapper, chainHotReloader,
+                flowConfigService, flowRuleServiceProvider);
+        ReflectionTestUtils.setField(broadcaster, "consistencyCheckSeconds", 300L);
+        ReflectionTestUtils.setField(broadcaster, "gapGraceMs", 50L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void testOutOfOrderBroadcastsAdvanceWatermarkWithoutResync() {
+        // Given
+        when(valueOperations.get(ConfigChangeBroadcaster.VERSION_KEY)).thenReturn("10");
+        broadcaster.start();
+
+        // When: 两个节点并发发布，12 先于 11 到达
+        broadcaster.onMessage(message(12), null);
+        broadcaster.onMessage(message(11), null);
+
+        // Then
+        assertThat(broadcaster.appliedVersion()).isEqualTo(12);
+        verify(flowRuleService, after(300).never()).refreshAllRules();
+    }
+
+    @Test
+    void testMissedBroadcastTriggersResync() {
+        // Given
+        when(valueOperations.get(ConfigChangeBroadcaster.VERSION_KEY)).thenReturn("10", "13");
+        broadcaster.start();
+
+        // When: 12 的广播丢失，之后收到 13
+        broadcaster.onMessage(message(11), null);
+        broadcaster.onMessage(message(13), null);
+
+        // Then: 最大版本号已是 13，但水位停在 11，缺口等待超时后整体比对
+        assertThat(broadcaster.appliedVersion()).isEqualTo(11);
+        verify(flowRuleService, timeout(1000)).refreshAllRules();
+        verify(flowConfigService).clearAllCache();
+
+        // When: 整体比对后水位推进到 13，随后的广播连续
+        broadcaster.onMessage(message(14), null);
+
+        // Then
+        verify(flowRuleService, after(300).times(1)).refreshAllRules();
+        assertThat(broadcaster.appliedVersion()).isEqualTo(14);
+    }
+
+    @Test
+    void testStaleBroadcastKeepsWatermark() {
+        // Given
+        when(valueOperations.get(ConfigChangeBroadcaster.VERSION_KEY)).thenReturn("10");
+        broadcaster.start();
+
+        // When
+        broadcaster.onMessage(message(9), null);
+
+        // Then
+        assertThat(broadcaster.appliedVersion()).isEqualTo(10);
+        verify(flowRuleService, after(300).never()).refreshAllRules();
+    }
+
+    private DefaultMessage message(long version) {
+        ConfigChangeEvent event = ConfigChangeEvent.builder()
+                .version(version)
+                .tenantId(1L)
+                .type(ConfigChangeEvent.Type.CHAIN)
+                .targetId("orderChain")
+                .contentHash("hash-" + version)
+                .source("other-node")
+                .build();
+        try {
+            return new DefaultMessage(ConfigChangeBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    objectMapper.writeValueAsBytes(event));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
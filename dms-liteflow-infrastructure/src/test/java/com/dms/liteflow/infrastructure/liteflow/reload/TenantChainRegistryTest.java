@@ -0,0 +1,97 @@
+package com.dms.liteflow.infrastructure.liteflow.reload;
+
+import com.dms.liteflow.infrastructure.persistence.mapper.FlowChainMapper;
+import com.dms.liteflow.infrastructure.persistence.mapper.RuleComponentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * TenantChainRegistry 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantChainRegistryTest {
+
+    @Mock
+    private FlowChainMapper flowChainMapper;
+
+    @Mock
+    private RuleComponentMapper ruleComponentMapper;
+
+    @Mock
+    private ChainHotReloader chainHotReloader;
+
+    private TenantChainRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TenantChainRegistry(flowChainMapper, ruleComponentMapper, chainHotReloader);
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        ReflectionTestUtils.setField(registry, "maxResidentTenants", 1);
+        ReflectionTestUtils.setField(registry, "maxResidentChains", 5000);
+        when(flowChainMapper.selectPublishedChainsForLiteFlow(anyString(), anyLong())).thenReturn(List.of());
+        when(ruleComponentMapper.selectPublishedComponentsForLiteFlow(anyString(), anyLong())).thenReturn(List.of());
+        when(chainHotReloader.reloadTenant(anyLong(), anyList(), anyMap()))
+                .thenReturn(ChainReloadResult.builder().build());
+        when(chainHotReloader.loadedChainNames(anyLong())).thenReturn(Set.of("orderChain"));
+    }
+
+    @Test
+    void testTenantWithOpenLeaseIsNotEvicted() {
+        // Given: 租户 1 的流程链正在执行
+        TenantChainRegistry.ChainLease lease = registry.acquire(1L, "orderChain");
+        assertThat(lease.getChainId()).isEqualTo("t1__orderChain");
+
+        // When: 租户 2 首次执行，常驻租户超出预算
+        try (TenantChainRegistry.ChainLease other = registry.acquire(2L, "orderChain")) {
+            assertThat(other.getChainId()).isEqualTo("t2__orderChain");
+        }
+
+        // Then: 租户 1 仍常驻，流程链未被移出
+        assertThat(registry.isResident(1L)).isTrue();
+        assertThat(registry.evict(1L)).isFalse();
+        verify(chainHotReloader, never()).unloadTenant(1L);
+
+        // When: 执行结束
+        lease.close();
+
+        // Then
+        assertThat(registry.evict(1L)).isTrue();
+        verify(chainHotReloader).unloadTenant(1L);
+    }
+
+    @Test
+    void testClosingLeaseTwiceReleasesOnce() {
+        // Given
+        TenantChainRegistry.ChainLease first = registry.acquire(1L, "orderChain");
+        TenantChainRegistry.ChainLease second = registry.acquire(1L, "orderChain");
+
+        // When
+        first.close();
+        first.close();
+
+        // Then
+        assertThat(registry.evict(1L)).isFalse();
+        second.close();
+        assertThat(registry.evict(1L)).isTrue();
+    }
+
+    @Test
+    void testGlobalChainDoesNotPinTenant() {
+        // When: 租户下没有该流程链，回退到全局流程链
+        TenantChainRegistry.ChainLease lease = registry.acquire(1L, "globalChain");
+
+        // Then
+        assertThat(lease.getChainId()).isEqualTo("globalChain");
+        assertThat(registry.evict(1L)).isTrue();
+    }
+}
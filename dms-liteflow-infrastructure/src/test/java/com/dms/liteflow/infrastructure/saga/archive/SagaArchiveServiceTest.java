@@ -0,0 +1,170 @@
+package com.dms.liteflow.infrastructure.saga.archive;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.CompensationLogEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.ManualInterventionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.SagaExecutionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.entity.StepExecutionEntity;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.CompensationLogMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.ManualInterventionMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.SagaExecutionMapper;
+import com.dms.liteflow.infrastructure.saga.persistence.mapper.StepExecutionMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaArchiveService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaArchiveServiceTest {
+
+    private static final LocalDateTime BEFORE_TIME = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private SagaExecutionMapper sagaExecutionMapper;
+
+    @Mock
+    private StepExecutionMapper stepExecutionMapper;
+
+    @Mock
+    private CompensationLogMapper compensationLogMapper;
+
+    @Mock
+    private ManualInterventionMapper manualInterventionMapper;
+
+    @TempDir
+    Path archiveDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SagaProperties properties;
+    private SagaArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SagaProperties();
+        properties.getDataCleanup().setArchiveDir(archiveDir.toString());
+        properties.getDataCleanup().setArchiveChunkSize(100);
+        archiveService = new SagaArchiveService(sagaExecutionMapper, stepExecutionMapper, compensationLogMapper,
+                manualInterventionMapper, objectMapper, properties);
+    }
+
+    @Test
+    void testScansIdRangeInChunks() {
+        // Given
+        when(sagaExecutionMapper.selectMinId()).thenReturn(1L);
+        when(sagaExecutionMapper.selectMaxId()).thenReturn(250L);
+        when(sagaExecutionMapper.selectArchivableByIdRange(anyLong(), anyLong(), eq(BEFORE_TIME)))
+                .thenReturn(List.of());
+
+        // When
+        SagaArchiveResult result = archiveService.archive(BEFORE_TIME);
+
+        // Then: (0, 100]、(100, 200]、(200, 250]
+        assertThat(result.getChunks()).isEqualTo(3);
+        verify(sagaExecutionMapper).selectArchivableByIdRange(0L, 100L, BEFORE_TIME);
+        verify(sagaExecutionMapper).selectArchivableByIdRange(100L, 200L, BEFORE_TIME);
+        verify(sagaExecutionMapper).selectArchivableByIdRange(200L, 250L, BEFORE_TIME);
+        verify(sagaExecutionMapper, never()).deleteByIds(anyList());
+    }
+
+    @Test
+    void testChildRowsAreWrittenToFileBeforeDelete() {
+        // Given: 删除会级联删除所有子表
+        givenSingleChunk(execution(7L, "exec-7"));
+        when(stepExecutionMapper.selectByExecutionIds(List.of("exec-7"))).thenReturn(List.of(
+                StepExecutionEntity.builder().executionId("exec-7").stepId("step-1").build()));
+        when(compensationLogMapper.selectByExecutionIds(List.of("exec-7"))).thenReturn(List.of(
+                CompensationLogEntity.builder().executionId("exec-7").stepId("step-1").build()));
+        when(manualInterventionMapper.selectByExecutionIds(List.of("exec-7"))).thenReturn(List.of(
+                ManualInterventionEntity.builder().executionId("exec-7").decision("SKIP").operator("ops").build()));
+        List<List<String>> linesAtDelete = new ArrayList<>();
+        when(sagaExecutionMapper.deleteByIds(List.of(7L))).thenAnswer(invocation -> {
+            linesAtDelete.add(readArchive());
+            return 1;
+        });
+
+        // When
+        SagaArchiveResult result = archiveService.archive(BEFORE_TIME);
+
+        // Then: 删除时归档文件已包含执行、步骤、补偿日志和人工介入记录
+        assertThat(linesAtDelete).hasSize(1);
+        assertThat(linesAtDelete.get(0)).singleElement().satisfies(line -> assertThat(line)
+                .contains("\"executionId\":\"exec-7\"")
+                .contains("\"steps\":[{")
+                .contains("\"compensationLogs\":[{")
+                .contains("\"manualInterventions\":[{")
+                .contains("\"decision\":\"SKIP\""));
+        assertThat(result.getArchived()).isEqualTo(1);
+        assertThat(result.getSteps()).isEqualTo(1);
+        assertThat(result.getCompensationLogs()).isEqualTo(1);
+        assertThat(result.getManualInterventions()).isEqualTo(1);
+    }
+
+    @Test
+    void testChunkIsNotDeletedWhenArchiveWriteFails() throws IOException {
+        // Given: 归档目录不可创建
+        Path blocker = Files.createFile(archiveDir.resolve("blocker"));
+        properties.getDataCleanup().setArchiveDir(blocker.resolve("nested").toString());
+        givenSingleChunk(execution(7L, "exec-7"));
+        when(stepExecutionMapper.selectByExecutionIds(anyList())).thenReturn(List.of());
+        when(compensationLogMapper.selectByExecutionIds(anyList())).thenReturn(List.of());
+        when(manualInterventionMapper.selectByExecutionIds(anyList())).thenReturn(List.of());
+
+        // When
+        SagaArchiveResult result = archiveService.archive(BEFORE_TIME);
+
+        // Then: 数据保持不变，下次重试
+        assertThat(result.getFailedChunks()).isEqualTo(1);
+        assertThat(result.getArchived()).isZero();
+        verify(sagaExecutionMapper, never()).deleteByIds(anyList());
+    }
+
+    private void givenSingleChunk(SagaExecutionEntity execution) {
+        when(sagaExecutionMapper.selectMinId()).thenReturn(execution.getId());
+        when(sagaExecutionMapper.selectMaxId()).thenReturn(execution.getId());
+        when(sagaExecutionMapper.selectArchivableByIdRange(execution.getId() - 1, execution.getId(), BEFORE_TIME))
+                .thenReturn(List.of(execution));
+    }
+
+    private SagaExecutionEntity execution(Long id, String executionId) {
+        return SagaExecutionEntity.builder()
+                .id(id)
+                .executionId(executionId)
+                .status("COMPLETED")
+                .build();
+    }
+
+    private List<String> readArchive() throws IOException {
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            Path file = files.filter(path -> path.getFileName().toString().endsWith(".jsonl.gz"))
+                    .findFirst()
+                    .orElseThrow();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.dms.liteflow.infrastructure.saga.metadata;
+
+import com.dms.liteflow.infrastructure.saga.annotation.CompensationFor;
+import com.dms.liteflow.infrastructure.saga.annotation.SagaMetadata;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompensationDependencyResolver 单元测试
+ */
+class CompensationDependencyResolverTest {
+
+    @Test
+    void testReadsAnnotationsThroughCglibProxy() {
+        // Given: 组件被 CGLIB 代理，注解不在代理类上
+        Object payProxy = cglibProxy(new PayComponent());
+        Object refundProxy = cglibProxy(new RefundComponent());
+        assertThat(AopUtils.isCglibProxy(payProxy)).isTrue();
+        assertThat(payProxy.getClass().getAnnotation(SagaMetadata.class)).isNull();
+        CompensationDependencyResolver resolver = new CompensationDependencyResolver(
+                Map.of("pay", payProxy, "refund", refundProxy)::get);
+
+        // When / Then
+        assertThat(resolver.dependsOn("pay")).containsExactly("reserveStock");
+        assertThat(resolver.compensateAfter("refund")).containsExactly("releaseStock");
+    }
+
+    @Test
+    void testMissingComponentIsResolvedAgainAfterLoading() {
+        // Given
+        Map<String, Object> components = new HashMap<>();
+        CompensationDependencyResolver resolver = new CompensationDependencyResolver(components::get);
+        assertThat(resolver.dependsOn("pay")).isEmpty();
+
+        // When: 组件加载后
+        components.put("pay", new PayComponent());
+
+        // Then
+        assertThat(resolver.dependsOn("pay")).containsExactly("reserveStock");
+    }
+
+    private Object cglibProxy(Object target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        return proxyFactory.getProxy();
+    }
+
+    @SagaMetadata(compensateComponent = "refund", needsCompensation = true, dependsOn = "reserveStock")
+    static class PayComponent {
+    }
+
+    @CompensationFor(value = "pay", after = "releaseStock")
+    static class RefundComponent {
+    }
+}
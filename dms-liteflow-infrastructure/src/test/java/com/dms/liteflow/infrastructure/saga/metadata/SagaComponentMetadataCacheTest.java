@@ -0,0 +1,90 @@
+package com.dms.liteflow.infrastructure.saga.metadata;
+
+import com.dms.liteflow.domain.saga.repository.SagaComponentMetadataRepository;
+import com.dms.liteflow.domain.saga.valueobject.SagaComponentMetadata;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaComponentMetadataCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaComponentMetadataCacheTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private SagaComponentMetadataRepository metadataRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SagaProperties properties;
+    private SagaComponentMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SagaProperties();
+        properties.getMetadataCache().setRedisTtlSeconds(600L);
+        cache = new SagaComponentMetadataCache(metadataRepository, redisTemplate, listenerContainer,
+                new ObjectMapper(), properties);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void testRedisEntryIsWrittenWithTtl() {
+        // Given: Redis 未命中
+        when(metadataRepository.findByTenantIdAndComponentName(TenantId.of(TENANT_ID), "pay"))
+                .thenReturn(Optional.of(SagaComponentMetadata.builder()
+                        .componentName("pay")
+                        .compensateComponent("refund")
+                        .needsCompensation(true)
+                        .build()));
+
+        // When
+        Optional<SagaComponentMetadata> metadata = cache.get(TENANT_ID, "pay");
+
+        // Then
+        assertThat(metadata).map(SagaComponentMetadata::getCompensateComponent).contains("refund");
+        verify(valueOperations).set(eq(SagaRedisKeys.metadataKey(TENANT_ID, "pay")), startsWith("0|"),
+                eq(Duration.ofSeconds(600)));
+        verify(valueOperations, never()).set(anyString(), anyString());
+    }
+
+    @Test
+    void testRedisHitSkipsDatabase() {
+        // Given
+        when(valueOperations.get(SagaRedisKeys.metadataKey(TENANT_ID, "pay")))
+                .thenReturn("0|{\"componentName\":\"pay\",\"compensateComponent\":\"refund\"}");
+
+        // When
+        Optional<SagaComponentMetadata> metadata = cache.get(TENANT_ID, "pay");
+
+        // Then
+        assertThat(metadata).map(SagaComponentMetadata::getCompensateComponent).contains("refund");
+        verifyNoInteractions(metadataRepository);
+    }
+}
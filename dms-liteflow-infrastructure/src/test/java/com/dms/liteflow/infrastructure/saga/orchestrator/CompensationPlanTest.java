@@ -0,0 +1,113 @@
+package com.dms.liteflow.infrastructure.saga.orchestrator;
+
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompensationPlan 单元测试
+ */
+class CompensationPlanTest {
+
+    /**
+     * 执行顺序 reserveStock -> pay -> notify，栈顶在前
+     */
+    private final List<StepExecution> stackTopFirst = List.of(
+            step("notify", "recallNotify"),
+            step("pay", "refund"),
+            step("reserveStock", "releaseStock"));
+
+    @Test
+    void testWithoutDependenciesStepsHaveNoPredecessors() {
+        // When
+        CompensationPlan plan = CompensationPlan.build(stackTopFirst, none(), none());
+
+        // Then: 全部可以并行，拓扑序按执行顺序逆序
+        for (int i = 0; i < plan.size(); i++) {
+            assertThat(plan.predecessors(i)).isEmpty();
+        }
+        assertThat(componentOrder(plan)).containsExactly("notify", "pay", "reserveStock");
+    }
+
+    @Test
+    void testDependentStepIsCompensatedFirst() {
+        // Given: pay 使用了 reserveStock 的结果
+        Function<String, Set<String>> dependsOn = lookup(Map.of("pay", Set.of("reserveStock")));
+
+        // When
+        CompensationPlan plan = CompensationPlan.build(stackTopFirst, dependsOn, none());
+
+        // Then: reserveStock 须等 pay 补偿完成，notify 不受约束
+        assertThat(componentOrder(plan)).containsSubsequence("pay", "reserveStock");
+        assertThat(plan.predecessors(indexOf(plan, "reserveStock"))).containsExactly(indexOf(plan, "pay"));
+        assertThat(plan.predecessors(indexOf(plan, "notify"))).isEmpty();
+    }
+
+    @Test
+    void testCompensateAfterOverridesExecutionOrder() {
+        // Given: 先执行的 reserveStock 的补偿组件声明须在 notify 补偿之后执行，反过来 notify 的补偿须在 pay 之后
+        Function<String, Set<String>> compensateAfter = lookup(Map.of(
+                "releaseStock", Set.of("notify"),
+                "recallNotify", Set.of("pay")));
+
+        // When
+        CompensationPlan plan = CompensationPlan.build(stackTopFirst, none(), compensateAfter);
+
+        // Then
+        assertThat(componentOrder(plan)).containsExactly("pay", "notify", "reserveStock");
+    }
+
+    @Test
+    void testCycleFallsBackToSequentialReverseOrder() {
+        // Given: pay 依赖 reserveStock（pay 先补偿），refund 又声明在 reserveStock 之后（reserveStock 先补偿）
+        Function<String, Set<String>> dependsOn = lookup(Map.of("pay", Set.of("reserveStock")));
+        Function<String, Set<String>> compensateAfter = lookup(Map.of("refund", Set.of("reserveStock")));
+
+        // When
+        CompensationPlan plan = CompensationPlan.build(stackTopFirst, dependsOn, compensateAfter);
+
+        // Then: 每个步骤只依赖后一个执行的步骤
+        assertThat(componentOrder(plan)).containsExactly("notify", "pay", "reserveStock");
+        assertThat(plan.predecessors(indexOf(plan, "reserveStock"))).containsExactly(indexOf(plan, "pay"));
+        assertThat(plan.predecessors(indexOf(plan, "pay"))).containsExactly(indexOf(plan, "notify"));
+    }
+
+    private List<String> componentOrder(CompensationPlan plan) {
+        return plan.topologicalOrder().stream()
+                .map(index -> plan.step(index).getComponentName())
+                .toList();
+    }
+
+    private int indexOf(CompensationPlan plan, String componentName) {
+        for (int i = 0; i < plan.size(); i++) {
+            if (componentName.equals(plan.step(i).getComponentName())) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(componentName);
+    }
+
+    private static Function<String, Set<String>> none() {
+        return name -> Set.of();
+    }
+
+    private static Function<String, Set<String>> lookup(Map<String, Set<String>> values) {
+        return name -> values.getOrDefault(name, Set.of());
+    }
+
+    private static StepExecution step(String componentName, String compensateComponent) {
+        return StepExecution.builder()
+                .stepId(StepId.of(componentName))
+                .componentName(componentName)
+                .compensateComponent(compensateComponent)
+                .needsCompensation(true)
+                .build();
+    }
+}
@@ -0,0 +1,323 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.saga.valueobject.StepStatus;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.dms.liteflow.infrastructure.saga.redis.codec.SagaStateCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * SagaAtomicStateStore 单元测试（Lua 脚本在真实 Redis 上执行）
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SagaAtomicStateStoreTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+
+    private SagaOwnershipLease ownershipLease;
+    private SagaAtomicStateStore store;
+    private String executionId;
+
+    @BeforeAll
+    static void connect() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        redissonClient.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ownershipLease = mock(SagaOwnershipLease.class);
+        store = new SagaAtomicStateStore(redissonClient, objectMapper, ownershipLease,
+                new SagaStateCodec(objectMapper, new SagaProperties()));
+        executionId = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void testPayloadsAreStoredOpaque() {
+        // Given: 超出 2^53 的长整型和空数组（Lua cjson 会丢失精度、把空数组变成空对象）
+        Map<String, Object> input = new HashMap<>();
+        input.put("amount", 9007199254740993L);
+        input.put("items", List.of());
+        Map<String, Object> output = new HashMap<>();
+        output.put("orderId", 1234567890123456789L);
+        output.put("tags", List.of());
+
+        // When
+        long started = store.startStep(executionId, 1L, "orderChain", newStep("step-1", input, false));
+        long completed = store.completeStep(executionId, "step-1", output);
+
+        // Then
+        assertThat(started).isPositive();
+        assertThat(completed).isGreaterThan(started);
+        StepExecution step = store.load(executionId).orElseThrow().getStep(StepId.of("step-1"));
+        assertThat(step.getStatus()).isEqualTo(StepStatus.COMPLETED);
+        assertThat(step.getInputData()).containsEntry("amount", 9007199254740993L);
+        assertThat(step.getInputData().get("items")).isEqualTo(List.of());
+        assertThat(step.getOutputData()).containsEntry("orderId", 1234567890123456789L);
+        assertThat(step.getOutputData().get("tags")).isEqualTo(List.of());
+    }
+
+    @Test
+    void testPayloadsAreEncodedThroughStateCodec() {
+        // When
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", Map.of("amount", 10L), false));
+
+        // Then: 输入数据以带版本的信封存放，标量属性仍为文本
+        byte[] input = redissonClient.<String, byte[]>getMap(SagaRedisKeys.stateStepsKey(executionId),
+                new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE))
+                .get("step-1:inputData");
+        assertThat(SagaStateCodec.isEnvelope(input)).isTrue();
+        assertThat(redissonClient.<String, String>getMap(SagaRedisKeys.stateStepsKey(executionId), StringCodec.INSTANCE)
+                .get("step-1:status")).isEqualTo("RUNNING");
+    }
+
+    @Test
+    void testLegacyJsonPayloadIsStillReadable() {
+        // Given: 旧版本以 JSON 文本写入的步骤
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), false));
+        redissonClient.<String, String>getMap(SagaRedisKeys.stateStepsKey(executionId), StringCodec.INSTANCE)
+                .put("step-1:inputData", "{\"amount\":9007199254740993}");
+
+        // When
+        StepExecution step = store.load(executionId).orElseThrow().getStep(StepId.of("step-1"));
+
+        // Then
+        assertThat(step.getInputData()).containsEntry("amount", 9007199254740993L);
+    }
+
+    @Test
+    void testStartRejectsDuplicateStep() {
+        // Given
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), false));
+
+        // When
+        long revision = store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), false));
+
+        // Then
+        assertThat(revision).isEqualTo(SagaAtomicStateStore.REJECTED);
+        assertThat(store.load(executionId).orElseThrow().getSteps()).hasSize(1);
+    }
+
+    @Test
+    void testFailedStepRejectsCompletionAndFailsExecution() {
+        // Given
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), true));
+
+        // When
+        long failed = store.failStep(executionId, "step-1", "E001", "timeout", "trace");
+        long completed = store.completeStep(executionId, "step-1", new HashMap<>());
+
+        // Then
+        assertThat(failed).isPositive();
+        assertThat(completed).isEqualTo(SagaAtomicStateStore.REJECTED);
+        SagaExecution execution = store.load(executionId).orElseThrow();
+        assertThat(execution.getStatus()).isEqualTo(SagaStatus.FAILED);
+        assertThat(execution.getFailureReason()).isEqualTo("timeout");
+        assertThat(execution.getExecutionStack()).isEmpty();
+        StepExecution step = execution.getStep(StepId.of("step-1"));
+        assertThat(step.getStatus()).isEqualTo(StepStatus.FAILED);
+        assertThat(step.getErrorCode()).isEqualTo("E001");
+        assertThat(step.getStackTrace()).isEqualTo("trace");
+    }
+
+    @Test
+    void testTransitionsOnMissingStateDoNotCreateKeys() {
+        // When
+        long completed = store.completeStep(executionId, "step-1", new HashMap<>());
+        long failed = store.failStep(executionId, "step-1", "E001", "timeout", null);
+        long compensated = store.compensateStep(executionId, "step-1");
+        long written = store.writeStep(executionId, newStep("step-1", new HashMap<>(), true), true);
+        Optional<StepExecution> popped = store.popFromStack(executionId);
+
+        // Then
+        assertThat(List.of(completed, failed, compensated, written)).containsOnly(SagaAtomicStateStore.NOT_FOUND);
+        assertThat(popped).isEmpty();
+        assertThat(redissonClient.getKeys().countExists(SagaRedisKeys.stateKey(executionId),
+                SagaRedisKeys.stateStepsKey(executionId), SagaRedisKeys.stateStackKey(executionId))).isZero();
+    }
+
+    @Test
+    void testPopFromStackRecordsCompensationAndRefreshesTtl() {
+        // Given: 需要补偿的步骤完成后进入补偿栈，运行态即将过期
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), true));
+        store.completeStep(executionId, "step-1", Map.of("orderId", 42L));
+        for (String key : List.of(SagaRedisKeys.stateKey(executionId), SagaRedisKeys.stateStepsKey(executionId),
+                SagaRedisKeys.stateStackKey(executionId))) {
+            redissonClient.getBucket(key).expire(Duration.ofSeconds(5));
+        }
+
+        // When
+        Optional<StepExecution> popped = store.popFromStack(executionId);
+
+        // Then
+        assertThat(popped).isPresent();
+        assertThat(popped.get().getStepId()).isEqualTo(StepId.of("step-1"));
+        assertThat(popped.get().getCompensatedAt()).isNotNull();
+        assertThat(popped.get().getOutputData()).containsEntry("orderId", 42);
+        assertThat(store.popFromStack(executionId)).isEmpty();
+        assertThat(store.compensateStep(executionId, "step-1")).isEqualTo(SagaAtomicStateStore.REJECTED);
+        assertThat(redissonClient.getBucket(SagaRedisKeys.stateKey(executionId)).remainTimeToLive())
+                .isGreaterThan(Duration.ofHours(1).toMillis());
+        assertThat(redissonClient.getBucket(SagaRedisKeys.stateStepsKey(executionId)).remainTimeToLive())
+                .isGreaterThan(Duration.ofHours(1).toMillis());
+    }
+
+    @Test
+    void testRetriedStepIsVisibleAfterReload() {
+        // Given: 步骤失败
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", Map.of("amount", 10L), true));
+        store.failStep(executionId, "step-1", "E001", "timeout", "trace");
+
+        // When: 人工重试成功后写回步骤
+        StepExecution step = store.load(executionId).orElseThrow().getStep(StepId.of("step-1"));
+        step.retry();
+        step.setInputData(Map.of("amount", 20L));
+        step.complete(Map.of("orderId", 42L));
+        long revision = store.writeStep(executionId, step, step.needsCompensation());
+
+        // Then: 重新读取时看到重试结果，需要补偿的步骤进入补偿栈
+        assertThat(revision).isPositive();
+        SagaExecution reloaded = store.load(executionId).orElseThrow();
+        StepExecution retried = reloaded.getStep(StepId.of("step-1"));
+        assertThat(retried.getStatus()).isEqualTo(StepStatus.COMPLETED);
+        assertThat(retried.getErrorCode()).isNull();
+        assertThat(retried.getErrorMessage()).isNull();
+        assertThat(retried.getInputData()).containsEntry("amount", 20);
+        assertThat(retried.getOutputData()).containsEntry("orderId", 42);
+        assertThat(reloaded.getSteps()).hasSize(1);
+        assertThat(reloaded.getExecutionStack()).extracting(StepExecution::getStepId)
+                .containsExactly(StepId.of("step-1"));
+    }
+
+    @Test
+    void testTransitionsMarkExecutionDirtyUntilPersisted() {
+        // Given
+        long started = store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), false));
+        assertThat(store.dirtyRevision(executionId)).isEqualTo(started);
+        assertThat(store.dirtyExecutionIds()).contains(executionId);
+
+        // When: 落库期间又发生迁移
+        long completed = store.completeStep(executionId, "step-1", new HashMap<>());
+        store.clearDirty(executionId, started);
+
+        // Then: 按旧 revision 清除不生效，按最新 revision 清除后移出脏集合
+        assertThat(store.dirtyRevision(executionId)).isEqualTo(completed);
+        store.clearDirty(executionId, completed);
+        assertThat(store.dirtyRevision(executionId)).isNull();
+        assertThat(store.dirtyExecutionIds()).doesNotContain(executionId);
+    }
+
+    @Test
+    void testPopFromStackMarksExecutionDirty() {
+        // Given: 已落库到最新 revision
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), true));
+        long completed = store.completeStep(executionId, "step-1", new HashMap<>());
+        store.clearDirty(executionId, completed);
+        assertThat(store.dirtyRevision(executionId)).isNull();
+
+        // When
+        store.popFromStack(executionId);
+
+        // Then
+        assertThat(store.dirtyRevision(executionId)).isGreaterThan(completed);
+    }
+
+    @Test
+    void testStateKeysShareOneSlot() {
+        // Then: 迁移脚本只访问同一 hash tag 下的 Key，Redis Cluster 下不会 CROSSSLOT
+        int slot = redissonClient.getKeys().getSlot(SagaRedisKeys.stateKey(executionId));
+        assertThat(redissonClient.getKeys().getSlot(SagaRedisKeys.stateStepsKey(executionId))).isEqualTo(slot);
+        assertThat(redissonClient.getKeys().getSlot(SagaRedisKeys.stateStackKey(executionId))).isEqualTo(slot);
+        assertThat(redissonClient.getKeys().getSlot(SagaRedisKeys.leaseFenceKey(executionId))).isEqualTo(slot);
+    }
+
+    @Test
+    void testStaleFenceTokenIsRejected() {
+        // Given: 本节点以 token 1 持有租约，已写入一个需要补偿的步骤
+        when(ownershipLease.fenceToken(executionId)).thenReturn(1L);
+        redissonClient.getBucket(SagaRedisKeys.leaseFenceKey(executionId), StringCodec.INSTANCE).set("1");
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), true));
+        long completed = store.completeStep(executionId, "step-1", new HashMap<>());
+
+        // When: 其他节点接管租约，token 递增为 2
+        redissonClient.getAtomicLong(SagaRedisKeys.leaseFenceKey(executionId)).incrementAndGet();
+
+        // Then: 续约线程发现之前，原持有者的迁移已被脚本拒绝，运行态不变
+        assertThatThrownBy(() -> store.startStep(executionId, 1L, "orderChain",
+                newStep("step-2", new HashMap<>(), false)))
+                .isInstanceOf(SagaAtomicStateStore.FencedException.class);
+        assertThatThrownBy(() -> store.compensateStep(executionId, "step-1"))
+                .isInstanceOf(SagaAtomicStateStore.FencedException.class);
+        assertThatThrownBy(() -> store.popFromStack(executionId))
+                .isInstanceOf(SagaAtomicStateStore.FencedException.class);
+        SagaExecution state = store.load(executionId).orElseThrow();
+        assertThat(state.getSteps()).hasSize(1);
+        assertThat(state.getExecutionStack()).hasSize(1);
+        assertThat(store.dirtyRevision(executionId)).isEqualTo(completed);
+
+        // When: 新持有者以 token 2 写入
+        when(ownershipLease.fenceToken(executionId)).thenReturn(2L);
+
+        // Then
+        assertThat(store.popFromStack(executionId)).isPresent();
+    }
+
+    @Test
+    void testDeleteRemovesDirtyMark() {
+        // Given
+        store.startStep(executionId, 1L, "orderChain", newStep("step-1", new HashMap<>(), false));
+
+        // When
+        store.delete(executionId);
+
+        // Then
+        assertThat(store.load(executionId)).isEmpty();
+        assertThat(store.dirtyRevision(executionId)).isNull();
+    }
+
+    private StepExecution newStep(String stepId, Map<String, Object> input, boolean needsCompensation) {
+        return StepExecution.create(executionId, StepId.of(stepId), "payComponent", input,
+                needsCompensation ? "refundComponent" : null, needsCompensation);
+    }
+}
@@ -0,0 +1,108 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaOwnershipLease 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaOwnershipLeaseTest {
+
+    private static final String EXECUTION_ID = "exec-1";
+
+    @Mock
+    private SagaDistributedLock distributedLock;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SagaOwnershipLease ownershipLease;
+
+    @BeforeEach
+    void setUp() {
+        ownershipLease = new SagaOwnershipLease(distributedLock, redisTemplate, new SagaProperties());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void testAcquireIssuesFenceToken() {
+        // Given
+        when(distributedLock.tryLock(eq(EXECUTION_ID), eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(valueOperations.increment(SagaRedisKeys.leaseFenceKey(EXECUTION_ID))).thenReturn(1L);
+
+        // When
+        SagaOwnershipLease.Lease lease = ownershipLease.acquire(EXECUTION_ID);
+
+        // Then
+        assertThat(lease.getToken()).isEqualTo(1L);
+        assertThat(ownershipLease.fenceToken(EXECUTION_ID)).isEqualTo(1L);
+
+        // When
+        lease.close();
+
+        // Then: 释放后写入不再携带 token
+        assertThat(ownershipLease.fenceToken(EXECUTION_ID)).isZero();
+        verify(distributedLock).unlock(EXECUTION_ID);
+    }
+
+    @Test
+    void testRenewalFencesLeaseTakenOverByAnotherNode() {
+        // Given: 本节点以 token 1 持有租约
+        when(distributedLock.tryLock(eq(EXECUTION_ID), eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(valueOperations.increment(SagaRedisKeys.leaseFenceKey(EXECUTION_ID))).thenReturn(1L);
+        SagaOwnershipLease.Lease lease = ownershipLease.acquire(EXECUTION_ID);
+
+        // When: 其他节点接管，token 递增为 2，续约时发现
+        when(valueOperations.get(SagaRedisKeys.leaseFenceKey(EXECUTION_ID))).thenReturn("2");
+        ReflectionTestUtils.invokeMethod(ownershipLease, "renewAll");
+
+        // Then: 步骤更新被拒绝，写入仍携带原 token 由存储端拒绝
+        assertThatThrownBy(() -> ownershipLease.checkNotFenced(EXECUTION_ID))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ownershipLease.guard(EXECUTION_ID))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(ownershipLease.fenceToken(EXECUTION_ID)).isEqualTo(1L);
+        verify(distributedLock, never()).renewLock(anyString(), anyLong(), any());
+
+        // When
+        lease.close();
+
+        // Then: 锁已属于新持有者，不释放
+        verify(distributedLock, never()).unlock(EXECUTION_ID);
+    }
+
+    @Test
+    void testTakeoverForcesUnlockWhenOwnerDoesNotRelease() {
+        // Given: 原持有者未在等待时间内释放锁
+        when(valueOperations.increment(SagaRedisKeys.leaseFenceKey(EXECUTION_ID))).thenReturn(2L);
+        when(distributedLock.tryLock(eq(EXECUTION_ID), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(false, true);
+
+        // When
+        try (SagaOwnershipLease.Lease lease = ownershipLease.takeover(EXECUTION_ID)) {
+
+            // Then: 先递增 token 再强制释放，接管后的写入携带新 token
+            assertThat(lease.getToken()).isEqualTo(2L);
+            assertThat(ownershipLease.fenceToken(EXECUTION_ID)).isEqualTo(2L);
+            verify(distributedLock).forceUnlock(EXECUTION_ID);
+        }
+    }
+}
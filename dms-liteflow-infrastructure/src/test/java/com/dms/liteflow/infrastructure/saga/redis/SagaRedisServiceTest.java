@@ -0,0 +1,138 @@
+package com.dms.liteflow.infrastructure.saga.redis;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.valueobject.SagaStatus;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.config.SagaRedisKeys;
+import com.dms.liteflow.infrastructure.saga.redis.codec.SagaStateCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SagaRedisService 单元测试（RBatch 在真实 Redis 上执行）
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SagaRedisServiceTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static RedissonClient redissonClient;
+
+    private SagaRedisService redisService;
+
+    @BeforeAll
+    static void connect() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        redissonClient.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        redisService = new SagaRedisService(redissonClient, objectMapper,
+                new SagaStateCodec(objectMapper, new SagaProperties()));
+    }
+
+    @Test
+    void testLegacyStringValueIsReplacedWithHash() {
+        // Given: 旧版本将执行实例整体序列化为字符串
+        SagaExecution execution = newExecution();
+        String executionId = execution.getExecutionId().getValue();
+        String key = SagaRedisKeys.executionKey(TENANT_ID, executionId);
+        redissonClient.getBucket(key, StringCodec.INSTANCE).set("{\"executionId\":\"" + executionId + "\"}");
+
+        // When: 流水线中的 HSET 返回 WRONGTYPE
+        redisService.saveExecution(TENANT_ID, executionId, execution);
+
+        // Then: 删除旧值后重试，写入为 Hash 并设置过期时间
+        assertThat(redissonClient.getKeys().getType(key)).isEqualTo(RType.MAP);
+        assertThat(redissonClient.getKeys().remainTimeToLive(key)).isPositive();
+        SagaExecution loaded = redisService.getExecution(TENANT_ID, executionId);
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getStatus()).isEqualTo(SagaStatus.RUNNING);
+        assertThat(loaded.getSteps()).extracting(StepExecution::getStepId).containsExactly(StepId.of("step-1"));
+        assertThat(loaded.getExecutionStack()).extracting(StepExecution::getStepId)
+                .containsExactly(StepId.of("step-1"));
+    }
+
+    @Test
+    void testWrongTypeRetryKeepsOtherWritesInBatch() throws Exception {
+        // Given: 同一批次写入两个执行实例，其中一个仍是旧格式字符串
+        SagaExecution legacy = newExecution();
+        SagaExecution current = newExecution();
+        String legacyId = legacy.getExecutionId().getValue();
+        String currentId = current.getExecutionId().getValue();
+        redissonClient.getBucket(SagaRedisKeys.executionKey(TENANT_ID, legacyId), StringCodec.INSTANCE)
+                .set("legacy");
+
+        // When
+        redisService.batch()
+                .execution(TENANT_ID, legacyId, legacy)
+                .execution(TENANT_ID, currentId, current)
+                .flush();
+
+        // Then: 重试后两个实例都完整写入
+        assertThat(redisService.getExecution(TENANT_ID, legacyId).getSteps()).hasSize(1);
+        assertThat(redisService.getExecution(TENANT_ID, currentId).getSteps()).hasSize(1);
+    }
+
+    @Test
+    void testStepWriteOverLegacyValueCreatesHash() {
+        // Given
+        SagaExecution execution = newExecution();
+        String executionId = execution.getExecutionId().getValue();
+        String key = SagaRedisKeys.executionKey(TENANT_ID, executionId);
+        redissonClient.getBucket(key, StringCodec.INSTANCE).set("legacy");
+        StepExecution step = execution.getSteps().get(0);
+
+        // When: 只写入单个步骤 field
+        redisService.saveStep(TENANT_ID, executionId, "step-1", step);
+
+        // Then
+        assertThat(redissonClient.getKeys().getType(key)).isEqualTo(RType.MAP);
+        assertThat(redisService.getStep(TENANT_ID, executionId, "step-1").getComponentName())
+                .isEqualTo("payComponent");
+    }
+
+    private SagaExecution newExecution() {
+        SagaExecution execution = SagaExecution.create(TenantId.of(TENANT_ID), "orderChain", new HashMap<>());
+        execution.setStatus(SagaStatus.RUNNING);
+        StepExecution step = StepExecution.create(execution.getExecutionId().getValue(), StepId.of("step-1"),
+                "payComponent", new HashMap<>(), "refundComponent", true);
+        execution.setSteps(List.of(step));
+        execution.setExecutionStack(List.of(step));
+        return execution;
+    }
+}
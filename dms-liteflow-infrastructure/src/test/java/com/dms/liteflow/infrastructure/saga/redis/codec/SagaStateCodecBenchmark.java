@@ -0,0 +1,74 @@
+package com.dms.liteflow.infrastructure.saga.redis.codec;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SagaStateCodec 编码对比基准（不随单元测试运行）
+ * <p>
+ * 比较各编码与压缩组合的编码后大小和编解码耗时，用于选择 saga.redis-codec 配置。
+ * 在 test classpath 下以 main 方法运行，例如 IDE 中直接运行，或
+ * {@code mvn -pl dms-liteflow-infrastructure test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dms.liteflow.infrastructure.saga.redis.codec.SagaStateCodecBenchmark}
+ * </p>
+ */
+public class SagaStateCodecBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURE_ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JavaType mapType = objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, Object.class);
+        Map<String, Map<String, Object>> payloads = Map.of(
+                "small", Map.of("orderId", 1234567890123456789L, "status", "PAID"),
+                "large", SagaStateCodecTest.largeValue());
+
+        System.out.printf("%-6s %-6s %-8s %10s %14s %14s%n", "data", "format", "compress", "bytes", "encode ns/op",
+                "decode ns/op");
+        for (Map.Entry<String, Map<String, Object>> payload : payloads.entrySet()) {
+            for (String format : List.of("json", "smile")) {
+                for (String compression : List.of("none", "deflate")) {
+                    SagaStateCodec codec = codec(objectMapper, format, compression);
+                    byte[] encoded = codec.encode(payload.getValue());
+
+                    run(codec, payload.getValue(), encoded, mapType, WARMUP_ITERATIONS);
+                    long encodeStart = System.nanoTime();
+                    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+                        codec.encode(payload.getValue());
+                    }
+                    long encodeNanos = (System.nanoTime() - encodeStart) / MEASURE_ITERATIONS;
+                    long decodeStart = System.nanoTime();
+                    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+                        codec.decode(encoded, mapType);
+                    }
+                    long decodeNanos = (System.nanoTime() - decodeStart) / MEASURE_ITERATIONS;
+
+                    System.out.printf("%-6s %-6s %-8s %10d %14d %14d%n", payload.getKey(), format, compression,
+                            encoded.length, encodeNanos, decodeNanos);
+                }
+            }
+        }
+    }
+
+    private static void run(SagaStateCodec codec, Map<String, Object> value, byte[] encoded, JavaType type,
+                            int iterations) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            codec.encode(value);
+            codec.decode(encoded, type);
+        }
+    }
+
+    private static SagaStateCodec codec(ObjectMapper objectMapper, String format, String compression) {
+        SagaProperties properties = new SagaProperties();
+        properties.getRedisCodec().setFormat(format);
+        properties.getRedisCodec().setCompression(compression);
+        return new SagaStateCodec(objectMapper, properties);
+    }
+}
@@ -0,0 +1,164 @@
+package com.dms.liteflow.infrastructure.saga.redis.codec;
+
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SagaStateCodec 单元测试
+ */
+class SagaStateCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JavaType mapType;
+
+    @BeforeEach
+    void setUp() {
+        mapType = objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, Object.class);
+    }
+
+    @Test
+    void testRoundTripForEveryFormat() throws IOException {
+        Map<String, Object> value = Map.of("orderId", 1234567890123456789L, "items", List.of(), "note", "订单");
+        for (String format : List.of("smile", "json")) {
+            for (String compression : List.of("deflate", "none")) {
+                // Given
+                SagaStateCodec codec = codec(format, compression, 16);
+
+                // When
+                byte[] encoded = codec.encode(value);
+
+                // Then
+                assertThat(SagaStateCodec.isEnvelope(encoded)).isTrue();
+                assertThat(encoded[1]).isEqualTo(SagaStateCodec.ENVELOPE_VERSION);
+                Map<String, Object> decoded = codec.decode(encoded, mapType);
+                assertThat(decoded).isEqualTo(value);
+            }
+        }
+    }
+
+    @Test
+    void testReaderIgnoresItsOwnWriteFormat() throws IOException {
+        // Given: 滚动发布期间，新节点以 smile + deflate 写入
+        byte[] encoded = codec("smile", "deflate", 16).encode(largeValue());
+
+        // When: 仍配置为 json 的节点读取
+        Map<String, Object> decoded = codec("json", "none", 1024).decode(encoded, mapType);
+
+        // Then
+        assertThat(encoded[3]).isEqualTo(SagaStateCodec.COMPRESSION_DEFLATE);
+        assertThat(decoded).isEqualTo(largeValue());
+    }
+
+    @Test
+    void testLegacyJsonWithoutEnvelopeIsRead() throws IOException {
+        // Given
+        byte[] legacy = "{\"orderId\":42}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Map<String, Object> decoded = codec("smile", "deflate", 1024).decode(legacy, mapType);
+
+        // Then
+        assertThat(SagaStateCodec.isEnvelope(legacy)).isFalse();
+        assertThat(decoded).containsEntry("orderId", 42);
+    }
+
+    @Test
+    void testNewerEnvelopeVersionIsRejected() throws IOException {
+        // Given
+        SagaStateCodec codec = codec("smile", "none", 1024);
+        byte[] encoded = codec.encode(Map.of("orderId", 42));
+        encoded[1] = (byte) (SagaStateCodec.ENVELOPE_VERSION + 1);
+
+        // Then
+        assertThatThrownBy(() -> codec.decode(encoded, mapType))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("envelope version");
+    }
+
+    @Test
+    void testUnknownCodecAndCompressionAreRejected() throws IOException {
+        // Given
+        SagaStateCodec codec = codec("smile", "none", 1024);
+        byte[] unknownCodec = codec.encode(Map.of("orderId", 42));
+        unknownCodec[2] = 99;
+        byte[] unknownCompression = codec.encode(Map.of("orderId", 42));
+        unknownCompression[3] = 99;
+
+        // Then
+        assertThatThrownBy(() -> codec.decode(unknownCodec, mapType))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("codec id");
+        assertThatThrownBy(() -> codec.decode(unknownCompression, mapType))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("compression");
+    }
+
+    @Test
+    void testBadMagicIsNotTreatedAsEnvelope() throws IOException {
+        // Given: 首字节不是魔数，按旧 JSON 文本解析失败
+        byte[] encoded = codec("smile", "none", 1024).encode(Map.of("orderId", 42));
+        encoded[0] = 0;
+
+        // Then
+        assertThat(SagaStateCodec.isEnvelope(encoded)).isFalse();
+        assertThatThrownBy(() -> codec("smile", "none", 1024).decode(encoded, mapType))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testTruncatedCompressedPayloadIsRejected() throws IOException {
+        // Given
+        SagaStateCodec codec = codec("smile", "deflate", 16);
+        byte[] encoded = codec.encode(largeValue());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+        // Then
+        assertThatThrownBy(() -> codec.decode(truncated, mapType)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testSmileWithDeflateIsSmallerThanJson() throws IOException {
+        // When
+        byte[] json = codec("json", "none", 1024).encode(largeValue());
+        byte[] smile = codec("smile", "deflate", 1024).encode(largeValue());
+
+        // Then
+        assertThat(smile.length).isLessThan(json.length / 2);
+    }
+
+    private SagaStateCodec codec(String format, String compression, int threshold) {
+        SagaProperties properties = new SagaProperties();
+        properties.getRedisCodec().setFormat(format);
+        properties.getRedisCodec().setCompression(compression);
+        properties.getRedisCodec().setCompressionThreshold(threshold);
+        return new SagaStateCodec(objectMapper, properties);
+    }
+
+    /**
+     * 典型的步骤输出：重复字段名的对象列表
+     */
+    static Map<String, Object> largeValue() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(Map.of("skuId", 100000 + i, "quantity", i % 5 + 1, "warehouse", "WH-" + (i % 3)));
+        }
+        Map<String, Object> value = new HashMap<>();
+        value.put("orderId", 1234567890123456789L);
+        value.put("items", items);
+        return value;
+    }
+}
@@ -0,0 +1,140 @@
+package com.dms.liteflow.infrastructure.saga.state;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.entity.StepExecution;
+import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.repository.StepExecutionRepository;
+import com.dms.liteflow.domain.saga.valueobject.StepId;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.redis.SagaAtomicStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaStatePersister 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaStatePersisterTest {
+
+    @Mock
+    private SagaAtomicStateStore stateStore;
+
+    @Mock
+    private SagaExecutionRepository sagaExecutionRepository;
+
+    @Mock
+    private StepExecutionRepository stepExecutionRepository;
+
+    private SagaStatePersister persister;
+
+    @BeforeEach
+    void setUp() {
+        persister = new SagaStatePersister(stateStore, sagaExecutionRepository, stepExecutionRepository,
+                new SagaProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecoveredExecutionPersistsAllStepsAndClearsDirtyMark() {
+        // Given: 上次进程退出前未落库的执行实例只留在 Redis 脏集合中
+        SagaExecution execution = executionWithSteps("step-1", "step-2");
+        String executionId = execution.getExecutionId().getValue();
+        when(stateStore.dirtyExecutionIds()).thenReturn(List.of(executionId));
+        when(stateStore.dirtyRevision(executionId)).thenReturn(7L);
+        when(stateStore.load(executionId)).thenReturn(Optional.of(execution));
+
+        // When
+        int recovered = persister.recover();
+        int persisted = persister.flush();
+
+        // Then: 不知道哪些步骤变化，全部步骤连同输入数据写入
+        assertThat(recovered).isEqualTo(1);
+        assertThat(persisted).isEqualTo(1);
+        verify(sagaExecutionRepository).saveSnapshot(execution);
+        ArgumentCaptor<List<StepExecution>> transitions = ArgumentCaptor.forClass(List.class);
+        verify(stepExecutionRepository).appendTransitions(transitions.capture());
+        assertThat(transitions.getValue()).extracting(step -> step.getStepId().getValue())
+                .containsExactly("step-1", "step-2");
+        assertThat(transitions.getValue()).allMatch(step -> step.getInputData() != null);
+        verify(stateStore).clearDirty(executionId, 7L);
+        assertThat(persister.pendingCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDirtyStepPersistsOnlyChangedStep() {
+        // Given
+        SagaExecution execution = executionWithSteps("step-1", "step-2");
+        String executionId = execution.getExecutionId().getValue();
+        when(stateStore.dirtyRevision(executionId)).thenReturn(3L);
+        when(stateStore.load(executionId)).thenReturn(Optional.of(execution));
+        persister.markStepDirty(executionId, "step-2", false);
+
+        // When
+        persister.flush();
+
+        // Then
+        ArgumentCaptor<List<StepExecution>> transitions = ArgumentCaptor.forClass(List.class);
+        verify(stepExecutionRepository).appendTransitions(transitions.capture());
+        assertThat(transitions.getValue()).extracting(step -> step.getStepId().getValue())
+                .containsExactly("step-2");
+        assertThat(transitions.getValue().get(0).getInputData()).isNull();
+        verify(stateStore).clearDirty(executionId, 3L);
+    }
+
+    @Test
+    void testFailedPersistKeepsDirtyMark() {
+        // Given
+        SagaExecution execution = executionWithSteps("step-1");
+        String executionId = execution.getExecutionId().getValue();
+        when(stateStore.dirtyRevision(executionId)).thenReturn(2L);
+        when(stateStore.load(executionId)).thenReturn(Optional.of(execution));
+        doThrow(new IllegalStateException("db down")).when(sagaExecutionRepository).saveSnapshot(execution);
+        persister.markStepDirty(executionId, "step-1", true);
+
+        // When
+        int persisted = persister.flush();
+
+        // Then: 内存中重新排队，Redis 脏标记保留
+        assertThat(persisted).isZero();
+        assertThat(persister.pendingCount()).isEqualTo(1);
+        verify(stateStore, never()).clearDirty(anyString(), anyLong());
+    }
+
+    @Test
+    void testExpiredStateClearsDirtyMark() {
+        // Given
+        when(stateStore.dirtyExecutionIds()).thenReturn(List.of("expired"));
+        when(stateStore.dirtyRevision("expired")).thenReturn(5L);
+        when(stateStore.load("expired")).thenReturn(Optional.empty());
+
+        // When
+        persister.recover();
+        persister.flush();
+
+        // Then
+        verifyNoInteractions(sagaExecutionRepository, stepExecutionRepository);
+        verify(stateStore).clearDirty("expired", 5L);
+    }
+
+    private SagaExecution executionWithSteps(String... stepIds) {
+        SagaExecution execution = SagaExecution.create(TenantId.of(1L), "orderChain", null);
+        for (String stepId : stepIds) {
+            execution.addStep(StepExecution.create(execution.getExecutionId().getValue(), StepId.of(stepId),
+                    "payComponent", Map.of("amount", 10), null, false));
+        }
+        return execution;
+    }
+}
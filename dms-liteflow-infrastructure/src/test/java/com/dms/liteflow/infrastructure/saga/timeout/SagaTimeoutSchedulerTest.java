@@ -0,0 +1,138 @@
+package com.dms.liteflow.infrastructure.saga.timeout;
+
+import com.dms.liteflow.domain.saga.aggregate.SagaExecution;
+import com.dms.liteflow.domain.saga.repository.SagaExecutionRepository;
+import com.dms.liteflow.domain.saga.repository.StepExecutionRepository;
+import com.dms.liteflow.domain.saga.service.SagaStateService;
+import com.dms.liteflow.domain.shared.kernel.valueobject.TenantId;
+import com.dms.liteflow.infrastructure.saga.config.SagaProperties;
+import com.dms.liteflow.infrastructure.saga.metadata.SagaComponentMetadataCache;
+import com.dms.liteflow.infrastructure.saga.redis.SagaAtomicStateStore;
+import com.dms.liteflow.infrastructure.saga.redis.SagaDeadlineIndex;
+import com.dms.liteflow.infrastructure.saga.redis.SagaOwnershipLease;
+import com.dms.liteflow.infrastructure.saga.redis.SagaRedisService;
+import com.dms.liteflow.infrastructure.saga.state.SagaStatePersister;
+import com.dms.liteflow.infrastructure.saga.state.SagaStateServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * SagaTimeoutScheduler 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaTimeoutSchedulerTest {
+
+    @Mock
+    private SagaDeadlineIndex deadlineIndex;
+
+    @Mock
+    private ObjectProvider<SagaStateService> sagaStateServiceProvider;
+
+    @Mock
+    private SagaExecutionRepository sagaExecutionRepository;
+
+    @Mock
+    private StepExecutionRepository stepExecutionRepository;
+
+    @Mock
+    private SagaRedisService sagaRedisService;
+
+    @Mock
+    private SagaOwnershipLease ownershipLease;
+
+    @Mock
+    private SagaAtomicStateStore atomicStateStore;
+
+    @Mock
+    private SagaStatePersister statePersister;
+
+    @Mock
+    private SagaComponentMetadataCache metadataCache;
+
+    private SagaProperties sagaProperties;
+    private SagaTimeoutScheduler timeoutScheduler;
+    private SagaStateServiceImpl sagaStateService;
+
+    @BeforeEach
+    void setUp() {
+        sagaProperties = new SagaProperties();
+        timeoutScheduler = new SagaTimeoutScheduler(deadlineIndex, sagaStateServiceProvider, sagaProperties);
+        timeoutScheduler.start();
+        sagaStateService = new SagaStateServiceImpl(sagaExecutionRepository, stepExecutionRepository,
+                sagaRedisService, ownershipLease, atomicStateStore, statePersister, timeoutScheduler,
+                metadataCache, sagaProperties);
+        lenient().when(sagaExecutionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeoutScheduler.stop();
+    }
+
+    @Test
+    void testQueuedSagaGetsDeadlineWhenStarted() {
+        // Given: 异步提交时以 PENDING 保存，尚未登记截止时间
+        SagaExecution sagaExecution = sagaStateService.saveExecution(
+                SagaExecution.create(TenantId.of(1L), "orderChain", null));
+        String executionId = sagaExecution.getExecutionId().getValue();
+        verify(deadlineIndex, never()).register(any(), any(), anyLong());
+
+        // When: 队列消费者抢占成功后以 RUNNING 保存
+        sagaExecution.start();
+        sagaStateService.saveExecution(sagaExecution);
+
+        // Then: 截止时间 = 开始时间 + 默认超时
+        long expectedDeadline = sagaExecution.getStartedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + sagaProperties.getDefaultTimeoutMs();
+        verify(deadlineIndex).register(1L, executionId, expectedDeadline);
+        assertThat(timeoutScheduler.localTimerCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFinishedSagaRemovesDeadline() {
+        // Given
+        SagaExecution sagaExecution = SagaExecution.create(TenantId.of(1L), "orderChain", null);
+        sagaExecution.start();
+        sagaStateService.saveExecution(sagaExecution);
+
+        // When
+        sagaExecution.complete();
+        sagaStateService.saveExecution(sagaExecution);
+
+        // Then
+        verify(deadlineIndex, atLeastOnce()).remove(1L, sagaExecution.getExecutionId().getValue());
+        assertThat(timeoutScheduler.localTimerCount()).isZero();
+    }
+
+    @Test
+    void testFailedTimeoutHandlingReRegistersDeadline() {
+        // Given: 已到期的执行被本节点抢占，但状态存储不可用
+        SagaStateService failingStateService = mock(SagaStateService.class);
+        when(sagaStateServiceProvider.getObject()).thenReturn(failingStateService);
+        when(failingStateService.getExecution(any())).thenThrow(new RuntimeException("Redis unavailable"));
+        when(deadlineIndex.claimExpired(anyLong(), anyInt())).thenReturn(List.of("1:exec-1"));
+        long before = System.currentTimeMillis();
+
+        // When
+        int timedOut = timeoutScheduler.sweepExpired();
+
+        // Then: 以退避后的截止时间重新登记，不因一次失败丢失超时
+        assertThat(timedOut).isZero();
+        ArgumentCaptor<Long> retryAt = ArgumentCaptor.forClass(Long.class);
+        verify(deadlineIndex).register(eq(1L), eq("exec-1"), retryAt.capture());
+        assertThat(retryAt.getValue()).isGreaterThanOrEqualTo(before + sagaProperties.getDeadline().getRetryBackoffMs());
+    }
+}
@@ -134,6 +134,51 @@ CREATE TABLE IF NOT EXISTS execution_monitoring (
     INDEX idx_chain_execution_id(chain_execution_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='执行监控表';
 
+-- ============================================
+-- 8. 执行统计汇总表 (Monitoring Bounded Context)
+-- ============================================
+CREATE TABLE IF NOT EXISTS execution_stats_hourly (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    tenant_id BIGINT NOT NULL COMMENT '租户ID',
+    chain_id BIGINT NOT NULL DEFAULT 0 COMMENT '流程链ID（0 表示租户维度）',
+    component_id VARCHAR(50) NOT NULL DEFAULT '' COMMENT '组件ID（空串表示租户/流程链维度）',
+    bucket_start DATETIME NOT NULL COMMENT '小时起点',
+    exec_count BIGINT NOT NULL DEFAULT 0 COMMENT '执行次数',
+    failure_count BIGINT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    total_time BIGINT NOT NULL DEFAULT 0 COMMENT '总耗时(ms)',
+    min_time BIGINT NOT NULL DEFAULT 0 COMMENT '最小耗时(ms)',
+    max_time BIGINT NOT NULL DEFAULT 0 COMMENT '最大耗时(ms)',
+    histogram TEXT COMMENT '延迟直方图（稀疏格式 桶序号:计数）',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_dimension_bucket(tenant_id, chain_id, component_id, bucket_start),
+    INDEX idx_bucket_start(bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='执行统计小时汇总表';
+
+CREATE TABLE IF NOT EXISTS execution_stats_daily (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    tenant_id BIGINT NOT NULL COMMENT '租户ID',
+    chain_id BIGINT NOT NULL DEFAULT 0 COMMENT '流程链ID（0 表示租户维度）',
+    component_id VARCHAR(50) NOT NULL DEFAULT '' COMMENT '组件ID（空串表示租户/流程链维度）',
+    bucket_start DATETIME NOT NULL COMMENT '日期起点',
+    exec_count BIGINT NOT NULL DEFAULT 0 COMMENT '执行次数',
+    failure_count BIGINT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    total_time BIGINT NOT NULL DEFAULT 0 COMMENT '总耗时(ms)',
+    min_time BIGINT NOT NULL DEFAULT 0 COMMENT '最小耗时(ms)',
+    max_time BIGINT NOT NULL DEFAULT 0 COMMENT '最大耗时(ms)',
+    histogram TEXT COMMENT '延迟直方图（稀疏格式 桶序号:计数）',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_dimension_bucket(tenant_id, chain_id, component_id, bucket_start),
+    INDEX idx_bucket_start(bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='执行统计日汇总表';
+
+CREATE TABLE IF NOT EXISTS execution_stats_rollup_state (
+    granularity VARCHAR(10) PRIMARY KEY COMMENT '汇总粒度: HOUR/DAY',
+    rolled_up_to DATETIME NOT NULL COMMENT '已汇总到的时间点（不含）',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='执行统计汇总水位表';
+
 -- ============================================
 -- 初始化默认租户数据
 -- ============================================